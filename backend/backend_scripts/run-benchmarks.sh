@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# ===============================
+# Build and run the JMH benchmarks
+# ===============================
+# Usage: ./backend_scripts/run-benchmarks.sh [result-name] [benchmark-regex]
+#   result-name      file name under benchmarks/results (default: current commit hash)
+#   benchmark-regex  JMH include pattern (default: all benchmarks)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RESULT_NAME="${1:-$(git rev-parse --short HEAD)}"
+INCLUDE="${2:-.*}"
+RESULTS_DIR="benchmarks/results"
+mkdir -p "$RESULTS_DIR"
+
+# Install the plain backend jar the benchmarks module depends on
+./mvnw -B -q -Pbenchmarks -DskipTests install
+./mvnw -B -q -f benchmarks/pom.xml clean package
+
+java -jar benchmarks/target/benchmarks.jar "$INCLUDE" \
+  -prof gc \
+  -rf json -rff "$RESULTS_DIR/$RESULT_NAME.json"
+
+if [ -f "$RESULTS_DIR/baseline.json" ] && [ "$RESULT_NAME" != "baseline" ]; then
+  java -cp benchmarks/target/benchmarks.jar com.example.foodflow.benchmark.BenchmarkComparison \
+    "$RESULTS_DIR/baseline.json" "$RESULTS_DIR/$RESULT_NAME.json"
+fi
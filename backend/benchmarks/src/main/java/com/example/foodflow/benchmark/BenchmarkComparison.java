@@ -0,0 +1,111 @@
+package com.example.foodflow.benchmark;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * Compares two JMH JSON result files (for example a committed baseline and a fresh run) and
+ * prints the change in average time and normalized allocation per benchmark.
+ *
+ * Usage: {@code java -cp target/benchmarks.jar com.example.foodflow.benchmark.BenchmarkComparison
+ * results/baseline.json results/current.json [thresholdPercent]}
+ *
+ * Exits with status 1 when any benchmark is slower than the threshold (default 10%) beyond the
+ * combined error margins of both runs.
+ */
+public final class BenchmarkComparison {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private BenchmarkComparison() {
+    }
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+        boolean regressed = false;
+        System.out.printf("%-95s %14s %14s %9s %14s%n", "Benchmark", "Baseline", "Current", "Change", "Alloc B/op");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            String allocation = formatAllocation(before, after);
+            if (before == null) {
+                System.out.printf("%-95s %14s %14.3f %9s %14s  (new, %s)%n",
+                        entry.getKey(), "-", afterScore, "-", allocation, unit);
+                continue;
+            }
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = beforeScore == 0d ? 0d : (afterScore - beforeScore) / beforeScore * 100d;
+            double margin = error(before) + error(after);
+            boolean slower = change > thresholdPercent && afterScore - beforeScore > margin;
+            regressed |= slower;
+            System.out.printf("%-95s %14.3f %14.3f %+8.1f%% %14s  %s%s%n",
+                    entry.getKey(), beforeScore, afterScore, change, allocation, unit,
+                    slower ? "  REGRESSION" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-95s (missing from current run)%n", removed);
+            }
+        }
+        if (regressed) {
+            System.exit(1);
+        }
+    }
+    /**
+     * Key each result by benchmark name plus parameters, so 1k and 100k runs are compared separately.
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.example.foodflow.", ""));
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            fields.forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0d);
+        return Double.isNaN(error) ? 0d : error;
+    }
+    private static String formatAllocation(JsonNode before, JsonNode after) {
+        JsonNode afterAlloc = allocation(after);
+        if (afterAlloc == null) {
+            return "-";
+        }
+        JsonNode beforeAlloc = allocation(before);
+        if (beforeAlloc == null) {
+            return String.format("%.0f", afterAlloc.path("score").asDouble());
+        }
+        return String.format("%.0f->%.0f", beforeAlloc.path("score").asDouble(), afterAlloc.path("score").asDouble());
+    }
+    /**
+     * Normalized allocation from {@code -prof gc}; older JMH versions prefix the metric name with a dot.
+     */
+    private static JsonNode allocation(JsonNode result) {
+        if (result == null) {
+            return null;
+        }
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.foodflow.benchmark;
+import com.example.foodflow.model.entity.PickupSlot;
+import com.example.foodflow.model.entity.ReceiverPreferences;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.types.DietaryTag;
+import com.example.foodflow.model.types.FoodCategory;
+import com.example.foodflow.model.types.FoodType;
+import com.example.foodflow.model.types.Location;
+import com.example.foodflow.model.types.PackagingType;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.model.types.Quantity;
+import com.example.foodflow.model.types.TemperatureCategory;
+import com.example.foodflow.service.ImpactMetricsEngine;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+/**
+ * Deterministic fixtures for the benchmarks.
+ *
+ * Every generator is seeded, so a given size always produces the same data and results from
+ * two commits are comparable. Distributions roughly follow production: most posts have a
+ * food type and temperature, a third carry dietary tags, and donors are clustered around a
+ * handful of cities.
+ */
+public final class BenchmarkFixtures {
+    public static final long SEED = 490L;
+    /** Fixed "now" so time-relative logic does not drift between runs. */
+    public static final LocalDateTime REFERENCE_TIME = LocalDateTime.of(2026, 1, 15, 12, 0);
+    private static final double[][] CITY_CENTERS = {
+            {45.5019, -73.5674}, // Montreal
+            {43.6532, -79.3832}, // Toronto
+            {49.2827, -123.1207}, // Vancouver
+            {46.8139, -71.2080}, // Quebec City
+            {40.7128, -74.0060} // New York
+    };
+    private static final String[] TIMEZONES = {
+            "America/Montreal", "America/Toronto", "America/Vancouver", "Europe/Paris", "Asia/Shanghai", "UTC"
+    };
+    private static final Quantity.Unit[] UNITS = {
+            Quantity.Unit.KILOGRAM, Quantity.Unit.GRAM, Quantity.Unit.POUND, Quantity.Unit.LITER,
+            Quantity.Unit.PORTION, Quantity.Unit.ITEM, Quantity.Unit.BOX, Quantity.Unit.CASE
+    };
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE", "BULK"};
+    private static final String[] WINDOWS = {"MORNING", "AFTERNOON", "EVENING"};
+    private static final Field CREATED_AT = createdAtField();
+    private BenchmarkFixtures() {
+    }
+    public static List<SurplusPost> posts(int count) {
+        Random random = new Random(SEED);
+        List<User> donors = donors(Math.max(count / 20, 1), random);
+        FoodType[] foodTypes = FoodType.values();
+        FoodCategory[] categories = FoodCategory.values();
+        TemperatureCategory[] temperatures = TemperatureCategory.values();
+        PackagingType[] packaging = PackagingType.values();
+        DietaryTag[] tags = DietaryTag.values();
+        List<SurplusPost> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SurplusPost post = new SurplusPost();
+            post.setId((long) i + 1);
+            post.setTitle("Surplus batch " + i);
+            post.setDescription(random.nextInt(4) == 0 ? null : "Fresh surplus from today's service");
+            post.setStatus(PostStatus.AVAILABLE);
+            post.setDonor(donors.get(random.nextInt(donors.size())));
+            post.setFoodType(random.nextInt(10) == 0 ? null : foodTypes[random.nextInt(foodTypes.length)]);
+            post.setTemperatureCategory(random.nextInt(8) == 0 ? null
+                    : temperatures[random.nextInt(temperatures.length)]);
+            post.setPackagingType(random.nextInt(5) == 0 ? null : packaging[random.nextInt(packaging.length)]);
+            Set<FoodCategory> postCategories = EnumSet.noneOf(FoodCategory.class);
+            int categoryCount = 1 + random.nextInt(3);
+            for (int c = 0; c < categoryCount; c++) {
+                postCategories.add(categories[random.nextInt(categories.length)]);
+            }
+            post.setFoodCategories(postCategories);
+            post.setQuantity(new Quantity(1 + random.nextDouble() * 60, UNITS[random.nextInt(UNITS.length)]));
+            post.setPickupLocation(location(random));
+            LocalDateTime createdAt = REFERENCE_TIME.minusMinutes(random.nextInt(60 * 24 * 3));
+            setCreatedAt(post, createdAt);
+            if (random.nextInt(3) != 0) {
+                post.setFabricationDate(createdAt.toLocalDate().minusDays(random.nextInt(3)));
+            }
+            if (random.nextInt(4) != 0) {
+                post.setExpiryDate(REFERENCE_TIME.toLocalDate().plusDays(random.nextInt(14) - 2));
+            } else {
+                post.setExpiryDatePredicted(createdAt.plusHours(12 + random.nextInt(120)));
+            }
+            if (random.nextInt(3) == 0) {
+                int tagCount = 1 + random.nextInt(3);
+                String[] postTags = new String[tagCount];
+                for (int t = 0; t < tagCount; t++) {
+                    postTags[t] = tags[random.nextInt(tags.length)].name();
+                }
+                post.setDietaryTags(postTags);
+            }
+            post.setPickupSlots(pickupSlots(post, random));
+            posts.add(post);
+        }
+        return posts;
+    }
+    public static List<ReceiverPreferences> receiverPreferences(int count) {
+        Random random = new Random(SEED + 1);
+        FoodCategory[] categories = FoodCategory.values();
+        List<ReceiverPreferences> preferences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ReceiverPreferences prefs = new ReceiverPreferences();
+            prefs.setId((long) i + 1);
+            List<String> foodTypes = new ArrayList<>();
+            // A quarter of receivers accept everything
+            if (random.nextInt(4) != 0) {
+                int typeCount = 1 + random.nextInt(6);
+                for (int t = 0; t < typeCount; t++) {
+                    foodTypes.add(categories[random.nextInt(categories.length)].name());
+                }
+            }
+            prefs.setPreferredFoodTypes(foodTypes);
+            prefs.setPreferredDonationSizes(pick(SIZES, random));
+            prefs.setPreferredPickupWindows(pick(WINDOWS, random));
+            prefs.setAcceptRefrigerated(random.nextInt(5) != 0);
+            prefs.setAcceptFrozen(random.nextInt(3) != 0);
+            prefs.setMinQuantity(1 + random.nextInt(5));
+            prefs.setMaxQuantity(20 + random.nextInt(80));
+            preferences.add(prefs);
+        }
+        return preferences;
+    }
+    public static List<Location> locations(int count) {
+        Random random = new Random(SEED + 2);
+        List<Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // A few legacy rows have no coordinates
+            locations.add(random.nextInt(200) == 0 ? new Location(null, null, "Unknown") : location(random));
+        }
+        return locations;
+    }
+    public static List<String> timezones() {
+        return List.of(TIMEZONES);
+    }
+    public static List<ImpactMetricsEngine.DonationImpactRecord> impactRecords(int count) {
+        Random random = new Random(SEED + 3);
+        FoodType[] foodTypes = FoodType.values();
+        List<ImpactMetricsEngine.DonationImpactRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Spread events over the current and previous 30-day windows
+            LocalDateTime eventTime = REFERENCE_TIME.minusMinutes(random.nextInt(60 * 24 * 60));
+            LocalDateTime expiration = eventTime.plusHours(random.nextInt(72) - 6);
+            records.add(new ImpactMetricsEngine.DonationImpactRecord(
+                    String.valueOf(i + 1),
+                    random.nextInt(5) == 0 ? "available" : "picked_up",
+                    random.nextInt(10) == 0 ? null : foodTypes[random.nextInt(foodTypes.length)],
+                    random.nextInt(50) == 0 ? 0d : 0.2d + random.nextDouble() * 40,
+                    eventTime,
+                    random.nextInt(30) == 0 ? null : expiration,
+                    eventTime));
+        }
+        return records;
+    }
+    public static List<Quantity> quantities(int count) {
+        Random random = new Random(SEED + 4);
+        Quantity.Unit[] units = Quantity.Unit.values();
+        List<Quantity> quantities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            quantities.add(new Quantity(0.1 + random.nextDouble() * 100, units[random.nextInt(units.length)]));
+        }
+        return quantities;
+    }
+    private static List<User> donors(int count, Random random) {
+        List<User> donors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User donor = new User();
+            donor.setId((long) i + 1);
+            donor.setTimezone(random.nextInt(6) == 0 ? null : TIMEZONES[random.nextInt(TIMEZONES.length)]);
+            donors.add(donor);
+        }
+        return donors;
+    }
+    private static List<PickupSlot> pickupSlots(SurplusPost post, Random random) {
+        int slotCount = random.nextInt(4);
+        List<PickupSlot> slots = new ArrayList<>(slotCount);
+        LocalDate date = REFERENCE_TIME.toLocalDate().plusDays(random.nextInt(3));
+        for (int s = 0; s < slotCount; s++) {
+            PickupSlot slot = new PickupSlot();
+            slot.setSurplusPost(post);
+            slot.setPickupDate(date);
+            LocalTime start = LocalTime.of(7 + random.nextInt(14), random.nextBoolean() ? 0 : 30);
+            slot.setStartTime(start);
+            slot.setEndTime(start.plusHours(1));
+            slot.setSlotOrder(s + 1);
+            slots.add(slot);
+        }
+        return slots;
+    }
+    private static Location location(Random random) {
+        double[] center = CITY_CENTERS[random.nextInt(CITY_CENTERS.length)];
+        // Roughly +/- 25 km around the city center
+        double latitude = center[0] + (random.nextDouble() - 0.5) * 0.45;
+        double longitude = center[1] + (random.nextDouble() - 0.5) * 0.6;
+        return new Location(latitude, longitude, "Benchmark address", center[0] > 40.8 ? "Canada" : "USA");
+    }
+    private static List<String> pick(String[] values, Random random) {
+        List<String> picked = new ArrayList<>();
+        for (String value : values) {
+            if (random.nextBoolean()) {
+                picked.add(value);
+            }
+        }
+        return picked;
+    }
+    private static void setCreatedAt(SurplusPost post, LocalDateTime createdAt) {
+        try {
+            CREATED_AT.set(post, createdAt);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot set SurplusPost.createdAt", e);
+        }
+    }
+    private static Field createdAtField() {
+        try {
+            Field field = SurplusPost.class.getDeclaredField("createdAt");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("SurplusPost.createdAt not found", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.foodflow.helpers;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import com.example.foodflow.model.types.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Haversine distance and the in-memory distance filter used by notification matching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LocationFilterBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    private List<Location> locations;
+    private Location reference;
+    private LocationFilter withinTenKm;
+    @Setup
+    public void setUp() {
+        locations = BenchmarkFixtures.locations(postCount);
+        reference = new Location(45.5019, -73.5674, "Montreal");
+        withinTenKm = LocationFilter.within(reference, 10.0);
+    }
+    @Benchmark
+    public double distanceTo() {
+        double total = 0d;
+        for (Location location : locations) {
+            if (location.getLatitude() != null) {
+                total += reference.distanceTo(location);
+            }
+        }
+        return total;
+    }
+    @Benchmark
+    public int check() {
+        int matches = 0;
+        for (Location location : locations) {
+            if (withinTenKm.check(location)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
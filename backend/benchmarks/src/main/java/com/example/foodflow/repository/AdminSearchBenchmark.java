@@ -0,0 +1,165 @@
+package com.example.foodflow.repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+/**
+ * Before/after for admin search: the old single-query {@code LIKE '%term%'} joins across users,
+ * organizations and posts against the index-friendly subqueries and ranked trigram/full-text
+ * queries added with V78.
+ *
+ * Needs a real PostgreSQL (pg_trgm and GIN indexes have no H2 equivalent). The benchmark builds
+ * its own tables in a throwaway schema {@code admin_search_bench}, so it can point at the
+ * docker-compose database: set {@code BENCH_PG_URL}, {@code BENCH_PG_USER} and
+ * {@code BENCH_PG_PASSWORD} (environment variables, so the forked JVMs see them too).
+ * {@code indexed=false} runs the same queries without the V78 indexes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class AdminSearchBenchmark {
+    private static final String SCHEMA = "admin_search_bench";
+    @Param({"200000"})
+    public int rowCount;
+    @Param({"false", "true"})
+    public boolean indexed;
+    @Param({"harvest"})
+    public String term;
+    private Connection connection;
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_PG_URL", "jdbc:postgresql://localhost:5432/foodflow"),
+                env("BENCH_PG_USER", "postgres"),
+                env("BENCH_PG_PASSWORD", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL, "
+                    + "role VARCHAR(20) NOT NULL, account_status VARCHAR(20) NOT NULL)");
+            statement.execute("CREATE TABLE organizations (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "name VARCHAR(255) NOT NULL, contact_person VARCHAR(255))");
+            statement.execute("CREATE TABLE surplus_posts (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT, status VARCHAR(30) NOT NULL)");
+            // Word lists keep the data realistic: the search term hits roughly 1 row in 500
+            String words = "ARRAY['fresh','bakery','market','community','green','valley','city','north','river',"
+                    + "'family','kitchen','pantry','food','bank','grocer','farm','deli','cafe','union','metro']";
+            statement.execute("INSERT INTO users SELECT g, 'user' || g || '@' || (" + words + ")[1 + g % 20] "
+                    + "|| CASE WHEN g % 500 = 0 THEN '-" + term + "' ELSE '' END || '.example.org', "
+                    + "CASE WHEN g % 3 = 0 THEN 'RECEIVER' ELSE 'DONOR' END, 'ACTIVE' "
+                    + "FROM generate_series(1, " + rowCount + ") g");
+            statement.execute("INSERT INTO organizations SELECT g, g, initcap((" + words + ")[1 + g % 20] || ' ' "
+                    + "|| (" + words + ")[1 + (g / 20) % 20]) || CASE WHEN g % 499 = 0 THEN ' " + term
+                    + " Co-op' ELSE ' Ltd' END, 'Contact ' || g FROM generate_series(1, " + rowCount + ") g");
+            statement.execute("INSERT INTO surplus_posts SELECT g, 1 + g % " + rowCount + ", "
+                    + "initcap((" + words + ")[1 + g % 20]) || ' surplus #' || g "
+                    + "|| CASE WHEN g % 501 = 0 THEN ' " + term + " boxes' ELSE '' END, "
+                    + "'Pickup at the ' || (" + words + ")[1 + (g / 7) % 20] || ' location, packed and labelled. ' "
+                    + "|| CASE WHEN g % 733 = 0 THEN 'Leftover " + term + " produce.' ELSE '' END, 'AVAILABLE' "
+                    + "FROM generate_series(1, " + rowCount + ") g");
+            if (indexed) {
+                statement.execute("CREATE INDEX ON users USING gin (lower(email) gin_trgm_ops)");
+                statement.execute("CREATE INDEX ON organizations USING gin (lower(name) gin_trgm_ops)");
+                statement.execute("CREATE INDEX ON organizations USING gin (lower(contact_person) gin_trgm_ops)");
+                statement.execute("CREATE INDEX ON organizations (user_id)");
+                statement.execute("CREATE INDEX ON surplus_posts USING gin (lower(title) gin_trgm_ops)");
+                statement.execute("CREATE INDEX ON surplus_posts USING gin (lower(description) gin_trgm_ops)");
+                statement.execute("CREATE INDEX ON surplus_posts USING gin (to_tsvector('simple', "
+                        + "coalesce(title, '') || ' ' || coalesce(description, '')))");
+            }
+            statement.execute("ANALYZE");
+        }
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+    /**
+     * The previous admin user search: one join with the OR across both tables, which can only
+     * be answered by scanning.
+     */
+    @Benchmark
+    public int userSearchJoinedLike() throws SQLException {
+        return count("SELECT u.id FROM users u LEFT JOIN organizations o ON o.user_id = u.id "
+                + "WHERE LOWER(u.email) LIKE ? OR LOWER(o.name) LIKE ? ORDER BY u.id LIMIT 20", 2);
+    }
+    /**
+     * Each table matched in its own uncorrelated subquery, so each can use its trigram index.
+     */
+    @Benchmark
+    public int userSearchSubqueries() throws SQLException {
+        return count("SELECT u.id FROM users u WHERE u.id IN (SELECT su.id FROM users su WHERE LOWER(su.email) LIKE ?) "
+                + "OR u.id IN (SELECT so.user_id FROM organizations so WHERE LOWER(so.name) LIKE ?) "
+                + "ORDER BY u.id LIMIT 20", 2);
+    }
+    @Benchmark
+    public int donationSearchLike() throws SQLException {
+        return count("SELECT p.id FROM surplus_posts p WHERE LOWER(p.title) LIKE ? OR LOWER(p.description) LIKE ? "
+                + "ORDER BY p.id DESC LIMIT 20", 2);
+    }
+    /**
+     * Same shape as SurplusPostRepository.searchRanked: full-text or trigram match, ranked.
+     */
+    @Benchmark
+    public int donationSearchRanked() throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT p.id, ts_rank(to_tsvector('simple', coalesce(p.title, '') || ' ' || coalesce(p.description, '')), "
+                        + "plainto_tsquery('simple', ?)) + similarity(lower(p.title), ?) AS score "
+                        + "FROM surplus_posts p WHERE to_tsvector('simple', coalesce(p.title, '') || ' ' "
+                        + "|| coalesce(p.description, '')) @@ plainto_tsquery('simple', ?) "
+                        + "OR lower(p.title) LIKE ? OR lower(p.description) LIKE ? "
+                        + "ORDER BY score DESC LIMIT 20")) {
+            query.setString(1, term);
+            query.setString(2, term);
+            query.setString(3, term);
+            query.setString(4, "%" + term + "%");
+            query.setString(5, "%" + term + "%");
+            return drain(query);
+        }
+    }
+    private int count(String sql, int patternParameters) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= patternParameters; i++) {
+                query.setString(i, "%" + term + "%");
+            }
+            return drain(query);
+        }
+    }
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+    private static int drain(PreparedStatement query) throws SQLException {
+        int rows = 0;
+        try (ResultSet results = query.executeQuery()) {
+            while (results.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.foodflow.repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+/**
+ * Before/after for the scheduler's timeline writes: one IDENTITY insert per row (what Hibernate
+ * has to do when the id comes back from the insert) against pooled sequence allocation with
+ * JDBC batches of 50 (one sequence call and one batch per 50 rows).
+ *
+ * Runs against in-memory H2 in PostgreSQL mode, so there is no network. {@code roundTripMicros}
+ * adds a fixed delay per statement sent to the database to approximate a real connection; with
+ * it at 0 the result shows the pure driver/engine cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TimelineInsertBenchmark {
+    private static final int BATCH_SIZE = 50;
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 1, 15, 12, 0);
+    @Param({"1000"})
+    public int rowCount;
+    @Param({"0", "200"})
+    public long roundTripMicros;
+    private Connection connection;
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:timeline_bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_timeline (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "surplus_post_id BIGINT NOT NULL, event_type VARCHAR(50) NOT NULL, actor VARCHAR(20) NOT NULL, "
+                    + "timestamp TIMESTAMP NOT NULL, details TEXT)");
+            statement.execute("CREATE SEQUENCE pooled_timeline_id_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+            statement.execute("CREATE TABLE pooled_timeline (id BIGINT PRIMARY KEY, "
+                    + "surplus_post_id BIGINT NOT NULL, event_type VARCHAR(50) NOT NULL, actor VARCHAR(20) NOT NULL, "
+                    + "timestamp TIMESTAMP NOT NULL, details TEXT)");
+        }
+        connection.commit();
+    }
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_timeline");
+            statement.execute("TRUNCATE TABLE pooled_timeline");
+        }
+        connection.commit();
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+    @Benchmark
+    public long identityPerRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_timeline (surplus_post_id, event_type, actor, timestamp, details) "
+                        + "VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rowCount; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                roundTrip();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+    @Benchmark
+    public long pooledSequenceBatched() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT NEXT VALUE FOR pooled_timeline_id_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO pooled_timeline (id, surplus_post_id, event_type, actor, timestamp, details) "
+                             + "VALUES (?, ?, ?, ?, ?, ?)")) {
+            long blockEnd = 0;
+            long nextId = 1;
+            for (int i = 0; i < rowCount; i++) {
+                if (nextId > blockEnd) {
+                    // One sequence call reserves the next BATCH_SIZE ids
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        nextId = block.getLong(1);
+                        blockEnd = nextId + BATCH_SIZE - 1;
+                    }
+                    roundTrip();
+                }
+                lastId = nextId++;
+                insert.setLong(1, lastId);
+                bindFrom(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    roundTrip();
+                }
+            }
+            if (rowCount % BATCH_SIZE != 0) {
+                insert.executeBatch();
+                roundTrip();
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+    private static void bind(PreparedStatement insert, int row) throws SQLException {
+        bindFrom(insert, 1, row);
+    }
+    private static void bindFrom(PreparedStatement insert, int firstIndex, int row) throws SQLException {
+        insert.setLong(firstIndex, row % 500 + 1);
+        insert.setString(firstIndex + 1, "DONATION_EXPIRED");
+        insert.setString(firstIndex + 2, "system");
+        insert.setTimestamp(firstIndex + 3, Timestamp.valueOf(TIMESTAMP));
+        insert.setString(firstIndex + 4, "Expired automatically (effective expiry: " + TIMESTAMP + ")");
+    }
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+}
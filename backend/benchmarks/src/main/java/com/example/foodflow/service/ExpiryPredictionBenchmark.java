@@ -0,0 +1,43 @@
+package com.example.foodflow.service;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import com.example.foodflow.model.entity.SurplusPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Rule-based expiry prediction over a batch of posts, as run on post creation and backfills.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ExpiryPredictionBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    private ExpiryPredictionService service;
+    private List<SurplusPost> posts;
+    @Setup
+    public void setUp() {
+        service = new ExpiryPredictionService();
+        posts = BenchmarkFixtures.posts(postCount);
+    }
+    @Benchmark
+    public void predict(Blackhole blackhole) {
+        for (SurplusPost post : posts) {
+            blackhole.consume(service.predict(post));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.foodflow.service;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import com.example.foodflow.model.types.Quantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Impact dashboard aggregation and the unit conversion it relies on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ImpactMetricsBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    private ImpactMetricsEngine engine;
+    private ImpactCalculationService calculationService;
+    private List<ImpactMetricsEngine.DonationImpactRecord> records;
+    private List<Quantity> quantities;
+    private LocalDateTime periodStart;
+    private LocalDateTime previousPeriodStart;
+    @Setup
+    public void setUp() {
+        engine = new ImpactMetricsEngine();
+        // Default factors only; configuration loading needs the database
+        calculationService = new ImpactCalculationService(null, new ObjectMapper());
+        records = BenchmarkFixtures.impactRecords(postCount);
+        quantities = BenchmarkFixtures.quantities(postCount);
+        periodStart = BenchmarkFixtures.REFERENCE_TIME.minusDays(30);
+        previousPeriodStart = periodStart.minusDays(30);
+    }
+    @Benchmark
+    public ImpactMetricsEngine.ImpactComputationResult computeImpactMetrics() {
+        return engine.computeImpactMetrics(records, periodStart, BenchmarkFixtures.REFERENCE_TIME,
+                previousPeriodStart, periodStart.minusNanos(1));
+    }
+    @Benchmark
+    public double convertToKg() {
+        double total = 0d;
+        for (Quantity quantity : quantities) {
+            total += calculationService.convertToKg(quantity);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.foodflow.service;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import com.example.foodflow.model.entity.ReceiverPreferences;
+import com.example.foodflow.model.entity.SurplusPost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Recommendation scoring of every available post against one receiver's preferences,
+ * which is what the browse page does on each load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RecommendationScoringBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    private RecommendationService service;
+    private List<SurplusPost> posts;
+    private List<ReceiverPreferences> preferences;
+    private int receiverIndex;
+    @Setup
+    public void setUp() {
+        // Scoring is pure; the repositories and metrics are only used by the lookup wrappers
+        service = new RecommendationService(null, null, null);
+        posts = BenchmarkFixtures.posts(postCount);
+        preferences = BenchmarkFixtures.receiverPreferences(64);
+    }
+    @Benchmark
+    public void scoreAllPostsForReceiver(Blackhole blackhole) {
+        ReceiverPreferences receiver = preferences.get(receiverIndex++ & 63);
+        for (SurplusPost post : posts) {
+            blackhole.consume(service.calculateRecommendation(post, receiver));
+        }
+    }
+}
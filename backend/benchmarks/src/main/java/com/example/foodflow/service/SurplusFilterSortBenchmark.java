@@ -0,0 +1,69 @@
+package com.example.foodflow.service;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.types.DietaryMatchMode;
+import com.example.foodflow.model.types.DietaryTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+/**
+ * In-memory dietary filtering and expiry sorting applied to search results after the
+ * database query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SurplusFilterSortBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    @Param({"ANY", "ALL"})
+    public DietaryMatchMode matchMode;
+    private List<SurplusPost> posts;
+    private SurplusFilterRequest dietaryAndSort;
+    private SurplusFilterRequest sortOnly;
+    private Set<String> requestedTags;
+    @Setup
+    public void setUp() {
+        posts = BenchmarkFixtures.posts(postCount);
+        dietaryAndSort = new SurplusFilterRequest();
+        dietaryAndSort.setDietaryTags(List.of(DietaryTag.VEGETARIAN, DietaryTag.HALAL));
+        dietaryAndSort.setDietaryMatch(matchMode);
+        dietaryAndSort.setSort("expiry_asc");
+        sortOnly = new SurplusFilterRequest();
+        sortOnly.setSort("expiry_desc");
+        requestedTags = Set.of(DietaryTag.VEGETARIAN.name(), DietaryTag.HALAL.name());
+    }
+    @Benchmark
+    public List<SurplusPost> filterByDietaryTagsAndSort() {
+        return SurplusService.applyPostFiltersAndSort(posts, dietaryAndSort);
+    }
+    @Benchmark
+    public List<SurplusPost> sortByExpiryOnly() {
+        return SurplusService.applyPostFiltersAndSort(posts, sortOnly);
+    }
+    @Benchmark
+    public int matchDietaryTags() {
+        int matches = 0;
+        for (SurplusPost post : posts) {
+            if (SurplusService.matchesDietaryTags(post.getDietaryTags(), requestedTags, matchMode)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.foodflow.util;
+import com.example.foodflow.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+/**
+ * Pickup slot conversion into the receiver's timezone, done for every slot of every post
+ * in a receiver search response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TimezoneResolverBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int postCount;
+    private LocalDate[] dates;
+    private LocalTime[] times;
+    private String[] fromZones;
+    private String[] toZones;
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        List<String> zones = BenchmarkFixtures.timezones();
+        dates = new LocalDate[postCount];
+        times = new LocalTime[postCount];
+        fromZones = new String[postCount];
+        toZones = new String[postCount];
+        for (int i = 0; i < postCount; i++) {
+            dates[i] = BenchmarkFixtures.REFERENCE_TIME.toLocalDate().plusDays(random.nextInt(7));
+            times[i] = LocalTime.of(random.nextInt(24), random.nextInt(4) * 15);
+            fromZones[i] = "UTC";
+            toZones[i] = zones.get(random.nextInt(zones.size()));
+        }
+    }
+    @Benchmark
+    public void convertDateTime(Blackhole blackhole) {
+        for (int i = 0; i < postCount; i++) {
+            blackhole.consume(TimezoneResolver.convertDateTime(dates[i], times[i], fromZones[i], toZones[i]));
+        }
+    }
+}
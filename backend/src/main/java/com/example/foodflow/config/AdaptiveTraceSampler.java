@@ -0,0 +1,262 @@
+package com.example.foodflow.config;
+import brave.sampler.Sampler;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+/**
+ * Brave sampler that decides per HTTP route instead of tracing every request.
+ *
+ * Brave makes its decision when the root span starts, so {@link com.example.foodflow.filter.TraceSamplingFilter}
+ * asks {@link #begin} for a decision before the request is observed:
+ * <ul>
+ *   <li>health, metrics and static file paths are never traced;</li>
+ *   <li>every other route (method plus the handler mapping pattern it matches) gets a small
+ *       budget of traces per second; paths that match no handler share a single budget, so
+ *       scanners and mistyped URLs cannot push real routes out of the route cache;</li>
+ *   <li>once a route returns a server error or responds slower than the threshold, all of its
+ *       requests are traced for the boost window, so the next failures and slow calls are captured
+ *       in full.</li>
+ * </ul>
+ * Spans started outside a request (scheduler sweeps, async handlers) fall back to
+ * {@code management.tracing.sampling.probability}. Callers that send a sampled trace header are
+ * always honored by Brave before this sampler is consulted. Unsampled requests still get trace
+ * IDs in their log lines.
+ */
+@Component
+public class AdaptiveTraceSampler extends Sampler {
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|(?=.*\\d)[\\w-]{16,}");
+    private static final ThreadLocal<Boolean> REQUEST_DECISION = new ThreadLocal<>();
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+    private static final long MAX_RESOLVED_PATHS = 10_000;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> skipPaths;
+    private final double tracesPerSecondPerRoute;
+    private final long slowThresholdNanos;
+    private final long boostNanos;
+    private final Sampler backgroundSampler;
+    private final Cache<String, RouteBudget> routes;
+    // Collapsed request path -> route; losing an entry only costs matching the path again
+    private final Cache<String, String> resolvedRoutes;
+    private final Supplier<Collection<String>> routePatternSource;
+    private volatile List<PathPattern> routePatterns;
+    private final LongSupplier nanoTime;
+    private final MeterRegistry meterRegistry;
+    private final Counter sampledCounter;
+    private final Counter droppedCounter;
+    private final Counter skippedCounter;
+    @Autowired
+    public AdaptiveTraceSampler(MeterRegistry meterRegistry,
+                                @Value("${tracing.sampling.skip-paths:/actuator/**,/api/files/**,/uploads/**,/favicon.ico}") String skipPaths,
+                                @Value("${tracing.sampling.per-route-per-second:1.0}") double tracesPerSecondPerRoute,
+                                @Value("${tracing.sampling.slow-threshold-ms:1000}") long slowThresholdMs,
+                                @Value("${tracing.sampling.boost-seconds:60}") long boostSeconds,
+                                @Value("${management.tracing.sampling.probability:0.1}") float backgroundProbability,
+                                @Value("${tracing.sampling.max-routes:500}") long maxRoutes,
+                                ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this(meterRegistry, skipPaths, tracesPerSecondPerRoute, slowThresholdMs, boostSeconds, backgroundProbability,
+                maxRoutes, () -> handlerMappings.orderedStream()
+                        .flatMap(mapping -> mapping.getHandlerMethods().keySet().stream())
+                        .flatMap(info -> info.getPatternValues().stream())
+                        .toList(),
+                System::nanoTime);
+    }
+    AdaptiveTraceSampler(MeterRegistry meterRegistry, String skipPaths, double tracesPerSecondPerRoute,
+                         long slowThresholdMs, long boostSeconds, float backgroundProbability, long maxRoutes,
+                         Supplier<Collection<String>> routePatternSource, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.skipPaths = Arrays.stream(skipPaths.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .toList();
+        this.tracesPerSecondPerRoute = tracesPerSecondPerRoute;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.boostNanos = TimeUnit.SECONDS.toNanos(boostSeconds);
+        this.backgroundSampler = Sampler.create(backgroundProbability);
+        this.routes = CacheBuilder.newBuilder()
+                .maximumSize(maxRoutes)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+        this.resolvedRoutes = CacheBuilder.newBuilder()
+                .maximumSize(MAX_RESOLVED_PATHS)
+                .build();
+        this.routePatternSource = routePatternSource;
+        this.nanoTime = nanoTime;
+        this.sampledCounter = requestCounter(meterRegistry, "sampled");
+        this.droppedCounter = requestCounter(meterRegistry, "dropped");
+        this.skippedCounter = requestCounter(meterRegistry, "skipped");
+    }
+    private static Counter requestCounter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("foodflow.tracing.requests")
+                .description("HTTP requests by head sampling decision")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+    /**
+     * Decides whether the request about to start on this thread is traced. The decision holds
+     * until {@link #end} is called on the same thread.
+     *
+     * @return the route key to pass to {@link #end}, or null for a path that is never traced
+     */
+    public String begin(String method, String path) {
+        String route = isSkipped(path) ? null : resolveRoute(method, path);
+        boolean sampled = route != null && budget(route).tryAcquire(nanoTime.getAsLong());
+        REQUEST_DECISION.set(sampled);
+        (route == null ? skippedCounter : sampled ? sampledCounter : droppedCounter).increment();
+        return route;
+    }
+    /**
+     * Records how the request finished and clears this thread's decision. Server errors and slow
+     * responses boost their route so the following requests are traced.
+     */
+    public void end(String route, boolean error, long durationNanos) {
+        boolean sampled = Boolean.TRUE.equals(REQUEST_DECISION.get());
+        REQUEST_DECISION.remove();
+        if (route == null) {
+            return;
+        }
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (!error && !slow) {
+            return;
+        }
+        budget(route).boostUntil(nanoTime.getAsLong() + boostNanos);
+        if (!sampled) {
+            meterRegistry.counter("foodflow.tracing.unsampled_outliers", "reason", error ? "error" : "slow").increment();
+        }
+    }
+    @Override
+    public boolean isSampled(long traceId) {
+        Boolean decision = REQUEST_DECISION.get();
+        return decision != null ? decision : backgroundSampler.isSampled(traceId);
+    }
+    boolean isSkipped(String path) {
+        for (String pattern : skipPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * The route a request counts against: its method and handler pattern, or
+     * {@link #UNMATCHED_ROUTE} when no handler matches. Falls back to the collapsed path when no
+     * handler mappings are available.
+     */
+    String resolveRoute(String method, String path) {
+        String key = routeKey(method, path);
+        List<PathPattern> patterns = routePatterns();
+        if (patterns.isEmpty()) {
+            return key;
+        }
+        try {
+            return resolvedRoutes.get(key, () -> matchRoute(method, path, patterns));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    private static String matchRoute(String method, String path, List<PathPattern> patterns) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return method + ' ' + pattern.getPatternString();
+            }
+        }
+        return UNMATCHED_ROUTE;
+    }
+    /**
+     * Handler patterns, most specific first. Read on the first request, once every handler
+     * mapping has registered its methods.
+     */
+    private List<PathPattern> routePatterns() {
+        List<PathPattern> patterns = routePatterns;
+        if (patterns == null) {
+            patterns = routePatternSource.get().stream()
+                    .distinct()
+                    .map(AdaptiveTraceSampler::parsePattern)
+                    .filter(Objects::nonNull)
+                    .sorted(PathPattern.SPECIFICITY_COMPARATOR)
+                    .toList();
+            routePatterns = patterns;
+        }
+        return patterns;
+    }
+    private static PathPattern parsePattern(String pattern) {
+        try {
+            return PathPatternParser.defaultInstance.parse(pattern);
+        } catch (PatternParseException e) {
+            return null;
+        }
+    }
+    static String routeKey(String method, String path) {
+        StringBuilder route = new StringBuilder(method).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            route.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        if (route.charAt(route.length() - 1) == ' ') {
+            route.append('/');
+        }
+        return route.toString();
+    }
+    private RouteBudget budget(String route) {
+        try {
+            return routes.get(route, () -> new RouteBudget(tracesPerSecondPerRoute, nanoTime.getAsLong()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    /**
+     * Token bucket holding up to one second of trace budget, plus the boost deadline.
+     */
+    private static final class RouteBudget {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+        private volatile long boostedUntil;
+        private RouteBudget(double tracesPerSecond, long now) {
+            this.tokensPerNano = tracesPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1.0, tracesPerSecond);
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.boostedUntil = now;
+        }
+        private synchronized boolean tryAcquire(long now) {
+            if (now - boostedUntil < 0) {
+                return true;
+            }
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+        private void boostUntil(long deadline) {
+            boostedUntil = deadline;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.foodflow.config;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+/**
+ * Runs Spring MVC async work (StreamingResponseBody downloads) on the bounded export pool
+ * instead of the default unbounded executor. Web slices that do not load {@link ExecutorConfig}
+ * keep the default executor.
+ */
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<AsyncTaskExecutor> exportExecutor;
+    private final long timeoutMs;
+    public AsyncWebConfig(@Qualifier(ExecutorConfig.EXPORT_EXECUTOR) ObjectProvider<AsyncTaskExecutor> exportExecutor,
+                          @Value("${export.timeout-ms:300000}") long timeoutMs) {
+        this.exportExecutor = exportExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        exportExecutor.ifAvailable(configurer::setTaskExecutor);
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
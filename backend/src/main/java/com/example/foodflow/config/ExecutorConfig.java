@@ -0,0 +1,109 @@
+package com.example.foodflow.config;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+/**
+ * Dedicated, bounded worker pools for background work.
+ *
+ * Each pool has a fixed thread count and a bounded queue; when the queue is full
+ * submissions are rejected rather than spawning new threads, so callers must treat
+ * rejection as back-pressure and fall back to their durable state.
+ */
+@Configuration
+public class ExecutorConfig {
+    public static final String CALENDAR_SYNC_EXECUTOR = "calendarSyncExecutor";
+    public static final String SMS_DISPATCH_SCHEDULER = "smsDispatchScheduler";
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+    public static final String WEBSOCKET_DELIVERY_SCHEDULER = "websocketDeliveryScheduler";
+    public static final String STRIPE_WEBHOOK_EXECUTOR = "stripeWebhookExecutor";
+    public static final String DOMAIN_EVENT_EXECUTOR = "domainEventExecutor";
+    @Bean(name = CALENDAR_SYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor calendarSyncExecutor(
+            @Value("${calendar.sync.worker-threads:2}") int workerThreads,
+            @Value("${calendar.sync.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return buildBoundedExecutor("calendar-sync-", workerThreads, queueCapacity, meterRegistry);
+    }
+    /**
+     * Scheduler for SMS sends and their delayed retries. The number of queued messages is
+     * bounded by SmsDispatcher (sms.dispatch.max-pending), not by the scheduler itself.
+     */
+    @Bean(name = SMS_DISPATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler smsDispatchScheduler(
+            @Value("${sms.dispatch.threads:2}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("sms-dispatch-");
+        scheduler.setPoolSize(threads);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+        return scheduler;
+    }
+    /**
+     * Processes persisted Stripe webhook events, one payment intent per task. Events are durable
+     * in stripe_webhook_events, so rejected work is picked up again by the queue's drain.
+     */
+    @Bean(name = STRIPE_WEBHOOK_EXECUTOR)
+    public ThreadPoolTaskExecutor stripeWebhookExecutor(
+            @Value("${stripe.webhook.worker-threads:4}") int workerThreads,
+            @Value("${stripe.webhook.queue-capacity:500}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return buildBoundedExecutor("stripe-webhook-", workerThreads, queueCapacity, meterRegistry);
+    }
+    /**
+     * Delivers domain events from the outbox to their handlers, one handler and post per task.
+     * Events are durable in domain_event_outbox, so rejected work is picked up by the drain.
+     */
+    @Bean(name = DOMAIN_EVENT_EXECUTOR)
+    public ThreadPoolTaskExecutor domainEventExecutor(
+            @Value("${domain.events.worker-threads:4}") int workerThreads,
+            @Value("${domain.events.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return buildBoundedExecutor("domain-event-", workerThreads, queueCapacity, meterRegistry);
+    }
+    /**
+     * Flushes coalesced WebSocket frames when their window closes. The actual sends are cheap
+     * hand-offs to the broker, so one thread is enough.
+     */
+    @Bean(name = WEBSOCKET_DELIVERY_SCHEDULER)
+    public ThreadPoolTaskScheduler websocketDeliveryScheduler(
+            @Value("${websocket.delivery.threads:1}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("ws-delivery-");
+        scheduler.setPoolSize(threads);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(5);
+        scheduler.initialize();
+        return scheduler;
+    }
+    /**
+     * Runs streamed report/PDF downloads (Spring MVC async work). Admission is limited
+     * up front by ImpactExportService, so the queue only absorbs short bursts.
+     */
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${export.worker-threads:4}") int workerThreads,
+            @Value("${export.queue-capacity:16}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return buildBoundedExecutor("export-", workerThreads, queueCapacity, meterRegistry);
+    }
+    static ThreadPoolTaskExecutor buildBoundedExecutor(String threadNamePrefix, int threads,
+                                                       int queueCapacity, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(),
+                threadNamePrefix.replaceAll("-$", ""));
+        return executor;
+    }
+}
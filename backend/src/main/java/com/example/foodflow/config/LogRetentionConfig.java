@@ -0,0 +1,69 @@
+package com.example.foodflow.config;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * Configuration properties for the log table partition maintenance and retention job.
+ * Retention is set per table in whole months; a table without a positive value is kept forever.
+ */
+@Component
+@ConfigurationProperties(prefix = "log.retention")
+public class LogRetentionConfig {
+    public enum Mode {
+        /**
+         * Write the partition to a gzip CSV under {@code archiveDir}, then drop it. Only used
+         * when {@code archiveDir} is an absolute path; otherwise partitions stay attached.
+         */
+        EXPORT,
+        /** Only detach the partition; it stays in the database as a standalone table */
+        DETACH
+    }
+    private boolean enabled = true;
+    private int monthsAhead = 3;
+    private Mode mode = Mode.DETACH;
+    private String archiveDir;
+    private int deleteBatchSize = 5000;
+    private Map<String, Integer> months = new HashMap<>();
+    public int retentionMonths(String table) {
+        Integer value = months.get(table);
+        return value == null ? 0 : Math.max(value, 0);
+    }
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+    public Mode getMode() {
+        return mode;
+    }
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    public String getArchiveDir() {
+        return archiveDir;
+    }
+    public void setArchiveDir(String archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+    public int getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+    public void setDeleteBatchSize(int deleteBatchSize) {
+        this.deleteBatchSize = deleteBatchSize;
+    }
+    public Map<String, Integer> getMonths() {
+        return months;
+    }
+    public void setMonths(Map<String, Integer> months) {
+        this.months = months;
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.foodflow.config;
+import io.micrometer.observation.ObservationRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +14,10 @@ public class ModelMapperConfig {
         return new ModelMapper();
     }
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ObservationRegistry observationRegistry) {
+        RestTemplate restTemplate = new RestTemplate();
+        // Outbound calls (Google OAuth and Calendar) become client spans under the caller's trace
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
     }
 }
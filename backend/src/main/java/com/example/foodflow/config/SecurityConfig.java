@@ -14,7 +14,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import com.example.foodflow.security.BoundedPasswordEncoder;
 import com.example.foodflow.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpMethod;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Arrays;
@@ -33,9 +35,22 @@ public class SecurityConfig {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
 
+    /**
+     * BCrypt on a dedicated, bounded pool (see BoundedPasswordEncoder). Raising the strength
+     * takes effect for new hashes immediately; existing hashes are upgraded on the user's next
+     * successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            @Value("${security.password-hashing.retry-after-seconds:2}") int retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity,
+                timeoutMillis, retryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -91,6 +106,7 @@ public class SecurityConfig {
 
                         // Surplus/donation posts
                         .requestMatchers(HttpMethod.POST, "/api/surplus").hasAuthority("DONOR")
+                        .requestMatchers(HttpMethod.POST, "/api/surplus/import").hasAuthority("DONOR")
                         .requestMatchers(HttpMethod.POST, "/api/surplus/*/evidence").hasAuthority("DONOR")
                         .requestMatchers(HttpMethod.DELETE, "/api/surplus/**").hasAuthority("DONOR")
                         .requestMatchers(HttpMethod.GET, "/api/surplus").hasAuthority("RECEIVER")
@@ -0,0 +1,30 @@
+package com.example.foodflow.config;
+import com.example.foodflow.filter.TraceSamplingFilter;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+@Configuration
+public class TracingConfig {
+    /**
+     * Turns {@code @Observed} methods into spans (and timers). Registered on its own rather than
+     * through {@code management.observations.annotations.enabled}, which would also activate the
+     * {@code @Timed} annotations whose names collide with manually recorded timers.
+     */
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+    /**
+     * Runs before the HTTP server observation filter, so the sampling decision is in place when
+     * the request's root span starts.
+     */
+    @Bean
+    public FilterRegistrationBean<TraceSamplingFilter> traceSamplingFilter(AdaptiveTraceSampler sampler) {
+        FilterRegistrationBean<TraceSamplingFilter> registration = new FilterRegistrationBean<>(new TraceSamplingFilter(sampler));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -2,10 +2,12 @@ package com.example.foodflow.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import com.example.foodflow.websocket.JwtHandshakeInterceptor;
 import com.example.foodflow.security.JwtTokenProvider;
 import com.example.foodflow.repository.UserRepository;
@@ -18,6 +20,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final UserRepository userRepository;
     @Value("${spring.web.cors.allowed-origins:http://localhost:3000}")
     private String corsAllowedOrigins;
+    @Value("${websocket.outbound.threads:4}")
+    private int outboundThreads = 4;
+    @Value("${websocket.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity = 1000;
+    @Value("${websocket.send-buffer-size-limit-kb:256}")
+    private int sendBufferSizeLimitKb = 256;
+    @Value("${websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs = 5000;
 
     public WebSocketConfig(JwtTokenProvider jwtTokenProvider, UserRepository userRepository) {
         this.jwtTokenProvider = jwtTokenProvider;
@@ -35,6 +45,23 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Bounded pool so broadcast bursts queue (and eventually reject) instead of growing threads
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Per-session backpressure: a client that cannot keep up is disconnected once its
+        // buffered frames exceed the limit or a send blocks for too long
+        registration.setSendBufferSizeLimit(sendBufferSizeLimitKb * 1024);
+        registration.setSendTimeLimit(sendTimeLimitMs);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Get allowed origins from same config as HTTP CORS
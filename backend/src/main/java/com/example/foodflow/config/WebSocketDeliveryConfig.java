@@ -0,0 +1,39 @@
+package com.example.foodflow.config;
+
+import com.example.foodflow.websocket.PresenceAwareMessagingTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Makes the presence-aware, coalescing template the one services get when they inject
+ * {@link SimpMessagingTemplate}. It reuses the broker template's channel and converter, so
+ * {@code convertAndSend} to topics behaves exactly as before.
+ */
+@Configuration
+public class WebSocketDeliveryConfig {
+
+    @Bean
+    @Primary
+    public PresenceAwareMessagingTemplate presenceAwareMessagingTemplate(
+            @Qualifier("brokerChannel") MessageChannel brokerChannel,
+            @Qualifier("brokerMessagingTemplate") SimpMessagingTemplate brokerMessagingTemplate,
+            SimpUserRegistry userRegistry,
+            @Qualifier(ExecutorConfig.WEBSOCKET_DELIVERY_SCHEDULER) TaskScheduler scheduler,
+            MeterRegistry meterRegistry,
+            @Value("${websocket.delivery.coalesce-window-ms:50}") long coalesceWindowMs,
+            @Value("${websocket.delivery.max-pending-per-user:100}") int maxPendingPerUser) {
+        PresenceAwareMessagingTemplate template = new PresenceAwareMessagingTemplate(
+                brokerChannel, userRegistry, scheduler, meterRegistry, coalesceWindowMs, maxPendingPerUser);
+        template.setMessageConverter(brokerMessagingTemplate.getMessageConverter());
+        template.setUserDestinationPrefix(brokerMessagingTemplate.getUserDestinationPrefix());
+        return template;
+    }
+}
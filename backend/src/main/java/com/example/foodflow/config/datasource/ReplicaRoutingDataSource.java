@@ -0,0 +1,214 @@
+package com.example.foodflow.config.datasource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a healthy read replica
+ * and everything else to the primary.
+ *
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the JPA transaction manager asks for a connection before the read-only flag is bound to the
+ * thread, so the physical connection has to be fetched lazily, on the first statement.
+ *
+ * Replicas are checked on a schedule (connection validity plus replication lag on Postgres) and
+ * skipped while unhealthy; if a replica refuses a connection the read falls back to the primary.
+ * A user who just ran a read-write transaction reads from the primary for a short window so they
+ * see their own writes despite replication lag.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    // Lag is 0 while the replica has replayed everything it received, even if the primary is idle
+    private static final String REPLICATION_LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Cache<String, Boolean> recentWriters;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter readWriteConnections;
+    private final Counter replicaReads;
+    private final Counter readYourWritesReads;
+    private final Counter fallbackReads;
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicaDataSources,
+                                    Duration readYourWritesWindow,
+                                    long maxLagSeconds,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.recentWriters = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(readYourWritesWindow.toMillis(), 1), TimeUnit.MILLISECONDS)
+                .maximumSize(100_000)
+                .build();
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            Gauge.builder("foodflow.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 while the read replica is accepting routed reads")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        this.readWriteConnections = routedCounter(meterRegistry, "primary", "read-write");
+        this.replicaReads = routedCounter(meterRegistry, "replica", "read-only");
+        this.readYourWritesReads = routedCounter(meterRegistry, "primary", "read-your-writes");
+        this.fallbackReads = routedCounter(meterRegistry, "primary", "no-healthy-replica");
+    }
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                rememberWriter();
+                readWriteConnections.increment();
+            }
+            return primary.getConnection();
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            readYourWritesReads.increment();
+            return primary.getConnection();
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = nextHealthyReplica();
+            if (replica == null) {
+                break;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Read replica {} refused a connection, marking unhealthy: {}", replica.name, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per pool; routing is the same as for getConnection()
+        return getConnection();
+    }
+    /**
+     * Re-evaluate every replica: reachable, and not lagging more than the configured limit.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = probe(replica);
+            if (healthy != replica.healthy) {
+                log.info("Read replica {} is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+    }
+    /**
+     * Route this user's reads to the primary for the read-your-writes window.
+     */
+    public void markRecentWrite(String user) {
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close read replica pool {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+    private boolean probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return false;
+            }
+            Double lag = replicationLagSeconds(connection);
+            if (lag != null && lag > maxLagSeconds) {
+                log.warn("Read replica {} is {}s behind the primary (limit {}s)", replica.name, lag.longValue(), maxLagSeconds);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Read replica {} health check failed: {}", replica.name, e.getMessage());
+            return false;
+        }
+    }
+    /**
+     * Replication lag in seconds, or null when the database cannot report it (not Postgres).
+     */
+    private Double replicationLagSeconds(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_SQL)) {
+            return resultSet.next() ? resultSet.getDouble(1) : null;
+        } catch (SQLException e) {
+            log.debug("Replication lag not available: {}", e.getMessage());
+            return null;
+        }
+    }
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    private void rememberWriter() {
+        markRecentWrite(currentUser());
+    }
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("foodflow.datasource.routed")
+                .description("Connections handed out by the read-replica router")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
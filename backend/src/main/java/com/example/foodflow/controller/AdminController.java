@@ -262,7 +262,7 @@ public class AdminController {
     // ========== DONATION MANAGEMENT ENDPOINTS ==========
     /**
      * Get all donations with filtering and pagination
-     * GET /api/admin/donations?status=CLAIMED&donorId=1&receiverId=2&flagged=true&fromDate=2024-01-01&toDate=2024-12-31&search=food&page=0&size=20
+     * GET /api/admin/donations?status=CLAIMED&donorId=1&receiverId=2&flagged=true&fromDate=2024-01-01&toDate=2024-12-31&search=food&includeArchived=true&page=0&size=20
      */
     @GetMapping("/donations")
     public ResponseEntity<Page<AdminDonationResponse>> getAllDonations(
@@ -273,13 +273,14 @@ public class AdminController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        log.info("Admin fetching donations - status: {}, donor: {}, receiver: {}, flagged: {}, fromDate: {}, toDate: {}, search: {}", 
-                 status, donorId, receiverId, flagged, fromDate, toDate, search);
+        log.info("Admin fetching donations - status: {}, donor: {}, receiver: {}, flagged: {}, fromDate: {}, toDate: {}, search: {}, includeArchived: {}", 
+                 status, donorId, receiverId, flagged, fromDate, toDate, search, includeArchived);
         try {
             Page<AdminDonationResponse> donations = adminDonationService.getAllDonations(
-                status, donorId, receiverId, flagged, fromDate, toDate, search, page, size
+                status, donorId, receiverId, flagged, fromDate, toDate, search, includeArchived, page, size
             );
             return ResponseEntity.ok(donations);
         } catch (Exception e) {
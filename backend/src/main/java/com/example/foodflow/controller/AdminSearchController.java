@@ -0,0 +1,29 @@
+package com.example.foodflow.controller;
+import com.example.foodflow.model.dto.AdminSearchResponse;
+import com.example.foodflow.service.AdminSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class AdminSearchController {
+    private final AdminSearchService adminSearchService;
+    public AdminSearchController(AdminSearchService adminSearchService) {
+        this.adminSearchService = adminSearchService;
+    }
+    /**
+     * GET /api/admin/search?q=green&limit=10
+     * Ranked users, organizations and donations matching the term, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<AdminSearchResponse> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(adminSearchService.search(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
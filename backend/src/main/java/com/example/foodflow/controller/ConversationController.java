@@ -2,6 +2,7 @@ package com.example.foodflow.controller;
 
 import com.example.foodflow.model.dto.StartPostConversationRequest;
 import com.example.foodflow.model.dto.ConversationResponse;
+import com.example.foodflow.model.dto.MessagePageResponse;
 import com.example.foodflow.model.dto.MessageResponse;
 import com.example.foodflow.model.dto.StartConversationRequest;
 import com.example.foodflow.model.entity.User;
@@ -75,6 +76,36 @@ public class ConversationController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * Get a page of message history, older than the given cursor
+     * 
+     * @param before cursor of the oldest message already loaded (omit for the latest page)
+     * @param limit  messages per page (default 20, max 100)
+     */
+    @GetMapping("/{id}/messages/history")
+    public ResponseEntity<MessagePageResponse> getMessageHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(messageService.getMessageHistory(id, currentUser, before, limit));
+    }
+
+    /**
+     * Get the messages posted after the given cursor, e.g. to resync after a reconnect
+     * 
+     * @param cursor cursor of the last message the client has
+     * @param limit  messages per page (default 20, max 100)
+     */
+    @GetMapping("/{id}/messages/since")
+    public ResponseEntity<MessagePageResponse> getMessagesSince(
+            @PathVariable Long id,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(messageService.getMessagesSince(id, currentUser, cursor, limit));
+    }
+
     /**
      * Mark all messages in a conversation as read
      */
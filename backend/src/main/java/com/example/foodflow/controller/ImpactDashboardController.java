@@ -1,13 +1,15 @@
 package com.example.foodflow.controller;
 
+import com.example.foodflow.model.dto.DonationExportRow;
 import com.example.foodflow.model.dto.ImpactMetricsDTO;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.service.ImpactDashboardService;
-import com.example.foodflow.util.CsvExportUtils;
-import com.example.foodflow.util.PdfExportUtils;
+import com.example.foodflow.service.ImpactExportService;
+import com.example.foodflow.service.StreamingExportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,11 +18,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
 
 /**
  * REST controller for impact dashboard metrics
@@ -32,9 +33,15 @@ public class ImpactDashboardController {
     private static final Logger logger = LoggerFactory.getLogger(ImpactDashboardController.class);
 
     private final ImpactDashboardService impactDashboardService;
+    private final ImpactExportService impactExportService;
+    private final StreamingExportService streamingExportService;
 
-    public ImpactDashboardController(ImpactDashboardService impactDashboardService) {
+    public ImpactDashboardController(ImpactDashboardService impactDashboardService,
+                                     ImpactExportService impactExportService,
+                                     StreamingExportService streamingExportService) {
         this.impactDashboardService = impactDashboardService;
+        this.impactExportService = impactExportService;
+        this.streamingExportService = streamingExportService;
     }
 
     /**
@@ -69,17 +76,19 @@ public class ImpactDashboardController {
     }
 
     /**
-     * Export impact metrics as CSV or PDF
+     * Export impact metrics as CSV or PDF. The report is streamed to the client from the
+     * export pool; with includeDetails=true it also lists every donation in the range.
      */
     @GetMapping("/export")
     @PreAuthorize("hasAnyAuthority('DONOR', 'RECEIVER', 'ADMIN')")
-    public ResponseEntity<byte[]> exportMetrics(
+    public ResponseEntity<StreamingResponseBody> exportMetrics(
             @AuthenticationPrincipal User currentUser,
             @RequestParam(defaultValue = "ALL_TIME") String dateRange,
-            @RequestParam(defaultValue = "csv") String format) {
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean includeDetails) {
 
-        logger.info("GET /api/impact-dashboard/export - userId={}, role={}, dateRange={}, format={}",
-                currentUser.getId(), currentUser.getRole(), dateRange, format);
+        logger.info("GET /api/impact-dashboard/export - userId={}, role={}, dateRange={}, format={}, includeDetails={}",
+                currentUser.getId(), currentUser.getRole(), dateRange, format, includeDetails);
 
         ImpactMetricsDTO metrics;
 
@@ -97,152 +106,47 @@ public class ImpactDashboardController {
                 return ResponseEntity.badRequest().build();
         }
 
-        try {
-            if ("pdf".equalsIgnoreCase(format)) {
-                return exportAsPdf(metrics, dateRange);
-            } else {
-                return exportAsCsv(metrics, dateRange);
+        Iterable<DonationExportRow> detailRows = includeDetails
+                ? impactExportService.donationRows(currentUser, metrics)
+                : Collections.emptyList();
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                if (pdf) {
+                    impactExportService.writePdf(metrics, detailRows, outputStream);
+                } else {
+                    impactExportService.writeCsv(metrics, detailRows, outputStream);
+                }
+            } catch (Exception e) {
+                // Headers are already committed once streaming starts; log and abort the response
+                logger.error("Error generating export for userId={}", currentUser.getId(), e);
+                throw e;
             }
-        } catch (Exception e) {
-            logger.error("Error generating export", e);
-            return ResponseEntity.internalServerError().build();
+        };
+
+        Optional<StreamingResponseBody> admitted =
+                streamingExportService.admit(pdf ? "impact-pdf" : "impact-csv", body);
+        if (admitted.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
         }
-    }
-
-    ResponseEntity<byte[]> exportMetrics(User currentUser, String dateRange) {
-        return exportMetrics(currentUser, dateRange, "csv");
-    }
-
-    private ResponseEntity<byte[]> exportAsCsv(ImpactMetricsDTO metrics, String dateRange) throws Exception {
-        byte[] csvData = generateCsv(metrics);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentType(MediaType.parseMediaType(pdf ? "application/pdf" : "text/csv"));
         headers.setContentDispositionFormData("attachment",
-                "FoodFlow_Impact_Report_" + java.time.LocalDate.now() + ".csv");
+                "FoodFlow_Impact_Report_" + java.time.LocalDate.now() + (pdf ? ".pdf" : ".csv"));
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvData);
+                .body(admitted.get());
     }
 
-    private ResponseEntity<byte[]> exportAsPdf(ImpactMetricsDTO metrics, String dateRange) throws Exception {
-        byte[] pdfData = PdfExportUtils.generatePdf(metrics);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("application/pdf"));
-        headers.setContentDispositionFormData("attachment",
-                "FoodFlow_Impact_Report_" + java.time.LocalDate.now() + ".pdf");
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfData);
+    ResponseEntity<StreamingResponseBody> exportMetrics(User currentUser, String dateRange, String format) {
+        return exportMetrics(currentUser, dateRange, format, false);
     }
 
-    /**
-     * Generate professional CSV content from metrics with FoodFlow branding
-     */
-    private byte[] generateCsv(ImpactMetricsDTO metrics) throws Exception {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(outputStream, true, StandardCharsets.UTF_8);
-
-        writer.println("Metric,Value");
-        String reportTitle = generateReportTitle(metrics.getRole());
-        String dateRangeLabel = CsvExportUtils.formatDateRangeLabel(
-                metrics.getDateRange(), metrics.getStartDate(), metrics.getEndDate());
-
-        CsvExportUtils.writeHeader(writer, reportTitle, LocalDateTime.now(),
-                metrics.getRole(), dateRangeLabel);
-        CsvExportUtils.writeSectionHeader(writer, "Environmental Impact");
-        CsvExportUtils.writeNumericMetric(writer, "Total Food Saved",
-                metrics.getTotalFoodWeightKg(), "kg");
-        CsvExportUtils.writeRangeMetric(writer, "Estimated Meals Provided (Range)",
-                metrics.getMinMealsProvided(), metrics.getMaxMealsProvided());
-        CsvExportUtils.writeNumericMetric(writer, "Estimated Meals Provided (Best Estimate)",
-                metrics.getEstimatedMealsProvided(), "meals");
-        CsvExportUtils.writeNumericMetric(writer, "CO2 Emissions Avoided",
-                metrics.getCo2EmissionsAvoidedKg(), "kg");
-        CsvExportUtils.writeNumericMetric(writer, "Water Conserved",
-                metrics.getWaterSavedLiters(), "liters");
-        CsvExportUtils.writeNumericMetric(writer, "Estimated People Fed",
-                metrics.getPeopleFedEstimate(), "people");
-
-        CsvExportUtils.writeSectionHeader(writer, "Operational Efficiency");
-        if (metrics.getTotalPostsCreated() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "Total Posts Created",
-                    metrics.getTotalPostsCreated(), "");
-        }
-        if (metrics.getTotalDonationsCompleted() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "Total Donations Completed",
-                    metrics.getTotalDonationsCompleted(), "");
-        }
-        if (metrics.getTotalClaimsMade() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "Total Claims Made",
-                    metrics.getTotalClaimsMade(), "");
-        }
-        if (metrics.getDonationCompletionRate() != null) {
-            CsvExportUtils.writePercentageMetric(writer, "Donation Completion Rate",
-                    metrics.getDonationCompletionRate());
-        }
-        if (metrics.getWasteDiversionEfficiencyPercent() != null) {
-            CsvExportUtils.writePercentageMetric(writer, "Waste Diversion Efficiency",
-                    metrics.getWasteDiversionEfficiencyPercent());
-        }
-
-        CsvExportUtils.writeSectionHeader(writer, "Time & Logistics");
-        if (metrics.getMedianClaimTimeHours() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "Median Time to Claim",
-                    metrics.getMedianClaimTimeHours(), "hours");
-        }
-        if (metrics.getP75ClaimTimeHours() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "75th Percentile Time to Claim",
-                    metrics.getP75ClaimTimeHours(), "hours");
-        }
-        if (metrics.getPickupTimelinessRate() != null) {
-            CsvExportUtils.writePercentageMetric(writer, "Pickup Timeliness Rate",
-                    metrics.getPickupTimelinessRate());
-        }
-
-        CsvExportUtils.writeSectionHeader(writer, "Engagement");
-        if (metrics.getActiveDonationDays() != null) {
-            CsvExportUtils.writeNumericMetric(writer, "Active Days with Donations",
-                    metrics.getActiveDonationDays(), "days");
-        }
-
-        if ("ADMIN".equals(metrics.getRole())) {
-            CsvExportUtils.writeSectionHeader(writer, "User Engagement (Platform-wide)");
-            CsvExportUtils.writeNumericMetric(writer, "Active Donors",
-                    metrics.getActiveDonors(), "");
-            CsvExportUtils.writeNumericMetric(writer, "Active Receivers",
-                    metrics.getActiveReceivers(), "");
-            CsvExportUtils.writeNumericMetric(writer, "Repeat Donors",
-                    metrics.getRepeatDonors(), "");
-            CsvExportUtils.writeNumericMetric(writer, "Repeat Receivers",
-                    metrics.getRepeatReceivers(), "");
-        }
-
-        CsvExportUtils.writeMetadataDisclosure(writer,
-                metrics.getFactorVersion(), metrics.getFactorDisclosure());
-        CsvExportUtils.writeFooter(writer);
-
-        writer.flush();
-        return outputStream.toByteArray();
-    }
-
-    private String generateReportTitle(String role) {
-        if (role == null) {
-            return "FoodFlow - Impact Report";
-        }
-
-        switch (role) {
-            case "DONOR":
-                return "FoodFlow - Impact Report: Donor Impact Report";
-            case "RECEIVER":
-                return "FoodFlow - Impact Report: Receiver Impact Report";
-            case "ADMIN":
-                return "FoodFlow - Impact Report: Platform-wide Impact Report";
-            default:
-                return "FoodFlow Impact Report";
-        }
+    ResponseEntity<StreamingResponseBody> exportMetrics(User currentUser, String dateRange) {
+        return exportMetrics(currentUser, dateRange, "csv");
     }
 }
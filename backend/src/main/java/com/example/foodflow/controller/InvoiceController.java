@@ -2,22 +2,29 @@ package com.example.foodflow.controller;
 import com.example.foodflow.model.dto.InvoiceResponse;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.service.InvoiceService;
+import com.example.foodflow.service.StreamingExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.Optional;
 @RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
 @Slf4j
 public class InvoiceController {
     private final InvoiceService invoiceService;
+    private final StreamingExportService streamingExportService;
     @PostMapping("/{paymentId}/invoice")
     public ResponseEntity<InvoiceResponse> generateInvoice(
             @PathVariable Long paymentId,
@@ -44,12 +51,28 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getInvoicesForUser(user, pageable));
     }
     @GetMapping("/invoices/{invoiceId}/download")
-    public ResponseEntity<byte[]> downloadInvoice(
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(
             @PathVariable Long invoiceId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal User user,
+            WebRequest request) {
         InvoiceResponse invoice = invoiceService.getInvoiceByIdForUser(invoiceId, user);
-        byte[] content = invoiceService.downloadInvoice(invoiceId, user);
+        String eTag = invoiceService.invoicePdfETag(invoice);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+        }
+        Optional<StreamingResponseBody> body = streamingExportService.admit("invoice-pdf",
+            outputStream -> invoiceService.writeInvoicePdf(invoice, outputStream));
+        if (body.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .build();
+        }
         return ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
             .header(
                 HttpHeaders.CONTENT_DISPOSITION,
                 ContentDisposition.attachment()
@@ -58,6 +81,6 @@ public class InvoiceController {
                     .toString()
             )
             .contentType(MediaType.APPLICATION_PDF)
-            .body(content);
+            .body(body.get());
     }
 }
@@ -1,6 +1,6 @@
 package com.example.foodflow.controller;
-import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.service.SavedDonationService;
+import com.example.foodflow.service.SurplusFieldSelection;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,9 +34,14 @@ public class SavedDonationController {
        Get All Saved Donations
        */
     @GetMapping
-    public ResponseEntity<List<SurplusResponse>> getSavedDonations() {
+    public ResponseEntity<List<?>> getSavedDonations(@RequestParam(required = false) String fields) {
+        if (fields == null) {
+            return ResponseEntity.ok(
+                    savedDonationService.getSavedDonations()
+            );
+        }
         return ResponseEntity.ok(
-                savedDonationService.getSavedDonations()
+                savedDonationService.getSavedDonations(SurplusFieldSelection.parse(fields))
         );
     }
     /* 
@@ -7,13 +7,17 @@ import com.example.foodflow.model.dto.DonationTimelineDTO;
 import com.example.foodflow.model.dto.ExpiryOverrideRequest;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.dto.SurplusImportResponse;
 import com.example.foodflow.model.dto.UploadEvidenceResponse;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.types.DietaryMatchMode;
 import com.example.foodflow.model.types.DietaryTag;
 import com.example.foodflow.model.types.FoodTaxonomyContract;
 import com.example.foodflow.model.types.FoodType;
+import com.example.foodflow.service.SurplusFieldSelection;
+import com.example.foodflow.service.SurplusImportService;
 import com.example.foodflow.service.SurplusService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,9 +37,11 @@ import java.util.List;
 public class SurplusController {
     private static final Logger logger = LoggerFactory.getLogger(SurplusController.class);
     private final SurplusService surplusService;
+    private final SurplusImportService surplusImportService;
 
-    public SurplusController(SurplusService surplusService) {
+    public SurplusController(SurplusService surplusService, SurplusImportService surplusImportService) {
         this.surplusService = surplusService;
+        this.surplusImportService = surplusImportService;
     }
 
     @PostMapping
@@ -47,12 +53,47 @@ public class SurplusController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk import: the request body is a JSON array of create requests or a CSV file, read as a
+     * stream. Valid rows are posted, invalid ones are reported per row. Times are in
+     * {@code timezone} unless a row sets its own {@code donorTimezone}.
+     */
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, "text/csv" })
+    @PreAuthorize("hasAuthority('DONOR')")
+    public ResponseEntity<SurplusImportResponse> importSurplusPosts(
+            HttpServletRequest request,
+            @RequestParam(required = false) String timezone,
+            @AuthenticationPrincipal User donor) throws IOException {
+        SurplusImportResponse response = surplusImportService.importPosts(request.getInputStream(),
+                SurplusImportService.Format.of(request.getContentType(), null), timezone, donor);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk import of an uploaded {@code .csv} or {@code .json} file.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('DONOR')")
+    public ResponseEntity<SurplusImportResponse> importSurplusPostsFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String timezone,
+            @AuthenticationPrincipal User donor) throws IOException {
+        SurplusImportResponse response = surplusImportService.importPosts(file.getInputStream(),
+                SurplusImportService.Format.of(file.getContentType(), file.getOriginalFilename()), timezone, donor);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/my-posts")
     @PreAuthorize("hasAuthority('DONOR')")
-    public ResponseEntity<List<SurplusResponse>> getMyPosts(
-            @AuthenticationPrincipal User user) {
-        List<SurplusResponse> myPosts = surplusService.getUserSurplusPosts(user);
-        return ResponseEntity.ok(myPosts);
+    public ResponseEntity<List<?>> getMyPosts(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
+        if (fields == null) {
+            return ResponseEntity.ok(surplusService.getUserSurplusPosts(user, includeArchived));
+        }
+        return ResponseEntity.ok(
+                surplusService.getUserSurplusPosts(user, includeArchived, SurplusFieldSelection.parse(fields)));
     }
 
     @GetMapping("/{id}")
@@ -76,11 +117,12 @@ public class SurplusController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('RECEIVER')")
-    public ResponseEntity<List<SurplusResponse>> getAllAvailableSurplus(
+    public ResponseEntity<List<?>> getAllAvailableSurplus(
             @RequestParam(required = false) String foodType,
             @RequestParam(required = false) String dietaryTags,
             @RequestParam(defaultValue = "ANY") String dietaryMatch,
             @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal User receiver) {
         // Use filters if provided, default to available posts.
         SurplusFilterRequest filterRequest = new SurplusFilterRequest();
@@ -89,8 +131,7 @@ public class SurplusController {
         filterRequest.setDietaryTags(parseDietaryTags(dietaryTags));
         filterRequest.setDietaryMatch(parseDietaryMatch(dietaryMatch));
         filterRequest.setSort(sort);
-        List<SurplusResponse> availablePosts = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
-        return ResponseEntity.ok(availablePosts);
+        return ResponseEntity.ok(searchForReceiver(filterRequest, receiver, fields));
     }
 
     /**
@@ -100,21 +141,23 @@ public class SurplusController {
      */
     @PostMapping("/search")
     @PreAuthorize("hasAuthority('RECEIVER')")
-    public ResponseEntity<List<SurplusResponse>> searchSurplusPosts(
+    public ResponseEntity<List<?>> searchSurplusPosts(
             @Valid @RequestBody SurplusFilterRequest filterRequest,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal User receiver) {
-        List<SurplusResponse> filteredPosts = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
-        return ResponseEntity.ok(filteredPosts);
+        return ResponseEntity.ok(searchForReceiver(filterRequest, receiver, fields));
     }
 
     /**
      * Alternative GET endpoint for basic filtering via query parameters.
      * Useful for simple filters without complex objects like Location.
+     * {@code q} adds a keyword search that returns at most {@code limit} ranked results.
+     * {@code fields=card} returns compact cards instead of full responses.
      * Times are converted to receiver's timezone.
      */
     @GetMapping("/search")
     @PreAuthorize("hasAuthority('RECEIVER')")
-    public ResponseEntity<List<SurplusResponse>> searchSurplusPostsViaParams(
+    public ResponseEntity<List<?>> searchSurplusPostsViaParams(
             @RequestParam(required = false) List<String> foodCategories,
             @RequestParam(required = false) String foodType,
             @RequestParam(required = false) String dietaryTags,
@@ -122,9 +165,14 @@ public class SurplusController {
             @RequestParam(required = false) String sort,
             @RequestParam(required = false) String expiryBefore,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal User receiver) {
         // Create filter request from query parameters
         SurplusFilterRequest filterRequest = new SurplusFilterRequest();
+        filterRequest.setQuery(q);
+        filterRequest.setLimit(limit);
         filterRequest.setFoodCategories(foodCategories);
         filterRequest.setFoodTypes(parseFoodTypes(foodType));
         filterRequest.setDietaryTags(parseDietaryTags(dietaryTags));
@@ -139,8 +187,19 @@ public class SurplusController {
                 logger.warn("Invalid expiryBefore format: {}", expiryBefore, e);
             }
         }
-        List<SurplusResponse> filteredPosts = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
-        return ResponseEntity.ok(filteredPosts);
+        return ResponseEntity.ok(searchForReceiver(filterRequest, receiver, fields));
+    }
+
+    /**
+     * Full responses unless the request carries a {@code fields=} selection
+     * (see {@link SurplusFieldSelection}).
+     */
+    private List<?> searchForReceiver(SurplusFilterRequest filterRequest, User receiver, String fields) {
+        if (fields == null) {
+            return surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
+        }
+        return surplusService.searchSurplusPostsForReceiver(filterRequest, receiver,
+                SurplusFieldSelection.parse(fields));
     }
 
     private List<FoodType> parseFoodTypes(String rawFoodType) {
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -218,6 +219,30 @@ public class GlobalExceptionHandler {
                 log.warn("Business exception on {}: {}", request.getRequestURI(), ex.getMessageKey());
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
+        /**
+         * Handle ServiceBusyException (503) with i18n support and a Retry-After header.
+         */
+        @ExceptionHandler(ServiceBusyException.class)
+        public ResponseEntity<ErrorResponse> handleServiceBusyException(
+                        ServiceBusyException ex,
+                        HttpServletRequest request) {
+                Locale locale = resolveLocale(request);
+                String localizedMessage = messageSource.getMessage(
+                                ex.getMessageKey(),
+                                null,
+                                ex.getMessage(),
+                                locale);
+                ErrorResponse errorResponse = new ErrorResponse(
+                                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                                "Service Unavailable",
+                                localizedMessage,
+                                request.getRequestURI());
+                errorResponse.setCode(ex.getMessageKey());
+                log.warn("Service busy on {}: {}", request.getRequestURI(), ex.getMessageKey());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                                .body(errorResponse);
+        }
         /**
          * Handle ResourceNotFoundException with i18n support.
          */
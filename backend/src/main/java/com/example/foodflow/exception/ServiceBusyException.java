@@ -0,0 +1,21 @@
+package com.example.foodflow.exception;
+/**
+ * Exception thrown when a bounded server-side resource is saturated and the request is shed
+ * instead of queued. Results in HTTP 503 Service Unavailable with a Retry-After header.
+ * The message key will be resolved from messages_*.properties files.
+ */
+public class ServiceBusyException extends RuntimeException {
+    private final String messageKey;
+    private final int retryAfterSeconds;
+    public ServiceBusyException(String messageKey, int retryAfterSeconds) {
+        super(messageKey);
+        this.messageKey = messageKey;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    public String getMessageKey() {
+        return messageKey;
+    }
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.foodflow.filter;
+import com.example.foodflow.config.AdaptiveTraceSampler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+/**
+ * Filter that makes the trace sampling decision for a request before its server span starts,
+ * and reports the outcome back to the sampler. Registered ahead of the observation filter.
+ */
+public class TraceSamplingFilter extends OncePerRequestFilter {
+    private final AdaptiveTraceSampler sampler;
+    public TraceSamplingFilter(AdaptiveTraceSampler sampler) {
+        this.sampler = sampler;
+    }
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String route = sampler.begin(request.getMethod(), request.getRequestURI());
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            filterChain.doFilter(request, response);
+            error = response.getStatus() >= 500;
+        } finally {
+            sampler.end(route, error, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.foodflow.model.dto;
+/**
+ * One row of {@link com.example.foodflow.repository.SurplusPostRepository#searchRanked}.
+ */
+public interface AdminDonationSearchHit {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getStatus();
+    Double getScore();
+}
@@ -0,0 +1,45 @@
+package com.example.foodflow.model.dto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+/**
+ * Ranked admin search results. Highlight fields are HTML-escaped text with matches wrapped in
+ * {@code <mark>}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminSearchResponse {
+    private String query;
+    private List<UserResult> users;
+    private List<DonationResult> donations;
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserResult {
+        private Long id;
+        private String email;
+        private String organizationName;
+        private String role;
+        private String accountStatus;
+        private double score;
+        private String emailHighlight;
+        private String organizationNameHighlight;
+    }
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DonationResult {
+        private Long id;
+        private String title;
+        private String status;
+        private double score;
+        private String titleHighlight;
+        private String descriptionSnippet;
+    }
+}
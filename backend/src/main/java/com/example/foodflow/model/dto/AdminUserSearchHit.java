@@ -0,0 +1,13 @@
+package com.example.foodflow.model.dto;
+/**
+ * One row of {@link com.example.foodflow.repository.UserRepository#searchRanked}, read as a
+ * projection so admin search never hydrates full User entities.
+ */
+public interface AdminUserSearchHit {
+    Long getId();
+    String getEmail();
+    String getOrganizationName();
+    String getRole();
+    String getAccountStatus();
+    Double getScore();
+}
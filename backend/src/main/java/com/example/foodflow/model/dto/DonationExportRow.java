@@ -0,0 +1,16 @@
+package com.example.foodflow.model.dto;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.model.types.Quantity;
+import java.time.LocalDateTime;
+/**
+ * Row-level donation detail for impact exports. Read as a JPA projection so exports
+ * never hydrate full SurplusPost entities.
+ */
+public interface DonationExportRow {
+    Long getId();
+    String getTitle();
+    PostStatus getStatus();
+    Double getQuantityValue();
+    Quantity.Unit getQuantityUnit();
+    LocalDateTime getCreatedAt();
+}
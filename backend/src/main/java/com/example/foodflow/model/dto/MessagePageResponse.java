@@ -0,0 +1,46 @@
+package com.example.foodflow.model.dto;
+import java.util.List;
+/**
+ * DTO for a cursor-paginated slice of a conversation.
+ * Messages are oldest first; the cursors bound the slice so clients can page further back
+ * with {@code oldestCursor} or catch up after a reconnect with {@code newestCursor}.
+ */
+public class MessagePageResponse {
+    private List<MessageResponse> messages;
+    private String oldestCursor;
+    private String newestCursor;
+    private boolean hasMore;
+    public MessagePageResponse() {}
+    public MessagePageResponse(List<MessageResponse> messages, String oldestCursor,
+                               String newestCursor, boolean hasMore) {
+        this.messages = messages;
+        this.oldestCursor = oldestCursor;
+        this.newestCursor = newestCursor;
+        this.hasMore = hasMore;
+    }
+    // Getters and Setters
+    public List<MessageResponse> getMessages() {
+        return messages;
+    }
+    public void setMessages(List<MessageResponse> messages) {
+        this.messages = messages;
+    }
+    public String getOldestCursor() {
+        return oldestCursor;
+    }
+    public void setOldestCursor(String oldestCursor) {
+        this.oldestCursor = oldestCursor;
+    }
+    public String getNewestCursor() {
+        return newestCursor;
+    }
+    public void setNewestCursor(String newestCursor) {
+        this.newestCursor = newestCursor;
+    }
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
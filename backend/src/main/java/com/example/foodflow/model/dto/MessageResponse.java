@@ -1,5 +1,6 @@
 package com.example.foodflow.model.dto;
 import com.example.foodflow.model.entity.Message;
+import com.example.foodflow.util.MessageCursor;
 import java.time.LocalDateTime;
 public class MessageResponse {
     private Long id;
@@ -10,6 +11,7 @@ public class MessageResponse {
     private LocalDateTime createdAt;
     private Boolean readStatus;
     private String messageType;
+    private String cursor;
     // Constructors
     public MessageResponse() {}
     public MessageResponse(Message message) {
@@ -23,6 +25,7 @@ public class MessageResponse {
         this.createdAt = message.getCreatedAt();
         this.readStatus = message.getReadStatus();
         this.messageType = message.getMessageType() != null ? message.getMessageType() : "USER";
+        this.cursor = MessageCursor.encode(message);
     }
     // Getters and Setters
     public Long getId() {
@@ -73,4 +76,10 @@ public class MessageResponse {
     public void setMessageType(String messageType) {
         this.messageType = messageType;
     }
+    public String getCursor() {
+        return cursor;
+    }
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.foodflow.model.dto;
+/**
+ * STOMP request for the messages a client missed in a conversation while disconnected
+ */
+public class MessageSyncRequest {
+    private Long conversationId;
+    private String cursor;
+    private Integer limit;
+    public MessageSyncRequest() {}
+    public MessageSyncRequest(Long conversationId, String cursor, Integer limit) {
+        this.conversationId = conversationId;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+    // Getters and Setters
+    public Long getConversationId() {
+        return conversationId;
+    }
+    public void setConversationId(Long conversationId) {
+        this.conversationId = conversationId;
+    }
+    public String getCursor() {
+        return cursor;
+    }
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    public Integer getLimit() {
+        return limit;
+    }
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.foodflow.model.dto;
+import java.time.LocalDate;
+import java.time.LocalTime;
+/**
+ * A pickup slot with its post ID, read alongside {@link SurplusCardRow} for a page of cards.
+ */
+public interface PickupSlotRow {
+    Long getPostId();
+    Long getId();
+    LocalDate getPickupDate();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+    String getNotes();
+    Integer getSlotOrder();
+}
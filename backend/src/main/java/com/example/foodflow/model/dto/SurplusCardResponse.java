@@ -0,0 +1,69 @@
+package com.example.foodflow.model.dto;
+import com.example.foodflow.model.types.DietaryTag;
+import com.example.foodflow.model.types.FoodCategory;
+import com.example.foodflow.model.types.FoodType;
+import com.example.foodflow.model.types.Location;
+import com.example.foodflow.model.types.PackagingType;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.model.types.Quantity;
+import com.example.foodflow.model.types.TemperatureCategory;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+/**
+ * Compact donation card for list endpoints ({@code fields=card}). Property names match
+ * {@link SurplusResponse}, which stays the shape of {@code GET /api/surplus/{id}}; prediction
+ * inputs, submission warnings, impact figures, the OTP and contact details are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurplusCardResponse {
+    /**
+     * The {@link SurplusResponse} properties a card carries.
+     */
+    public static final Set<String> FIELDS = Set.of(
+            "id", "title", "description", "foodCategories", "quantity", "pickupLocation", "expiryDate",
+            "expiryDateActual", "expiryDatePredicted", "expiryDateEffective", "expiryOverridden", "expiringSoon",
+            "expired", "pickupDate", "pickupFrom", "pickupTo", "pickupSlots", "status", "donorName",
+            "donorLogoUrl", "resolvedDonationImageUrl", "createdAt", "temperatureCategory", "packagingType",
+            "foodType", "dietaryTags");
+    private Long id;
+    private String title;
+    private String description;
+    private Set<FoodCategory> foodCategories;
+    private Quantity quantity;
+    private Location pickupLocation;
+    private LocalDate expiryDate;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime expiryDateActual;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime expiryDatePredicted;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime expiryDateEffective;
+    private Boolean expiryOverridden;
+    private Boolean expiringSoon;
+    private Boolean expired;
+    private LocalDate pickupDate;
+    private LocalTime pickupFrom;
+    private LocalTime pickupTo;
+    private List<PickupSlotResponse> pickupSlots;
+    private PostStatus status;
+    private String donorName;
+    private String donorLogoUrl;
+    private String resolvedDonationImageUrl;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime createdAt;
+    private TemperatureCategory temperatureCategory;
+    private PackagingType packagingType;
+    private FoodType foodType;
+    private List<DietaryTag> dietaryTags;
+}
@@ -0,0 +1,104 @@
+package com.example.foodflow.model.dto;
+import com.example.foodflow.model.types.FoodType;
+import com.example.foodflow.model.types.Location;
+import com.example.foodflow.model.types.PackagingType;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.model.types.Quantity;
+import com.example.foodflow.model.types.TemperatureCategory;
+import com.example.foodflow.util.ExpiryDateTimeResolver;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+/**
+ * Constructor projection of the surplus post columns a list card needs, selected by
+ * {@link com.example.foodflow.repository.SurplusCardRepository#findCardRows} without loading
+ * the {@code SurplusPost} entity, its donor or its collections.
+ */
+public class SurplusCardRow {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Quantity quantity;
+    private final Location pickupLocation;
+    private final LocalDate expiryDate;
+    private final LocalDateTime expiryDatePredicted;
+    private final LocalDateTime expiryDateEffective;
+    private final Boolean expiryOverridden;
+    private final LocalDate pickupDate;
+    private final LocalTime pickupFrom;
+    private final LocalTime pickupTo;
+    private final PostStatus status;
+    private final LocalDateTime createdAt;
+    private final TemperatureCategory temperatureCategory;
+    private final PackagingType packagingType;
+    private final FoodType foodType;
+    private final String[] dietaryTags;
+    private final Long donorId;
+    private final String donorTimezone;
+    private final String donorName;
+    private final String donorLogoUrl;
+    public SurplusCardRow(Long id, String title, String description, Quantity quantity, Location pickupLocation,
+            LocalDate expiryDate, LocalDateTime expiryDatePredicted, LocalDateTime expiryDateEffective,
+            Boolean expiryOverridden, LocalDate pickupDate, LocalTime pickupFrom, LocalTime pickupTo,
+            PostStatus status, LocalDateTime createdAt, TemperatureCategory temperatureCategory,
+            PackagingType packagingType, FoodType foodType, String[] dietaryTags, Long donorId,
+            String donorTimezone, String organizationTimezone, String donorName, String donorLogoUrl) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.quantity = quantity;
+        this.pickupLocation = pickupLocation;
+        this.expiryDate = expiryDate;
+        this.expiryDatePredicted = expiryDatePredicted;
+        this.expiryDateEffective = expiryDateEffective;
+        this.expiryOverridden = expiryOverridden;
+        this.pickupDate = pickupDate;
+        this.pickupFrom = pickupFrom;
+        this.pickupTo = pickupTo;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.temperatureCategory = temperatureCategory;
+        this.packagingType = packagingType;
+        this.foodType = foodType;
+        this.dietaryTags = dietaryTags;
+        this.donorId = donorId;
+        this.donorTimezone = ExpiryDateTimeResolver.resolveDonorTimezone(donorTimezone, organizationTimezone);
+        this.donorName = donorName;
+        this.donorLogoUrl = donorLogoUrl;
+    }
+    /**
+     * Expiry date as end of day in the donor's timezone, in UTC.
+     */
+    public LocalDateTime getExpiryDateActual() {
+        return ExpiryDateTimeResolver.donorLocalEndOfDayUtc(expiryDate, donorTimezone);
+    }
+    /**
+     * Same rules as {@link ExpiryDateTimeResolver#resolveEffectiveExpiryUtc(com.example.foodflow.model.entity.SurplusPost)}.
+     */
+    public LocalDateTime getEffectiveExpiryUtc() {
+        return ExpiryDateTimeResolver.resolveEffectiveExpiryUtc(expiryOverridden, expiryDateEffective, expiryDate,
+                donorTimezone, expiryDatePredicted);
+    }
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public Quantity getQuantity() { return quantity; }
+    public Location getPickupLocation() { return pickupLocation; }
+    public LocalDate getExpiryDate() { return expiryDate; }
+    public LocalDateTime getExpiryDatePredicted() { return expiryDatePredicted; }
+    public LocalDateTime getExpiryDateEffective() { return expiryDateEffective; }
+    public Boolean getExpiryOverridden() { return expiryOverridden; }
+    public LocalDate getPickupDate() { return pickupDate; }
+    public LocalTime getPickupFrom() { return pickupFrom; }
+    public LocalTime getPickupTo() { return pickupTo; }
+    public PostStatus getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public TemperatureCategory getTemperatureCategory() { return temperatureCategory; }
+    public PackagingType getPackagingType() { return packagingType; }
+    public FoodType getFoodType() { return foodType; }
+    public String[] getDietaryTags() { return dietaryTags; }
+    public Long getDonorId() { return donorId; }
+    public String getDonorTimezone() { return donorTimezone; }
+    public String getDonorName() { return donorName; }
+    public String getDonorLogoUrl() { return donorLogoUrl; }
+}
@@ -0,0 +1,9 @@
+package com.example.foodflow.model.dto;
+import com.example.foodflow.model.types.FoodCategory;
+/**
+ * One food category of a post, read alongside {@link SurplusCardRow} for a page of cards.
+ */
+public interface SurplusCategoryRow {
+    Long getPostId();
+    FoodCategory getCategory();
+}
@@ -3,13 +3,17 @@ import com.example.foodflow.model.types.Location;
 import com.example.foodflow.model.types.DietaryMatchMode;
 import com.example.foodflow.model.types.DietaryTag;
 import com.example.foodflow.model.types.FoodType;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import java.util.List;
 /**
  * DTO for filtering surplus posts based on various criteria.
  */
 public class SurplusFilterRequest {
+    public static final int DEFAULT_QUERY_LIMIT = 20;
+    public static final int MAX_QUERY_LIMIT = 50;
     /**
      * Food categories to filter by (CONTAINS_ANY logic)
      */
@@ -51,6 +55,18 @@ public class SurplusFilterRequest {
      * Sort mode: expiry_asc or expiry_desc.
      */
     private String sort;
+    /**
+     * Keywords matched against title, description and category labels. When set, results are
+     * ranked by relevance and capped at {@link #limit}.
+     */
+    @Size(max = 200, message = "Search query must be at most 200 characters")
+    private String query;
+    /**
+     * Maximum number of results for a keyword search (default 20).
+     */
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = MAX_QUERY_LIMIT, message = "Limit must be at most " + MAX_QUERY_LIMIT)
+    private Integer limit;
     // Default constructor
     public SurplusFilterRequest() {
         this.status = "AVAILABLE"; // Default to available posts
@@ -125,6 +141,18 @@ public class SurplusFilterRequest {
     public void setSort(String sort) {
         this.sort = sort;
     }
+    public String getQuery() {
+        return query;
+    }
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    public Integer getLimit() {
+        return limit;
+    }
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
     // Utility methods
     public boolean hasFoodCategories() {
         return foodCategories != null && !foodCategories.isEmpty();
@@ -151,6 +179,18 @@ public class SurplusFilterRequest {
     public boolean hasDietaryTags() {
         return dietaryTags != null && !dietaryTags.isEmpty();
     }
+    public boolean hasQuery() {
+        return query != null && !query.trim().isEmpty();
+    }
+    /**
+     * {@link #limit} clamped to 1..{@value #MAX_QUERY_LIMIT}, or the default when unset.
+     */
+    public int resolveLimit() {
+        if (limit == null) {
+            return DEFAULT_QUERY_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_QUERY_LIMIT));
+    }
     @Override
     public String toString() {
         return "SurplusFilterRequest{" +
@@ -160,6 +200,7 @@ public class SurplusFilterRequest {
                 ", userLocation=" + userLocation +
                 ", maxDistanceKm=" + maxDistanceKm +
                 ", status='" + status + '\'' +
+                ", query='" + query + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,38 @@
+package com.example.foodflow.model.dto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+/**
+ * Outcome of a bulk donation import, one entry per data row in file order. Rows are numbered
+ * from 1 (the CSV header is not counted).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurplusImportResponse {
+    private int received;
+    private int created;
+    private int failed;
+    private List<RowResult> rows;
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row;
+        private String status;
+        private Long postId;
+        private String title;
+        private List<RowError> errors;
+    }
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private String field;
+        private String message;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.foodflow.model.dto;
+/**
+ * One row of {@link com.example.foodflow.repository.SurplusPostRepository#searchByKeyword}.
+ */
+public interface SurplusKeywordHit {
+    Long getId();
+    Double getRank();
+}
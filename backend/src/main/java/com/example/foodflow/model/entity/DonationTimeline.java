@@ -6,7 +6,8 @@ import java.time.ZoneOffset;
 @Table(name = "donation_timeline")
 public class DonationTimeline {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "donation_timeline_id_seq")
+    @SequenceGenerator(name = "donation_timeline_id_seq", sequenceName = "donation_timeline_id_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "surplus_post_id", nullable = false)
@@ -6,7 +6,8 @@ import java.time.ZoneOffset;
 @Table(name = "expiry_notification_log")
 public class ExpiryNotificationLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expiry_notification_log_id_seq")
+    @SequenceGenerator(name = "expiry_notification_log_id_seq", sequenceName = "expiry_notification_log_id_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "surplus_post_id", nullable = false)
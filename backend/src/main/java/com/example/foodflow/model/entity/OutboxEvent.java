@@ -0,0 +1,53 @@
+package com.example.foodflow.model.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+/**
+ * One domain event awaiting delivery to one handler. Written in the transaction that caused
+ * the event, so the side effect happens if and only if the change commits.
+ */
+@Entity
+@Table(name = "domain_event_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    // IDENTITY rather than a pooled sequence: per-key delivery order comes from the id, and
+    // per-node id blocks would let a later event on one node sort before an earlier one
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    @Column(nullable = false, length = 100)
+    private String handler;
+    /**
+     * Events sharing a key are delivered in order: the handler plus the surplus post.
+     */
+    @Column(name = "ordering_key", nullable = false)
+    private String orderingKey;
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(nullable = false)
+    private Boolean processed = false;
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    @Column(name = "dead_lettered", nullable = false)
+    private Boolean deadLettered = false;
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
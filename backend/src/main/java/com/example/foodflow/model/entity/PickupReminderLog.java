@@ -0,0 +1,46 @@
+package com.example.foodflow.model.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+@Entity
+@Table(name = "pickup_reminder_log")
+public class PickupReminderLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "claim_id", nullable = false, unique = true)
+    private Claim claim;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "surplus_post_id", nullable = false)
+    private SurplusPost surplusPost;
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+    @PrePersist
+    protected void onCreate() {
+        if (sentAt == null) {
+            sentAt = LocalDateTime.now(ZoneOffset.UTC);
+        }
+    }
+    public Long getId() {
+        return id;
+    }
+    public Claim getClaim() {
+        return claim;
+    }
+    public void setClaim(Claim claim) {
+        this.claim = claim;
+    }
+    public SurplusPost getSurplusPost() {
+        return surplusPost;
+    }
+    public void setSurplusPost(SurplusPost surplusPost) {
+        this.surplusPost = surplusPost;
+    }
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
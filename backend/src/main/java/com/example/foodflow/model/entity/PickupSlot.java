@@ -9,7 +9,8 @@ import java.util.Objects;
 @Table(name = "pickup_slots")
 public class PickupSlot {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pickup_slots_id_seq")
+    @SequenceGenerator(name = "pickup_slots_id_seq", sequenceName = "pickup_slots_id_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "surplus_post_id", nullable = false)
@@ -0,0 +1,45 @@
+package com.example.foodflow.model.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+/**
+ * Database lease for a scheduled job (or one shard of it). Rows are created and updated
+ * through {@link com.example.foodflow.repository.SchedulerLeaseRepository} conditional
+ * statements so that exactly one node holds a lease at a time.
+ */
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+    @Id
+    @Column(name = "name", length = 150)
+    private String name;
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+    @Column(name = "locked_by", nullable = false, length = 255)
+    private String lockedBy;
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+    public void setLockedAt(LocalDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+    public String getLockedBy() {
+        return lockedBy;
+    }
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+}
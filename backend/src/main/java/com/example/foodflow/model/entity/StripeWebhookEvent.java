@@ -19,8 +19,21 @@ public class StripeWebhookEvent {
     private String eventType;
     @Column(nullable = false, columnDefinition = "TEXT")
     private String payload;
+    /**
+     * Events sharing a key are processed in order: the payment intent id, or the event id.
+     */
+    @Column(name = "ordering_key", nullable = false)
+    private String orderingKey;
+    @Column(name = "stripe_created_at")
+    private LocalDateTime stripeCreatedAt;
     @Column(nullable = false)
     private Boolean processed = false;
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "dead_lettered", nullable = false)
+    private Boolean deadLettered = false;
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
     @Column(name = "error_message", columnDefinition = "TEXT")
@@ -6,7 +6,9 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import com.example.foodflow.model.types.FoodCategory;
 import com.example.foodflow.model.types.PostStatus;
@@ -21,7 +23,8 @@ import org.hibernate.type.SqlTypes;
 @Table(name = "surplus_posts")
 public class SurplusPost {
 @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "surplus_posts_id_seq")
+    @SequenceGenerator(name = "surplus_posts_id_seq", sequenceName = "surplus_posts_id_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String title;
@@ -122,6 +125,12 @@ public class SurplusPost {
     private LocalDateTime createdAt;
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    // Input to the search_document tsvector the database derives for keyword search (V79)
+    @Column(name = "search_labels", columnDefinition = "TEXT")
+    private String searchLabels;
+    // Set by SurplusPostArchiveService once a terminal post is old enough to leave the live working set
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
     @PrePersist
     protected void onCreate() {
         if (foodType == null) {
@@ -133,6 +142,7 @@ public class SurplusPost {
         if (expiryOverridden == null) {
             expiryOverridden = false;
         }
+        refreshSearchLabels();
         createdAt = LocalDateTime.now(ZoneOffset.UTC);
         updatedAt = createdAt;
     }
@@ -147,8 +157,39 @@ public class SurplusPost {
         if (expiryOverridden == null) {
             expiryOverridden = false;
         }
+        refreshSearchLabels();
+        // A post brought back to an actionable status (admin override) is live again
+        if (archivedAt != null && status != null && !status.isTerminal()) {
+            archivedAt = null;
+        }
         updatedAt = LocalDateTime.now(ZoneOffset.UTC);
     }
+    /**
+     * Rebuild {@code search_labels} from the categories, food type and dietary tags. Called on
+     * every save; call it directly after changing only the categories, since a collection change
+     * alone does not trigger {@code @PreUpdate}.
+     */
+    public void refreshSearchLabels() {
+        Set<String> labels = new LinkedHashSet<>();
+        if (foodCategories != null) {
+            foodCategories.stream()
+                    .map(category -> category.getLabel().toLowerCase(Locale.ROOT))
+                    .sorted()
+                    .forEach(labels::add);
+        }
+        if (foodType != null) {
+            labels.add(enumLabel(foodType.name()));
+        }
+        if (dietaryTags != null) {
+            for (String tag : dietaryTags) {
+                labels.add(enumLabel(tag));
+            }
+        }
+        searchLabels = String.join(" ", labels);
+    }
+    private static String enumLabel(String name) {
+        return name.replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
     // Constructors
     public SurplusPost() {}
     // --- Getters and Setters ---
@@ -234,5 +275,8 @@ public class SurplusPost {
     public void setFoodType(FoodType foodType) { this.foodType = foodType; }
     public String[] getDietaryTags() { return dietaryTags; }
     public void setDietaryTags(String[] dietaryTags) { this.dietaryTags = dietaryTags; }
+    public String getSearchLabels() { return searchLabels; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
     public boolean isClaimed() { return status==PostStatus.CLAIMED; }
 }
@@ -40,6 +40,10 @@ public class SyncedCalendarEvent {
     private String lastSyncError;
     @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
+    @Column(name = "sync_attempts", nullable = false)
+    private Integer syncAttempts = 0; // Consecutive failed attempts since the last successful sync
+    @Column(name = "next_sync_attempt_at")
+    private LocalDateTime nextSyncAttemptAt; // Null when no retry is scheduled
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -140,6 +144,18 @@ public class SyncedCalendarEvent {
     public void setIsDeleted(Boolean isDeleted) {
         this.isDeleted = isDeleted;
     }
+    public Integer getSyncAttempts() {
+        return syncAttempts;
+    }
+    public void setSyncAttempts(Integer syncAttempts) {
+        this.syncAttempts = syncAttempts;
+    }
+    public LocalDateTime getNextSyncAttemptAt() {
+        return nextSyncAttemptAt;
+    }
+    public void setNextSyncAttemptAt(LocalDateTime nextSyncAttemptAt) {
+        this.nextSyncAttemptAt = nextSyncAttemptAt;
+    }
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -51,11 +51,12 @@ public class User {
     private String phone;
     @Column(name = "profile_photo", columnDefinition = "TEXT")
     private String profilePhoto;
-    @Column(name = "total_points")
+    // Counters are only changed by atomic UPDATEs in UserRepository, never by flushing the entity
+    @Column(name = "total_points", updatable = false)
     private Integer totalPoints = 0;
     @Column(name = "data_storage_consent")
     private Boolean dataStorageConsent = false;
-    @Column(name = "donation_count")
+    @Column(name = "donation_count", updatable = false)
     private Integer donationCount = 0;
     @Column(name = "onboarding_completed", nullable = false)
     private Boolean onboardingCompleted = false;
@@ -12,11 +12,12 @@ public class UserDonationStats {
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
-    @Column(name = "total_donated", nullable = false, precision = 12, scale = 2)
+    // Totals are only changed by UserDonationStatsRepository#addDonation, never by flushing the entity
+    @Column(name = "total_donated", nullable = false, updatable = false, precision = 12, scale = 2)
     private BigDecimal totalDonated = BigDecimal.ZERO;
-    @Column(name = "last_donation_date")
+    @Column(name = "last_donation_date", updatable = false)
     private LocalDateTime lastDonationDate;
-    @Column(name = "donation_count", nullable = false)
+    @Column(name = "donation_count", nullable = false, updatable = false)
     private Integer donationCount = 0;
     @Enumerated(EnumType.STRING)
     @Column(name = "donor_badge", nullable = false, length = 20)
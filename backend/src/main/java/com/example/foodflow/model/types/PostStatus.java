@@ -6,6 +6,12 @@ public enum PostStatus {
     CLAIMED,
     NOT_COMPLETED,
     COMPLETED;
+    /**
+     * Whether the post can no longer be claimed or picked up.
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == EXPIRED || this == NOT_COMPLETED;
+    }
     public String getDisplayName(){
         String name = this.name();
         return name.charAt(0) + name.substring(1).toLowerCase().replace('_', ' ');
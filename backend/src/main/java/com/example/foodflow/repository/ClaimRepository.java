@@ -16,9 +16,19 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
         // Find active claim for a specific post
         Optional<Claim> findBySurplusPostIdAndStatus(Long surplusPostId, ClaimStatus status);
 
+        // Claims in a given status for many posts at once (scheduler sweeps), receiver included
+        @Query("SELECT c FROM Claim c JOIN FETCH c.receiver WHERE c.surplusPost.id IN :postIds AND c.status = :status")
+        List<Claim> findBySurplusPostIdInAndStatus(@Param("postIds") java.util.Collection<Long> postIds,
+                        @Param("status") ClaimStatus status);
+
         // Find all claims by receiver
         List<Claim> findByReceiverIdAndStatus(Long receiverId, ClaimStatus status);
 
+        // Claim with both parties loaded in one query (used by SupportContextBuilder RBAC checks)
+        @Query("SELECT c FROM Claim c JOIN FETCH c.receiver JOIN FETCH c.surplusPost sp " +
+               "JOIN FETCH sp.donor WHERE c.id = :id")
+        Optional<Claim> findWithPartiesById(@Param("id") Long id);
+
         // find one claim by SurplusPost (used by SurplusService)
         Optional<Claim> findBySurplusPost(SurplusPost post);
 
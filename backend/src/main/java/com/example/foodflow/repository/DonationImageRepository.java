@@ -3,6 +3,9 @@ import com.example.foodflow.model.entity.DonationImage;
 import com.example.foodflow.model.types.DonationImageStatus;
 import com.example.foodflow.model.types.FoodType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 public interface DonationImageRepository extends JpaRepository<DonationImage, Long> {
@@ -13,4 +16,13 @@ public interface DonationImageRepository extends JpaRepository<DonationImage, Lo
     Optional<DonationImage> findFirstByDonationIdAndStatusOrderByCreatedAtDesc(Long donationId, DonationImageStatus status);
     Optional<DonationImage> findFirstByDonorIdAndStatusOrderByCreatedAtDesc(Long donorId, DonationImageStatus status);
     Optional<DonationImage> findFirstByDonorIdAndFoodTypeAndStatusOrderByCreatedAtDesc(Long donorId, FoodType foodType, DonationImageStatus status);
+    /**
+     * (donation ID, URL) of the images with the given status for a page of donations, newest
+     * first, so the first row per donation is the one {@link #findFirstByDonationIdAndStatusOrderByCreatedAtDesc}
+     * would return.
+     */
+    @Query("SELECT i.donation.id, i.url FROM DonationImage i " +
+           "WHERE i.donation.id IN :donationIds AND i.status = :status ORDER BY i.createdAt DESC")
+    List<Object[]> findDonationIdAndUrlByDonationIdInAndStatus(@Param("donationIds") Collection<Long> donationIds,
+                                                               @Param("status") DonationImageStatus status);
 }
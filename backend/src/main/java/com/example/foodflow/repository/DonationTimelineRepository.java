@@ -1,10 +1,26 @@
 package com.example.foodflow.repository;
 import com.example.foodflow.model.entity.DonationTimeline;
+import com.example.foodflow.model.entity.SurplusPost;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 @Repository
 public interface DonationTimelineRepository extends JpaRepository<DonationTimeline, Long> {
     List<DonationTimeline> findBySurplusPostIdOrderByTimestampDesc(Long surplusPostId);
     List<DonationTimeline> findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(Long surplusPostId, Boolean visibleToUsers);
+    // donation_timeline is partitioned by month (V81); the lower bound lets PostgreSQL skip the
+    // partitions from before the post existed instead of probing every month's index
+    List<DonationTimeline> findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(
+            Long surplusPostId, LocalDateTime since);
+    List<DonationTimeline> findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(
+            Long surplusPostId, Boolean visibleToUsers, LocalDateTime since);
+    /**
+     * Earliest timestamp an event of {@code post} can have: its creation time, with a day of
+     * slack for events recorded in a different zone.
+     */
+    static LocalDateTime timelineStart(SurplusPost post) {
+        LocalDateTime createdAt = post.getCreatedAt();
+        return createdAt != null ? createdAt.minusDays(1) : LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
 }
@@ -1,7 +1,15 @@
 package com.example.foodflow.repository;
 import com.example.foodflow.model.entity.DonorPhotoPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 public interface DonorPhotoPreferencesRepository extends JpaRepository<DonorPhotoPreferences, Long> {
     Optional<DonorPhotoPreferences> findByDonorId(Long donorId);
+    @Query("SELECT p FROM DonorPhotoPreferences p " +
+           "LEFT JOIN FETCH p.singleImage LEFT JOIN FETCH p.singleLibraryImage " +
+           "WHERE p.donor.id IN :donorIds")
+    List<DonorPhotoPreferences> findByDonorIdIn(@Param("donorIds") Collection<Long> donorIds);
 }
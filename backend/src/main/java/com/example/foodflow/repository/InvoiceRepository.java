@@ -17,6 +17,7 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i WHERE i.payment.organization.id = :organizationId ORDER BY i.createdAt DESC")
     Page<Invoice> findByOrganizationId(@Param("organizationId") Long organizationId, Pageable pageable);
     List<Invoice> findByStatus(InvoiceStatus status);
+    List<Invoice> findByIssuedDateBetween(LocalDate from, LocalDate to);
     @Query("SELECT i FROM Invoice i WHERE i.status = :status AND i.dueDate < :date")
     List<Invoice> findOverdueInvoices(@Param("status") InvoiceStatus status, @Param("date") LocalDate date);
 }
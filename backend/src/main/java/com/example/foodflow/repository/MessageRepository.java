@@ -4,9 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import com.example.foodflow.model.entity.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -28,6 +30,17 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
        List<Message> findUnreadByConversationAndUser(@Param("conversationId") Long conversationId,
                      @Param("userId") Long userId);
 
+       /**
+        * Mark every unread message from the other participant as read in a single statement
+        */
+       @Modifying(flushAutomatically = true, clearAutomatically = true)
+       @Query("UPDATE Message m SET m.readStatus = true " +
+                     "WHERE m.conversation.id = :conversationId " +
+                     "AND m.sender.id != :userId " +
+                     "AND m.readStatus = false")
+       int markConversationReadForUser(@Param("conversationId") Long conversationId,
+                     @Param("userId") Long userId);
+
        /**
         * Count unread messages for a user across all conversations
         */
@@ -55,11 +68,40 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
        Page<Message> findByConversationIdWithPagination(@Param("conversationId") Long conversationId,
                      Pageable pageable);
 
+       /**
+        * Keyset page of the most recent messages in a conversation (newest first)
+        */
+       @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findLatestPage(@Param("conversationId") Long conversationId, Pageable pageable);
+
+       /**
+        * Keyset page of messages older than the (createdAt, id) cursor (newest first)
+        */
+       @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+                     "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findPageBefore(@Param("conversationId") Long conversationId,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("id") Long id,
+                     Pageable pageable);
+
+       /**
+        * Keyset page of messages newer than the (createdAt, id) cursor (oldest first)
+        */
+       @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+                     "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+                     "ORDER BY m.createdAt ASC, m.id ASC")
+       List<Message> findPageAfter(@Param("conversationId") Long conversationId,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("id") Long id,
+                     Pageable pageable);
+
        /**
         * Find the last message in a conversation (most recent by creation time)
         * Optimized for preview display - returns only one message
         */
-       @Query(value = "SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC LIMIT 1")
+       @Query(value = "SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC, m.id DESC LIMIT 1")
        java.util.Optional<Message> findLastMessageInConversation(@Param("conversationId") Long conversationId);
 
        /**
@@ -0,0 +1,48 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Ordering keys with at least one event that is due for (re)delivery, oldest first.
+     */
+    @Query("SELECT oe.orderingKey FROM OutboxEvent oe " +
+           "WHERE oe.processed = false AND oe.deadLettered = false " +
+           "AND (oe.nextAttemptAt IS NULL OR oe.nextAttemptAt <= :now) " +
+           "GROUP BY oe.orderingKey ORDER BY MIN(oe.id)")
+    List<String> findDueOrderingKeys(@Param("now") LocalDateTime now, Pageable pageable);
+    /**
+     * Undelivered events for one ordering key in the order they were recorded.
+     */
+    @Query("SELECT oe FROM OutboxEvent oe " +
+           "WHERE oe.orderingKey = :orderingKey AND oe.processed = false AND oe.deadLettered = false " +
+           "ORDER BY oe.id ASC")
+    List<OutboxEvent> findPendingByOrderingKey(@Param("orderingKey") String orderingKey, Pageable pageable);
+    /**
+     * Lock one undelivered event. Empty when it is already done or another worker holds the row.
+     */
+    @Query(value = "SELECT * FROM domain_event_outbox " +
+                   "WHERE id = :id AND processed = FALSE AND dead_lettered = FALSE " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OutboxEvent> lockPendingById(@Param("id") Long id);
+    @Query("SELECT COUNT(oe) FROM OutboxEvent oe WHERE oe.processed = false AND oe.deadLettered = false")
+    long countPending();
+    long countByDeadLetteredTrue();
+    /**
+     * Creation time of the oldest undelivered event, per handler.
+     */
+    @Query("SELECT oe.handler, MIN(oe.createdAt) FROM OutboxEvent oe " +
+           "WHERE oe.processed = false AND oe.deadLettered = false GROUP BY oe.handler")
+    List<Object[]> findOldestPendingByHandler();
+    @Modifying
+    @Query("DELETE FROM OutboxEvent oe WHERE oe.processed = true AND oe.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,22 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.entity.PickupReminderLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+@Repository
+public interface PickupReminderLogRepository extends JpaRepository<PickupReminderLog, Long> {
+    /**
+     * Insert-if-absent on the claim id. Returns 0 when a reminder was already recorded for the
+     * claim, without raising a constraint violation that would roll back the caller's transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO pickup_reminder_log (claim_id, surplus_post_id, sent_at) " +
+                   "VALUES (:claimId, :surplusPostId, :sentAt) " +
+                   "ON CONFLICT (claim_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("claimId") Long claimId,
+                       @Param("surplusPostId") Long surplusPostId,
+                       @Param("sentAt") LocalDateTime sentAt);
+}
@@ -3,11 +3,15 @@ import com.example.foodflow.model.entity.SavedDonation;
 import com.example.foodflow.model.entity.SurplusPost;
 import com.example.foodflow.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 public interface SavedDonationRepository extends JpaRepository<SavedDonation, Long> {
     boolean existsByReceiverAndSurplusPost(User receiver, SurplusPost surplusPost);
     boolean existsByReceiverIdAndSurplusPostId(Long receiverId, Long surplusPostId);
     void deleteByReceiverIdAndSurplusPostId(Long receiverId, Long surplusPostId);
     List<SavedDonation> findByReceiverIdOrderBySavedAtDesc(Long receiverId);
+    @Query("SELECT sd.surplusPost.id FROM SavedDonation sd WHERE sd.receiver.id = :receiverId ORDER BY sd.savedAt DESC")
+    List<Long> findSurplusPostIdsByReceiverId(@Param("receiverId") Long receiverId);
     long countByReceiverId(Long receiverId);
 }
@@ -0,0 +1,51 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    /**
+     * Take over a lease whose previous holder's window has run out.
+     * Returns 1 if this caller now holds the lease, 0 if someone else still does (or the row does not exist yet).
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquireIfExpired(@Param("name") String name,
+                         @Param("now") LocalDateTime now,
+                         @Param("until") LocalDateTime until,
+                         @Param("owner") String owner);
+    /**
+     * Create the lease row for a job the first time it runs. Fails with a constraint violation if
+     * another node inserted it concurrently.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lease (name, locked_until, locked_at, locked_by) " +
+                   "VALUES (:name, :until, :now, :owner)", nativeQuery = true)
+    int insertLease(@Param("name") String name,
+                    @Param("now") LocalDateTime now,
+                    @Param("until") LocalDateTime until,
+                    @Param("owner") String owner);
+    /**
+     * Extend a lease that this caller still holds. Returns 0 if it expired or another node took it.
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedBy = :owner AND l.lockedUntil > :now")
+    int renewIfHeld(@Param("name") String name,
+                    @Param("now") LocalDateTime now,
+                    @Param("until") LocalDateTime until,
+                    @Param("owner") String owner);
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :owner")
+    int releaseUntil(@Param("name") String name,
+                     @Param("until") LocalDateTime until,
+                     @Param("owner") String owner);
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :now WHERE l.lockedBy = :owner AND l.lockedUntil > :now")
+    int releaseAllHeldBy(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -1,6 +1,8 @@
 package com.example.foodflow.repository;
 import com.example.foodflow.model.entity.StripeWebhookEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,4 +17,45 @@ public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhoo
     List<StripeWebhookEvent> findStaleUnprocessedEvents(@Param("before") LocalDateTime before);
     List<StripeWebhookEvent> findByEventTypeOrderByCreatedAtDesc(String eventType);
     boolean existsByStripeEventId(String stripeEventId);
+    /**
+     * Insert-if-absent on the Stripe event id. Returns 0 when the event was already stored,
+     * so concurrent redeliveries of the same event cannot both enqueue it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events (stripe_event_id, event_type, payload, ordering_key, " +
+                   "stripe_created_at, processed, attempts, dead_lettered, created_at) " +
+                   "VALUES (:eventId, :eventType, :payload, :orderingKey, :stripeCreatedAt, FALSE, 0, FALSE, :createdAt) " +
+                   "ON CONFLICT (stripe_event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("payload") String payload,
+                       @Param("orderingKey") String orderingKey,
+                       @Param("stripeCreatedAt") LocalDateTime stripeCreatedAt,
+                       @Param("createdAt") LocalDateTime createdAt);
+    /**
+     * Ordering keys with at least one event that is due for (re)processing, oldest first.
+     */
+    @Query("SELECT swe.orderingKey FROM StripeWebhookEvent swe " +
+           "WHERE swe.processed = false AND swe.deadLettered = false " +
+           "AND (swe.nextAttemptAt IS NULL OR swe.nextAttemptAt <= :now) " +
+           "GROUP BY swe.orderingKey ORDER BY MIN(swe.id)")
+    List<String> findDueOrderingKeys(@Param("now") LocalDateTime now, Pageable pageable);
+    /**
+     * Unfinished events for one ordering key in the order Stripe created them.
+     */
+    @Query("SELECT swe FROM StripeWebhookEvent swe " +
+           "WHERE swe.orderingKey = :orderingKey AND swe.processed = false AND swe.deadLettered = false " +
+           "ORDER BY swe.stripeCreatedAt ASC, swe.id ASC")
+    List<StripeWebhookEvent> findPendingByOrderingKey(@Param("orderingKey") String orderingKey, Pageable pageable);
+    /**
+     * Lock one unfinished event for processing. Empty when it is already done or another worker
+     * holds the row, in which case the caller backs off so events for the key stay in order.
+     */
+    @Query(value = "SELECT * FROM stripe_webhook_events " +
+                   "WHERE id = :id AND processed = FALSE AND dead_lettered = FALSE " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<StripeWebhookEvent> lockPendingById(@Param("id") Long id);
+    @Query("SELECT COUNT(swe) FROM StripeWebhookEvent swe WHERE swe.processed = false AND swe.deadLettered = false")
+    long countPending();
+    long countByDeadLetteredTrue();
 }
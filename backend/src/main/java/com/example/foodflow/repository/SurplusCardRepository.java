@@ -0,0 +1,12 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.dto.SurplusCardRow;
+import com.example.foodflow.model.entity.SurplusPost;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+/**
+ * Card projection queries for {@link SurplusPostRepository}. Takes the same specifications as
+ * {@code findAll(Specification)} but selects only the columns of {@link SurplusCardRow}.
+ */
+public interface SurplusCardRepository {
+    List<SurplusCardRow> findCardRows(Specification<SurplusPost> specification);
+}
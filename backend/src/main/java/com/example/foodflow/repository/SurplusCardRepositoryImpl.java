@@ -0,0 +1,56 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.dto.SurplusCardRow;
+import com.example.foodflow.model.entity.Organization;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.List;
+class SurplusCardRepositoryImpl implements SurplusCardRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Override
+    public List<SurplusCardRow> findCardRows(Specification<SurplusPost> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SurplusCardRow> query = cb.createQuery(SurplusCardRow.class);
+        Root<SurplusPost> post = query.from(SurplusPost.class);
+        Join<SurplusPost, User> donor = post.join("donor");
+        Join<User, Organization> organization = donor.join("organization", JoinType.LEFT);
+        query.select(cb.construct(SurplusCardRow.class,
+                post.get("id"),
+                post.get("title"),
+                post.get("description"),
+                post.get("quantity"),
+                post.get("pickupLocation"),
+                post.get("expiryDate"),
+                post.get("expiryDatePredicted"),
+                post.get("expiryDateEffective"),
+                post.get("expiryOverridden"),
+                post.get("pickupDate"),
+                post.get("pickupFrom"),
+                post.get("pickupTo"),
+                post.get("status"),
+                post.get("createdAt"),
+                post.get("temperatureCategory"),
+                post.get("packagingType"),
+                post.get("foodType"),
+                post.get("dietaryTags"),
+                donor.get("id"),
+                donor.get("timezone"),
+                organization.get("timezone"),
+                organization.get("name"),
+                donor.get("profilePhoto")));
+        Predicate predicate = specification != null ? specification.toPredicate(post, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+}
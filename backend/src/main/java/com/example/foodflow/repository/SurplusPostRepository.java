@@ -1,21 +1,32 @@
 package com.example.foodflow.repository;
 
+import com.example.foodflow.model.dto.AdminDonationSearchHit;
+import com.example.foodflow.model.dto.DonationExportRow;
+import com.example.foodflow.model.dto.PickupSlotRow;
+import com.example.foodflow.model.dto.SurplusCategoryRow;
+import com.example.foodflow.model.dto.SurplusKeywordHit;
 import com.example.foodflow.model.entity.SurplusPost;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 import java.time.LocalDateTime;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.types.PostStatus;
 
 @Repository
 public interface SurplusPostRepository extends JpaRepository<SurplusPost, Long>,
-        JpaSpecificationExecutor<SurplusPost> {
+        JpaSpecificationExecutor<SurplusPost>, SurplusCardRepository {
     List<SurplusPost> findByDonorId(Long donorId);
 
+    // Live posts only; findByDonorId also returns the archived ones (V82)
+    List<SurplusPost> findByDonorIdAndArchivedAtIsNull(Long donorId);
+
     long countByDonorId(Long donorId);
 
     List<SurplusPost> findByPickupLocation_Address(String address);
@@ -32,8 +43,35 @@ public interface SurplusPostRepository extends JpaRepository<SurplusPost, Long>,
 
     List<SurplusPost> findByStatusIn(List<PostStatus> statuses);
 
+    /**
+     * One post-ID shard of {@link #findByStatusIn}, used when scheduled jobs are split across nodes.
+     */
+    @Query("SELECT sp FROM SurplusPost sp WHERE sp.status IN :statuses AND MOD(sp.id, :shardCount) = :shard")
+    List<SurplusPost> findByStatusInAndShard(@Param("statuses") List<PostStatus> statuses,
+                                             @Param("shardCount") long shardCount,
+                                             @Param("shard") long shard);
+
     List<SurplusPost> findByDonorOrderByCreatedAtDesc(User donor);
 
+    /**
+     * Stamp up to {@code batchSize} terminal posts last updated before {@code cutoff} as archived,
+     * oldest first.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE surplus_posts SET archived_at = :now
+            WHERE id IN (
+                SELECT id FROM surplus_posts
+                WHERE archived_at IS NULL
+                  AND status IN ('COMPLETED', 'EXPIRED', 'NOT_COMPLETED')
+                  AND updated_at < :cutoff
+                ORDER BY updated_at
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int archiveTerminalPosts(@Param("cutoff") LocalDateTime cutoff,
+                             @Param("now") LocalDateTime now,
+                             @Param("batchSize") int batchSize);
+
     /**
      * Find posts within a certain distance using native Haversine formula.
      * This uses a native SQL query which is database-specific but more efficient.
@@ -88,6 +126,12 @@ public interface SurplusPostRepository extends JpaRepository<SurplusPost, Long>,
             @Param("foodCategories") List<String> foodCategories,
             @Param("status") String status);
 
+    /**
+     * Find a post with its donor loaded in the same query
+     */
+    @Query("SELECT sp FROM SurplusPost sp JOIN FETCH sp.donor WHERE sp.id = :id")
+    Optional<SurplusPost> findWithDonorById(@Param("id") Long id);
+
     /**
      * Find posts created within a date range
      */
@@ -107,4 +151,116 @@ public interface SurplusPostRepository extends JpaRepository<SurplusPost, Long>,
             @Param("donorId") Long donorId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Keyset page of export rows for all posts created within a date range (ordered by id)
+     */
+    @Query("SELECT sp.id AS id, sp.title AS title, sp.status AS status, " +
+            "sp.quantity.value AS quantityValue, sp.quantity.unit AS quantityUnit, sp.createdAt AS createdAt " +
+            "FROM SurplusPost sp " +
+            "WHERE sp.createdAt >= :startDate AND sp.createdAt <= :endDate " +
+            "AND sp.id > :afterId ORDER BY sp.id ASC")
+    List<DonationExportRow> findExportRowsByCreatedDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Food categories of a page of cards, one row per post and category
+     */
+    @Query("SELECT sp.id AS postId, c AS category FROM SurplusPost sp JOIN sp.foodCategories c " +
+            "WHERE sp.id IN :postIds")
+    List<SurplusCategoryRow> findCategoryRowsByPostIds(@Param("postIds") List<Long> postIds);
+
+    /**
+     * Pickup slots of a page of cards, in slot order within each post
+     */
+    @Query("SELECT ps.surplusPost.id AS postId, ps.id AS id, ps.pickupDate AS pickupDate, " +
+            "ps.startTime AS startTime, ps.endTime AS endTime, ps.notes AS notes, ps.slotOrder AS slotOrder " +
+            "FROM PickupSlot ps WHERE ps.surplusPost.id IN :postIds ORDER BY ps.slotOrder ASC")
+    List<PickupSlotRow> findPickupSlotRowsByPostIds(@Param("postIds") List<Long> postIds);
+
+    /**
+     * Keyset page of export rows for a donor's posts created within a date range (ordered by id)
+     */
+    @Query("SELECT sp.id AS id, sp.title AS title, sp.status AS status, " +
+            "sp.quantity.value AS quantityValue, sp.quantity.unit AS quantityUnit, sp.createdAt AS createdAt " +
+            "FROM SurplusPost sp " +
+            "WHERE sp.donor.id = :donorId " +
+            "AND sp.createdAt >= :startDate AND sp.createdAt <= :endDate " +
+            "AND sp.id > :afterId ORDER BY sp.id ASC")
+    List<DonationExportRow> findExportRowsByDonorAndCreatedDateRange(
+            @Param("donorId") Long donorId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Keyset page of export rows for posts a receiver claimed within a date range (ordered by id)
+     */
+    @Query("SELECT DISTINCT sp.id AS id, sp.title AS title, sp.status AS status, " +
+            "sp.quantity.value AS quantityValue, sp.quantity.unit AS quantityUnit, sp.createdAt AS createdAt " +
+            "FROM Claim c JOIN c.surplusPost sp " +
+            "WHERE c.receiver.id = :receiverId " +
+            "AND c.claimedAt >= :startDate AND c.claimedAt <= :endDate " +
+            "AND sp.id > :afterId ORDER BY sp.id ASC")
+    List<DonationExportRow> findExportRowsByReceiverAndClaimedDateRange(
+            @Param("receiverId") Long receiverId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Relevance-ranked admin search over title and description (PostgreSQL only). Full-text
+     * matches come from idx_surplus_posts_search_tsv; substring and fuzzy matches from the title
+     * and description trigram indexes (V78).
+     */
+    @Query(value = """
+            SELECT sp.id AS id, sp.title AS title, sp.description AS description, sp.status AS status,
+                   ts_rank(to_tsvector('simple', coalesce(sp.title, '') || ' ' || coalesce(sp.description, '')),
+                           plainto_tsquery('simple', :term))
+                       + similarity(lower(sp.title), :term) AS score
+            FROM surplus_posts sp
+            WHERE to_tsvector('simple', coalesce(sp.title, '') || ' ' || coalesce(sp.description, ''))
+                      @@ plainto_tsquery('simple', :term)
+               OR lower(sp.title) LIKE :pattern
+               OR lower(sp.description) LIKE :pattern
+               OR lower(sp.title) % :term
+            ORDER BY score DESC, sp.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminDonationSearchHit> searchRanked(@Param("term") String term,
+                                              @Param("pattern") String pattern,
+                                              @Param("limit") int limit);
+
+    /**
+     * Receiver keyword search candidates, best first (PostgreSQL only). Matches the V79
+     * search_document with the receiver's language configuration plus 'simple', so unstemmed
+     * words in any language still match; {@code substring} adds trigram-backed LIKE matches for
+     * scripts the parser cannot split into words. Pages are taken with {@code offset}; the id
+     * tie-break keeps the order stable between pages.
+     */
+    @Query(value = """
+            SELECT sp.id AS id,
+                   ts_rank_cd(sp.search_document, q.query, 32)
+                       + CASE WHEN lower(sp.title) LIKE :pattern THEN 0.1 ELSE 0 END AS rank
+            FROM surplus_posts sp,
+                 (SELECT websearch_to_tsquery(CAST(:config AS regconfig), :term)
+                         || websearch_to_tsquery('simple', :term) AS query) q
+            WHERE sp.status IN (:statuses)
+              AND (sp.search_document @@ q.query
+                   OR (:substring = TRUE AND (lower(sp.title) LIKE :pattern OR lower(sp.description) LIKE :pattern)))
+            ORDER BY rank DESC, sp.id DESC
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<SurplusKeywordHit> searchByKeyword(@Param("term") String term,
+                                            @Param("pattern") String pattern,
+                                            @Param("config") String config,
+                                            @Param("substring") boolean substring,
+                                            @Param("statuses") List<String> statuses,
+                                            @Param("limit") int limit,
+                                            @Param("offset") int offset);
 }
@@ -1,6 +1,7 @@
 package com.example.foodflow.repository;
 import com.example.foodflow.model.entity.SyncedCalendarEvent;
 import com.example.foodflow.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,4 +27,24 @@ public interface SyncedCalendarEventRepository extends JpaRepository<SyncedCalen
         @Param("startTime") LocalDateTime startTime,
         @Param("endTime") LocalDateTime endTime
     );
+    List<SyncedCalendarEvent> findByUserIdAndSyncStatusAndNextSyncAttemptAtLessThanEqual(
+        Long userId, String syncStatus, LocalDateTime now);
+    /**
+     * Users with sync work that is due now: PENDING events, plus FAILED events whose
+     * scheduled retry time has passed. Only users with a connected calendar are returned, so
+     * events left behind by a disconnected integration cannot fill the page. Ordered so the
+     * longest-waiting users drain first.
+     */
+    @Query("SELECT e.user.id FROM SyncedCalendarEvent e " +
+           "WHERE (e.syncStatus = 'PENDING' " +
+           "OR (e.syncStatus = 'FAILED' AND e.nextSyncAttemptAt IS NOT NULL AND e.nextSyncAttemptAt <= :now)) " +
+           "AND EXISTS (SELECT 1 FROM CalendarIntegration ci WHERE ci.user.id = e.user.id AND ci.isConnected = true) " +
+           "GROUP BY e.user.id ORDER BY MIN(e.createdAt)")
+    List<Long> findUserIdsWithDueSyncWork(@Param("now") LocalDateTime now, Pageable pageable);
+    @Query("SELECT COUNT(e) FROM SyncedCalendarEvent e " +
+           "WHERE e.syncStatus = 'PENDING' " +
+           "OR (e.syncStatus = 'FAILED' AND e.nextSyncAttemptAt IS NOT NULL AND e.nextSyncAttemptAt <= :now)")
+    long countDueSyncWork(@Param("now") LocalDateTime now);
+    @Query("SELECT MIN(COALESCE(e.updatedAt, e.createdAt)) FROM SyncedCalendarEvent e WHERE e.syncStatus = 'PENDING'")
+    LocalDateTime findOldestPendingSince();
 }
@@ -1,8 +1,11 @@
 package com.example.foodflow.repository;
 import com.example.foodflow.model.entity.UserDonationStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 public interface UserDonationStatsRepository extends JpaRepository<UserDonationStats, Long> {
     Optional<UserDonationStats> findByUserId(Long userId);
@@ -13,4 +16,18 @@ public interface UserDonationStatsRepository extends JpaRepository<UserDonationS
     Long sumAllDonationCounts();
     @Query("SELECT COUNT(s) FROM UserDonationStats s WHERE s.donationCount > 0")
     Long countUsersWhoDonated();
+    /**
+     * Record one donation against the user's stats row in a single statement. The row stays
+     * locked until the caller commits, so totals read back in the same transaction are exact.
+     * Clears the persistence context so that read sees the new totals.
+     *
+     * @return rows updated; 0 when the user has no stats row yet
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserDonationStats s SET s.totalDonated = s.totalDonated + :amount, " +
+            "s.donationCount = s.donationCount + 1, s.lastDonationDate = :donatedAt " +
+            "WHERE s.user.id = :userId")
+    int addDonation(@Param("userId") Long userId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("donatedAt") LocalDateTime donatedAt);
 }
@@ -1,10 +1,12 @@
 package com.example.foodflow.repository;
+import com.example.foodflow.model.dto.AdminUserSearchHit;
 import com.example.foodflow.model.entity.AccountStatus;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,6 +23,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findByAccountStatus(AccountStatus accountStatus, Pageable pageable);
     Page<User> findByRoleAndAccountStatus(UserRole role, AccountStatus accountStatus, Pageable pageable);
     Page<User> findByEmailContainingIgnoreCase(String email, Pageable pageable);
+    /**
+     * Admin user list search on email or organization name. Each branch is a separate subquery
+     * so Postgres can answer it from the trigram index on lower(email) / lower(name) (V78);
+     * {@code pattern} must already be lower-case and wrapped in '%'.
+     */
+    @Query("SELECT u FROM User u WHERE " +
+            "u.id IN (SELECT su.id FROM User su WHERE LOWER(su.email) LIKE :pattern) OR " +
+            "u.id IN (SELECT so.user.id FROM Organization so WHERE LOWER(so.name) LIKE :pattern)")
+    Page<User> searchByEmailOrOrganizationName(@Param("pattern") String pattern, Pageable pageable);
+    /**
+     * Relevance-ranked admin search (PostgreSQL only: pg_trgm similarity and the % operator).
+     */
+    @Query(value = """
+            SELECT u.id AS id, u.email AS email, o.name AS organizationName, u.role AS role,
+                   u.account_status AS accountStatus,
+                   GREATEST(similarity(lower(u.email), :term), COALESCE(similarity(lower(o.name), :term), 0)) AS score
+            FROM users u
+            LEFT JOIN organizations o ON o.user_id = u.id
+            WHERE u.id IN (
+                SELECT id FROM users WHERE lower(email) LIKE :pattern OR lower(email) % :term
+                UNION
+                SELECT user_id FROM organizations WHERE lower(name) LIKE :pattern OR lower(name) % :term
+            )
+            ORDER BY score DESC, u.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminUserSearchHit> searchRanked(@Param("term") String term,
+                                          @Param("pattern") String pattern,
+                                          @Param("limit") int limit);
     // Count methods for statistics
     long countByRole(UserRole role);
     long countByAccountStatus(AccountStatus accountStatus);
@@ -30,12 +61,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN u.organization o WHERE u.accountStatus IN :statuses " +
             "AND (:role IS NULL OR u.role = :role) " +
             "AND (:searchTerm IS NULL OR :searchTerm = '' OR " +
-            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(o.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(o.contactPerson) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+            "u.id IN (SELECT su.id FROM User su WHERE LOWER(su.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
+            "u.id IN (SELECT so.user.id FROM Organization so WHERE " +
+            "LOWER(so.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(so.contactPerson) LIKE LOWER(CONCAT('%', :searchTerm, '%'))))")
     Page<User> findByAccountStatusInAndSearchTerm(
             @Param("statuses") List<AccountStatus> statuses,
             @Param("role") UserRole role,
             @Param("searchTerm") String searchTerm,
             Pageable pageable);
+    /**
+     * Add {@code delta} to the user's points in one statement, so concurrent awards queue on the
+     * row lock instead of overwriting each other.
+     *
+     * @return rows updated; 0 when the user does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.totalPoints = COALESCE(u.totalPoints, 0) + :delta WHERE u.id = :userId")
+    int addPoints(@Param("userId") Long userId, @Param("delta") int delta);
+    /**
+     * Copy the donation count from the user's stats row, which the caller has just incremented.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.donationCount = :donationCount WHERE u.id = :userId")
+    int updateDonationCount(@Param("userId") Long userId, @Param("donationCount") int donationCount);
+    /**
+     * Replace the user's password hash only if it is still {@code currentHash}, so a rehash
+     * cannot overwrite a password changed in the meantime.
+     *
+     * @return rows updated; 0 when the hash has changed or the user does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("userId") Long userId,
+                                  @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
 }
@@ -0,0 +1,126 @@
+package com.example.foodflow.security;
+import com.example.foodflow.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+/**
+ * PasswordEncoder that runs the hashing work of its delegate (BCrypt) on a dedicated pool sized
+ * to the CPU count instead of on the calling request thread.
+ *
+ * The pool's queue is bounded and full submissions are rejected immediately with
+ * {@link ServiceBusyException}, so a burst of logins or password changes cannot pile up behind
+ * the hashing work: at most threads + queue-capacity callers wait for a hash, everyone else gets
+ * a fast 503 and the rest of the API keeps its servlet threads. A caller that waits longer than
+ * the timeout gets the same answer.
+ *
+ * {@link #upgradeEncoding} only reads the cost factor from the hash, so it runs inline.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    static final String BUSY_MESSAGE_KEY = "error.auth.busy";
+    private static final String METRIC_PREFIX = "foodflow.password_hashing";
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timedOutCounter;
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long timeoutMillis, int retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hash");
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder(METRIC_PREFIX + ".queue_wait")
+                .description("Time password hashing work waits for a hashing thread")
+                .register(meterRegistry);
+        this.queueFullCounter = rejectedCounter(meterRegistry, "queue_full");
+        this.timedOutCounter = rejectedCounter(meterRegistry, "timeout");
+    }
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Time spent hashing or comparing a password on the hashing pool")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Password hashing requests shed because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            log.warn("Password hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+            throw new ServiceBusyException(BUSY_MESSAGE_KEY, retryAfterSeconds);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A hash already in progress runs to completion; a queued one is skipped.
+            future.cancel(true);
+            timedOutCounter.increment();
+            log.warn("Password hashing did not complete within {} ms, rejecting request", timeoutMillis);
+            throw new ServiceBusyException(BUSY_MESSAGE_KEY, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE_KEY, retryAfterSeconds);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,7 +19,12 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.foodflow.util.SearchTextUtils;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -39,6 +45,8 @@ public class AdminDonationService {
     private final NotificationPreferenceService notificationPreferenceService;
     private final EmailNotificationService emailService;
     private final SimpMessagingTemplate messagingTemplate;
+    @Autowired(required = false)
+    private SurplusPostArchiveService surplusPostArchiveService;
     public AdminDonationService(
             SurplusPostRepository surplusPostRepository,
             ClaimRepository claimRepository,
@@ -67,15 +75,32 @@ public class AdminDonationService {
             LocalDate fromDate,
             LocalDate toDate,
             String search,
+            boolean includeArchived,
             int page,
             int size) {
-        log.info("Fetching donations - status: {}, donor: {}, receiver: {}, flagged: {}, search: {}",
-                status, donorId, receiverId, flagged, search);
+        log.info("Fetching donations - status: {}, donor: {}, receiver: {}, flagged: {}, search: {}, includeArchived: {}",
+                status, donorId, receiverId, flagged, search, includeArchived);
         Specification<SurplusPost> spec = buildSpecification(status, donorId, receiverId, flagged, fromDate, toDate, search);
+        if (liveOnly(includeArchived, fromDate, search)) {
+            spec = spec.and((root, query, cb) -> cb.isNull(root.get("archivedAt")));
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<SurplusPost> posts = surplusPostRepository.findAll(spec, pageable);
         return posts.map(this::mapToAdminResponse);
     }
+    /**
+     * Archived posts are left out of the list unless asked for explicitly, reached by the
+     * requested date range, or possibly the target of a search.
+     */
+    private boolean liveOnly(boolean includeArchived, LocalDate fromDate, String search) {
+        if (includeArchived || surplusPostArchiveService == null || !surplusPostArchiveService.isEnabled()) {
+            return false;
+        }
+        if (search != null && !search.isBlank()) {
+            return false;
+        }
+        return fromDate == null || !surplusPostArchiveService.reachesArchive(fromDate);
+    }
     /**
      * Get a specific donation by ID with full details
      */
@@ -170,48 +195,48 @@ public class AdminDonationService {
             if (toDate != null) {
                 predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), toDate.atTime(23, 59, 59)));
             }
-            // Search by ID (if numeric), title, donor/receiver email, or organization name
+            // Search by ID (if numeric), title, description, donor/receiver email, or organization name.
+            // Every text match is a LOWER(column) LIKE in its own uncorrelated subquery, so each can be
+            // answered from that column's trigram index (V78) instead of scanning joined rows.
             if (search != null && !search.isEmpty()) {
                 List<Predicate> searchPredicates = new ArrayList<>();
-                String searchPattern = "%" + search.toLowerCase() + "%";
+                String searchPattern = SearchTextUtils.containsPattern(search);
                 // Check if search is numeric for ID search
                 try {
-                    Long searchId = Long.parseLong(search);
+                    Long searchId = Long.parseLong(search.trim());
                     searchPredicates.add(cb.equal(root.get("id"), searchId));
                 } catch (NumberFormatException e) {
                     // Not a number, skip ID search
                 }
-                // Title search
+                // Title and description search
                 searchPredicates.add(cb.like(cb.lower(root.get("title")), searchPattern));
-                // Donor email search
-                searchPredicates.add(cb.like(cb.lower(root.get("donor").get("email")), searchPattern));
-                // Donor organization search - handle null organizations
-                searchPredicates.add(cb.and(
-                    cb.isNotNull(root.get("donor").get("organization")),
-                    cb.like(cb.lower(root.get("donor").get("organization").get("name")), searchPattern)
-                ));
-                // Receiver search through Claim subquery
+                searchPredicates.add(cb.like(cb.lower(root.get("description")), searchPattern));
+                // Donor email or organization search
+                searchPredicates.add(userMatches(root.get("donor").get("id"), query, cb, searchPattern));
+                // Receiver email or organization search through claims
                 Subquery<Long> claimSubquery = query.subquery(Long.class);
                 var claimRoot = claimSubquery.from(Claim.class);
-                claimSubquery.select(claimRoot.get("surplusPost").get("id"));
-                // Receiver email or organization match
-                Predicate receiverEmailMatch = cb.like(cb.lower(claimRoot.get("receiver").get("email")), searchPattern);
-                Predicate receiverOrgMatch = cb.and(
-                    cb.isNotNull(claimRoot.get("receiver").get("organization")),
-                    cb.like(cb.lower(claimRoot.get("receiver").get("organization").get("name")), searchPattern)
-                );
-                claimSubquery.where(
-                    cb.and(
-                        cb.equal(claimRoot.get("surplusPost").get("id"), root.get("id")),
-                        cb.or(receiverEmailMatch, receiverOrgMatch)
-                    )
-                );
-                searchPredicates.add(cb.exists(claimSubquery));
+                claimSubquery.select(claimRoot.get("surplusPost").get("id"))
+                        .where(userMatches(claimRoot.get("receiver").get("id"), query, cb, searchPattern));
+                searchPredicates.add(root.get("id").in(claimSubquery));
                 predicates.add(cb.or(searchPredicates.toArray(new Predicate[0])));
             }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+    /**
+     * {@code userId} belongs to a user whose email or organization name matches the pattern
+     */
+    private Predicate userMatches(Path<Long> userId, CriteriaQuery<?> query, CriteriaBuilder cb, String pattern) {
+        Subquery<Long> byEmail = query.subquery(Long.class);
+        Root<User> user = byEmail.from(User.class);
+        byEmail.select(user.get("id")).where(cb.like(cb.lower(user.get("email")), pattern));
+        Subquery<Long> byOrganization = query.subquery(Long.class);
+        Root<Organization> organization = byOrganization.from(Organization.class);
+        byOrganization.select(organization.get("user").get("id"))
+                .where(cb.like(cb.lower(organization.get("name")), pattern));
+        return cb.or(userId.in(byEmail), userId.in(byOrganization));
+    }
     /**
      * Map SurplusPost to AdminDonationResponse with full details
      */
@@ -271,7 +296,8 @@ public class AdminDonationService {
             }
         }
         // Get full timeline (including admin-only events)
-        List<DonationTimeline> timeline = timelineRepository.findBySurplusPostIdOrderByTimestampDesc(post.getId());
+        List<DonationTimeline> timeline = timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(
+                post.getId(), DonationTimelineRepository.timelineStart(post));
         List<DonationTimelineDTO> timelineDTOs = timeline.stream()
                 .map(this::mapToTimelineDTO)
                 .collect(Collectors.toList());
@@ -0,0 +1,82 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.AdminDonationSearchHit;
+import com.example.foodflow.model.dto.AdminSearchResponse;
+import com.example.foodflow.model.dto.AdminUserSearchHit;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.util.SearchTextUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+/**
+ * Relevance-ranked search across users, organizations and donations for admin triage.
+ *
+ * Matching and ranking run in PostgreSQL against the trigram and full-text GIN indexes from
+ * V78: substring and fuzzy (pg_trgm similarity) matches on email, organization name and
+ * donation title, plus full-text matches on donation title and description. Results come back
+ * best match first, with matched terms highlighted.
+ */
+@Service
+public class AdminSearchService {
+    private static final Logger log = LoggerFactory.getLogger(AdminSearchService.class);
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_LIMIT = 50;
+    private static final int SNIPPET_LENGTH = 160;
+    private final UserRepository userRepository;
+    private final SurplusPostRepository surplusPostRepository;
+    private final Timer searchTimer;
+    public AdminSearchService(UserRepository userRepository,
+                              SurplusPostRepository surplusPostRepository,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.surplusPostRepository = surplusPostRepository;
+        this.searchTimer = Timer.builder("foodflow.admin.search.duration")
+                .description("Time spent on ranked admin searches")
+                .register(meterRegistry);
+    }
+    @Transactional(readOnly = true)
+    public AdminSearchResponse search(String query, int limit) {
+        String term = SearchTextUtils.normalize(query);
+        if (term.length() < MIN_TERM_LENGTH) {
+            throw new IllegalArgumentException("Search term must be at least " + MIN_TERM_LENGTH + " characters");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String pattern = SearchTextUtils.containsPattern(term);
+        return searchTimer.record(() -> {
+            List<AdminUserSearchHit> users = userRepository.searchRanked(term, pattern, boundedLimit);
+            List<AdminDonationSearchHit> donations = surplusPostRepository.searchRanked(term, pattern, boundedLimit);
+            log.info("Admin search '{}' matched {} users and {} donations", term, users.size(), donations.size());
+            return AdminSearchResponse.builder()
+                    .query(term)
+                    .users(users.stream().map(hit -> toUserResult(hit, term)).toList())
+                    .donations(donations.stream().map(hit -> toDonationResult(hit, term)).toList())
+                    .build();
+        });
+    }
+    private AdminSearchResponse.UserResult toUserResult(AdminUserSearchHit hit, String term) {
+        return AdminSearchResponse.UserResult.builder()
+                .id(hit.getId())
+                .email(hit.getEmail())
+                .organizationName(hit.getOrganizationName())
+                .role(hit.getRole())
+                .accountStatus(hit.getAccountStatus())
+                .score(hit.getScore() != null ? hit.getScore() : 0.0)
+                .emailHighlight(SearchTextUtils.highlight(hit.getEmail(), term))
+                .organizationNameHighlight(SearchTextUtils.highlight(hit.getOrganizationName(), term))
+                .build();
+    }
+    private AdminSearchResponse.DonationResult toDonationResult(AdminDonationSearchHit hit, String term) {
+        return AdminSearchResponse.DonationResult.builder()
+                .id(hit.getId())
+                .title(hit.getTitle())
+                .status(hit.getStatus())
+                .score(hit.getScore() != null ? hit.getScore() : 0.0)
+                .titleHighlight(SearchTextUtils.highlight(hit.getTitle(), term))
+                .descriptionSnippet(SearchTextUtils.snippet(hit.getDescription(), term, SNIPPET_LENGTH))
+                .build();
+    }
+}
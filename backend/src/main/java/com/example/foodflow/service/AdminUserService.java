@@ -18,6 +18,7 @@ import com.example.foodflow.repository.ConversationRepository;
 import com.example.foodflow.repository.MessageRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.util.SearchTextUtils;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -87,7 +88,7 @@ public class AdminUserService {
         Page<User> users;
         // Build query based on filters
         if (search != null && !search.trim().isEmpty()) {
-            users = userRepository.findByEmailContainingIgnoreCase(search, pageable);
+            users = userRepository.searchByEmailOrOrganizationName(SearchTextUtils.containsPattern(search), pageable);
         } else if (role != null && accountStatus != null) {
             UserRole userRole = UserRole.valueOf(role.toUpperCase());
             AccountStatus status = AccountStatus.valueOf(accountStatus.toUpperCase());
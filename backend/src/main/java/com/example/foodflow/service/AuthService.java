@@ -42,6 +42,7 @@ public class AuthService {
     private final EmailNotificationService emailService;
     private final EmailVerificationTokenRepository verificationTokenRepository;
     private final PasswordValidator passwordValidator;
+    private final PasswordUpgradeService passwordUpgradeService;
     @Value("${password.policy.reset-token-expiry-minutes:15}")
     private int resetTokenExpiryMinutes;
     // In-memory storage for reset codes (expiry handled by timestamp)
@@ -71,7 +72,8 @@ public class AuthService {
                     ObjectMapper objectMapper,
                     EmailNotificationService emailService,
                     EmailVerificationTokenRepository verificationTokenRepository,
-                    PasswordValidator passwordValidator) {
+                    PasswordValidator passwordValidator,
+                    PasswordUpgradeService passwordUpgradeService) {
         this.userRepository = userRepository;
         this.organizationRepository = organizationRepository;
         this.passwordEncoder = passwordEncoder;
@@ -81,6 +83,7 @@ public class AuthService {
         this.emailService = emailService;
         this.verificationTokenRepository = verificationTokenRepository;
         this.passwordValidator = passwordValidator;
+        this.passwordUpgradeService = passwordUpgradeService;
     }
     @Transactional
     @Timed(value = "auth.service.registerDonor", description = "Time taken to register a donor")
@@ -275,6 +278,12 @@ public class AuthService {
                 metricsService.incrementAuthFailure("account_deactivated");
                 throw new com.example.foodflow.exception.BusinessException("error.auth.account_deactivated");
             }
+            // Re-hash with the current BCrypt strength if the stored hash uses an older one
+            try {
+                passwordUpgradeService.upgradeIfNeeded(user, request.getPassword());
+            } catch (RuntimeException e) {
+                log.warn("Password hash upgrade failed for user: {}", user.getEmail(), e);
+            }
             String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().toString());
             metricsService.incrementLoginSuccess();
             String organizationName = user.getOrganization() != null ? user.getOrganization().getName() : null;
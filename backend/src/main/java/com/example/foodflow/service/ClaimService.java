@@ -14,7 +14,9 @@ import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.repository.SyncedCalendarEventRepository;
 import com.example.foodflow.service.calendar.CalendarEventService;
 import com.example.foodflow.service.calendar.CalendarIntegrationService;
-import com.example.foodflow.service.calendar.CalendarSyncService;
+import com.example.foodflow.service.calendar.CalendarSyncJobQueue;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationClaimed;
 import com.example.foodflow.util.ExpiryDateTimeResolver;
 import com.example.foodflow.util.TimezoneResolver;
 import io.micrometer.core.annotation.Timed;
@@ -48,9 +50,10 @@ public class ClaimService {
     private final SmsService smsService;
     private final CalendarEventService calendarEventService;
     private final CalendarIntegrationService calendarIntegrationService;
-    private final CalendarSyncService calendarSyncService;
+    private final CalendarSyncJobQueue calendarSyncJobQueue;
     private final CalendarSyncPreferenceRepository calendarSyncPreferenceRepository;
     private final SyncedCalendarEventRepository syncedCalendarEventRepository;
+    private final DomainEventOutbox domainEventOutbox;
     @Autowired
     private Clock clock = Clock.systemUTC();
     @Autowired(required = false)
@@ -66,9 +69,10 @@ public class ClaimService {
                        SmsService smsService,
                        CalendarEventService calendarEventService,
                        CalendarIntegrationService calendarIntegrationService,
-                       CalendarSyncService calendarSyncService,
+                       CalendarSyncJobQueue calendarSyncJobQueue,
                        CalendarSyncPreferenceRepository calendarSyncPreferenceRepository,
-                       SyncedCalendarEventRepository syncedCalendarEventRepository) {
+                       SyncedCalendarEventRepository syncedCalendarEventRepository,
+                       DomainEventOutbox domainEventOutbox) {
         this.claimRepository = claimRepository;
         this.surplusPostRepository = surplusPostRepository;
         this.businessMetricsService = businessMetricsService;
@@ -80,9 +84,10 @@ public class ClaimService {
         this.smsService = smsService;
         this.calendarEventService = calendarEventService;
         this.calendarIntegrationService = calendarIntegrationService;
-        this.calendarSyncService = calendarSyncService;
+        this.calendarSyncJobQueue = calendarSyncJobQueue;
         this.calendarSyncPreferenceRepository = calendarSyncPreferenceRepository;
         this.syncedCalendarEventRepository = syncedCalendarEventRepository;
+        this.domainEventOutbox = domainEventOutbox;
     }
     @Transactional
     @Timed(value = "claim.service.create", description = "Time taken to create a claim")
@@ -249,13 +254,19 @@ public class ClaimService {
         businessMetricsService.incrementSurplusPostClaimed();
         businessMetricsService.incrementDonationsClaimed();
         businessMetricsService.recordTimer(sample, "claim.service.create", "status", claim.getStatus().toString());
-        // Award gamification points for claiming donation
-        try {
-            gamificationService.awardPoints(receiver.getId(), 5, "Claimed donation: " + surplusPost.getTitle());
-            gamificationService.checkAndUnlockAchievements(receiver.getId());
-        } catch (Exception e) {
-            logger.error("Failed to award gamification points for claimId={}: {}", claim.getId(), e.getMessage());
-        }
+        // Notifications, points and calendar events are delivered from the outbox after commit
+        domainEventOutbox.record(new DonationClaimed(claim.getId(), surplusPost.getId(), receiver.getId()));
+        return toClaimResponse(claim);
+    }
+    /**
+     * Tell the donor (per their notification preferences) and the receiver about a new claim.
+     */
+    void sendClaimNotifications(Claim claim) {
+        SurplusPost surplusPost = claim.getSurplusPost();
+        User receiver = claim.getReceiver();
+        String receiverName = receiver.getOrganization() != null
+            ? receiver.getOrganization().getName()
+            : receiver.getEmail();
         ClaimResponse response = toClaimResponse(claim);
         // Broadcast websocket event to donor (if they have notifications enabled)
         User donor = surplusPost.getDonor();
@@ -323,22 +334,22 @@ public class ClaimService {
         } catch (Exception e) {
             logger.error("Failed to send websocket notification to receiver: {}", e.getMessage());
         }
-        // Create calendar events for BOTH users if they have calendar enabled
-        logger.info("=== ATTEMPTING TO CREATE CALENDAR EVENTS FOR CLAIM {} ===", claim.getId());
+    }
+    /**
+     * Create the pickup calendar events for both parties and queue their sync. Failures propagate
+     * so the delivery is retried.
+     */
+    void createPickupCalendarEvents(Claim claim) {
+        User receiver = claim.getReceiver();
+        User donor = claim.getSurplusPost().getDonor();
+        logger.info("=== CREATING CALENDAR EVENTS FOR CLAIM {} ===", claim.getId());
         logger.info("Receiver: {}, Donor: {}", receiver.getId(), donor.getId());
-        try {
-            createCalendarEventForPickup(claim, receiver, false); // Receiver's event
-            createCalendarEventForPickup(claim, donor, true);     // Donor's event
-            logger.info("✅ Calendar event creation calls completed for claim {}", claim.getId());
-            // Trigger async sync immediately for both users if they have calendar integrated
-            triggerCalendarSyncIfEnabled(receiver);
-            triggerCalendarSyncIfEnabled(donor);
-        } catch (Exception e) {
-            // Log but don't fail the claim if calendar sync fails
-            logger.error("❌ Failed to create calendar events for claim {}: {}", 
-                         claim.getId(), e.getMessage(), e);
-        }
-        return response;
+        createCalendarEventForPickup(claim, receiver, false); // Receiver's event
+        createCalendarEventForPickup(claim, donor, true);     // Donor's event
+        logger.info("✅ Calendar event creation calls completed for claim {}", claim.getId());
+        // Trigger async sync for both users if they have calendar integrated
+        triggerCalendarSyncIfEnabled(receiver);
+        triggerCalendarSyncIfEnabled(donor);
     }
     private void ensureAccountApprovedForClaims(User receiver) {
         if (receiver == null || receiver.getAccountStatus() != AccountStatus.ACTIVE) {
@@ -814,20 +825,20 @@ public class ClaimService {
                 return;
             }
             // Register callback to trigger async sync AFTER transaction commits
-            // This fixes the bug where @Async threads query before the transaction commits
+            // This fixes the bug where sync workers query before the transaction commits
             if (TransactionSynchronizationManager.isSynchronizationActive()) {
                 logger.info("📌 Registering post-commit sync callback for user {}", user.getId());
                 TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                     @Override
                     public void afterCommit() {
-                        logger.info("🚀 [POST-COMMIT] Triggering async calendar sync for user {}", user.getId());
-                        calendarSyncService.syncUserPendingEventsAsync(user);
+                        logger.info("🚀 [POST-COMMIT] Queueing calendar sync for user {}", user.getId());
+                        calendarSyncJobQueue.requestSync(user);
                     }
                 });
             } else {
                 // Fallback: trigger immediately if no transaction is active
-                logger.info("🚀 Triggering async calendar sync for user {} (no active transaction)", user.getId());
-                calendarSyncService.syncUserPendingEventsAsync(user);
+                logger.info("🚀 Queueing calendar sync for user {} (no active transaction)", user.getId());
+                calendarSyncJobQueue.requestSync(user);
             }
         } catch (Exception e) {
             logger.error("Error triggering calendar sync for user {}: {}", user.getId(), e.getMessage());
@@ -1,31 +1,74 @@
 package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SupportChatRequest;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.Resource;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.InputStream;
+import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 /**
  * Simplified context-driven support service that provides comprehensive app
  * information
- * to AI for natural language responses instead of rigid intent classification
+ * to AI for natural language responses instead of rigid intent classification.
+ *
+ * The static part of the prompt only depends on role and language, so it is rendered once
+ * per combination and reused. Answers to generic questions are cached per user by
+ * normalized question text.
  */
 @Service
 public class ContextualSupportService {
+    private static final Logger log = LoggerFactory.getLogger(ContextualSupportService.class);
+    private static final List<String> PRERENDERED_ROLES = List.of("DONOR", "RECEIVER", "ADMIN");
+    private static final List<String> SUPPORTED_LANGUAGES = List.of("en", "fr", "es", "zh", "ar", "pt");
+    private static final int MAX_CACHEABLE_QUESTION_LENGTH = 300;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
     private final ResourceLoader resourceLoader;
     private final ObjectMapper objectMapper;
     private final OpenAIService openAIService;
+    private final int maxCompletionTokens;
+    private final int maxRequestTokens;
+    private final Map<String, PromptTemplate> promptTemplates = new ConcurrentHashMap<>();
+    private final Cache<String, String> answerCache;
     private JsonNode appContext;
-    public ContextualSupportService(ResourceLoader resourceLoader, 
+    public ContextualSupportService(ResourceLoader resourceLoader,
                                    ObjectMapper objectMapper,
                                    OpenAIService openAIService) {
+        this(resourceLoader, objectMapper, openAIService, 500, 8000, 1000, 360);
+    }
+    @Autowired
+    public ContextualSupportService(ResourceLoader resourceLoader,
+                                   ObjectMapper objectMapper,
+                                   OpenAIService openAIService,
+                                   @Value("${app.openai.max-tokens:500}") int maxCompletionTokens,
+                                   @Value("${app.openai.max-request-tokens:8000}") int maxRequestTokens,
+                                   @Value("${app.support.answer-cache.max-size:1000}") long answerCacheMaxSize,
+                                   @Value("${app.support.answer-cache.ttl-minutes:360}") long answerCacheTtlMinutes) {
         this.resourceLoader = resourceLoader;
         this.objectMapper = objectMapper;
         this.openAIService = openAIService;
+        this.maxCompletionTokens = maxCompletionTokens;
+        this.maxRequestTokens = maxRequestTokens;
+        this.answerCache = CacheBuilder.newBuilder()
+                .maximumSize(answerCacheMaxSize)
+                .expireAfterWrite(answerCacheTtlMinutes, TimeUnit.MINUTES)
+                .build();
         loadAppContext();
+        for (String role : PRERENDERED_ROLES) {
+            for (String language : SUPPORTED_LANGUAGES) {
+                promptTemplate(role, language);
+            }
+        }
     }
     /**
      * Load comprehensive app context from JSON file
@@ -45,14 +88,25 @@ public class ContextualSupportService {
     public Map<String, Object> generateResponse(String userMessage, String userRole, String language,
             Map<String, Object> userContext) {
         String normalizedLanguage = normalizeLanguage(language);
-        // Build comprehensive context for AI
-        String systemContext = buildSystemContext(userRole, normalizedLanguage, userContext);
-        // Create AI prompt with full context
-        String prompt = buildAIPrompt(systemContext, userMessage, userRole);
         try {
-            // Get natural AI response
-            String aiResponse = openAIService.generateSupportResponse(
-                    prompt, "", null, normalizedLanguage);
+            // Generic questions are answered from the cache; anything tied to a specific
+            // donation or claim always goes to the model
+            String cacheKey = answerCacheKey(userMessage, userRole, normalizedLanguage, userContext);
+            String aiResponse = cacheKey != null ? answerCache.getIfPresent(cacheKey) : null;
+            if (aiResponse == null) {
+                // A cached answer is shared by everyone with the same role and language, so it is
+                // generated without the asking user's own details
+                Map<String, Object> promptContext = cacheKey != null
+                        ? sharedContext(userRole, normalizedLanguage)
+                        : userContext;
+                String prompt = buildPrompt(userMessage, userRole, normalizedLanguage, promptContext);
+                // Get natural AI response
+                aiResponse = openAIService.generateSupportResponse(
+                        prompt, "", null, normalizedLanguage);
+                if (cacheKey != null && isCacheableAnswer(userMessage, aiResponse, normalizedLanguage)) {
+                    answerCache.put(cacheKey, aiResponse);
+                }
+            }
             // Parse response and add contextual actions
             Map<String, Object> response = new HashMap<>();
             response.put("reply", aiResponse);
@@ -72,82 +126,140 @@ public class ContextualSupportService {
         }
     }
     /**
-     * Build comprehensive system context including app info and user data
+     * Assemble the full prompt from the pre-rendered template for this role and language.
+     * Optional sections are dropped, least useful first, only when the prompt would not
+     * leave room for the completion within the request token budget.
      */
-    private String buildSystemContext(String userRole, String language, Map<String, Object> userContext) {
-        StringBuilder context = new StringBuilder();
-        // App overview
-        context.append("# FoodFlow App Context\n\n");
-        context.append("## App Overview\n");
-        context.append(appContext.get("app_overview").toString()).append("\n\n");
+    String buildPrompt(String userMessage, String userRole, String language, Map<String, Object> userContext) {
+        PromptTemplate template = promptTemplate(userRole, language);
+        String dynamicContext = renderUserContext(template, userContext);
+        String question = renderQuestion(userMessage, template.role);
+        int budget = promptTokenBudget();
+        int dynamicTokens = estimateTokens(dynamicContext) + estimateTokens(question);
+        if (template.fullTokens + dynamicTokens <= budget) {
+            return template.fullText + dynamicContext + question;
+        }
+        List<PromptSection> kept = new ArrayList<>(template.sections);
+        int total = template.fullTokens + dynamicTokens;
+        List<PromptSection> byDropOrder = new ArrayList<>(template.sections);
+        byDropOrder.removeIf(section -> section.dropRank == 0);
+        byDropOrder.sort(Comparator.comparingInt((PromptSection section) -> section.dropRank).reversed());
+        for (PromptSection section : byDropOrder) {
+            if (total <= budget) {
+                break;
+            }
+            kept.remove(section);
+            total -= section.tokens;
+        }
+        if (total > budget) {
+            log.warn("Support prompt for role {} needs ~{} tokens, over the {} token budget even after trimming",
+                    template.role, total, budget);
+        }
+        StringBuilder prompt = new StringBuilder(template.fullText.length() + dynamicContext.length()
+                + question.length());
+        kept.forEach(section -> prompt.append(section.text));
+        return prompt.append(dynamicContext).append(question).toString();
+    }
+    /**
+     * Tokens available for the prompt once the completion allowance is reserved.
+     */
+    int promptTokenBudget() {
+        return Math.max(maxRequestTokens - maxCompletionTokens, 0);
+    }
+    private PromptTemplate promptTemplate(String userRole, String language) {
+        String role = String.valueOf(userRole);
+        return promptTemplates.computeIfAbsent(role + '|' + language,
+                key -> renderTemplate(role, language));
+    }
+    /**
+     * Pre-render the static part of the prompt for one role and language: the instruction
+     * header followed by the app context sections, in the order the model has always seen them.
+     */
+    private PromptTemplate renderTemplate(String userRole, String language) {
+        List<PromptSection> sections = new ArrayList<>();
+        sections.add(new PromptSection(renderInstructions(userRole)
+                + "# FoodFlow App Context\n\n"
+                + "## App Overview\n"
+                + appContext.get("app_overview").toString() + "\n\n", 0));
         // User role-specific workflows
-        context.append("## User Workflows\n");
+        JsonNode workflows = appContext.get("user_workflows");
         if ("DONOR".equals(userRole)) {
-            context.append("### Donor Workflow (Current User)\n");
-            context.append(appContext.get("user_workflows").get("donor_workflow").toString()).append("\n");
-            context.append("### Receiver Workflow (For Reference)\n");
-            context.append(appContext.get("user_workflows").get("receiver_workflow").toString()).append("\n\n");
+            sections.add(new PromptSection("## User Workflows\n"
+                    + "### Donor Workflow (Current User)\n"
+                    + workflows.get("donor_workflow").toString() + "\n", 0));
+            sections.add(new PromptSection("### Receiver Workflow (For Reference)\n"
+                    + workflows.get("receiver_workflow").toString() + "\n\n", 4));
         } else if ("RECEIVER".equals(userRole)) {
-            context.append("### Receiver Workflow (Current User)\n");
-            context.append(appContext.get("user_workflows").get("receiver_workflow").toString()).append("\n");
-            context.append("### Donor Workflow (For Reference)\n");
-            context.append(appContext.get("user_workflows").get("donor_workflow").toString()).append("\n\n");
+            sections.add(new PromptSection("## User Workflows\n"
+                    + "### Receiver Workflow (Current User)\n"
+                    + workflows.get("receiver_workflow").toString() + "\n", 0));
+            sections.add(new PromptSection("### Donor Workflow (For Reference)\n"
+                    + workflows.get("donor_workflow").toString() + "\n\n", 4));
+        } else {
+            sections.add(new PromptSection("## User Workflows\n", 0));
         }
-        // Key concepts
-        context.append("## Key Concepts\n");
-        context.append(appContext.get("key_concepts").toString()).append("\n\n");
-        // Common questions
-        context.append("## Common User Questions & Answers\n");
-        context.append(appContext.get("common_user_questions").toString()).append("\n\n");
-        // Troubleshooting
-        context.append("## Troubleshooting Guide\n");
-        context.append(appContext.get("troubleshooting").toString()).append("\n\n");
-        // Policies
-        context.append("## Platform Policies\n");
-        context.append(appContext.get("policies_and_rules").toString()).append("\n\n");
-        // User-specific context
-        if (userContext != null && !userContext.isEmpty()) {
-            context.append("## Current User Context\n");
-            context.append("User Role: ").append(userRole).append("\n");
-            context.append("Language Preference: ").append(language).append("\n");
-            // Add detailed user context
-            userContext.forEach((key, value) -> {
-                if ("userPreferences".equals(key) && value instanceof Map) {
-                    context.append("User Preferences:\n");
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> prefs = (Map<String, Object>) value;
-                    prefs.forEach((prefKey, prefValue) -> context.append("  - ").append(prefKey).append(": ")
-                            .append(prefValue).append("\n"));
-                } else {
-                    context.append(key).append(": ").append(value).append("\n");
-                }
-            });
-            // Add role-specific capabilities
-            context.append("\nUser Capabilities based on role ").append(userRole).append(":\n");
-            if ("DONOR".equals(userRole)) {
-                context.append("- Can create and manage food donations\n");
-                context.append("- Can verify pickup codes shown by receivers during pickup\n");
-                context.append("- Cannot generate or view pickup codes\n");
-                context.append("- Confirms pickup by entering the receiver's OTP in the app\n");
-                context.append("- Can message receivers who claim their donations\n");
-                context.append("- Can rate receivers after successful pickups\n");
-            } else if ("RECEIVER".equals(userRole)) {
-                context.append("- Can browse and claim available food donations\n");
-                context.append("- Can message donors after claiming\n");
-                context.append("- Sees pickup code in claim pickup steps during the active pickup window\n");
-                context.append("- Can rate donors after successful pickups\n");
-            } else if ("ADMIN".equals(userRole)) {
-                context.append("- Can moderate all content and users\n");
-                context.append("- Can handle user reports and disputes\n");
-                context.append("- Has access to system administration features\n");
+        // Drop rank: higher values are trimmed first when the budget is tight
+        sections.add(new PromptSection("## Key Concepts\n"
+                + appContext.get("key_concepts").toString() + "\n\n", 1));
+        sections.add(new PromptSection("## Common User Questions & Answers\n"
+                + appContext.get("common_user_questions").toString() + "\n\n", 3));
+        sections.add(new PromptSection("## Troubleshooting Guide\n"
+                + appContext.get("troubleshooting").toString() + "\n\n", 5));
+        sections.add(new PromptSection("## Platform Policies\n"
+                + appContext.get("policies_and_rules").toString() + "\n\n", 2));
+        String userContextHeader = "## Current User Context\n"
+                + "User Role: " + userRole + "\n"
+                + "Language Preference: " + language + "\n";
+        return new PromptTemplate(userRole, sections, userContextHeader, renderCapabilities(userRole));
+    }
+    /**
+     * Render the per-request user context block; empty when there is no user context.
+     */
+    private String renderUserContext(PromptTemplate template, Map<String, Object> userContext) {
+        if (userContext == null || userContext.isEmpty()) {
+            return "";
+        }
+        StringBuilder context = new StringBuilder(template.userContextHeader);
+        // Add detailed user context
+        userContext.forEach((key, value) -> {
+            if ("userPreferences".equals(key) && value instanceof Map) {
+                context.append("User Preferences:\n");
+                @SuppressWarnings("unchecked")
+                Map<String, Object> prefs = (Map<String, Object>) value;
+                prefs.forEach((prefKey, prefValue) -> context.append("  - ").append(prefKey).append(": ")
+                        .append(prefValue).append("\n"));
+            } else {
+                context.append(key).append(": ").append(value).append("\n");
             }
+        });
+        return context.append(template.capabilities).toString();
+    }
+    private String renderCapabilities(String userRole) {
+        StringBuilder context = new StringBuilder();
+        context.append("\nUser Capabilities based on role ").append(userRole).append(":\n");
+        if ("DONOR".equals(userRole)) {
+            context.append("- Can create and manage food donations\n");
+            context.append("- Can verify pickup codes shown by receivers during pickup\n");
+            context.append("- Cannot generate or view pickup codes\n");
+            context.append("- Confirms pickup by entering the receiver's OTP in the app\n");
+            context.append("- Can message receivers who claim their donations\n");
+            context.append("- Can rate receivers after successful pickups\n");
+        } else if ("RECEIVER".equals(userRole)) {
+            context.append("- Can browse and claim available food donations\n");
+            context.append("- Can message donors after claiming\n");
+            context.append("- Sees pickup code in claim pickup steps during the active pickup window\n");
+            context.append("- Can rate donors after successful pickups\n");
+        } else if ("ADMIN".equals(userRole)) {
+            context.append("- Can moderate all content and users\n");
+            context.append("- Can handle user reports and disputes\n");
+            context.append("- Has access to system administration features\n");
         }
         return context.toString();
     }
     /**
-     * Build AI prompt with instructions for natural support responses
+     * Instructions that precede the app context in every prompt
      */
-    private String buildAIPrompt(String systemContext, String userMessage, String userRole) {
+    private String renderInstructions(String userRole) {
         return String.format(
                 """
                         You are the FoodFlow support assistant. You help users with questions about the food sharing platform.
@@ -179,11 +291,71 @@ public class ContextualSupportService {
                         - Only suggest contacting support for: safety/security issues, technical bugs, account lockouts, user disputes
                         - Do NOT escalate for: how-to questions, feature explanations, workflow guidance, common troubleshooting
                         COMPREHENSIVE APP CONTEXT:
-                        %s
-                        USER QUESTION: "%s"
-                        Based on the user's role (%s) and the context above, provide a helpful, specific response:
                         """,
-                userRole, systemContext, userMessage, userRole);
+                userRole);
+    }
+    private String renderQuestion(String userMessage, String userRole) {
+        return "\nUSER QUESTION: \"" + userMessage + "\"\n"
+                + "Based on the user's role (" + userRole + ") and the context above, provide a helpful, specific response:\n";
+    }
+    /**
+     * Rough token estimate: about four characters per token for Latin text, one token per
+     * character for other scripts, which keeps the count conservative for zh and ar.
+     */
+    static int estimateTokens(CharSequence text) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (!Character.isLowSurrogate(c)) {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+    /**
+     * Cache key for a reusable answer, or null when the question must not be answered from cache.
+     * Reusable answers depend only on the role, language and question; questions tied to a
+     * specific donation or claim are always answered with the user's full context.
+     */
+    String answerCacheKey(String userMessage, String userRole, String language, Map<String, Object> userContext) {
+        if (userMessage == null || userMessage.length() > MAX_CACHEABLE_QUESTION_LENGTH) {
+            return null;
+        }
+        if (userContext != null
+                && userContext.get("pageContext") instanceof SupportChatRequest.PageContext page
+                && (page.getDonationId() != null || page.getClaimId() != null)) {
+            return null;
+        }
+        String normalized = normalizeQuestion(userMessage);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return userRole + '|' + language + '|' + normalized;
+    }
+    /**
+     * The part of the user context every user with this role and language has in common.
+     */
+    private static Map<String, Object> sharedContext(String userRole, String language) {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("role", userRole);
+        context.put("language", language);
+        return context;
+    }
+    /**
+     * Fold case, width and punctuation so trivially different phrasings share a cache entry.
+     */
+    static String normalizeQuestion(String question) {
+        String folded = Normalizer.normalize(question, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(folded).replaceAll(" ").trim();
+    }
+    private boolean isCacheableAnswer(String userMessage, String aiResponse, String language) {
+        return aiResponse != null && !aiResponse.isBlank()
+                && !openAIService.isEscalationMessage(aiResponse, language)
+                && !isEscalationResponse(aiResponse)
+                && !shouldEscalate(userMessage, aiResponse);
     }
     /**
      * Generate contextual action buttons based on the question and user role
@@ -346,4 +518,37 @@ public class ContextualSupportService {
                 "I'm having trouble processing your request right now. Here are some helpful links, or you can contact our support team directly.";
         };
     }
+    private static final class PromptSection {
+        private final String text;
+        private final int tokens;
+        private final int dropRank;
+        private PromptSection(String text, int dropRank) {
+            this.text = text;
+            this.tokens = estimateTokens(text);
+            this.dropRank = dropRank;
+        }
+    }
+    private static final class PromptTemplate {
+        private final String role;
+        private final List<PromptSection> sections;
+        private final String fullText;
+        private final int fullTokens;
+        private final String userContextHeader;
+        private final String capabilities;
+        private PromptTemplate(String role, List<PromptSection> sections, String userContextHeader,
+                               String capabilities) {
+            this.role = role;
+            this.sections = List.copyOf(sections);
+            StringBuilder full = new StringBuilder();
+            int tokens = 0;
+            for (PromptSection section : sections) {
+                full.append(section.text);
+                tokens += section.tokens;
+            }
+            this.fullText = full.toString();
+            this.fullTokens = tokens;
+            this.userContextHeader = userContextHeader;
+            this.capabilities = capabilities;
+        }
+    }
 }
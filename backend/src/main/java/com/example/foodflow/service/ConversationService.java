@@ -121,12 +121,9 @@ public class ConversationService {
         Long unreadCount = 0L;
         if (conversationAlreadyExists) {
             conversation = conversationOptional.get();
-            // This can be done more efficiently by creating a service that returns the most
-            // recent message
-            List<Message> messages = messageRepository.findByConversationId(conversation.getId());
-            if (!messages.isEmpty()) {
-                lastMessagePreview = messages.get(messages.size() - 1).getMessageBody();
-            }
+            lastMessagePreview = messageRepository.findLastMessageInConversation(conversation.getId())
+                    .map(Message::getMessageBody)
+                    .orElse(lastMessagePreview);
             unreadCount = messageRepository.countUnreadInConversation(
                     conversation.getId(),
                     currentUser.getId());
@@ -165,9 +162,9 @@ public class ConversationService {
     public ConversationResponse getConversationResponse(Long conversationId, User currentUser) {
         Conversation conversation = getConversation(conversationId, currentUser);
         // Get last message
-        List<Message> messages = messageRepository.findByConversationId(conversationId);
-        String lastMessagePreview = messages.isEmpty() ? "No messages yet"
-                : messages.get(messages.size() - 1).getMessageBody();
+        String lastMessagePreview = messageRepository.findLastMessageInConversation(conversationId)
+                .map(Message::getMessageBody)
+                .orElse("No messages yet");
         // Get unread count
         long unreadCount = messageRepository.countUnreadInConversation(
                 conversationId,
@@ -187,9 +184,9 @@ public class ConversationService {
                 .orElseThrow(() -> new com.example.foodflow.exception.domain.ConversationNotFoundException(
                         "No conversation found for this post"));
         // Get last message
-        List<Message> messages = messageRepository.findByConversationId(conversation.getId());
-        String lastMessagePreview = messages.isEmpty() ? "No messages yet"
-                : messages.get(messages.size() - 1).getMessageBody();
+        String lastMessagePreview = messageRepository.findLastMessageInConversation(conversation.getId())
+                .map(Message::getMessageBody)
+                .orElse("No messages yet");
         // Get unread count
         long unreadCount = messageRepository.countUnreadInConversation(
                 conversation.getId(),
@@ -231,9 +228,9 @@ public class ConversationService {
                     return conversationRepository.save(newConv);
                 });
         // Get last message (if any)
-        List<Message> messages = messageRepository.findByConversationId(conversation.getId());
-        String lastMessagePreview = messages.isEmpty() ? "No messages yet"
-                : messages.get(messages.size() - 1).getMessageBody();
+        String lastMessagePreview = messageRepository.findLastMessageInConversation(conversation.getId())
+                .map(Message::getMessageBody)
+                .orElse("No messages yet");
         // Get unread count
         long unreadCount = messageRepository.countUnreadInConversation(
                 conversation.getId(),
@@ -269,10 +266,9 @@ public class ConversationService {
         if (alreadyExists) {
             conversation = existingThread.get();
             // Get last message preview
-            List<Message> messages = messageRepository.findByConversationId(conversation.getId());
-            if (!messages.isEmpty()) {
-                lastMessagePreview = messages.get(messages.size() - 1).getMessageBody();
-            }
+            lastMessagePreview = messageRepository.findLastMessageInConversation(conversation.getId())
+                    .map(Message::getMessageBody)
+                    .orElse(lastMessagePreview);
             unreadCount = messageRepository.countUnreadInConversation(conversation.getId(), receiver.getId());
         } else {
             // Create new donation-anchored thread
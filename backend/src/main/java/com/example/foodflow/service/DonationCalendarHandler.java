@@ -0,0 +1,42 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.ClaimRepository;
+import com.example.foodflow.service.events.DomainEvent;
+import com.example.foodflow.service.events.DomainEventHandler;
+import com.example.foodflow.service.events.DonationClaimed;
+import com.example.foodflow.service.events.PickupConfirmed;
+import org.springframework.stereotype.Service;
+import java.util.Set;
+/**
+ * Pickup calendar events: created when a donation is claimed, marked completed when the pickup
+ * is confirmed. The external calendar sync itself is still queued on the calendar sync pool.
+ */
+@Service
+public class DonationCalendarHandler implements DomainEventHandler {
+    static final String NAME = "calendar";
+    private final ClaimRepository claimRepository;
+    private final ClaimService claimService;
+    private final SurplusService surplusService;
+    public DonationCalendarHandler(ClaimRepository claimRepository,
+                                   ClaimService claimService,
+                                   SurplusService surplusService) {
+        this.claimRepository = claimRepository;
+        this.claimService = claimService;
+        this.surplusService = surplusService;
+    }
+    @Override
+    public String name() {
+        return NAME;
+    }
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(DonationClaimed.TYPE, PickupConfirmed.TYPE);
+    }
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof DonationClaimed claimed) {
+            claimRepository.findById(claimed.claimId()).ifPresent(claimService::createPickupCalendarEvents);
+        } else if (event instanceof PickupConfirmed confirmed) {
+            claimRepository.findById(confirmed.claimId()).ifPresent(surplusService::completePickupCalendarEvents);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.types.DietaryMatchMode;
+import com.example.foodflow.model.types.DietaryTag;
+import com.example.foodflow.model.types.FoodCategory;
+import com.example.foodflow.model.types.Location;
+import com.example.foodflow.util.ExpiryDateTimeResolver;
+import com.example.foodflow.util.SearchTextUtils;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+/**
+ * In-memory inverted index over standing donation-feed subscriptions.
+ *
+ * Each subscription is filed under the food categories it asks for (or a wildcard bucket when it
+ * asks for none) and under every geo cell its search radius touches (or a wildcard bucket when it
+ * has no location filter). Matching a post only looks at the buckets for the post's categories and
+ * its pickup cell, then runs the exact {@link SurplusFilterRequest} checks on that short list, so the
+ * cost scales with the number of plausible subscribers rather than with every open subscription.
+ *
+ * Writes are serialized; reads work on immutable snapshots of each bucket and never block.
+ */
+public final class DonationFeedIndex {
+    /** Roughly 28 km of latitude per cell. */
+    static final double CELL_DEGREES = 0.25;
+    /** Radii that would cover more cells than this are treated as "anywhere". */
+    static final int MAX_CELLS_PER_SUBSCRIPTION = 400;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private final Map<String, Subscription> subscriptions = new HashMap<>();
+    private final Map<FoodCategory, Set<Subscription>> byCategory = new EnumMap<>(FoodCategory.class);
+    private final Map<Long, Set<Subscription>> byCell = new HashMap<>();
+    private volatile Set<Subscription> anyCategory = Set.of();
+    private volatile Set<Subscription> anyLocation = Set.of();
+    private volatile Map<FoodCategory, Set<Subscription>> categorySnapshot = Map.of();
+    private volatile Map<Long, Set<Subscription>> cellSnapshot = Map.of();
+    public synchronized void add(Subscription subscription) {
+        if (subscriptions.putIfAbsent(subscription.getId(), subscription) != null) {
+            throw new IllegalArgumentException("Duplicate feed subscription id " + subscription.getId());
+        }
+        rebuildBuckets(subscription, true);
+    }
+    public synchronized Subscription remove(String subscriptionId) {
+        Subscription removed = subscriptions.remove(subscriptionId);
+        if (removed != null) {
+            rebuildBuckets(removed, false);
+        }
+        return removed;
+    }
+    public synchronized List<Subscription> removeIf(Predicate<Subscription> predicate) {
+        List<Subscription> removed = subscriptions.values().stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+        removed.forEach(subscription -> {
+            subscriptions.remove(subscription.getId());
+            rebuildBuckets(subscription, false);
+        });
+        return removed;
+    }
+    public synchronized Subscription get(String subscriptionId) {
+        return subscriptions.get(subscriptionId);
+    }
+    public synchronized long countForUser(Long userId) {
+        return subscriptions.values().stream().filter(s -> s.getUserId().equals(userId)).count();
+    }
+    public synchronized int size() {
+        return subscriptions.size();
+    }
+    /**
+     * Subscriptions sharing a bucket with the post, before the exact filter checks.
+     */
+    Set<Subscription> candidates(SurplusPost post) {
+        Map<FoodCategory, Set<Subscription>> categories = categorySnapshot;
+        Set<Subscription> categoryHits = new HashSet<>(anyCategory);
+        if (post.getFoodCategories() != null) {
+            for (FoodCategory category : post.getFoodCategories()) {
+                categoryHits.addAll(categories.getOrDefault(category, Set.of()));
+            }
+        }
+        if (categoryHits.isEmpty()) {
+            return Set.of();
+        }
+        Set<Subscription> inAnyLocation = anyLocation;
+        Long cell = cellOf(post.getPickupLocation());
+        Set<Subscription> inCell = cell != null ? cellSnapshot.getOrDefault(cell, Set.of()) : Set.of();
+        Set<Subscription> candidates = new LinkedHashSet<>();
+        for (Subscription subscription : categoryHits) {
+            if (inAnyLocation.contains(subscription) || inCell.contains(subscription)) {
+                candidates.add(subscription);
+            }
+        }
+        return candidates;
+    }
+    /**
+     * Subscriptions whose filter fully matches the post.
+     */
+    public List<Subscription> match(SurplusPost post) {
+        List<Subscription> matches = new ArrayList<>();
+        for (Subscription subscription : candidates(post)) {
+            if (subscription.matches(post)) {
+                matches.add(subscription);
+            }
+        }
+        return matches;
+    }
+    private void rebuildBuckets(Subscription subscription, boolean adding) {
+        if (subscription.getCategories().isEmpty()) {
+            anyCategory = withOrWithout(anyCategory, subscription, adding);
+        } else {
+            for (FoodCategory category : subscription.getCategories()) {
+                updateBucket(byCategory, category, subscription, adding);
+            }
+            categorySnapshot = Collections.unmodifiableMap(new EnumMap<>(byCategory));
+        }
+        if (subscription.getCells() == null) {
+            anyLocation = withOrWithout(anyLocation, subscription, adding);
+        } else {
+            for (Long cell : subscription.getCells()) {
+                updateBucket(byCell, cell, subscription, adding);
+            }
+            cellSnapshot = Map.copyOf(byCell);
+        }
+    }
+    private static <K> void updateBucket(Map<K, Set<Subscription>> buckets, K key, Subscription subscription,
+                                         boolean adding) {
+        Set<Subscription> updated = withOrWithout(buckets.getOrDefault(key, Set.of()), subscription, adding);
+        if (updated.isEmpty()) {
+            buckets.remove(key);
+        } else {
+            buckets.put(key, updated);
+        }
+    }
+    private static Set<Subscription> withOrWithout(Set<Subscription> bucket, Subscription subscription,
+                                                   boolean adding) {
+        Set<Subscription> copy = new HashSet<>(bucket);
+        if (adding) {
+            copy.add(subscription);
+        } else {
+            copy.remove(subscription);
+        }
+        return Set.copyOf(copy);
+    }
+    static Long cellOf(Location location) {
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return null;
+        }
+        return cellKey(cellIndex(location.getLatitude()), cellIndex(location.getLongitude()));
+    }
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+    private static long cellKey(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+    /**
+     * Cells covered by the bounding box of the search radius, or {@code null} when the filter has
+     * no location or the radius is too wide to be worth indexing.
+     */
+    static Set<Long> cellsFor(SurplusFilterRequest filter) {
+        if (!filter.hasLocationFilter()) {
+            return null;
+        }
+        double latitude = filter.getUserLocation().getLatitude();
+        double longitude = filter.getUserLocation().getLongitude();
+        double radiusKm = filter.getMaxDistanceKm();
+        double latSpan = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        if (cosLat < 0.01) {
+            return null;
+        }
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LATITUDE * cosLat);
+        long minLat = cellIndex(latitude - latSpan);
+        long maxLat = cellIndex(latitude + latSpan);
+        long minLon = cellIndex(longitude - lonSpan);
+        long maxLon = cellIndex(longitude + lonSpan);
+        if ((maxLat - minLat + 1) * (maxLon - minLon + 1) > MAX_CELLS_PER_SUBSCRIPTION) {
+            return null;
+        }
+        Set<Long> cells = new HashSet<>();
+        for (long lat = minLat; lat <= maxLat; lat++) {
+            for (long lon = minLon; lon <= maxLon; lon++) {
+                cells.add(cellKey(lat, lon));
+            }
+        }
+        return Set.copyOf(cells);
+    }
+    /**
+     * One standing subscription. Equality is identity, so re-registering the same filter creates a
+     * separate entry with its own id.
+     */
+    public static final class Subscription {
+        private final String id;
+        private final Long userId;
+        private final String sessionId;
+        private final String timezone;
+        private final String country;
+        private final SurplusFilterRequest filter;
+        private final Set<FoodCategory> categories;
+        private final Set<String> dietaryTags;
+        private final Set<Long> cells;
+        /**
+         * @param country the receiver's country, or null to accept posts from anywhere
+         */
+        public Subscription(String id, Long userId, String sessionId, String timezone, String country,
+                            SurplusFilterRequest filter) {
+            this.id = id;
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.timezone = timezone;
+            this.country = country == null || country.trim().isEmpty() ? null : country.trim();
+            this.filter = filter;
+            this.categories = filter.hasFoodCategories()
+                    ? EnumSet.copyOf(filter.getFoodCategories().stream()
+                            .map(FoodCategory::valueOf)
+                            .collect(Collectors.toList()))
+                    : EnumSet.noneOf(FoodCategory.class);
+            this.dietaryTags = filter.hasDietaryTags()
+                    ? filter.getDietaryTags().stream().map(DietaryTag::name).collect(Collectors.toUnmodifiableSet())
+                    : Set.of();
+            this.cells = cellsFor(filter);
+        }
+        public String getId() { return id; }
+        public Long getUserId() { return userId; }
+        public String getSessionId() { return sessionId; }
+        public String getTimezone() { return timezone; }
+        public String getCountry() { return country; }
+        public SurplusFilterRequest getFilter() { return filter; }
+        Set<FoodCategory> getCategories() { return categories; }
+        Set<Long> getCells() { return cells; }
+        /**
+         * The same checks {@code POST /api/surplus/search} applies, evaluated against a single post.
+         */
+        boolean matches(SurplusPost post) {
+            if (filter.hasStatus() && (post.getStatus() == null
+                    || !post.getStatus().name().equalsIgnoreCase(filter.getStatus().trim()))) {
+                return false;
+            }
+            if (!inReceiverCountry(post)) {
+                return false;
+            }
+            if (!categories.isEmpty() && !containsAny(categories, post.getFoodCategories())) {
+                return false;
+            }
+            if (filter.hasFoodTypes() && !filter.getFoodTypes().contains(post.getFoodType())) {
+                return false;
+            }
+            if (!dietaryTags.isEmpty()) {
+                DietaryMatchMode mode = filter.getDietaryMatch() != null ? filter.getDietaryMatch() : DietaryMatchMode.ANY;
+                if (!SurplusService.matchesDietaryTags(post.getDietaryTags(), dietaryTags, mode)) {
+                    return false;
+                }
+            }
+            if (filter.hasExpiryBefore() || filter.hasExpiryAfter()) {
+                LocalDateTime expiry = ExpiryDateTimeResolver.resolveEffectiveExpiryUtc(post);
+                if (expiry == null) {
+                    return false;
+                }
+                if (filter.hasExpiryBefore() && expiry.isAfter(filter.getExpiryBefore().atTime(23, 59, 59))) {
+                    return false;
+                }
+                if (filter.hasExpiryAfter() && expiry.isBefore(filter.getExpiryAfter().atStartOfDay())) {
+                    return false;
+                }
+            }
+            // Word containment stands in for the full-text match, which needs the database
+            if (filter.hasQuery() && !SearchTextUtils.containsAllWords(
+                    post.getTitle() + " " + post.getSearchLabels() + " " + post.getDescription(), filter.getQuery())) {
+                return false;
+            }
+            if (filter.hasLocationFilter()) {
+                Location pickup = post.getPickupLocation();
+                if (pickup == null || pickup.getLatitude() == null || pickup.getLongitude() == null) {
+                    return false;
+                }
+                return filter.getUserLocation().distanceTo(pickup) <= filter.getMaxDistanceKm();
+            }
+            return true;
+        }
+        /**
+         * The receiver feed's country restriction: only posts from a different country are left
+         * out, posts without a country are allowed.
+         */
+        private boolean inReceiverCountry(SurplusPost post) {
+            if (country == null) {
+                return true;
+            }
+            Location pickup = post.getPickupLocation();
+            if (pickup == null || pickup.getCountry() == null || pickup.getCountry().trim().isEmpty()) {
+                return true;
+            }
+            return SurplusService.isSameCountry(country, pickup.getCountry().trim());
+        }
+        private static boolean containsAny(Set<FoodCategory> wanted, Collection<FoodCategory> offered) {
+            if (offered == null) {
+                return false;
+            }
+            for (FoodCategory category : offered) {
+                if (wanted.contains(category)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
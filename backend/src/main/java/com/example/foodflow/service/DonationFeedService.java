@@ -0,0 +1,180 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.entity.UserRole;
+import com.example.foodflow.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+/**
+ * Standing donation-feed subscriptions for receivers.
+ *
+ * A receiver registers a {@link SurplusFilterRequest} over STOMP once; every new or updated post is
+ * then matched against all open subscriptions through {@link DonationFeedIndex} and pushed to
+ * {@code /user/queue/feed} for the receivers that match, instead of each client re-running
+ * {@code POST /api/surplus/search} on a timer. Subscriptions live with the WebSocket session and are
+ * dropped when it disconnects.
+ */
+@Service
+public class DonationFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(DonationFeedService.class);
+    static final String FEED_DESTINATION = "/queue/feed";
+    private final DonationFeedIndex index = new DonationFeedIndex();
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UserRepository userRepository;
+    private final Counter candidatesCounter;
+    private final Counter pushesCounter;
+    @Value("${feed.subscriptions.max-per-user:5}")
+    private int maxSubscriptionsPerUser = 5;
+    public DonationFeedService(SimpMessagingTemplate messagingTemplate,
+                               UserRepository userRepository,
+                               MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRepository = userRepository;
+        this.candidatesCounter = Counter.builder("foodflow.feed.candidates")
+                .description("Subscriptions examined after the inverted index lookup")
+                .register(meterRegistry);
+        this.pushesCounter = Counter.builder("foodflow.feed.pushes")
+                .description("Donation feed messages pushed to receivers")
+                .register(meterRegistry);
+        meterRegistry.gauge("foodflow.feed.subscriptions", index, DonationFeedIndex::size);
+    }
+    /**
+     * Registers a standing subscription for a receiver's WebSocket session and returns its id.
+     * The receiver's country is captured with it, as the search feed restricts posts to it.
+     */
+    @Transactional(readOnly = true)
+    public String subscribe(Long userId, String sessionId, SurplusFilterRequest filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("A filter is required to subscribe to the donation feed");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (user.getRole() != UserRole.RECEIVER) {
+            throw new IllegalArgumentException("Only receivers can subscribe to the donation feed");
+        }
+        if (index.countForUser(userId) >= maxSubscriptionsPerUser) {
+            throw new IllegalArgumentException(
+                    "A receiver can hold at most " + maxSubscriptionsPerUser + " feed subscriptions");
+        }
+        DonationFeedIndex.Subscription subscription = new DonationFeedIndex.Subscription(
+                UUID.randomUUID().toString(),
+                userId,
+                sessionId,
+                user.getTimezone() != null ? user.getTimezone() : "UTC",
+                SurplusService.extractCountryFromOrganization(user),
+                filter);
+        index.add(subscription);
+        logger.debug("Feed subscription {} registered for receiverId={} session={}: {}",
+                subscription.getId(), userId, sessionId, filter);
+        return subscription.getId();
+    }
+    /**
+     * Removes one of the user's subscriptions; returns false when it does not exist or belongs to
+     * someone else.
+     */
+    public boolean unsubscribe(Long userId, String subscriptionId) {
+        DonationFeedIndex.Subscription existing = index.get(subscriptionId);
+        if (existing == null || !existing.getUserId().equals(userId)) {
+            return false;
+        }
+        return index.remove(subscriptionId) != null;
+    }
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        int removed = removeSession(event.getSessionId());
+        if (removed > 0) {
+            logger.debug("Dropped {} feed subscriptions for closed session {}", removed, event.getSessionId());
+        }
+    }
+    public int removeSession(String sessionId) {
+        if (sessionId == null) {
+            return 0;
+        }
+        return index.removeIf(subscription -> sessionId.equals(subscription.getSessionId())).size();
+    }
+    /**
+     * Like {@link #publish}, but when called inside a transaction the push waits until it commits,
+     * so a rolled-back write never reaches receivers. Failures are logged, never thrown.
+     */
+    public void publishAfterCommit(SurplusPost post, Function<String, SurplusResponse> renderForTimezone) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishQuietly(post, renderForTimezone);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishQuietly(post, renderForTimezone);
+            }
+        });
+    }
+    private void publishQuietly(SurplusPost post, Function<String, SurplusResponse> renderForTimezone) {
+        try {
+            publish(post, renderForTimezone);
+        } catch (Exception e) {
+            logger.error("Failed to publish postId={} to the donation feed: {}", post.getId(), e.getMessage());
+        }
+    }
+    /**
+     * Pushes a new or changed post to every receiver with a matching subscription. A receiver with
+     * several matching subscriptions gets one message listing all of them, and the post is rendered
+     * once per receiver timezone rather than once per receiver.
+     *
+     * @return number of receivers the post was pushed to
+     */
+    public int publish(SurplusPost post, Function<String, SurplusResponse> renderForTimezone) {
+        candidatesCounter.increment(index.candidates(post).size());
+        List<DonationFeedIndex.Subscription> matches = index.match(post);
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<DonationFeedIndex.Subscription>> byUser = new LinkedHashMap<>();
+        for (DonationFeedIndex.Subscription match : matches) {
+            byUser.computeIfAbsent(match.getUserId(), id -> new ArrayList<>()).add(match);
+        }
+        Map<String, SurplusResponse> rendered = new HashMap<>();
+        int pushed = 0;
+        for (Map.Entry<Long, List<DonationFeedIndex.Subscription>> entry : byUser.entrySet()) {
+            List<DonationFeedIndex.Subscription> userMatches = entry.getValue();
+            String timezone = userMatches.get(0).getTimezone();
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("type", "FEED_MATCH");
+            payload.put("subscriptionIds", userMatches.stream().map(DonationFeedIndex.Subscription::getId).toList());
+            payload.put("post", rendered.computeIfAbsent(timezone, renderForTimezone));
+            payload.put("timestamp", System.currentTimeMillis());
+            try {
+                messagingTemplate.convertAndSendToUser(entry.getKey().toString(), FEED_DESTINATION, payload);
+                pushed++;
+            } catch (Exception e) {
+                logger.error("Failed to push feed match for postId={} to receiverId={}: {}",
+                        post.getId(), entry.getKey(), e.getMessage());
+            }
+        }
+        pushesCounter.increment(pushed);
+        logger.debug("Feed match for postId={}: {} subscriptions, {} receivers pushed",
+                post.getId(), matches.size(), pushed);
+        return pushed;
+    }
+    public int getSubscriptionCount() {
+        return index.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.ClaimRepository;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEvent;
+import com.example.foodflow.service.events.DomainEventHandler;
+import com.example.foodflow.service.events.DonationClaimed;
+import com.example.foodflow.service.events.DonationPosted;
+import com.example.foodflow.service.events.DonationsImported;
+import org.springframework.stereotype.Service;
+import java.util.Set;
+/**
+ * Points and achievements for posting and claiming donations. Runs in the same transaction
+ * that marks the event delivered, so a retried delivery never awards twice.
+ */
+@Service
+public class DonationGamificationHandler implements DomainEventHandler {
+    static final String NAME = "gamification";
+    static final int POSTED_POINTS = 10;
+    static final int CLAIMED_POINTS = 5;
+    private final SurplusPostRepository surplusPostRepository;
+    private final ClaimRepository claimRepository;
+    private final GamificationService gamificationService;
+    public DonationGamificationHandler(SurplusPostRepository surplusPostRepository,
+                                       ClaimRepository claimRepository,
+                                       GamificationService gamificationService) {
+        this.surplusPostRepository = surplusPostRepository;
+        this.claimRepository = claimRepository;
+        this.gamificationService = gamificationService;
+    }
+    @Override
+    public String name() {
+        return NAME;
+    }
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(DonationPosted.TYPE, DonationsImported.TYPE, DonationClaimed.TYPE);
+    }
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof DonationPosted posted) {
+            surplusPostRepository.findById(posted.surplusPostId()).ifPresent(post ->
+                    award(posted.donorId(), POSTED_POINTS, "Created donation: " + post.getTitle()));
+        } else if (event instanceof DonationsImported imported) {
+            // One award for the whole import, so achievements are checked once rather than per post
+            int posts = imported.surplusPostIds().size();
+            award(imported.donorId(), POSTED_POINTS * posts, "Imported " + posts + " donations");
+        } else if (event instanceof DonationClaimed claimed) {
+            claimRepository.findById(claimed.claimId()).ifPresent(claim ->
+                    award(claimed.receiverId(), CLAIMED_POINTS, "Claimed donation: " + claim.getSurplusPost().getTitle()));
+        }
+    }
+    private void award(Long userId, int points, String reason) {
+        gamificationService.awardPoints(userId, points, reason);
+        gamificationService.checkAndUnlockAchievements(userId);
+    }
+}
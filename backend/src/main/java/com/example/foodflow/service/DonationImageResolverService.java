@@ -13,8 +13,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 @Service
 public class DonationImageResolverService {
     private final DonorPhotoPreferencesRepository donorPhotoPreferencesRepository;
@@ -30,27 +36,163 @@ public class DonationImageResolverService {
         this.internalImageLibraryRepository = internalImageLibraryRepository;
         this.objectMapper = objectMapper;
     }
+    /**
+     * A donation to resolve an image for in {@link #resolveDonationImageUrls}.
+     */
+    public record DonationImageLookup(Long donationId, Long donorId, FoodType foodType) {
+    }
+    /**
+     * Where {@link #resolve} reads images from: the repositories for a single donation, or maps
+     * prefetched for a page of donations.
+     */
+    private interface ImageSources {
+        String approvedDonationImageUrl(Long donationId);
+        DonorPhotoPreferences preferences(Long donorId);
+        DonationImage donationImage(Long imageId);
+        InternalImageLibrary libraryImage(Long libraryImageId);
+        String fallback(FoodType foodType);
+    }
+    private final ImageSources directSources = new ImageSources() {
+        @Override
+        public String approvedDonationImageUrl(Long donationId) {
+            return donationImageRepository
+                    .findFirstByDonationIdAndStatusOrderByCreatedAtDesc(donationId, DonationImageStatus.APPROVED)
+                    .map(DonationImage::getUrl)
+                    .orElse(null);
+        }
+        @Override
+        public DonorPhotoPreferences preferences(Long donorId) {
+            return donorPhotoPreferencesRepository.findByDonorId(donorId).orElse(null);
+        }
+        @Override
+        public DonationImage donationImage(Long imageId) {
+            return donationImageRepository.findById(imageId).orElse(null);
+        }
+        @Override
+        public InternalImageLibrary libraryImage(Long libraryImageId) {
+            return internalImageLibraryRepository.findById(libraryImageId).orElse(null);
+        }
+        @Override
+        public String fallback(FoodType foodType) {
+            return resolveFallback(foodType);
+        }
+    };
     @Transactional(readOnly = true)
     public String resolveDonationImageUrl(User donor, FoodType foodType) {
         return resolveDonationImageUrl(donor, foodType, null);
     }
     @Transactional(readOnly = true)
     public String resolveDonationImageUrl(User donor, FoodType foodType, Long donationId) {
+        return resolveDonationImageUrlByDonorId(donor != null ? donor.getId() : null, foodType, donationId);
+    }
+    /**
+     * Same as {@link #resolveDonationImageUrl(User, FoodType, Long)} for callers that only hold
+     * the donor's ID.
+     */
+    @Transactional(readOnly = true)
+    public String resolveDonationImageUrlByDonorId(Long donorId, FoodType foodType, Long donationId) {
+        return resolve(new DonationImageLookup(donationId, donorId, foodType), directSources);
+    }
+    /**
+     * Batch form of {@link #resolveDonationImageUrlByDonorId} for list pages. Donation images,
+     * donor preferences and the images those preferences point to are each read in one query
+     * for the whole page, and the library fallbacks once per food type.
+     *
+     * @return image URL by donation ID; donations without any image are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> resolveDonationImageUrls(Collection<DonationImageLookup> lookups) {
+        if (lookups.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> donationIds = new HashSet<>();
+        Set<Long> donorIds = new HashSet<>();
+        for (DonationImageLookup lookup : lookups) {
+            if (lookup.donationId() != null) {
+                donationIds.add(lookup.donationId());
+            }
+            if (lookup.donorId() != null) {
+                donorIds.add(lookup.donorId());
+            }
+        }
+        Map<Long, String> approvedByDonation = new HashMap<>();
+        if (!donationIds.isEmpty()) {
+            for (Object[] row : donationImageRepository.findDonationIdAndUrlByDonationIdInAndStatus(
+                    donationIds, DonationImageStatus.APPROVED)) {
+                // Rows are newest first; keep the first per donation
+                approvedByDonation.putIfAbsent((Long) row[0], (String) row[1]);
+            }
+        }
+        Map<Long, DonorPhotoPreferences> preferencesByDonor = new HashMap<>();
+        if (!donorIds.isEmpty()) {
+            for (DonorPhotoPreferences preferences : donorPhotoPreferencesRepository.findByDonorIdIn(donorIds)) {
+                preferencesByDonor.put(preferences.getDonor().getId(), preferences);
+            }
+        }
+        Set<Long> imageIds = new HashSet<>();
+        Set<Long> libraryImageIds = new HashSet<>();
+        for (DonorPhotoPreferences preferences : preferencesByDonor.values()) {
+            if (preferences.getDisplayType() != PhotoDisplayType.SINGLE) {
+                imageIds.addAll(parseMap(preferences.getPerFoodTypeMap()).values());
+                libraryImageIds.addAll(parseMap(preferences.getPerFoodTypeLibraryMap()).values());
+            }
+        }
+        Map<Long, DonationImage> images = imageIds.isEmpty() ? Map.of()
+                : donationImageRepository.findAllById(imageIds).stream()
+                        .collect(Collectors.toMap(DonationImage::getId, image -> image));
+        Map<Long, InternalImageLibrary> libraryImages = libraryImageIds.isEmpty() ? Map.of()
+                : internalImageLibraryRepository.findAllById(libraryImageIds).stream()
+                        .collect(Collectors.toMap(InternalImageLibrary::getId, image -> image));
+        // HashMap takes the null key, which stands for the untyped fallback
+        Map<FoodType, Optional<String>> fallbacks = new HashMap<>();
+        ImageSources prefetched = new ImageSources() {
+            @Override
+            public String approvedDonationImageUrl(Long donationId) {
+                return approvedByDonation.get(donationId);
+            }
+            @Override
+            public DonorPhotoPreferences preferences(Long donorId) {
+                return preferencesByDonor.get(donorId);
+            }
+            @Override
+            public DonationImage donationImage(Long imageId) {
+                return images.get(imageId);
+            }
+            @Override
+            public InternalImageLibrary libraryImage(Long libraryImageId) {
+                return libraryImages.get(libraryImageId);
+            }
+            @Override
+            public String fallback(FoodType foodType) {
+                return fallbacks.computeIfAbsent(foodType,
+                        type -> Optional.ofNullable(directSources.fallback(type))).orElse(null);
+            }
+        };
+        Map<Long, String> urls = new HashMap<>();
+        for (DonationImageLookup lookup : lookups) {
+            String url = resolve(lookup, prefetched);
+            if (url != null && lookup.donationId() != null) {
+                urls.put(lookup.donationId(), url);
+            }
+        }
+        return urls;
+    }
+    private String resolve(DonationImageLookup lookup, ImageSources sources) {
+        Long donationId = lookup.donationId();
+        Long donorId = lookup.donorId();
+        FoodType foodType = lookup.foodType();
         if (donationId != null) {
-            String donationSpecific = donationImageRepository
-                    .findFirstByDonationIdAndStatusOrderByCreatedAtDesc(donationId, DonationImageStatus.APPROVED)
-                    .map(DonationImage::getUrl)
-                    .orElse(null);
+            String donationSpecific = sources.approvedDonationImageUrl(donationId);
             if (donationSpecific != null) {
                 return donationSpecific;
             }
         }
-        if (donor == null) {
-            return resolveFallback(foodType);
+        if (donorId == null) {
+            return sources.fallback(foodType);
         }
-        DonorPhotoPreferences preferences = donorPhotoPreferencesRepository.findByDonorId(donor.getId()).orElse(null);
+        DonorPhotoPreferences preferences = sources.preferences(donorId);
         if (preferences == null) {
-            return resolveFallback(foodType);
+            return sources.fallback(foodType);
         }
         if (preferences.getDisplayType() == PhotoDisplayType.SINGLE) {
             String single = resolveDonationImage(preferences.getSingleImage());
@@ -60,14 +202,12 @@ public class DonationImageResolverService {
             if (preferences.getSingleLibraryImage() != null && Boolean.TRUE.equals(preferences.getSingleLibraryImage().getActive())) {
                 return preferences.getSingleLibraryImage().getUrl();
             }
-            return resolveFallback(foodType);
+            return sources.fallback(foodType);
         }
         Map<String, Long> perFoodMap = parseMap(preferences.getPerFoodTypeMap());
         Long mappedImageId = foodType == null ? null : perFoodMap.get(foodType.name());
         if (mappedImageId != null) {
-            String mappedUrl = donationImageRepository.findById(mappedImageId)
-                    .map(this::resolveDonationImage)
-                    .orElse(null);
+            String mappedUrl = resolveDonationImage(sources.donationImage(mappedImageId));
             if (mappedUrl != null) {
                 return mappedUrl;
             }
@@ -75,7 +215,7 @@ public class DonationImageResolverService {
         Map<String, Long> perFoodLibraryMap = parseMap(preferences.getPerFoodTypeLibraryMap());
         Long mappedLibraryId = foodType == null ? null : perFoodLibraryMap.get(foodType.name());
         if (mappedLibraryId != null) {
-            InternalImageLibrary libraryImage = internalImageLibraryRepository.findById(mappedLibraryId).orElse(null);
+            InternalImageLibrary libraryImage = sources.libraryImage(mappedLibraryId);
             if (libraryImage != null && Boolean.TRUE.equals(libraryImage.getActive())) {
                 return libraryImage.getUrl();
             }
@@ -87,7 +227,7 @@ public class DonationImageResolverService {
         if (preferences.getSingleLibraryImage() != null && Boolean.TRUE.equals(preferences.getSingleLibraryImage().getActive())) {
             return preferences.getSingleLibraryImage().getUrl();
         }
-        return resolveFallback(foodType);
+        return sources.fallback(foodType);
     }
     private String resolveDonationImage(DonationImage image) {
         if (image == null) {
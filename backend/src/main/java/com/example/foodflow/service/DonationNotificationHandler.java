@@ -0,0 +1,84 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.entity.Claim;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.repository.ClaimRepository;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEvent;
+import com.example.foodflow.service.events.DomainEventHandler;
+import com.example.foodflow.service.events.DonationClaimed;
+import com.example.foodflow.service.events.DonationExpired;
+import com.example.foodflow.service.events.DonationPosted;
+import com.example.foodflow.service.events.DonationsImported;
+import com.example.foodflow.service.events.PickupConfirmed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+/**
+ * WebSocket, email and SMS notifications for donation events, sent after the change commits.
+ * Each channel is best effort, as it was when these were sent inline.
+ */
+@Service
+public class DonationNotificationHandler implements DomainEventHandler {
+    private static final Logger logger = LoggerFactory.getLogger(DonationNotificationHandler.class);
+    static final String NAME = "notifications";
+    private final SurplusPostRepository surplusPostRepository;
+    private final ClaimRepository claimRepository;
+    private final SurplusService surplusService;
+    private final ClaimService claimService;
+    private final SurplusPostSchedulerService schedulerService;
+    public DonationNotificationHandler(SurplusPostRepository surplusPostRepository,
+                                       ClaimRepository claimRepository,
+                                       SurplusService surplusService,
+                                       ClaimService claimService,
+                                       SurplusPostSchedulerService schedulerService) {
+        this.surplusPostRepository = surplusPostRepository;
+        this.claimRepository = claimRepository;
+        this.surplusService = surplusService;
+        this.claimService = claimService;
+        this.schedulerService = schedulerService;
+    }
+    @Override
+    public String name() {
+        return NAME;
+    }
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(DonationPosted.TYPE, DonationsImported.TYPE, DonationClaimed.TYPE, PickupConfirmed.TYPE,
+                DonationExpired.TYPE);
+    }
+    @Override
+    public void handle(DomainEvent event) {
+        if (event instanceof DonationPosted posted) {
+            findPost(posted.surplusPostId()).ifPresent(surplusService::notifyDonationPosted);
+        } else if (event instanceof DonationsImported imported) {
+            List<SurplusPost> posts = surplusPostRepository.findAllById(imported.surplusPostIds());
+            if (!posts.isEmpty()) {
+                surplusService.notifyDonationsImported(posts);
+            }
+        } else if (event instanceof DonationClaimed claimed) {
+            findClaim(claimed.claimId()).ifPresent(claimService::sendClaimNotifications);
+        } else if (event instanceof PickupConfirmed confirmed) {
+            findClaim(confirmed.claimId()).ifPresent(surplusService::sendPickupConfirmedNotifications);
+        } else if (event instanceof DonationExpired expired) {
+            findPost(expired.surplusPostId())
+                    .ifPresent(post -> schedulerService.sendExpiredNotificationToDonor(post, post.getDonor()));
+        }
+    }
+    private Optional<SurplusPost> findPost(Long postId) {
+        Optional<SurplusPost> post = surplusPostRepository.findById(postId);
+        if (post.isEmpty()) {
+            logger.info("Surplus post {} no longer exists, skipping notifications", postId);
+        }
+        return post;
+    }
+    private Optional<Claim> findClaim(Long claimId) {
+        Optional<Claim> claim = claimRepository.findById(claimId);
+        if (claim.isEmpty()) {
+            logger.info("Claim {} no longer exists, skipping notifications", claimId);
+        }
+        return claim;
+    }
+}
@@ -41,6 +41,8 @@ public class DonationStatsService {
      * Updates the user's donation stats after a completed monetary donation.
      * Increments donation count, adds to total donated amount, and updates last donation date.
      * Also updates the denormalized donationCount on the User entity.
+     * The totals are incremented with an atomic UPDATE rather than read, changed and saved, so
+     * concurrent donations by the same user cannot overwrite each other.
      *
      * @param userId The ID of the user who made the donation
      * @param amount The donation amount
@@ -48,27 +50,30 @@ public class DonationStatsService {
     @Transactional
     public UserDonationStats updateUserStats(Long userId, BigDecimal amount) {
         logger.info("Updating donation stats for userId={}, amount={}", userId, amount);
+        LocalDateTime donatedAt = LocalDateTime.now();
+        // Locks the stats row until commit; clears the persistence context so the read below is fresh
+        boolean existing = userDonationStatsRepository.addDonation(userId, amount, donatedAt) > 0;
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        // Find or create the stats record
-        UserDonationStats stats = userDonationStatsRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    logger.info("Creating new donation stats record for userId={}", userId);
-                    UserDonationStats newStats = new UserDonationStats(user);
-                    return newStats;
-                });
-        // Update the stats
-        DonorBadge previousBadge = stats.getDonorBadge();
-        stats.setTotalDonated(stats.getTotalDonated().add(amount));
-        stats.setDonationCount(stats.getDonationCount() + 1);
-        stats.setLastDonationDate(LocalDateTime.now());
+        UserDonationStats stats;
+        if (existing) {
+            stats = userDonationStatsRepository.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalStateException("Donation stats vanished for userId=" + userId));
+        } else {
+            // First donation; a concurrent first donation for the same user fails on the unique user_id
+            logger.info("Creating new donation stats record for userId={}", userId);
+            stats = new UserDonationStats(user);
+            stats.setTotalDonated(amount);
+            stats.setDonationCount(1);
+            stats.setLastDonationDate(donatedAt);
+        }
         // Recalculate badge based on new total
+        DonorBadge previousBadge = stats.getDonorBadge();
         DonorBadge newBadge = DonorBadge.fromTotalDonated(stats.getTotalDonated());
         stats.setDonorBadge(newBadge);
         UserDonationStats savedStats = userDonationStatsRepository.save(stats);
         // Also update the denormalized donation count on the User entity
-        user.setDonationCount(savedStats.getDonationCount());
-        userRepository.save(user);
+        userRepository.updateDonationCount(userId, savedStats.getDonationCount());
         // Log badge upgrade if it changed
         boolean badgeUpgraded = previousBadge != newBadge;
         if (badgeUpgraded) {
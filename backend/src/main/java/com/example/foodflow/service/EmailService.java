@@ -7,8 +7,11 @@ import brevoModel.SendSmtpEmailTo;
 import brevoModel.CreateSmtpEmail;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
@@ -23,6 +26,8 @@ public class EmailService implements EmailNotificationService {
     private final UserRepository userRepository;
     private final BusinessMetricsService businessMetricsService;
     private final TransactionalEmailClientFactory transactionalEmailClientFactory;
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
     @Value("${brevo.api.key}")
     private String brevoApiKey;
     @Value("${brevo.from.email}")
@@ -59,15 +64,23 @@ public class EmailService implements EmailNotificationService {
     }
     private CreateSmtpEmail sendEmailTracked(TransactionalEmailsApi api, SendSmtpEmail email) throws ApiException {
         io.micrometer.core.instrument.Timer.Sample sample = businessMetricsService.startTimer();
-        try {
+        Observation observation = Observation.createNotStarted("foodflow.external.call", observationRegistry)
+                .contextualName("brevo-send-email")
+                .lowCardinalityKeyValue("provider", "brevo")
+                .lowCardinalityKeyValue("operation", "send_email")
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
             CreateSmtpEmail result = api.sendTransacEmail(email);
             businessMetricsService.incrementEmailsSent();
             businessMetricsService.recordEmailDeliveryDuration(sample);
             return result;
         } catch (ApiException e) {
+            observation.error(e);
             businessMetricsService.incrementEmailsFailed();
             businessMetricsService.recordEmailDeliveryDuration(sample);
             throw e;
+        } finally {
+            observation.stop();
         }
     }
     /**
@@ -48,6 +48,7 @@ public class GamificationService {
     private final MessageRepository messageRepository;
     private final ConversationRepository conversationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UserPointsWriter userPointsWriter;
 
     public GamificationService(UserRepository userRepository,
             AchievementRepository achievementRepository,
@@ -56,7 +57,8 @@ public class GamificationService {
             ClaimRepository claimRepository,
             MessageRepository messageRepository,
             ConversationRepository conversationRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            SimpMessagingTemplate messagingTemplate,
+            UserPointsWriter userPointsWriter) {
         this.userRepository = userRepository;
         this.achievementRepository = achievementRepository;
         this.userAchievementRepository = userAchievementRepository;
@@ -65,10 +67,12 @@ public class GamificationService {
         this.messageRepository = messageRepository;
         this.conversationRepository = conversationRepository;
         this.messagingTemplate = messagingTemplate;
+        this.userPointsWriter = userPointsWriter;
     }
 
     /**
-     * Award points to a user and update their total points.
+     * Award points to a user and update their total points. The total is changed with an atomic
+     * UPDATE, coalesced with the transaction's other awards, without loading the user.
      * 
      * @param userId User receiving points
      * @param points Points to award
@@ -76,11 +80,7 @@ public class GamificationService {
      */
     @Transactional
     public void awardPoints(Long userId, int points, String reason) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        int currentPoints = user.getTotalPoints() != null ? user.getTotalPoints() : 0;
-        user.setTotalPoints(currentPoints + points);
-        userRepository.save(user);
+        userPointsWriter.add(userId, points);
         logger.info("Awarded {} points to userId={} for: {}", points, userId, reason);
     }
 
@@ -116,9 +116,7 @@ public class GamificationService {
                 userAchievement = userAchievementRepository.save(userAchievement);
                 newlyUnlocked.add(userAchievement);
                 // Award achievement points
-                int currentPoints = user.getTotalPoints() != null ? user.getTotalPoints() : 0;
-                user.setTotalPoints(currentPoints + achievement.getPointsValue());
-                userRepository.save(user);
+                userPointsWriter.add(userId, achievement.getPointsValue());
                 // Send WebSocket notification
                 sendAchievementNotification(user, userAchievement);
                 // Mark as notified
@@ -10,6 +10,7 @@ import com.example.foodflow.repository.SurplusPostRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -61,6 +62,8 @@ public class ImpactDashboardService {
      */
     @Transactional(readOnly = true)
     @Timed(value = "impact.dashboard.getDonorMetrics", description = "Time taken to calculate donor impact metrics")
+    @Observed(name = "foodflow.impact.aggregation", contextualName = "impact-donor-metrics",
+            lowCardinalityKeyValues = {"scope", "donor"})
     public ImpactMetricsDTO getDonorMetrics(Long donorId, String dateRange) {
         logger.info("Calculating donor impact metrics for userId={}, dateRange={}", donorId, dateRange);
         LocalDateTime[] dateRangeBounds = calculateDateRange(dateRange);
@@ -142,6 +145,8 @@ public class ImpactDashboardService {
      */
     @Transactional(readOnly = true)
     @Timed(value = "impact.dashboard.getReceiverMetrics", description = "Time taken to calculate receiver impact metrics")
+    @Observed(name = "foodflow.impact.aggregation", contextualName = "impact-receiver-metrics",
+            lowCardinalityKeyValues = {"scope", "receiver"})
     public ImpactMetricsDTO getReceiverMetrics(Long receiverId, String dateRange) {
         logger.info("Calculating receiver impact metrics for userId={}, dateRange={}", receiverId, dateRange);
         LocalDateTime[] dateRangeBounds = calculateDateRange(dateRange);
@@ -203,6 +208,8 @@ public class ImpactDashboardService {
      */
     @Transactional(readOnly = true)
     @Timed(value = "impact.dashboard.getAdminMetrics", description = "Time taken to calculate admin impact metrics")
+    @Observed(name = "foodflow.impact.aggregation", contextualName = "impact-admin-metrics",
+            lowCardinalityKeyValues = {"scope", "admin"})
     public ImpactMetricsDTO getAdminMetrics(String dateRange) {
         logger.info("Calculating platform-wide impact metrics for dateRange={}", dateRange);
         LocalDateTime[] dateRangeBounds = calculateDateRange(dateRange);
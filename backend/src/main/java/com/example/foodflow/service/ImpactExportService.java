@@ -0,0 +1,202 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.DonationExportRow;
+import com.example.foodflow.model.dto.ImpactMetricsDTO;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.util.CsvExportUtils;
+import com.example.foodflow.util.PdfExportUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+/**
+ * Writes impact reports (CSV or PDF) directly to an output stream.
+ *
+ * Row-level donation detail is read in keyset-ordered pages and written as it arrives, so
+ * an ALL_TIME admin export holds at most one page of rows in memory.
+ */
+@Service
+public class ImpactExportService {
+    private static final int CSV_FLUSH_ROWS = 200;
+    private final SurplusPostRepository surplusPostRepository;
+    @Value("${export.detail-page-size:500}")
+    private int detailPageSize = 500;
+    public ImpactExportService(SurplusPostRepository surplusPostRepository) {
+        this.surplusPostRepository = surplusPostRepository;
+    }
+    public void writeCsv(ImpactMetricsDTO metrics, Iterable<DonationExportRow> detailRows,
+                         OutputStream outputStream) throws IOException {
+        PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+        writer.println("Metric,Value");
+        String reportTitle = generateReportTitle(metrics.getRole());
+        String dateRangeLabel = CsvExportUtils.formatDateRangeLabel(
+                metrics.getDateRange(), metrics.getStartDate(), metrics.getEndDate());
+
+        CsvExportUtils.writeHeader(writer, reportTitle, LocalDateTime.now(),
+                metrics.getRole(), dateRangeLabel);
+        CsvExportUtils.writeSectionHeader(writer, "Environmental Impact");
+        CsvExportUtils.writeNumericMetric(writer, "Total Food Saved",
+                metrics.getTotalFoodWeightKg(), "kg");
+        CsvExportUtils.writeRangeMetric(writer, "Estimated Meals Provided (Range)",
+                metrics.getMinMealsProvided(), metrics.getMaxMealsProvided());
+        CsvExportUtils.writeNumericMetric(writer, "Estimated Meals Provided (Best Estimate)",
+                metrics.getEstimatedMealsProvided(), "meals");
+        CsvExportUtils.writeNumericMetric(writer, "CO2 Emissions Avoided",
+                metrics.getCo2EmissionsAvoidedKg(), "kg");
+        CsvExportUtils.writeNumericMetric(writer, "Water Conserved",
+                metrics.getWaterSavedLiters(), "liters");
+        CsvExportUtils.writeNumericMetric(writer, "Estimated People Fed",
+                metrics.getPeopleFedEstimate(), "people");
+
+        CsvExportUtils.writeSectionHeader(writer, "Operational Efficiency");
+        if (metrics.getTotalPostsCreated() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "Total Posts Created",
+                    metrics.getTotalPostsCreated(), "");
+        }
+        if (metrics.getTotalDonationsCompleted() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "Total Donations Completed",
+                    metrics.getTotalDonationsCompleted(), "");
+        }
+        if (metrics.getTotalClaimsMade() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "Total Claims Made",
+                    metrics.getTotalClaimsMade(), "");
+        }
+        if (metrics.getDonationCompletionRate() != null) {
+            CsvExportUtils.writePercentageMetric(writer, "Donation Completion Rate",
+                    metrics.getDonationCompletionRate());
+        }
+        if (metrics.getWasteDiversionEfficiencyPercent() != null) {
+            CsvExportUtils.writePercentageMetric(writer, "Waste Diversion Efficiency",
+                    metrics.getWasteDiversionEfficiencyPercent());
+        }
+
+        CsvExportUtils.writeSectionHeader(writer, "Time & Logistics");
+        if (metrics.getMedianClaimTimeHours() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "Median Time to Claim",
+                    metrics.getMedianClaimTimeHours(), "hours");
+        }
+        if (metrics.getP75ClaimTimeHours() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "75th Percentile Time to Claim",
+                    metrics.getP75ClaimTimeHours(), "hours");
+        }
+        if (metrics.getPickupTimelinessRate() != null) {
+            CsvExportUtils.writePercentageMetric(writer, "Pickup Timeliness Rate",
+                    metrics.getPickupTimelinessRate());
+        }
+
+        CsvExportUtils.writeSectionHeader(writer, "Engagement");
+        if (metrics.getActiveDonationDays() != null) {
+            CsvExportUtils.writeNumericMetric(writer, "Active Days with Donations",
+                    metrics.getActiveDonationDays(), "days");
+        }
+
+        if ("ADMIN".equals(metrics.getRole())) {
+            CsvExportUtils.writeSectionHeader(writer, "User Engagement (Platform-wide)");
+            CsvExportUtils.writeNumericMetric(writer, "Active Donors",
+                    metrics.getActiveDonors(), "");
+            CsvExportUtils.writeNumericMetric(writer, "Active Receivers",
+                    metrics.getActiveReceivers(), "");
+            CsvExportUtils.writeNumericMetric(writer, "Repeat Donors",
+                    metrics.getRepeatDonors(), "");
+            CsvExportUtils.writeNumericMetric(writer, "Repeat Receivers",
+                    metrics.getRepeatReceivers(), "");
+        }
+
+        // Summary goes out before the (potentially long) detail section
+        writer.flush();
+        CsvExportUtils.writeDonationDetails(writer, detailRows, CSV_FLUSH_ROWS);
+
+        CsvExportUtils.writeMetadataDisclosure(writer,
+                metrics.getFactorVersion(), metrics.getFactorDisclosure());
+        CsvExportUtils.writeFooter(writer);
+
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("Failed to write CSV export");
+        }
+    }
+    public void writePdf(ImpactMetricsDTO metrics, Iterable<DonationExportRow> detailRows,
+                         OutputStream outputStream) throws IOException {
+        PdfExportUtils.writePdf(metrics, detailRows, outputStream);
+    }
+    /**
+     * Lazily paged donation rows in the user's scope for the report's date range: a donor's own
+     * posts, the posts a receiver claimed, or every post for admins. Each iteration re-reads
+     * from the database one page at a time.
+     */
+    public Iterable<DonationExportRow> donationRows(User user, ImpactMetricsDTO metrics) {
+        LocalDateTime start = metrics.getStartDate();
+        LocalDateTime end = metrics.getEndDate();
+        if (start == null || end == null || user.getRole() == null) {
+            return Collections.emptyList();
+        }
+        PageRequest page = PageRequest.of(0, detailPageSize);
+        switch (user.getRole()) {
+            case DONOR:
+                return keysetPages(afterId -> surplusPostRepository.findExportRowsByDonorAndCreatedDateRange(
+                        user.getId(), start, end, afterId, page));
+            case RECEIVER:
+                return keysetPages(afterId -> surplusPostRepository.findExportRowsByReceiverAndClaimedDateRange(
+                        user.getId(), start, end, afterId, page));
+            case ADMIN:
+                return keysetPages(afterId -> surplusPostRepository.findExportRowsByCreatedDateRange(
+                        start, end, afterId, page));
+            default:
+                return Collections.emptyList();
+        }
+    }
+    private Iterable<DonationExportRow> keysetPages(LongFunction<List<DonationExportRow>> pageAfter) {
+        return () -> new Iterator<>() {
+            private Iterator<DonationExportRow> current = Collections.emptyIterator();
+            private long lastId = 0L;
+            private boolean exhausted;
+            @Override
+            public boolean hasNext() {
+                if (!current.hasNext() && !exhausted) {
+                    List<DonationExportRow> rows = pageAfter.apply(lastId);
+                    exhausted = rows.size() < detailPageSize;
+                    current = rows.iterator();
+                }
+                return current.hasNext();
+            }
+            @Override
+            public DonationExportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DonationExportRow row = current.next();
+                lastId = row.getId();
+                return row;
+            }
+        };
+    }
+    private String generateReportTitle(String role) {
+        if (role == null) {
+            return "FoodFlow - Impact Report";
+        }
+
+        switch (role) {
+            case "DONOR":
+                return "FoodFlow - Impact Report: Donor Impact Report";
+            case "RECEIVER":
+                return "FoodFlow - Impact Report: Receiver Impact Report";
+            case "ADMIN":
+                return "FoodFlow - Impact Report: Platform-wide Impact Report";
+            default:
+                return "FoodFlow Impact Report";
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.InvoiceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+/**
+ * On-disk cache of rendered invoice PDFs.
+ *
+ * Entries are addressed by a SHA-256 of everything that goes into the PDF (plus
+ * {@link #TEMPLATE_VERSION}), stored as {@code <dir>/<invoiceId>/<hash>.pdf}. A change to the
+ * payment or its refunds changes the hash, so a stale PDF can never be served; {@link #evictStale}
+ * only reclaims the space of the superseded entry. The same hash is the download's ETag.
+ *
+ * The cache is per node and best effort: any I/O problem falls back to rendering straight
+ * into the response.
+ */
+@Service
+public class InvoicePdfCache {
+    private static final Logger logger = LoggerFactory.getLogger(InvoicePdfCache.class);
+    // Bump whenever InvoiceService's PDF layout changes so old renders are not reused
+    static final String TEMPLATE_VERSION = "1";
+    private final Path root;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    public InvoicePdfCache(MeterRegistry meterRegistry,
+                           @Value("${invoice.pdf-cache.dir:${java.io.tmpdir}/foodflow-invoice-pdfs}") String dir,
+                           @Value("${invoice.pdf-cache.enabled:true}") boolean enabled,
+                           @Value("${invoice.pdf-cache.max-age-days:35}") long maxAgeDays) {
+        this.root = Paths.get(dir);
+        this.enabled = enabled;
+        this.maxAge = Duration.ofDays(Math.max(maxAgeDays, 1));
+        this.hitCounter = lookupCounter(meterRegistry, "hit");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+    }
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("foodflow.invoice.pdf_cache")
+                .description("Invoice PDF cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    public boolean isEnabled() {
+        return enabled;
+    }
+    /**
+     * Hash of the inputs that determine an invoice PDF's bytes.
+     */
+    public String contentHash(InvoiceResponse invoice) {
+        String inputs = String.join("\n",
+                TEMPLATE_VERSION,
+                String.valueOf(invoice.getId()),
+                String.valueOf(invoice.getInvoiceNumber()),
+                String.valueOf(invoice.getPaymentId()),
+                String.valueOf(invoice.getIssuedDate()),
+                String.valueOf(invoice.getDueDate()),
+                plain(invoice.getSubtotalAmount()),
+                plain(invoice.getRefundedAmount()),
+                plain(invoice.getNetAmount()),
+                String.valueOf(invoice.getStatus()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(inputs.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    /**
+     * Copy the cached PDF for {@code hash} into {@code out}, rendering and storing it first on a
+     * miss. {@code renderer} must write a complete PDF to the stream it is given.
+     */
+    public void write(Long invoiceId, String hash, Consumer<OutputStream> renderer, OutputStream out) {
+        if (!enabled || invoiceId == null) {
+            renderer.accept(out);
+            return;
+        }
+        Path entry = entryPath(invoiceId, hash);
+        try {
+            if (copyIfPresent(entry, out)) {
+                hitCounter.increment();
+                return;
+            }
+        } catch (IOException e) {
+            // Bytes may already be on the wire; nothing sensible to fall back to
+            throw new UncheckedIOException("Failed to stream cached invoice PDF", e);
+        }
+        missCounter.increment();
+        Path stored = store(entry, renderer);
+        if (stored == null) {
+            renderer.accept(out);
+            return;
+        }
+        try {
+            Files.copy(stored, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream invoice PDF", e);
+        }
+    }
+    /**
+     * Render and store an entry ahead of time if it is not cached yet.
+     *
+     * @return true if a new entry was rendered
+     */
+    public boolean prerender(Long invoiceId, String hash, Consumer<OutputStream> renderer) {
+        if (!enabled || invoiceId == null) {
+            return false;
+        }
+        Path entry = entryPath(invoiceId, hash);
+        if (Files.exists(entry)) {
+            return false;
+        }
+        return store(entry, renderer) != null;
+    }
+    /**
+     * Drop cached renders of an invoice other than {@code currentHash}, after its payment or
+     * refunds changed.
+     */
+    public void evictStale(Long invoiceId, String currentHash) {
+        if (!enabled || invoiceId == null) {
+            return;
+        }
+        Path dir = root.resolve(String.valueOf(invoiceId));
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Path current = entryPath(invoiceId, currentHash);
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path entry : entries.filter(path -> !path.equals(current)).toList()) {
+                Files.deleteIfExists(entry);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to evict cached invoice PDFs in {}: {}", dir, e.getMessage());
+        }
+    }
+    /**
+     * Remove entries nobody has downloaded for {@code invoice.pdf-cache.max-age-days}. Hits
+     * refresh an entry's modification time.
+     */
+    @Scheduled(cron = "${invoice.pdf-cache.sweep-cron:0 15 3 * * *}")
+    public void sweepExpired() {
+        if (!enabled || !Files.isDirectory(root)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(maxAge);
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Invoice PDF cache sweep failed: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired invoice PDFs from cache", removed);
+        }
+    }
+    private Path entryPath(Long invoiceId, String hash) {
+        return root.resolve(String.valueOf(invoiceId)).resolve(hash + ".pdf");
+    }
+    private boolean copyIfPresent(Path entry, OutputStream out) throws IOException {
+        if (!Files.isRegularFile(entry)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Could not refresh {}: {}", entry, e.getMessage());
+        }
+        try {
+            Files.copy(entry, out);
+            return true;
+        } catch (NoSuchFileException e) {
+            // Evicted or swept between the check and the read
+            return false;
+        }
+    }
+    /**
+     * Render into a temp file next to the entry and move it into place atomically, so readers
+     * never see a partial PDF. Returns null if the cache directory is unusable.
+     */
+    private Path store(Path entry, Consumer<OutputStream> renderer) {
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temp = Files.createTempFile(entry.getParent(), "render-", ".tmp");
+            try (OutputStream fileOut = Files.newOutputStream(temp)) {
+                renderer.accept(fileOut);
+            }
+            Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return entry;
+        } catch (IOException e) {
+            logger.warn("Invoice PDF cache unavailable at {}: {}", entry.getParent(), e.getMessage());
+            return null;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // left for the sweep
+                }
+            }
+        }
+    }
+    private static String plain(BigDecimal amount) {
+        return Objects.toString(amount != null ? amount.toPlainString() : null);
+    }
+}
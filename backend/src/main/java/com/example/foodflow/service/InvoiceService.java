@@ -24,12 +24,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -37,6 +40,7 @@ public class InvoiceService {
     private final InvoiceRepository invoiceRepository;
     private final PaymentRepository paymentRepository;
     private final RefundRepository refundRepository;
+    private final InvoicePdfCache invoicePdfCache;
     @Transactional
     public InvoiceResponse generateInvoice(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
@@ -52,7 +56,7 @@ public class InvoiceService {
         invoice = syncInvoiceFields(invoice, payment);
         invoice = invoiceRepository.save(invoice);
         log.info("Invoice generated/synced: {} for payment: {}", invoice.getInvoiceNumber(), paymentId);
-        return toInvoiceResponse(invoice);
+        return evictStalePdfs(toInvoiceResponse(invoice));
     }
     public InvoiceResponse getInvoiceByPaymentId(Long paymentId) {
         return invoiceRepository.findByPaymentId(paymentId)
@@ -89,12 +93,27 @@ public class InvoiceService {
     }
     public byte[] downloadInvoice(Long invoiceId, User user) {
         InvoiceResponse invoice = getInvoiceByIdForUser(invoiceId, user);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeInvoicePdf(invoice, outputStream);
+        return outputStream.toByteArray();
+    }
+    /**
+     * Write an invoice PDF into {@code outputStream} (left open), served from the PDF cache when
+     * it has already been rendered for the invoice's current state. Callers are responsible for
+     * ownership checks, e.g. via {@link #getInvoiceByIdForUser}.
+     */
+    public void writeInvoicePdf(InvoiceResponse invoice, OutputStream outputStream) {
+        invoicePdfCache.write(invoice.getId(), invoicePdfCache.contentHash(invoice),
+                target -> renderInvoicePdf(invoice, target), outputStream);
+    }
+    private void renderInvoicePdf(InvoiceResponse invoice, OutputStream outputStream) {
         String paymentAmount = invoice.getSubtotalAmount() != null ? invoice.getSubtotalAmount().toPlainString()
                 : "0.00";
         String refundedAmount = invoice.getRefundedAmount() != null ? invoice.getRefundedAmount().toPlainString()
                 : "0.00";
         String netAmount = invoice.getNetAmount() != null ? invoice.getNetAmount().toPlainString() : "0.00";
-        return buildInvoicePdf(
+        buildInvoicePdf(
+                outputStream,
                 invoice.getInvoiceNumber(),
                 invoice.getPaymentId(),
                 invoice.getIssuedDate(),
@@ -117,12 +136,50 @@ public class InvoiceService {
             return createdInvoice;
         });
         invoice = syncInvoiceFields(invoice, payment);
-        return toInvoiceResponse(invoiceRepository.save(invoice));
+        return evictStalePdfs(toInvoiceResponse(invoiceRepository.save(invoice)));
+    }
+    /**
+     * ETag for an invoice's PDF download, derived from the same inputs as the PDF cache key.
+     */
+    public String invoicePdfETag(InvoiceResponse invoice) {
+        return "\"" + invoicePdfCache.contentHash(invoice) + "\"";
+    }
+    /**
+     * Warm the PDF cache with the previous month's invoices ahead of month-end bulk downloads.
+     * The cache lives on each node's disk, so every replica runs this for itself.
+     */
+    @Scheduled(cron = "${invoice.pdf-cache.prerender-cron:0 30 0 1 * *}")
+    @Transactional(readOnly = true)
+    public void prerenderPreviousMonthInvoices() {
+        if (!invoicePdfCache.isEnabled()) {
+            return;
+        }
+        LocalDate firstOfMonth = LocalDate.now().withDayOfMonth(1);
+        List<Invoice> invoices = invoiceRepository.findByIssuedDateBetween(
+                firstOfMonth.minusMonths(1), firstOfMonth.minusDays(1));
+        int rendered = 0;
+        for (Invoice invoice : invoices) {
+            try {
+                InvoiceResponse response = toInvoiceResponse(invoice);
+                if (invoicePdfCache.prerender(response.getId(), invoicePdfCache.contentHash(response),
+                        target -> renderInvoicePdf(response, target))) {
+                    rendered++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to pre-render invoice {}: {}", invoice.getId(), e.getMessage());
+            }
+        }
+        log.info("Pre-rendered {} of {} invoice PDFs issued last month", rendered, invoices.size());
+    }
+    private InvoiceResponse evictStalePdfs(InvoiceResponse invoice) {
+        invoicePdfCache.evictStale(invoice.getId(), invoicePdfCache.contentHash(invoice));
+        return invoice;
     }
     private String generateInvoiceNumber() {
         return "INV-" + System.currentTimeMillis();
     }
-    private byte[] buildInvoicePdf(
+    private void buildInvoicePdf(
+            OutputStream outputStream,
             String invoiceNumber,
             Long paymentId,
             LocalDate issuedDate,
@@ -131,8 +188,9 @@ public class InvoiceService {
             String refundedAmount,
             String netAmount,
             String status) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+        try {
             PdfWriter writer = new PdfWriter(outputStream);
+            writer.setCloseStream(false);
             PdfDocument pdfDocument = new PdfDocument(writer);
             Document document = new Document(pdfDocument);
             // Set document margins
@@ -298,7 +356,6 @@ public class InvoiceService {
                     .setFontColor(ColorConstants.GRAY)
                     .setTextAlignment(TextAlignment.CENTER));
             document.close();
-            return outputStream.toByteArray();
         } catch (Exception exception) {
             log.error("Failed to generate invoice PDF", exception);
             throw new RuntimeException("Failed to generate invoice PDF", exception);
@@ -0,0 +1,290 @@
+package com.example.foodflow.service;
+import com.example.foodflow.config.LogRetentionConfig;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+/**
+ * Keeps the monthly partitions of the log tables (V81) in shape: creates partitions
+ * {@code log.retention.months-ahead} months in advance so inserts never fall into the default
+ * partition, and retires partitions older than the table's retention.
+ *
+ * Retiring a partition detaches it from its table, which is a catalog change rather than a
+ * large DELETE, so the cost does not grow with the amount of history. In {@code EXPORT} mode the
+ * partition is first written to {@code <archive-dir>/<table>/<partition>.csv.gz} and dropped
+ * after detaching; in {@code DETACH} mode (the default) it is left in the database as a
+ * standalone table. Exports only go to an explicitly configured absolute directory, since a
+ * relative one would land in the container's working directory and vanish with it. A partition
+ * whose export fails, or that has nowhere durable to go, stays attached and is retried on the
+ * next run.
+ *
+ * The unpartitioned webhook log ({@link #ROW_RETENTION}) is trimmed with batched deletes.
+ * {@code expiry_notification_log} is never trimmed: its dedupe keys must stay unique for good,
+ * or a deleted key would let the same expiry notice go out again.
+ */
+@Service
+public class LogPartitionMaintenanceService {
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionMaintenanceService.class);
+    static final String JOB_NAME = "log-retention";
+    static final List<String> PARTITIONED_TABLES = List.of(
+            "audit_log",
+            "donation_timeline",
+            "expiry_audit_log",
+            "payment_audit_logs",
+            "calendar_sync_logs");
+    // Logs that cannot be partitioned (their event ids must be unique across all time): table -> age condition
+    static final Map<String, String> ROW_RETENTION = Map.of(
+            "stripe_webhook_events", "created_at < ? AND (processed = TRUE OR dead_lettered = TRUE)");
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "WHERE i.inhparent = CAST(? AS regclass) ORDER BY c.relname";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogRetentionConfig config;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    public LogPartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                          PlatformTransactionManager transactionManager,
+                                          LogRetentionConfig config,
+                                          SchedulerLeaseService schedulerLeaseService,
+                                          MeterRegistry meterRegistry,
+                                          Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = config;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+    @Scheduled(cron = "${log.retention.cron:0 30 2 * * *}")
+    public void runScheduled() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        schedulerLeaseService.runExclusively(JOB_NAME, Duration.ofHours(1), this::maintain);
+    }
+    /**
+     * One maintenance pass over every log table. A failure on one table is logged and does not
+     * stop the others.
+     */
+    public void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                createAhead(table, current);
+                retireExpired(table, current);
+            } catch (DataAccessException e) {
+                logger.warn("Partition maintenance failed for {}: {}", table, e.getMessage());
+            }
+        }
+        ROW_RETENTION.forEach((table, condition) -> {
+            try {
+                deleteExpiredRows(table, condition);
+            } catch (DataAccessException e) {
+                logger.warn("Retention delete failed for {}: {}", table, e.getMessage());
+            }
+        });
+    }
+    private void createAhead(String table, YearMonth current) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, ?, ?)", Integer.class,
+                table, current.atDay(1), current.plusMonths(Math.max(config.getMonthsAhead(), 1)).atDay(1));
+        if (created != null && created > 0) {
+            logger.info("Created {} monthly partitions for {}", created, table);
+            count(table, "created", created);
+        }
+    }
+    private void retireExpired(String table, YearMonth current) {
+        int months = config.retentionMonths(table);
+        if (months == 0) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table);
+        for (String partition : partitionsOlderThan(table, partitions, current.minusMonths(months))) {
+            if (config.getMode() == LogRetentionConfig.Mode.EXPORT && !export(table, partition)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // Detaching needs a brief exclusive lock on the parent; give up rather than queue inserts behind it
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                if (config.getMode() == LogRetentionConfig.Mode.EXPORT) {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                }
+            });
+            logger.info("Retired partition {} of {} ({})", partition, table, config.getMode());
+            count(table, config.getMode() == LogRetentionConfig.Mode.EXPORT ? "archived" : "detached", 1);
+        }
+    }
+    /**
+     * Write a partition to a gzip CSV next to the final file and move it into place, so an
+     * interrupted export never leaves a truncated archive behind.
+     *
+     * @return true if the archive was written
+     */
+    boolean export(String table, String partition) {
+        String archiveDir = config.getArchiveDir();
+        if (archiveDir == null || archiveDir.isBlank() || !Paths.get(archiveDir).isAbsolute()) {
+            logger.warn("log.retention.archive-dir must be an absolute path for EXPORT mode (got '{}'); "
+                    + "keeping {} attached", archiveDir, partition);
+            return false;
+        }
+        Path dir = Paths.get(archiveDir).resolve(table);
+        Path target = dir.resolve(partition + ".csv.gz");
+        Path temp = null;
+        try {
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, partition + "-", ".tmp");
+            Path out = temp;
+            Long rows = transactionTemplate.execute(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + partition);
+                // Stream the rows instead of loading the month into memory
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                return statement;
+            }, (ResultSetExtractor<Long>) resultSet -> writeGzipCsv(resultSet, out)));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Exported {} rows of {} to {}", rows, partition, target);
+            return true;
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            logger.warn("Could not export {} to {}; keeping it attached: {}", partition, dir, e.getMessage());
+            return false;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // retried with a new temp file on the next run
+                }
+            }
+        }
+    }
+    private void deleteExpiredRows(String table, String condition) {
+        int months = config.retentionMonths(table);
+        if (months == 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusMonths(months);
+        int batchSize = Math.max(config.getDeleteBatchSize(), 1);
+        String sql = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                + " WHERE " + condition + " LIMIT " + batchSize + ")";
+        long total = 0;
+        int deleted;
+        // Small batches keep each transaction (and the WAL it produces) short
+        do {
+            deleted = jdbcTemplate.update(sql, cutoff);
+            total += deleted;
+        } while (deleted >= batchSize);
+        if (total > 0) {
+            logger.info("Deleted {} rows older than {} from {}", total, cutoff, table);
+            Counter.builder("foodflow.log_retention.rows_deleted")
+                    .description("Rows removed from unpartitioned log tables by the retention job")
+                    .tag("table", table)
+                    .register(meterRegistry)
+                    .increment(total);
+        }
+    }
+    /**
+     * Monthly partitions of {@code table} (named {@code <table>_YYYY_MM}) for months before
+     * {@code cutoff}. The default partition and anything not following the naming scheme are
+     * never retired.
+     */
+    static List<String> partitionsOlderThan(String table, List<String> partitions, YearMonth cutoff) {
+        Pattern monthly = Pattern.compile(Pattern.quote(table) + "_(\\d{4})_(\\d{2})");
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = monthly.matcher(partition);
+            if (matcher.matches()
+                    && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        return expired;
+    }
+    static long writeGzipCsv(ResultSet resultSet, Path file) throws SQLException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columns = metaData.getColumnCount();
+            List<Object> values = new ArrayList<>(columns);
+            for (int i = 1; i <= columns; i++) {
+                values.add(metaData.getColumnName(i));
+            }
+            writer.write(csvLine(values));
+            long rows = 0;
+            while (resultSet.next()) {
+                values.clear();
+                for (int i = 1; i <= columns; i++) {
+                    values.add(resultSet.getObject(i));
+                }
+                writer.write(csvLine(values));
+                rows++;
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * RFC 4180 line: fields with commas, quotes or line breaks are quoted, nulls are empty.
+     */
+    static String csvLine(List<Object> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        return line.append("\r\n").toString();
+    }
+    private void count(String table, String action, int amount) {
+        Counter.builder("foodflow.log_retention.partitions")
+                .description("Log table partitions created or retired by the retention job")
+                .tag("table", table)
+                .tag("action", action)
+                .register(meterRegistry)
+                .increment(amount);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.foodflow.service;
 
 import com.example.foodflow.exception.BusinessException;
 import com.example.foodflow.model.dto.MessageHistoryResponse;
+import com.example.foodflow.model.dto.MessagePageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +13,7 @@ import com.example.foodflow.model.entity.Message;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.repository.ConversationRepository;
 import com.example.foodflow.repository.MessageRepository;
+import com.example.foodflow.util.MessageCursor;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -167,8 +171,84 @@ public class MessageService {
     }
 
     /**
-     * Get all messages in a conversation (legacy, use getConversationMessages with
-     * pagination)
+     * Get a page of conversation history, newest page first, using keyset pagination on
+     * (createdAt, id) so every page costs the same however long the thread is
+     *
+     * @param conversationId the conversation ID
+     * @param currentUser    the authenticated user
+     * @param before         cursor of the oldest message the client already has, or null for the
+     *                       most recent page
+     * @param limit          the number of messages to return (default 20, max 100)
+     * @return the page, oldest first, with {@code hasMore} set if older messages remain
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "message.service.getMessageHistory", description = "Time taken to get a page of message history")
+    public MessagePageResponse getMessageHistory(Long conversationId, User currentUser, String before, int limit) {
+        int pageSize = clampPageSize(limit);
+        MessageCursor cursor = before == null || before.isBlank() ? null : MessageCursor.decode(before);
+        // Validate user is participant
+        conversationService.getConversation(conversationId, currentUser);
+        // Fetch one extra row to learn whether another page exists without counting the thread
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Message> newestFirst = cursor == null
+                ? messageRepository.findLatestPage(conversationId, pageable)
+                : messageRepository.findPageBefore(conversationId, cursor.createdAt(), cursor.id(), pageable);
+        boolean hasMore = newestFirst.size() > pageSize;
+        List<Message> page = new ArrayList<>(newestFirst.subList(0, Math.min(pageSize, newestFirst.size())));
+        Collections.reverse(page);
+        businessMetricsService.incrementMessagesReceived();
+        return toPage(page, hasMore, null);
+    }
+
+    /**
+     * Get the messages posted after a cursor, oldest first. Reconnecting clients pass the
+     * cursor of the last message they saw and receive only what they missed; while
+     * {@code hasMore} is set they keep calling with the returned {@code newestCursor}.
+     *
+     * @param conversationId the conversation ID
+     * @param currentUser    the authenticated user
+     * @param cursor         cursor of the last message the client has
+     * @param limit          the number of messages to return (default 20, max 100)
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "message.service.getMessagesSince", description = "Time taken to get messages since a cursor")
+    public MessagePageResponse getMessagesSince(Long conversationId, User currentUser, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        MessageCursor since = MessageCursor.decode(cursor);
+        // Validate user is participant
+        conversationService.getConversation(conversationId, currentUser);
+        List<Message> oldestFirst = messageRepository.findPageAfter(conversationId, since.createdAt(), since.id(),
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = oldestFirst.size() > pageSize;
+        List<Message> page = oldestFirst.subList(0, Math.min(pageSize, oldestFirst.size()));
+        businessMetricsService.incrementMessagesReceived();
+        // With nothing new the client keeps its position
+        return toPage(page, hasMore, cursor);
+    }
+
+    private static int clampPageSize(int limit) {
+        if (limit < 1)
+            return 20;
+        return Math.min(limit, 100); // cap at 100 to prevent abuse
+    }
+
+    private static MessagePageResponse toPage(List<Message> oldestFirst, boolean hasMore, String emptyCursor) {
+        if (oldestFirst.isEmpty()) {
+            return new MessagePageResponse(List.of(), null, emptyCursor, hasMore);
+        }
+        List<MessageResponse> messages = oldestFirst.stream()
+                .map(MessageResponse::new)
+                .collect(Collectors.toList());
+        return new MessagePageResponse(
+                messages,
+                messages.get(0).getCursor(),
+                messages.get(messages.size() - 1).getCursor(),
+                hasMore);
+    }
+
+    /**
+     * Get all messages in a conversation (legacy, use getMessageHistory with a
+     * cursor)
      */
     @Transactional(readOnly = true)
     @Timed(value = "message.service.getConversationMessages", description = "Time taken to get conversation messages")
@@ -179,7 +259,7 @@ public class MessageService {
         businessMetricsService.incrementMessagesReceived();
         logger.warn("Deprecated: getConversationMessages called without pagination. " +
                 "This loads ALL messages which impacts performance. " +
-                "Use getConversationMessages(Long, User, int, int) instead.");
+                "Use getMessageHistory(Long, User, String, int) instead.");
         return messages.stream()
                 .map(MessageResponse::new)
                 .collect(Collectors.toList());
@@ -212,11 +292,7 @@ public class MessageService {
     public void markConversationAsRead(Long conversationId, User currentUser) {
         // Validate user is participant
         conversationService.getConversation(conversationId, currentUser);
-        List<Message> unreadMessages = messageRepository.findUnreadByConversationAndUser(
-                conversationId,
-                currentUser.getId());
-        unreadMessages.forEach(message -> message.setReadStatus(true));
-        messageRepository.saveAll(unreadMessages);
+        messageRepository.markConversationReadForUser(conversationId, currentUser.getId());
     }
 
     /**
@@ -5,12 +5,15 @@ import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 /**
  * Periodically refreshes Micrometer Gauge metrics that reflect real-time
@@ -22,14 +25,20 @@ import java.util.concurrent.atomic.AtomicReference;
  *   pending_claims                     – claims with ClaimStatus.ACTIVE
  *   foodflow.donation.completion.rate  – COMPLETED / (COMPLETED + NOT_COMPLETED)
  *                                        alert fires when < 0.60 (60%)
+ *
+ * With several replicas the count queries are guarded by a scheduler lease, so they run on
+ * one node per interval. The lease is not sticky, so the refresh rotates between nodes and
+ * every node's gauges stay within a few intervals of the database.
  */
 @Component
 public class MetricsGaugeUpdater {
     private static final Logger log = LoggerFactory.getLogger(MetricsGaugeUpdater.class);
+    private static final long REFRESH_INTERVAL_MS = 30000;
     private final BusinessMetricsService businessMetricsService;
     private final UserRepository userRepository;
     private final SurplusPostRepository surplusPostRepository;
     private final ClaimRepository claimRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
     // Backing value for the donation completion rate gauge (default 1.0 until first DB refresh)
     private final AtomicReference<Double> donationCompletionRate = new AtomicReference<>(1.0);
     public MetricsGaugeUpdater(BusinessMetricsService businessMetricsService,
@@ -37,17 +46,35 @@ public class MetricsGaugeUpdater {
                                 SurplusPostRepository surplusPostRepository,
                                 ClaimRepository claimRepository,
                                 MeterRegistry meterRegistry) {
+        this(businessMetricsService, userRepository, surplusPostRepository, claimRepository, meterRegistry, null);
+    }
+    @Autowired
+    public MetricsGaugeUpdater(BusinessMetricsService businessMetricsService,
+                                UserRepository userRepository,
+                                SurplusPostRepository surplusPostRepository,
+                                ClaimRepository claimRepository,
+                                MeterRegistry meterRegistry,
+                                SchedulerLeaseService schedulerLeaseService) {
         this.businessMetricsService = businessMetricsService;
         this.userRepository = userRepository;
         this.surplusPostRepository = surplusPostRepository;
         this.claimRepository = claimRepository;
+        this.schedulerLeaseService = schedulerLeaseService;
         Gauge.builder("foodflow.donation.completion.rate", donationCompletionRate, AtomicReference::get)
                 .description("Ratio of COMPLETED donations to resolved donations (COMPLETED + NOT_COMPLETED). "
                         + "Alert fires when < 0.60.")
                 .register(meterRegistry);
     }
-    @Scheduled(fixedDelay = 30000)
+    @Scheduled(fixedDelay = REFRESH_INTERVAL_MS)
     public void refreshGauges() {
+        if (schedulerLeaseService == null) {
+            refreshFromDatabase();
+            return;
+        }
+        schedulerLeaseService.runExclusively("metrics.refresh-gauges",
+                Duration.ofMillis(REFRESH_INTERVAL_MS), this::refreshFromDatabase);
+    }
+    private void refreshFromDatabase() {
         try {
             int activeUsers = (int) userRepository.countByAccountStatus(AccountStatus.ACTIVE);
             int availableDonations = (int) surplusPostRepository.countByStatus(PostStatus.AVAILABLE);
@@ -2,15 +2,25 @@ package com.example.foodflow.service;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 @Service
 public class NotificationPreferenceService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationPreferenceService.class);
+    private static final TypeReference<Map<String, Boolean>> PREFERENCES_TYPE = new TypeReference<>() {};
     private final ObjectMapper objectMapper;
+    // userId -> preferences compiled from the user's JSON; revalidated against the entity on every read
+    private final Cache<Long, CompiledPreferences> compiledPreferences = CacheBuilder.newBuilder()
+            .maximumSize(20_000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
     private static final Map<UserRole, Set<String>> VALID_NOTIFICATION_TYPES = new HashMap<>();
     static {
         // DONOR notification types
@@ -56,38 +66,46 @@ public class NotificationPreferenceService {
     }
     // Check if a user should receive a specific type of notification
     public boolean shouldSendNotification(User user, String notificationType, String channel) {
-        logger.debug("Checking notification preference for userId={}, type={}, channel={}",
-                user.getId(), notificationType, channel);
-        if ("email".equals(channel)) {
-            if (user.getEmailNotificationsEnabled() == null || !user.getEmailNotificationsEnabled()) {
-                logger.info("Email notifications disabled for userId={}", user.getId());
-                return false;
-            }
-        } else if ("sms".equals(channel)) {
-            if (user.getSmsNotificationsEnabled() == null || !user.getSmsNotificationsEnabled()) {
-                logger.debug("SMS notifications disabled for userId={}", user.getId());
-                return false;
+        boolean allowed = compile(user).allows(notificationType, channel);
+        if (!allowed) {
+            logger.debug("Notification type '{}' on channel '{}' is disabled for userId={}",
+                    notificationType, channel, user.getId());
+        }
+        return allowed;
+    }
+    /**
+     * Bulk eligibility check for notification fan-out: returns the IDs of the users who
+     * should receive {@code notificationType} on {@code channel}.
+     */
+    public Set<Long> eligibleUserIds(Collection<User> users, String notificationType, String channel) {
+        Set<Long> eligible = new HashSet<>(Math.max(users.size() * 2, 16));
+        for (User user : users) {
+            if (compile(user).allows(notificationType, channel)) {
+                eligible.add(user.getId());
             }
         }
-        // Check specific notification type preference
-        Map<String, Boolean> typePreferences = getNotificationTypePreferences(user);
-        // If no preferences exist, default to true (allow notification)
-        if (typePreferences == null || typePreferences.isEmpty()) {
-            logger.debug("No notification type preferences found for userId={}, defaulting to allow", user.getId());
-            return true;
+        return eligible;
+    }
+    /**
+     * Drop the cached preferences for a user. Called after preferences are updated;
+     * reads also detect stale entries on their own by comparing with the entity.
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            compiledPreferences.invalidate(userId);
         }
-        // Check if this specific notification type is enabled
-        Boolean enabled = typePreferences.get(notificationType);
-        if (enabled == null) {
-            // Notification type not in preferences, default to true
-            logger.debug("Notification type '{}' not found in preferences for userId={}, defaulting to allow",
-                    notificationType, user.getId());
-            return true;
+    }
+    private CompiledPreferences compile(User user) {
+        if (user.getId() == null) {
+            return CompiledPreferences.from(user, getNotificationTypePreferences(user));
         }
-        if (!enabled) {
-            logger.info("Notification type '{}' is disabled for userId={}", notificationType, user.getId());
+        CompiledPreferences cached = compiledPreferences.getIfPresent(user.getId());
+        if (cached != null && cached.matches(user)) {
+            return cached;
         }
-        return enabled;
+        CompiledPreferences compiled = CompiledPreferences.from(user, getNotificationTypePreferences(user));
+        compiledPreferences.put(user.getId(), compiled);
+        return compiled;
     }
     // Validate that notification types are valid for the user's role
     public List<String> validateNotificationTypes(User user, Map<String, Boolean> notificationTypes) {
@@ -111,18 +129,60 @@ public class NotificationPreferenceService {
         return VALID_NOTIFICATION_TYPES.getOrDefault(role, new HashSet<>());
     }
     // Get notification type preferences from user's JSON field
-    @SuppressWarnings("unchecked")
     private Map<String, Boolean> getNotificationTypePreferences(User user) {
         String jsonPreferences = user.getNotificationTypePreferences();
         if (jsonPreferences == null || jsonPreferences.isEmpty()) {
             return new HashMap<>();
         }
         try {
-            return objectMapper.readValue(jsonPreferences, Map.class);
+            return objectMapper.readValue(jsonPreferences, PREFERENCES_TYPE);
         } catch (JsonProcessingException e) {
             logger.error("Error deserializing notification preferences for userId={}: {}",
                     user.getId(), e.getMessage());
             return new HashMap<>();
         }
     }
+    /**
+     * Immutable, pre-parsed view of a user's notification settings. Holds the inputs it was
+     * built from so a cached copy can be checked against the current entity without parsing.
+     */
+    static final class CompiledPreferences {
+        private final String source;
+        private final boolean emailEnabled;
+        private final boolean smsEnabled;
+        private final Set<String> disabledTypes;
+        private CompiledPreferences(String source, boolean emailEnabled, boolean smsEnabled, Set<String> disabledTypes) {
+            this.source = source;
+            this.emailEnabled = emailEnabled;
+            this.smsEnabled = smsEnabled;
+            this.disabledTypes = disabledTypes;
+        }
+        static CompiledPreferences from(User user, Map<String, Boolean> typePreferences) {
+            Set<String> disabled = new HashSet<>();
+            typePreferences.forEach((type, enabled) -> {
+                // Types absent from the map, or mapped to null, default to allowed
+                if (Boolean.FALSE.equals(enabled)) {
+                    disabled.add(type);
+                }
+            });
+            return new CompiledPreferences(user.getNotificationTypePreferences(),
+                    Boolean.TRUE.equals(user.getEmailNotificationsEnabled()),
+                    Boolean.TRUE.equals(user.getSmsNotificationsEnabled()),
+                    Set.copyOf(disabled));
+        }
+        boolean matches(User user) {
+            return emailEnabled == Boolean.TRUE.equals(user.getEmailNotificationsEnabled())
+                    && smsEnabled == Boolean.TRUE.equals(user.getSmsNotificationsEnabled())
+                    && Objects.equals(source, user.getNotificationTypePreferences());
+        }
+        boolean allows(String notificationType, String channel) {
+            if ("email".equals(channel) && !emailEnabled) {
+                return false;
+            }
+            if ("sms".equals(channel) && !smsEnabled) {
+                return false;
+            }
+            return !disabledTypes.contains(notificationType);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.ReceiverPreferencesRepository;
 import com.example.foodflow.repository.UserRepository;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -17,10 +18,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 @Service
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final String NEW_DONATION_TYPE = "newDonationAvailable";
     private final SimpMessagingTemplate messagingTemplate;
     private final ReceiverPreferencesRepository receiverPreferencesRepository;
     private final ClaimRepository claimRepository;
@@ -51,6 +54,8 @@ public class NotificationService {
      * Send notification to all eligible receivers when a new post is created
      */
     @Timed(value = "notification.service.sendNewPostNotification", description = "Time taken to send new post notifications")
+    @Observed(name = "foodflow.notification.fanout", contextualName = "notify-new-post",
+            lowCardinalityKeyValues = {"notification", "new_post"})
     public void sendNewPostNotification(SurplusPost surplusPost) {
         logger.info("===== NOTIFICATION SERVICE START =====");
         logger.info("Processing new post notification for postId={}, title={}, foodCategories={}", 
@@ -61,14 +66,26 @@ public class NotificationService {
         int totalReceivers = receivers.size();
         int notificationsSent = 0;
         int filteredOut = 0;
+        // Resolve channel preferences for the whole audience once, before any per-receiver lookups
+        Set<Long> websocketEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "websocket");
+        Set<Long> emailEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "email");
+        Set<Long> smsEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "sms");
         for (User receiver : receivers) {
             try {
+                // Receivers who turned this notification type off never need the preference/capacity checks
+                if (!websocketEligible.contains(receiver.getId())) {
+                    filteredOut++;
+                    logger.debug("Skipping receiverId={} for postId={} - notification type disabled",
+                        receiver.getId(), surplusPost.getId());
+                    continue;
+                }
                 // Check if receiver should receive notification
                 if (shouldNotifyReceiver(receiver, surplusPost)) {
                     String matchReason = getMatchReason(receiver, surplusPost);
-                    sendNotificationToReceiver(receiver, surplusPost, matchReason);
+                    sendNotificationToReceiver(receiver, surplusPost, matchReason,
+                        emailEligible.contains(receiver.getId()), smsEligible.contains(receiver.getId()));
                     notificationsSent++;
-                    logger.info("Sent notification to receiverId={} for postId={}, reason: {}", 
+                    logger.debug("Sent notification to receiverId={} for postId={}, reason: {}", 
                         receiver.getId(), surplusPost.getId(), matchReason);
                 } else {
                     filteredOut++;
@@ -91,51 +108,156 @@ public class NotificationService {
             businessMetricsService.incrementNotificationsFiltered();
         }
     }
+    /**
+     * Send one notification per eligible receiver for a batch of new posts (a donor's bulk
+     * import), listing the posts that match their preferences, instead of one per post.
+     * Preferences and claimed quantity are read once per receiver for the whole batch.
+     */
+    @Timed(value = "notification.service.sendNewPostsNotification", description = "Time taken to send batched new post notifications")
+    @Observed(name = "foodflow.notification.fanout", contextualName = "notify-new-posts-batch",
+            lowCardinalityKeyValues = {"notification", "new_posts_batch"})
+    public void sendNewPostsNotification(List<SurplusPost> surplusPosts) {
+        if (surplusPosts.isEmpty()) {
+            return;
+        }
+        List<User> receivers = userRepository.findByRole(UserRole.RECEIVER);
+        Set<Long> websocketEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "websocket");
+        Set<Long> emailEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "email");
+        Set<Long> smsEligible = notificationPreferenceService.eligibleUserIds(receivers, NEW_DONATION_TYPE, "sms");
+        int notificationsSent = 0;
+        int filteredOut = 0;
+        for (User receiver : receivers) {
+            if (!websocketEligible.contains(receiver.getId())) {
+                filteredOut++;
+                continue;
+            }
+            try {
+                ReceiverPreferences preferences = receiverPreferencesRepository.findByUserId(receiver.getId())
+                    .orElse(null);
+                List<SurplusPost> matching = matchingPosts(receiver, preferences, surplusPosts);
+                if (matching.isEmpty()) {
+                    filteredOut++;
+                    continue;
+                }
+                sendBatchNotificationToReceiver(receiver, preferences, matching,
+                    emailEligible.contains(receiver.getId()), smsEligible.contains(receiver.getId()));
+                notificationsSent++;
+            } catch (Exception e) {
+                logger.error("Failed to process batch notification for receiverId={}: {}",
+                    receiver.getId(), e.getMessage());
+            }
+        }
+        logger.info("Batch notification for {} posts complete. Total receivers: {}, Sent: {}, Filtered: {}",
+            surplusPosts.size(), receivers.size(), notificationsSent, filteredOut);
+        businessMetricsService.incrementNotificationsSent();
+        for (int i = 0; i < notificationsSent; i++) {
+            businessMetricsService.incrementNotificationsDelivered();
+        }
+        for (int i = 0; i < filteredOut; i++) {
+            businessMetricsService.incrementNotificationsFiltered();
+        }
+    }
+    /**
+     * The posts of a batch a receiver should hear about, applying the same rules as
+     * {@link #shouldNotifyReceiver}: each post has to fit the receiver's remaining capacity.
+     */
+    private List<SurplusPost> matchingPosts(User receiver, ReceiverPreferences preferences, List<SurplusPost> posts) {
+        if (preferences == null || preferences.getNotificationPreferencesEnabled() == null
+                || !preferences.getNotificationPreferencesEnabled()) {
+            return posts;
+        }
+        int availableCapacity = preferences.getMaxCapacity() - getCurrentClaimedQuantity(receiver.getId());
+        if (availableCapacity <= 0) {
+            return List.of();
+        }
+        return posts.stream()
+            .filter(post -> matchesFoodPreferences(preferences, post))
+            .filter(post -> (post.getQuantity() != null ? post.getQuantity().getValue().intValue() : 0) <= availableCapacity)
+            .collect(Collectors.toList());
+    }
+    private void sendBatchNotificationToReceiver(User receiver, ReceiverPreferences preferences,
+                                                 List<SurplusPost> posts, boolean sendEmail, boolean sendSms) {
+        SurplusPost first = posts.get(0);
+        Set<String> categories = posts.stream()
+            .filter(post -> post.getFoodCategories() != null)
+            .flatMap(post -> post.getFoodCategories().stream())
+            .map(FoodCategory::name)
+            .collect(Collectors.toCollection(TreeSet::new));
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("type", "NEW_POSTS");
+        notification.put("postId", first.getId());
+        notification.put("postIds", posts.stream().map(SurplusPost::getId).collect(Collectors.toList()));
+        notification.put("count", posts.size());
+        notification.put("title", posts.size() == 1 ? first.getTitle() : posts.size() + " new donations");
+        notification.put("foodCategories", String.join(", ", categories));
+        notification.put("quantity", posts.stream()
+            .filter(post -> post.getQuantity() != null)
+            .mapToInt(post -> post.getQuantity().getValue().intValue())
+            .sum());
+        notification.put("matchReason", preferences == null || !Boolean.TRUE.equals(preferences.getNotificationPreferencesEnabled())
+            ? "All notifications enabled" : "Matches your preferences");
+        notification.put("timestamp", System.currentTimeMillis());
+        messagingTemplate.convertAndSendToUser(receiver.getId().toString(), "/queue/notifications", notification);
+        if (sendEmail) {
+            try {
+                emailService.sendNewDonationNotification(receiver.getEmail(), getReceiverName(receiver), notification);
+            } catch (Exception e) {
+                logger.error("Failed to send email notification to receiverId={}: {}", receiver.getId(), e.getMessage());
+            }
+        }
+        if (sendSms && hasValidPhoneNumber(receiver)) {
+            try {
+                smsService.sendNewDonationNotification(receiver.getPhone(), getReceiverName(receiver), notification);
+            } catch (Exception e) {
+                logger.error("Failed to send SMS notification to receiverId={}: {}", receiver.getId(), e.getMessage());
+            }
+        }
+    }
     /**
      * Determine if a receiver should be notified about a surplus post
      */
     private boolean shouldNotifyReceiver(User receiver, SurplusPost surplusPost) {
-        logger.info("Checking if receiverId={} should be notified...", receiver.getId());
+        logger.debug("Checking if receiverId={} should be notified...", receiver.getId());
         // Get receiver preferences
         ReceiverPreferences preferences = receiverPreferencesRepository.findByUserId(receiver.getId())
             .orElse(null);
         // If no preferences exist, notify by default
         if (preferences == null) {
-            logger.info("  → No preferences found for receiverId={}, notifying by default", receiver.getId());
+            logger.debug("  → No preferences found for receiverId={}, notifying by default", receiver.getId());
             return true;
         }
-        logger.info("  → Preferences found: smartNotifications={}, preferredTypes={}, capacity={}", 
+        logger.debug("  → Preferences found: smartNotifications={}, preferredTypes={}, capacity={}", 
             preferences.getNotificationPreferencesEnabled(), 
             preferences.getPreferredFoodTypes(),
             preferences.getMaxCapacity());
         // Check if smart notifications are disabled - if so, notify all
         if (preferences.getNotificationPreferencesEnabled() == null || 
             !preferences.getNotificationPreferencesEnabled()) {
-            logger.info("  → Smart notifications DISABLED for receiverId={}, notifying ALL", receiver.getId());
+            logger.debug("  → Smart notifications DISABLED for receiverId={}, notifying ALL", receiver.getId());
             return true;
         }
-        logger.info("  → Smart notifications ENABLED - applying filters...");
+        logger.debug("  → Smart notifications ENABLED - applying filters...");
         // Check capacity - don't notify if at or above capacity
         if (capacityReached(receiver, preferences)) {
-            logger.info("  → FILTERED: Receiver at capacity");
+            logger.debug("  → FILTERED: Receiver at capacity");
             return false;
         }
         // Check if at least one food category matches preferences
         if (!matchesFoodPreferences(preferences, surplusPost)) {
-            logger.info("  → FILTERED: No food type match");
+            logger.debug("  → FILTERED: No food type match");
             return false;
         }
         // Check if quantity fits within available capacity
         int currentClaimed = getCurrentClaimedQuantity(receiver.getId());
         int availableCapacity = preferences.getMaxCapacity() - currentClaimed;
         int postQuantity = surplusPost.getQuantity() != null ? surplusPost.getQuantity().getValue().intValue() : 0;
-        logger.info("  → Quantity check: post={}, available={}, current={}", 
+        logger.debug("  → Quantity check: post={}, available={}, current={}", 
             postQuantity, availableCapacity, currentClaimed);
         if (postQuantity > availableCapacity) {
-            logger.info("  → FILTERED: Post quantity exceeds available capacity");
+            logger.debug("  → FILTERED: Post quantity exceeds available capacity");
             return false;
         }
-        logger.info("  → PASSED all filters - will notify");
+        logger.debug("  → PASSED all filters - will notify");
         return true;
     }
     /**
@@ -221,13 +343,8 @@ public class NotificationService {
     /**
      * Send notification to a specific receiver via WebSocket
      */
-    private void sendNotificationToReceiver(User receiver, SurplusPost surplusPost, String matchReason) {
-        // Check if user has this notification type enabled
-        if (!notificationPreferenceService.shouldSendNotification(receiver, "newDonationAvailable", "websocket")) {
-            logger.info("Skipping notification to receiverId={} for postId={} - notification type disabled", 
-                receiver.getId(), surplusPost.getId());
-            return;
-        }
+    private void sendNotificationToReceiver(User receiver, SurplusPost surplusPost, String matchReason,
+                                            boolean sendEmail, boolean sendSms) {
         Map<String, Object> notification = new HashMap<>();
         notification.put("type", "NEW_POST");
         notification.put("postId", surplusPost.getId());
@@ -242,7 +359,7 @@ public class NotificationService {
                 "/queue/notifications",
                 notification
             );
-            logger.info("Sent notification to receiverId={} for postId={} (type: newDonationAvailable)", 
+            logger.debug("Sent notification to receiverId={} for postId={} (type: newDonationAvailable)", 
                 receiver.getId(), surplusPost.getId());
         } catch (Exception e) {
             logger.error("Failed to send websocket notification to receiverId={}: {}", 
@@ -250,7 +367,7 @@ public class NotificationService {
             throw e;
         }
         // Send email notification if user has email notifications enabled
-        if (notificationPreferenceService.shouldSendNotification(receiver, "newDonationAvailable", "email")) {
+        if (sendEmail) {
             try {
                 String userName = getReceiverName(receiver);
                 emailService.sendNewDonationNotification(receiver.getEmail(), userName, notification);
@@ -261,7 +378,7 @@ public class NotificationService {
             }
         }
         // Send SMS notification if user has SMS notifications enabled
-        if (notificationPreferenceService.shouldSendNotification(receiver, "newDonationAvailable", "sms")) {
+        if (sendSms) {
             // Check if user has a valid phone number
             if (hasValidPhoneNumber(receiver)) {
                 try {
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.observation.annotation.Observed;
 import okhttp3.*;
 import java.util.concurrent.TimeUnit;
 import java.util.Locale;
@@ -49,6 +50,8 @@ public class OpenAIService {
      * @param userLanguage    User's preferred language
      * @return OpenAI response or error message
      */
+    @Observed(name = "foodflow.external.call", contextualName = "openai-chat-completion",
+            lowCardinalityKeyValues = {"provider", "openai", "operation", "chat_completion"})
     public String generateSupportResponse(String userMessage, String helpPackContent,
             JsonNode supportContext, String userLanguage) {
         long startTime = System.currentTimeMillis();
@@ -275,6 +278,13 @@ public class OpenAIService {
                 7. Never claim you "looked up" information - you only use provided context
                 """;
     }
+    /**
+     * Whether a reply is the canned message returned when the model could not be reached
+     * or the request was rejected, rather than a real answer.
+     */
+    public boolean isEscalationMessage(String reply, String language) {
+        return reply != null && reply.equals(getEscalationMessage(language));
+    }
     /**
      * Get escalation message in the appropriate language
      */
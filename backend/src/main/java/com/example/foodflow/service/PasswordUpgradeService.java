@@ -0,0 +1,53 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.ServiceBusyException;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+/**
+ * Re-hashes stored passwords whose cost factor is below the configured BCrypt strength.
+ *
+ * Called after a successful login, the only time the raw password is available. The upgrade
+ * runs in its own transaction so it reaches the primary even when login itself is a read-only
+ * (replica-routed) transaction, and it is best-effort: a busy hashing pool or a password changed
+ * in the meantime just leaves the old hash for the next login.
+ */
+@Service
+public class PasswordUpgradeService {
+    private static final Logger log = LoggerFactory.getLogger(PasswordUpgradeService.class);
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    public PasswordUpgradeService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+    /**
+     * @param user        the user who just authenticated
+     * @param rawPassword the password they authenticated with
+     * @return true if the stored hash was replaced
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (currentHash == null || !passwordEncoder.upgradeEncoding(currentHash)) {
+            return false;
+        }
+        String upgradedHash;
+        try {
+            upgradedHash = passwordEncoder.encode(rawPassword);
+        } catch (ServiceBusyException e) {
+            log.debug("Skipped password hash upgrade for userId={}: hashing pool busy", user.getId());
+            return false;
+        }
+        if (userRepository.updatePasswordIfUnchanged(user.getId(), currentHash, upgradedHash) == 0) {
+            log.debug("Skipped password hash upgrade for userId={}: password changed concurrently", user.getId());
+            return false;
+        }
+        log.info("Upgraded password hash cost factor for userId={}", user.getId());
+        return true;
+    }
+}
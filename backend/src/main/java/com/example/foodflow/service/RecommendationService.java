@@ -117,7 +117,7 @@ public class RecommendationService {
     /**
      * Calculate recommendation based on user-configurable preferences
      */
-    private RecommendationDTO calculateRecommendation(SurplusPost post, ReceiverPreferences preferences) {
+    RecommendationDTO calculateRecommendation(SurplusPost post, ReceiverPreferences preferences) {
         List<String> reasons = new ArrayList<>();
         int score = 0;
         // 1. Food Category Matching (35 points) - Most important user setting
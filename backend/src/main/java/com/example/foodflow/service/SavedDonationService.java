@@ -1,4 +1,5 @@
 package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusCardResponse;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.model.entity.SavedDonation;
 import com.example.foodflow.model.entity.SurplusPost;
@@ -7,6 +8,7 @@ import com.example.foodflow.model.entity.UserRole;
 import com.example.foodflow.repository.SavedDonationRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.domain.Specification;
 import com.example.foodflow.model.types.PostStatus;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -108,6 +110,22 @@ public class SavedDonationService {
                 .map(post -> surplusService.convertToResponseForReceiver(post, receiverTimezone))
                 .collect(Collectors.toList());
     }
+    /*
+       Get Saved Donations for a fields= selection (cards come from the card projection)
+       */
+    public List<?> getSavedDonations(SurplusFieldSelection selection) {
+        return surplusService.selectFields(selection, this::getSavedDonationCards, this::getSavedDonations);
+    }
+    private List<SurplusCardResponse> getSavedDonationCards() {
+        User receiver = getAuthenticatedReceiver();
+        LocalDate today = LocalDate.now(clock);
+        Specification<SurplusPost> stillAvailable = (root, query, cb) -> cb.and(
+                cb.equal(root.get("status"), PostStatus.AVAILABLE),
+                cb.or(cb.isNull(root.get("expiryDate")),
+                        cb.greaterThanOrEqualTo(root.get("expiryDate"), today)));
+        return surplusService.getSurplusCardsForReceiver(
+                savedDonationRepository.findSurplusPostIdsByReceiverId(receiver.getId()), stillAvailable, receiver);
+    }
     /* 
        Check If Saved
        */
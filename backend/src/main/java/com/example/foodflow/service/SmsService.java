@@ -1,15 +1,14 @@
 package com.example.foodflow.service;
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.example.foodflow.service.sms.SmsDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import jakarta.annotation.PostConstruct;
 import java.util.Map;
 /**
- * Service for sending SMS notifications using Twilio
+ * Service for sending SMS notifications.
+ * Messages are validated here and handed to {@link SmsDispatcher}, which delivers them
+ * in the background (Twilio by default) so callers never block on the provider.
  */
 @Service
 public class SmsService {
@@ -20,31 +19,17 @@ public class SmsService {
     private String authToken;
     @Value("${twilio.phone.number}")
     private String fromPhoneNumber;
-    private final BusinessMetricsService businessMetricsService;
-    public SmsService(BusinessMetricsService businessMetricsService) {
-        this.businessMetricsService = businessMetricsService;
+    private final SmsDispatcher smsDispatcher;
+    public SmsService(SmsDispatcher smsDispatcher) {
+        this.smsDispatcher = smsDispatcher;
     }
-    private static final int MAX_RETRIES = 3;
-    private static final long INITIAL_RETRY_DELAY_MS = 1000; // 1 second
     /**
-     * Initialize Twilio client on service startup
-     */
-    @PostConstruct
-    public void init() {
-        try {
-            Twilio.init(accountSid, authToken);
-            log.info("Twilio SMS service initialized successfully with sender number: {}", fromPhoneNumber);
-        } catch (Exception e) {
-            log.error("Failed to initialize Twilio SMS service: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to initialize Twilio SMS service", e);
-        }
-    }
-    /**
-     * Send SMS with retry logic and exponential backoff
+     * Queue an SMS for delivery. Retries with exponential backoff happen on the dispatcher's
+     * scheduler, not on the calling thread.
      *
      * @param toPhoneNumber Recipient phone number in E.164 format (e.g., +1234567890)
      * @param messageBody SMS message content (max 160 chars recommended)
-     * @return true if SMS sent successfully, false otherwise
+     * @return true if the SMS was accepted for delivery, false if invalid or the dispatcher is full
      */
     public boolean sendSms(String toPhoneNumber, String messageBody) {
         if (toPhoneNumber == null || toPhoneNumber.trim().isEmpty()) {
@@ -60,41 +45,8 @@ public class SmsService {
             log.warn("Invalid phone number format: {}. Must be in E.164 format (e.g., +1234567890)", toPhoneNumber);
             return false;
         }
-        log.info("Attempting to send SMS to: {} (message length: {} chars)", toPhoneNumber, messageBody.length());
-        int attempt = 0;
-        long delay = INITIAL_RETRY_DELAY_MS;
-        while (attempt < MAX_RETRIES) {
-            try {
-                Message message = Message.creator(
-                        new PhoneNumber(toPhoneNumber),
-                        new PhoneNumber(fromPhoneNumber),
-                        messageBody
-                ).create();
-                log.info("SMS sent successfully to: {}. Message SID: {}, Status: {}",
-                        toPhoneNumber, message.getSid(), message.getStatus());
-                businessMetricsService.incrementSmsSent();
-                return true;
-            } catch (Exception e) {
-                attempt++;
-                log.error("Failed to send SMS to: {} (attempt {}/{}): {}",
-                        toPhoneNumber, attempt, MAX_RETRIES, e.getMessage());
-                if (attempt < MAX_RETRIES) {
-                    try {
-                        log.info("Retrying in {} ms...", delay);
-                        Thread.sleep(delay);
-                        delay *= 2; // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        log.error("Retry interrupted for SMS to: {}", toPhoneNumber);
-                        return false;
-                    }
-                } else {
-                    log.error("All retry attempts exhausted for SMS to: {}. SMS delivery failed.", toPhoneNumber);
-                }
-            }
-        }
-        businessMetricsService.incrementSmsFailed();
-        return false;
+        log.info("Queueing SMS to: {} (message length: {} chars)", toPhoneNumber, messageBody.length());
+        return smsDispatcher.dispatch(toPhoneNumber, messageBody);
     }
     /**
      * Send SMS for new donation available notification
@@ -0,0 +1,100 @@
+package com.example.foodflow.service;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+/**
+ * Admission control for streamed downloads.
+ *
+ * Export bodies are written on the bounded export pool after the controller returns. A fixed
+ * number of permits caps how many can be in flight at once; requests beyond that are turned
+ * away immediately (the caller answers 503) instead of queueing heavy report generation.
+ *
+ * A permit is returned when its body finishes, or when the async request completes without
+ * the body having run to the end (timeout, client disconnect, export pool rejection).
+ */
+@Service
+public class StreamingExportService {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingExportService.class);
+    private final Semaphore permits;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+    public StreamingExportService(MeterRegistry meterRegistry,
+                                  @Value("${export.max-concurrent:8}") int maxConcurrent) {
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(Math.max(maxConcurrent, 1));
+        Gauge.builder("foodflow.export.available_permits", permits, Semaphore::availablePermits)
+                .description("Streamed exports that can still be admitted")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("foodflow.export.rejected")
+                .description("Exports turned away because too many were already in flight")
+                .register(meterRegistry);
+    }
+    /**
+     * Reserve capacity for an export and wrap its body so the reservation is released once the
+     * body has been written (or has failed), or once the current async request completes.
+     *
+     * @return the wrapped body, or empty if no capacity is available right now
+     */
+    public Optional<StreamingResponseBody> admit(String exportType, StreamingResponseBody body) {
+        if (!permits.tryAcquire()) {
+            rejectedCounter.increment();
+            logger.warn("Rejecting {} export - export capacity exhausted", exportType);
+            return Optional.empty();
+        }
+        Timer timer = Timer.builder("foodflow.export.duration")
+                .description("Time spent streaming an export to the client")
+                .tag("type", exportType)
+                .register(meterRegistry);
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        releaseOnAsyncCompletion(release);
+        return Optional.of(outputStream -> {
+            Timer.Sample sample = Timer.start();
+            try {
+                body.writeTo(outputStream);
+                outputStream.flush();
+            } finally {
+                sample.stop(timer);
+                release.run();
+            }
+        });
+    }
+    /**
+     * Runs {@code release} from the async request's completion callback, which fires on normal
+     * completion, timeout, error and executor rejection alike. No-op outside a servlet request.
+     */
+    private static void releaseOnAsyncCompletion(Runnable release) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+                StreamingExportService.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+    }
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.types.PaymentStatus;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+/**
+ * Applies a verified Stripe event to our payment state. Called by {@link StripeWebhookQueue}
+ * on a worker thread; any exception marks the event for retry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookEventProcessor {
+    private final PaymentService paymentService;
+    public void process(Event event) {
+        switch (event.getType()) {
+            case "payment_intent.succeeded":
+                handlePaymentIntentSucceeded(event);
+                break;
+            case "payment_intent.payment_failed":
+                handlePaymentIntentFailed(event);
+                break;
+            case "payment_intent.canceled":
+                handlePaymentIntentCanceled(event);
+                break;
+            case "payment_intent.requires_action":
+                handlePaymentIntentRequiresAction(event);
+                break;
+            case "charge.refunded":
+                handleChargeRefunded(event);
+                break;
+            case "customer.created":
+                handleCustomerCreated(event);
+                break;
+            case "payment_method.attached":
+                handlePaymentMethodAttached(event);
+                break;
+            case "payment_method.detached":
+                handlePaymentMethodDetached(event);
+                break;
+            default:
+                log.info("Unhandled event type: {}", event.getType());
+        }
+    }
+    private void handlePaymentIntentSucceeded(Event event) {
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
+        log.info("Payment intent succeeded: {}", paymentIntent.getId());
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.SUCCEEDED);
+    }
+    private void handlePaymentIntentFailed(Event event) {
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
+        log.info("Payment intent failed: {}", paymentIntent.getId());
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.FAILED);
+    }
+    private void handlePaymentIntentCanceled(Event event) {
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
+        log.info("Payment intent canceled: {}", paymentIntent.getId());
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.CANCELED);
+    }
+    private void handlePaymentIntentRequiresAction(Event event) {
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment intent"));
+        log.info("Payment intent requires action: {}", paymentIntent.getId());
+        paymentService.updatePaymentStatus(paymentIntent.getId(), PaymentStatus.REQUIRES_ACTION);
+    }
+    private void handleChargeRefunded(Event event) {
+        com.stripe.model.Charge charge = (com.stripe.model.Charge) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize charge"));
+        log.info("Charge refunded: {}", charge.getId());
+        // Refund status updates handled via refund webhooks
+    }
+    private void handleCustomerCreated(Event event) {
+        com.stripe.model.Customer customer = (com.stripe.model.Customer) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize customer"));
+        log.info("Customer created: {}", customer.getId());
+    }
+    private void handlePaymentMethodAttached(Event event) {
+        com.stripe.model.PaymentMethod paymentMethod = (com.stripe.model.PaymentMethod) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment method"));
+        log.info("Payment method attached: {}", paymentMethod.getId());
+    }
+    private void handlePaymentMethodDetached(Event event) {
+        com.stripe.model.PaymentMethod paymentMethod = (com.stripe.model.PaymentMethod) event.getDataObjectDeserializer()
+            .getObject().orElseThrow(() -> new RuntimeException("Failed to deserialize payment method"));
+        log.info("Payment method detached: {}", paymentMethod.getId());
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.foodflow.service;
+import com.example.foodflow.config.ExecutorConfig;
+import com.example.foodflow.model.entity.StripeWebhookEvent;
+import com.example.foodflow.repository.StripeWebhookEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonParseException;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Durable queue for Stripe webhook events.
+ *
+ * The webhook endpoint only verifies the signature and inserts the event (insert-if-absent on
+ * the Stripe event id), then returns 200. Workers on the bounded
+ * {@link ExecutorConfig#STRIPE_WEBHOOK_EXECUTOR} pool apply events one ordering key (payment
+ * intent) at a time, in the order Stripe created them. A failed event is retried with
+ * exponential backoff and blocks later events for the same key until it succeeds or is
+ * dead-lettered after {@code stripe.webhook.max-attempts}. As with the calendar sync queue,
+ * the table is the queue: the scheduled drain re-discovers anything the pool rejected, work
+ * awaiting a retry, and events left behind by a restart.
+ */
+@Service
+public class StripeWebhookQueue {
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookQueue.class);
+    private static final int BATCH_SIZE = 50;
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final StripeWebhookEventProcessor eventProcessor;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transaction;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // orderingKey -> "another pass needed" flag; presence means a run is queued or in flight
+    private final ConcurrentHashMap<String, AtomicBoolean> scheduledKeys = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final Counter acceptedCounter;
+    private final Counter duplicateCounter;
+    private final Counter processedCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter rejectedCounter;
+    private final Timer processTimer;
+    @Value("${stripe.webhook.max-attempts:8}")
+    private int maxAttempts = 8;
+    @Value("${stripe.webhook.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs = 5000;
+    @Value("${stripe.webhook.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs = 3600000;
+    enum Outcome { PROCESSED, DEAD_LETTERED, RETRY_LATER, BUSY }
+    public StripeWebhookQueue(StripeWebhookEventRepository webhookEventRepository,
+                              StripeWebhookEventProcessor eventProcessor,
+                              @Qualifier(ExecutorConfig.STRIPE_WEBHOOK_EXECUTOR) TaskExecutor executor,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              Clock clock) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.eventProcessor = eventProcessor;
+        this.executor = executor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        Gauge.builder("foodflow.stripe.webhook.pending", pending, AtomicLong::get)
+                .description("Stripe webhook events waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("foodflow.stripe.webhook.dead_lettered", deadLettered, AtomicLong::get)
+                .description("Stripe webhook events that exhausted their retries")
+                .register(meterRegistry);
+        this.acceptedCounter = eventCounter(meterRegistry, "accepted");
+        this.duplicateCounter = eventCounter(meterRegistry, "duplicate");
+        this.processedCounter = eventCounter(meterRegistry, "processed");
+        this.retriedCounter = eventCounter(meterRegistry, "retried");
+        this.deadLetteredCounter = eventCounter(meterRegistry, "dead_lettered");
+        this.rejectedCounter = Counter.builder("foodflow.stripe.webhook.rejected")
+                .description("Processing requests rejected by the full worker pool (picked up by the next drain)")
+                .register(meterRegistry);
+        this.processTimer = Timer.builder("foodflow.stripe.webhook.process.duration")
+                .description("Time spent applying one Stripe event")
+                .register(meterRegistry);
+    }
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("foodflow.stripe.webhook.events")
+                .description("Stripe webhook events by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    /**
+     * Persist a verified event and schedule it for processing.
+     *
+     * @return false if Stripe already delivered this event
+     */
+    public boolean accept(Event event, String payload) {
+        String orderingKey = orderingKey(payload, event.getId());
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime stripeCreatedAt = event.getCreated() != null
+                ? LocalDateTime.ofEpochSecond(event.getCreated(), 0, ZoneOffset.UTC)
+                : now;
+        Integer inserted = transaction.execute(status -> webhookEventRepository.insertIfAbsent(
+                event.getId(), event.getType(), payload, orderingKey, stripeCreatedAt, now));
+        if (inserted == null || inserted == 0) {
+            duplicateCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        requestProcessing(orderingKey);
+        return true;
+    }
+    public void requestProcessing(String orderingKey) {
+        AtomicBoolean flag = new AtomicBoolean(true);
+        AtomicBoolean existing = scheduledKeys.putIfAbsent(orderingKey, flag);
+        if (existing != null) {
+            existing.set(true);
+            return;
+        }
+        try {
+            executor.execute(() -> runKey(orderingKey, flag));
+        } catch (RejectedExecutionException e) {
+            scheduledKeys.remove(orderingKey, flag);
+            rejectedCounter.increment();
+            logger.warn("Stripe webhook pool saturated, deferring {} to the next drain", orderingKey);
+        }
+    }
+    /**
+     * Re-discover keys with due events and refresh the backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-interval-ms:10000}")
+    public void drainDueWork() {
+        try {
+            pending.set(webhookEventRepository.countPending());
+            deadLettered.set(webhookEventRepository.countByDeadLetteredTrue());
+            List<String> keys = webhookEventRepository.findDueOrderingKeys(
+                    LocalDateTime.now(clock), PageRequest.of(0, BATCH_SIZE * 4));
+            keys.forEach(this::requestProcessing);
+        } catch (Exception e) {
+            logger.error("Stripe webhook drain failed", e);
+        }
+    }
+    private void runKey(String orderingKey, AtomicBoolean flag) {
+        try {
+            while (flag.getAndSet(false)) {
+                if (processKey(orderingKey)) {
+                    flag.set(true);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Stripe webhook processing failed for {}", orderingKey, e);
+        } finally {
+            scheduledKeys.remove(orderingKey, flag);
+            // A request that raced with the loop exit saw our entry and only set the flag
+            if (flag.get()) {
+                requestProcessing(orderingKey);
+            }
+        }
+    }
+    /**
+     * Apply due events for one key in order, stopping at the first one that has to wait.
+     *
+     * @return true if a full batch was processed and more events may be waiting
+     */
+    boolean processKey(String orderingKey) {
+        List<StripeWebhookEvent> events = webhookEventRepository.findPendingByOrderingKey(
+                orderingKey, PageRequest.of(0, BATCH_SIZE));
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (StripeWebhookEvent event : events) {
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                return false;
+            }
+            Outcome outcome = processEvent(event.getId());
+            if (outcome == Outcome.RETRY_LATER || outcome == Outcome.BUSY) {
+                return false;
+            }
+        }
+        return events.size() >= BATCH_SIZE;
+    }
+    Outcome processEvent(Long eventId) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Outcome outcome = transaction.execute(status -> {
+                StripeWebhookEvent event = webhookEventRepository.lockPendingById(eventId).orElse(null);
+                if (event == null) {
+                    return Outcome.BUSY;
+                }
+                eventProcessor.process(ApiResource.GSON.fromJson(event.getPayload(), Event.class));
+                event.setProcessed(true);
+                event.setProcessedAt(LocalDateTime.now(clock));
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(null);
+                event.setErrorMessage(null);
+                webhookEventRepository.save(event);
+                return Outcome.PROCESSED;
+            });
+            if (outcome == Outcome.PROCESSED) {
+                processedCounter.increment();
+            }
+            return outcome;
+        } catch (JsonParseException e) {
+            return recordFailure(eventId, e, true);
+        } catch (Exception e) {
+            return recordFailure(eventId, e, false);
+        } finally {
+            sample.stop(processTimer);
+        }
+    }
+    private Outcome recordFailure(Long eventId, Exception error, boolean permanent) {
+        return transaction.execute(status -> {
+            StripeWebhookEvent event = webhookEventRepository.findById(eventId).orElse(null);
+            if (event == null) {
+                return Outcome.DEAD_LETTERED;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setErrorMessage(error.getMessage());
+            if (permanent || attempts >= maxAttempts) {
+                event.setDeadLettered(true);
+                event.setNextAttemptAt(null);
+                webhookEventRepository.save(event);
+                deadLetteredCounter.increment();
+                logger.error("Stripe webhook event {} ({}) dead-lettered after {} attempts: {}",
+                        event.getStripeEventId(), event.getEventType(), attempts, error.getMessage());
+                return Outcome.DEAD_LETTERED;
+            }
+            event.setNextAttemptAt(LocalDateTime.now(clock).plus(Duration.ofMillis(backoffMillis(attempts))));
+            webhookEventRepository.save(event);
+            retriedCounter.increment();
+            logger.warn("Stripe webhook event {} ({}) failed on attempt {}, retrying at {}: {}",
+                    event.getStripeEventId(), event.getEventType(), attempts, event.getNextAttemptAt(),
+                    error.getMessage());
+            return Outcome.RETRY_LATER;
+        });
+    }
+    long backoffMillis(int attempts) {
+        long delay = retryBaseDelayMs << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(delay, retryMaxDelayMs);
+    }
+    /**
+     * Key that serializes processing: the payment intent the event's object belongs to, else the
+     * object's own id, else the event id.
+     */
+    String orderingKey(String payload, String eventId) {
+        try {
+            JsonNode object = objectMapper.readTree(payload).path("data").path("object");
+            if (object.path("payment_intent").isTextual()) {
+                return object.get("payment_intent").asText();
+            }
+            if (object.path("id").isTextual()) {
+                return object.get("id").asText();
+            }
+        } catch (Exception e) {
+            logger.debug("Could not read ordering key from event {}: {}", eventId, e.getMessage());
+        }
+        return eventId;
+    }
+}
@@ -85,7 +85,7 @@ public class SupportContextBuilder {
     private void addDonationContext(ObjectNode pageContext, String donationIdStr, User user) {
         try {
             Long donationId = Long.parseLong(donationIdStr);
-            Optional<SurplusPost> donationOpt = surplusPostRepository.findById(donationId);
+            Optional<SurplusPost> donationOpt = surplusPostRepository.findWithDonorById(donationId);
             if (donationOpt.isPresent()) {
                 SurplusPost donation = donationOpt.get();
                 // RBAC check: user must be the donor, admin, or the donation must be public
@@ -122,7 +122,7 @@ public class SupportContextBuilder {
     private void addClaimContext(ObjectNode pageContext, String claimIdStr, User user) {
         try {
             Long claimId = Long.parseLong(claimIdStr);
-            Optional<Claim> claimOpt = claimRepository.findById(claimId);
+            Optional<Claim> claimOpt = claimRepository.findWithPartiesById(claimId);
             if (claimOpt.isPresent()) {
                 Claim claim = claimOpt.get();
                 // RBAC check: user must be the claimer, the donor, or admin
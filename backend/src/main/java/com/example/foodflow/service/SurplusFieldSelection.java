@@ -0,0 +1,78 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.dto.SurplusCardResponse;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+/**
+ * The {@code fields=} parameter of the surplus list endpoints: a comma-separated list of
+ * {@link SurplusResponse} property names, where {@code card} stands for every
+ * {@link SurplusCardResponse} property. Without it the endpoints return full responses.
+ * A selection the card covers is served from the card projection; anything else falls back
+ * to full responses, trimmed to the requested properties.
+ */
+public final class SurplusFieldSelection {
+    public static final String CARD = "card";
+    private static final SurplusFieldSelection FULL = new SurplusFieldSelection(null);
+    private static final Set<String> RESPONSE_FIELDS = Arrays.stream(SurplusResponse.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toUnmodifiableSet());
+    private final Set<String> fields;
+    private SurplusFieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+    public static SurplusFieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return FULL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String part : fields.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (CARD.equalsIgnoreCase(name)) {
+                selected.addAll(SurplusCardResponse.FIELDS);
+            } else if (RESPONSE_FIELDS.contains(name)) {
+                selected.add(name);
+            } else {
+                throw new BusinessException("error.surplus.fields.unknown", name);
+            }
+        }
+        return new SurplusFieldSelection(selected);
+    }
+    public boolean isFull() {
+        return fields == null;
+    }
+    /**
+     * Whether every selected property is on the card, so the card projection can serve it.
+     */
+    public boolean fitsCard() {
+        return fields != null && SurplusCardResponse.FIELDS.containsAll(fields);
+    }
+    /**
+     * Cards go out unchanged when the whole card was asked for; otherwise each item is cut
+     * down to the selected properties.
+     */
+    public List<?> apply(List<?> items, ObjectMapper objectMapper) {
+        if (fields == null || (fitsCard() && fields.size() == SurplusCardResponse.FIELDS.size())) {
+            return items;
+        }
+        return items.stream()
+                .map(item -> {
+                    ObjectNode node = objectMapper.valueToTree(item);
+                    node.retain(fields);
+                    return node;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.exception.domain.InvalidSurplusPostException;
+import com.example.foodflow.model.dto.CreateSurplusRequest;
+import com.example.foodflow.model.dto.SurplusImportResponse;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+/**
+ * Bulk donation import for donors posting many items at once. The upload (a JSON array of
+ * create requests, or CSV with the {@link #CSV_COLUMNS} header) is read one row at a time.
+ * Every row is validated and built before anything is written; the valid rows are then saved
+ * together by {@link SurplusService#createSurplusPosts}, and the response reports the outcome
+ * of each row.
+ */
+@Service
+public class SurplusImportService {
+    private static final Logger logger = LoggerFactory.getLogger(SurplusImportService.class);
+    public enum Format {
+        JSON, CSV;
+        /**
+         * Format of an upload from its content type, falling back to the file extension.
+         */
+        public static Format of(String contentType, String filename) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            if (type.contains("csv") || name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (type.contains("json") || name.endsWith(".json")) {
+                return JSON;
+            }
+            throw new BusinessException("error.surplus.import.unsupported_format");
+        }
+    }
+    /**
+     * Recognised CSV columns. List columns (categories, dietary tags) are separated by
+     * semicolons; dates are ISO ({@code 2026-10-19}) and times {@code HH:mm}.
+     */
+    static final List<String> CSV_COLUMNS = List.of(
+            "title", "description", "foodCategories", "quantity", "unit", "fabricationDate", "expiryDate",
+            "pickupDate", "pickupFrom", "pickupTo", "address", "latitude", "longitude",
+            "temperatureCategory", "packagingType", "foodType", "dietaryTags");
+    static final String CREATED = "CREATED";
+    static final String FAILED = "FAILED";
+    private final SurplusService surplusService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final int maxRows;
+    public SurplusImportService(SurplusService surplusService,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                MessageSource messageSource,
+                                @Value("${surplus.import.max-rows:1000}") int maxRows) {
+        this.surplusService = surplusService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        this.maxRows = maxRows;
+    }
+    @Timed(value = "surplus.service.import", description = "Time taken to import a batch of surplus posts")
+    public SurplusImportResponse importPosts(InputStream input, Format format, String donorTimezone, User donor) {
+        surplusService.ensureAccountApprovedForDonations(donor);
+        List<SurplusImportResponse.RowResult> results = new ArrayList<>();
+        List<SurplusPost> posts = new ArrayList<>();
+        List<SurplusImportResponse.RowResult> postRows = new ArrayList<>();
+        RowHandler handler = node -> {
+            if (results.size() >= maxRows) {
+                throw new BusinessException("error.surplus.import.too_many_rows", maxRows);
+            }
+            SurplusImportResponse.RowResult result = SurplusImportResponse.RowResult.builder()
+                    .row(results.size() + 1)
+                    .title(node.path("title").asText(null))
+                    .build();
+            results.add(result);
+            SurplusPost post = buildRow(node, donorTimezone, donor, result);
+            if (post != null) {
+                posts.add(post);
+                postRows.add(result);
+            }
+        };
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, handler);
+            } else {
+                readJson(input, handler);
+            }
+        } catch (IOException e) {
+            logger.info("Rejected unreadable {} import from donorId={}: {}", format, donor.getId(), e.getMessage());
+            throw new BusinessException("error.surplus.import.unreadable", format.name());
+        }
+        if (results.isEmpty()) {
+            throw new BusinessException("error.surplus.import.empty");
+        }
+        List<SurplusPost> saved = surplusService.createSurplusPosts(posts, donor);
+        for (int i = 0; i < saved.size(); i++) {
+            postRows.get(i).setStatus(CREATED);
+            postRows.get(i).setPostId(saved.get(i).getId());
+        }
+        int created = posts.size();
+        logger.info("Imported {} of {} rows for donorId={}", created, results.size(), donor.getId());
+        return SurplusImportResponse.builder()
+                .received(results.size())
+                .created(created)
+                .failed(results.size() - created)
+                .rows(results)
+                .build();
+    }
+    /**
+     * Map, validate and build one row. Returns null, with the errors recorded on {@code result},
+     * when the row is rejected.
+     */
+    private SurplusPost buildRow(JsonNode node, String donorTimezone, User donor,
+                                 SurplusImportResponse.RowResult result) {
+        Locale locale = LocaleContextHolder.getLocale();
+        List<SurplusImportResponse.RowError> errors = new ArrayList<>();
+        try {
+            CreateSurplusRequest request = objectMapper.treeToValue(node, CreateSurplusRequest.class);
+            if (request.getDonorTimezone() == null || request.getDonorTimezone().isBlank()) {
+                request.setDonorTimezone(donorTimezone);
+            }
+            for (ConstraintViolation<CreateSurplusRequest> violation : validator.validate(request)) {
+                errors.add(new SurplusImportResponse.RowError(violation.getPropertyPath().toString(),
+                        localize(violation.getMessage(), null, locale)));
+            }
+            if (errors.isEmpty()) {
+                return surplusService.buildSurplusPost(request, donor);
+            }
+        } catch (JsonMappingException e) {
+            String field = e.getPath().stream()
+                    .map(reference -> reference.getFieldName() != null
+                            ? reference.getFieldName() : String.valueOf(reference.getIndex()))
+                    .collect(Collectors.joining("."));
+            errors.add(new SurplusImportResponse.RowError(field,
+                    localize("error.surplus.import.invalid_value", new Object[] {field}, locale)));
+        } catch (JsonProcessingException e) {
+            errors.add(new SurplusImportResponse.RowError(null,
+                    localize("error.surplus.import.invalid_value", new Object[] {""}, locale)));
+        } catch (BusinessException e) {
+            errors.add(new SurplusImportResponse.RowError(null, localize(e.getMessageKey(), e.getArgs(), locale)));
+        } catch (InvalidSurplusPostException e) {
+            errors.add(new SurplusImportResponse.RowError(null, e.getMessage()));
+        }
+        errors.sort(Comparator.comparing(SurplusImportResponse.RowError::getField,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        result.setStatus(FAILED);
+        result.setErrors(errors);
+        return null;
+    }
+    private String localize(String key, Object[] args, Locale locale) {
+        return messageSource.getMessage(key, args, key, locale);
+    }
+    private void readJson(InputStream input, RowHandler handler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of donations");
+            }
+            // One element in memory at a time; a value of the wrong type only fails its own row
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                handler.accept(objectMapper.readTree(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Expected only objects in the donations array");
+            }
+        }
+    }
+    private void readCsv(InputStream input, RowHandler handler) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            columns.add(CSV_COLUMNS.stream()
+                    .filter(column -> column.equalsIgnoreCase(name.trim()))
+                    .findFirst()
+                    .orElse(null));
+        }
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            handler.accept(csvRowToJson(columns, record));
+        }
+    }
+    /**
+     * Shape a CSV record like the JSON create request, so both formats go through the same
+     * Jackson conversion and validation.
+     */
+    ObjectNode csvRowToJson(List<String> columns, List<String> record) {
+        ObjectNode row = objectMapper.createObjectNode();
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < record.size(); i++) {
+            String value = record.get(i).trim();
+            if (columns.get(i) != null && !value.isEmpty()) {
+                values.put(columns.get(i), value);
+            }
+        }
+        for (String column : List.of("title", "description", "fabricationDate", "expiryDate", "pickupDate",
+                "pickupFrom", "pickupTo", "temperatureCategory", "packagingType", "foodType")) {
+            if (values.containsKey(column)) {
+                row.put(column, values.get(column));
+            }
+        }
+        putList(row, "foodCategories", values.get("foodCategories"));
+        putList(row, "dietaryTags", values.get("dietaryTags"));
+        if (values.containsKey("quantity") || values.containsKey("unit")) {
+            ObjectNode quantity = row.putObject("quantity");
+            quantity.put("value", values.get("quantity"));
+            quantity.put("unit", values.get("unit"));
+        }
+        if (values.containsKey("address") || values.containsKey("latitude") || values.containsKey("longitude")) {
+            ObjectNode location = row.putObject("pickupLocation");
+            location.put("address", values.get("address"));
+            location.put("latitude", values.get("latitude"));
+            location.put("longitude", values.get("longitude"));
+        }
+        return row;
+    }
+    private void putList(ObjectNode row, String field, String value) {
+        if (value == null) {
+            return;
+        }
+        ArrayNode list = row.putArray(field);
+        for (String item : value.split(";")) {
+            if (!item.isBlank()) {
+                list.add(item.trim());
+            }
+        }
+    }
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(JsonNode row);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+/**
+ * Moves terminal surplus posts (completed, expired, not completed) out of the live working set
+ * once they have not changed for {@code surplus.archive.after-days}.
+ *
+ * Archived posts keep their row in {@code surplus_posts}, since claims, timelines and
+ * conversations still point at them, but are stamped with {@code archived_at} and drop out of
+ * the partial indexes the live queries use (V82). Donor history and the admin donation list only
+ * read them when asked for older data; totals and impact reports always include them.
+ */
+@Service
+public class SurplusPostArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(SurplusPostArchiveService.class);
+    static final String JOB_NAME = "surplus-post-archive";
+    private final SurplusPostRepository surplusPostRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final Counter archivedCounter;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    public SurplusPostArchiveService(SurplusPostRepository surplusPostRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     SchedulerLeaseService schedulerLeaseService,
+                                     MeterRegistry meterRegistry,
+                                     Clock clock,
+                                     @Value("${surplus.archive.enabled:true}") boolean enabled,
+                                     @Value("${surplus.archive.after-days:90}") long afterDays,
+                                     @Value("${surplus.archive.batch-size:500}") int batchSize) {
+        this.surplusPostRepository = surplusPostRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.archivedCounter = Counter.builder("foodflow.surplus.archived")
+                .description("Terminal surplus posts moved out of the live working set")
+                .register(meterRegistry);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.archiveAfter = Duration.ofDays(Math.max(afterDays, 1));
+        this.batchSize = Math.max(batchSize, 1);
+    }
+    @Scheduled(cron = "${surplus.archive.cron:0 0 4 * * *}")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        schedulerLeaseService.runExclusively(JOB_NAME, Duration.ofHours(1), this::archiveTerminalPosts);
+    }
+    /**
+     * Archive every eligible post, one short transaction per batch.
+     *
+     * @return the number of posts archived
+     */
+    public int archiveTerminalPosts() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime cutoff = now.minus(archiveAfter);
+        int total = 0;
+        int archived;
+        do {
+            Integer updated = transactionTemplate.execute(status ->
+                    surplusPostRepository.archiveTerminalPosts(cutoff, now, batchSize));
+            archived = updated != null ? updated : 0;
+            total += archived;
+        } while (archived >= batchSize);
+        if (total > 0) {
+            archivedCounter.increment(total);
+            logger.info("Archived {} terminal surplus posts last updated before {}", total, cutoff);
+        }
+        return total;
+    }
+    public boolean isEnabled() {
+        return enabled;
+    }
+    /**
+     * Whether a date range starting on {@code fromDate} reaches back past the archive horizon,
+     * so archived posts may fall inside it.
+     */
+    public boolean reachesArchive(LocalDate fromDate) {
+        return fromDate.atStartOfDay().isBefore(LocalDateTime.now(clock).minus(archiveAfter));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.foodflow.service;
 import com.example.foodflow.model.entity.Claim;
+import com.example.foodflow.model.entity.DonationTimeline;
 import com.example.foodflow.model.entity.ExpiryNotificationLog;
 import com.example.foodflow.model.entity.SurplusPost;
 import com.example.foodflow.model.entity.User;
@@ -7,8 +8,15 @@ import com.example.foodflow.model.types.ClaimStatus;
 import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.ExpiryNotificationLogRepository;
+import com.example.foodflow.repository.PickupReminderLogRepository;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationExpired;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
 import com.example.foodflow.util.ExpiryDateTimeResolver;
 import com.example.foodflow.repository.SurplusPostRepository;
+import com.google.common.collect.Lists;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,32 +27,44 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.security.SecureRandom;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 @Service
 public class SurplusPostSchedulerService {
     private static final Logger logger = LoggerFactory.getLogger(SurplusPostSchedulerService.class);
     private static final SecureRandom random = new SecureRandom();
     private static final int GRACE_PERIOD_MINUTES = 2;
-    // Track which posts have already received pickup reminders to prevent duplicates
-    private final java.util.Set<Long> remindersSentForPosts = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private static final long READY_FOR_PICKUP_INTERVAL_MS = 5000;
+    private static final long NOT_COMPLETED_INTERVAL_MS = 60000;
+    private static final long MARK_EXPIRED_INTERVAL_MS = 60000;
+    private static final long EXPIRING_SOON_INTERVAL_MS = 1800000;
+    private static final long PICKUP_REMINDER_INTERVAL_MS = 300000;
+    private static final int CLAIM_LOOKUP_CHUNK_SIZE = 1000;
     private final SurplusPostRepository surplusPostRepository;
     private final ClaimRepository claimRepository;
     private final ExpiryNotificationLogRepository expiryNotificationLogRepository;
+    private final PickupReminderLogRepository pickupReminderLogRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
     private final TimelineService timelineService;
     private final NotificationPreferenceService notificationPreferenceService;
     private final EmailNotificationService emailService;
     private final SmsService smsService;
     private final SimpMessagingTemplate messagingTemplate;
     private final Clock clock;
+    // Null in tests built without one: expiry notices are then sent inline
+    private final DomainEventOutbox domainEventOutbox;
     @Value("${foodflow.expiry.enable-auto-flagging:true}")
     private boolean enableAutoFlagging;
     @Value("${pickup.tolerance.early-minutes:15}")
@@ -53,48 +73,52 @@ public class SurplusPostSchedulerService {
     private int lateToleranceMinutes;
     @Value("${foodflow.expiry.notification.threshold-hours:48,24}")
     private String expiryNotificationThresholdHours;
+    // Number of post-ID shards each job is split into; nodes take shards through scheduler leases
+    @Value("${scheduler.shard-count:1}")
+    private int shardCount = 1;
+    @Autowired(required = false)
+    private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
     @Autowired
     public SurplusPostSchedulerService(SurplusPostRepository surplusPostRepository,
             ClaimRepository claimRepository,
             ExpiryNotificationLogRepository expiryNotificationLogRepository,
+            PickupReminderLogRepository pickupReminderLogRepository,
+            SchedulerLeaseService schedulerLeaseService,
             TimelineService timelineService,
             NotificationPreferenceService notificationPreferenceService,
             EmailNotificationService emailService,
             SmsService smsService,
             SimpMessagingTemplate messagingTemplate,
-            Clock clock) {
+            Clock clock,
+            DomainEventOutbox domainEventOutbox) {
         this.surplusPostRepository = surplusPostRepository;
         this.claimRepository = claimRepository;
         this.expiryNotificationLogRepository = expiryNotificationLogRepository;
+        this.pickupReminderLogRepository = pickupReminderLogRepository;
+        this.schedulerLeaseService = schedulerLeaseService;
         this.timelineService = timelineService;
         this.notificationPreferenceService = notificationPreferenceService;
         this.emailService = emailService;
         this.smsService = smsService;
         this.messagingTemplate = messagingTemplate;
         this.clock = clock != null ? clock : Clock.systemUTC();
+        this.domainEventOutbox = domainEventOutbox;
     }
-    // Backward-compatible constructor for tests that provide expiryNotificationLogRepository.
+    // Backward-compatible constructor for tests that send expiry notices inline.
     public SurplusPostSchedulerService(SurplusPostRepository surplusPostRepository,
             ClaimRepository claimRepository,
             ExpiryNotificationLogRepository expiryNotificationLogRepository,
+            PickupReminderLogRepository pickupReminderLogRepository,
+            SchedulerLeaseService schedulerLeaseService,
             TimelineService timelineService,
             NotificationPreferenceService notificationPreferenceService,
             EmailNotificationService emailService,
             SmsService smsService,
-            SimpMessagingTemplate messagingTemplate) {
-        this(surplusPostRepository, claimRepository, expiryNotificationLogRepository, timelineService,
-                notificationPreferenceService, emailService, smsService, messagingTemplate, Clock.systemUTC());
-    }
-    // Backward-compatible constructor for existing tests.
-    public SurplusPostSchedulerService(SurplusPostRepository surplusPostRepository,
-            ClaimRepository claimRepository,
-            TimelineService timelineService,
-            NotificationPreferenceService notificationPreferenceService,
-            EmailNotificationService emailService,
-            SmsService smsService,
-            SimpMessagingTemplate messagingTemplate) {
-        this(surplusPostRepository, claimRepository, null, timelineService, notificationPreferenceService, emailService, smsService,
-                messagingTemplate, Clock.systemUTC());
+            SimpMessagingTemplate messagingTemplate,
+            Clock clock) {
+        this(surplusPostRepository, claimRepository, expiryNotificationLogRepository, pickupReminderLogRepository,
+                schedulerLeaseService, timelineService, notificationPreferenceService, emailService, smsService,
+                messagingTemplate, clock, null);
     }
     private String generateOtpCode() {
         int otp = 100000 + random.nextInt(900000);
@@ -104,16 +128,20 @@ public class SurplusPostSchedulerService {
      * Every 5 seconds: mark CLAIMED posts as READY_FOR_PICKUP
      * once the CONFIRMED pickup time has started, with a 2-minute grace period.
      */
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedRate = READY_FOR_PICKUP_INTERVAL_MS)
     @Transactional
     public void updatePostsToReadyForPickup() {
+        runSharded("updatePostsToReadyForPickup", READY_FOR_PICKUP_INTERVAL_MS, this::updatePostsToReadyForPickup);
+    }
+    private void updatePostsToReadyForPickup(int shard) {
         // Use UTC for all time comparisons
         ZonedDateTime nowUtc = ZonedDateTime.now(clock);
         LocalDateTime nowDateTime = nowUtc.toLocalDateTime();
         logger.info("===== updatePostsToReadyForPickup running at {} UTC =====", nowUtc);
         // Only CLAIMED posts can become READY_FOR_PICKUP
-        List<SurplusPost> claimedPosts = surplusPostRepository.findByStatus(PostStatus.CLAIMED);
+        List<SurplusPost> claimedPosts = findPostsByStatus(PostStatus.CLAIMED, shard);
         logger.info("Found {} CLAIMED posts to evaluate", claimedPosts.size());
+        Map<Long, Claim> activeClaims = loadActiveClaims(claimedPosts);
         List<SurplusPost> postsToUpdate = claimedPosts.stream()
                 .filter(post -> {
                     // Grace period: skip brand-new posts
@@ -123,7 +151,7 @@ public class SurplusPostSchedulerService {
                         return false;
                     }
                     // Find the claim for this post to get the confirmed pickup slot
-                    Optional<Claim> claimOpt = findActiveClaim(post);
+                    Optional<Claim> claimOpt = findActiveClaim(activeClaims, post);
                     if (claimOpt.isEmpty()) {
                         logger.warn("No claim found for CLAIMED post ID {}", post.getId());
                         return false;
@@ -159,6 +187,7 @@ public class SurplusPostSchedulerService {
             logger.info("No CLAIMED posts eligible for READY_FOR_PICKUP.");
             return;
         }
+        List<DonationTimeline> timelineEvents = new ArrayList<>(postsToUpdate.size());
         for (SurplusPost post : postsToUpdate) {
             post.setStatus(PostStatus.READY_FOR_PICKUP);
             if (post.getOtpCode() == null || post.getOtpCode().isEmpty()) {
@@ -168,7 +197,7 @@ public class SurplusPostSchedulerService {
             }
             surplusPostRepository.save(post);
             // Create timeline event for automatic status transition
-            timelineService.createTimelineEvent(
+            timelineEvents.add(timelineService.buildTimelineEvent(
                     post,
                     "READY_FOR_PICKUP",
                     "system",
@@ -176,10 +205,10 @@ public class SurplusPostSchedulerService {
                     PostStatus.CLAIMED,
                     PostStatus.READY_FOR_PICKUP,
                     "Pickup time arrived - OTP generated automatically",
-                    true);
+                    true));
             // Send WebSocket and Email notifications to receiver
             try {
-                Optional<Claim> claimOpt = findActiveClaim(post);
+                Optional<Claim> claimOpt = findActiveClaim(activeClaims, post);
                 if (claimOpt.isPresent()) {
                     Claim claim = claimOpt.get();
                     com.example.foodflow.model.entity.User receiver = claim.getReceiver();
@@ -238,24 +267,29 @@ public class SurplusPostSchedulerService {
             }
             logger.info("Post ID {} updated to READY_FOR_PICKUP", post.getId());
         }
+        timelineService.createTimelineEvents(timelineEvents);
     }
     /**
      * Every minute: mark missed pickups as NOT_COMPLETED.
      * - AVAILABLE posts: when pickup window ends and donation is still not expired.
      * - CLAIMED/READY_FOR_PICKUP posts: when confirmed pickup window ends and donation is still not expired.
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedRate = NOT_COMPLETED_INTERVAL_MS)
     @Transactional
     public void updatePostsToNotCompleted() {
+        runSharded("updatePostsToNotCompleted", NOT_COMPLETED_INTERVAL_MS, this::updatePostsToNotCompleted);
+    }
+    private void updatePostsToNotCompleted(int shard) {
         // Use UTC for all time comparisons
         ZonedDateTime nowUtc = ZonedDateTime.now(clock);
         LocalDateTime nowDateTime = nowUtc.toLocalDateTime();
         logger.info("===== updatePostsToNotCompleted running at {} UTC =====", nowUtc);
         List<PostStatus> candidateStatuses = List.of(PostStatus.AVAILABLE, PostStatus.READY_FOR_PICKUP, PostStatus.CLAIMED);
         List<SurplusPost> candidatePosts = Optional
-                .ofNullable(surplusPostRepository.findByStatusIn(candidateStatuses))
+                .ofNullable(findPostsByStatusIn(candidateStatuses, shard))
                 .orElse(List.of());
         logger.info("Found {} AVAILABLE/CLAIMED/READY_FOR_PICKUP posts to evaluate for NOT_COMPLETED", candidatePosts.size());
+        Map<Long, Claim> activeClaims = loadActiveClaims(candidatePosts);
         List<SurplusPost> postsToUpdate = candidatePosts.stream()
                 .filter(post -> {
                     // Grace period: skip brand-new posts
@@ -275,7 +309,7 @@ public class SurplusPostSchedulerService {
                         return ended;
                     }
                     // CLAIMED / READY_FOR_PICKUP must use confirmed claim slot.
-                    Optional<Claim> claimOpt = findActiveClaim(post);
+                    Optional<Claim> claimOpt = findActiveClaim(activeClaims, post);
                     if (claimOpt.isEmpty()) {
                         logger.warn("No claim found for post ID {} in status {}", post.getId(), post.getStatus());
                         return false;
@@ -289,13 +323,14 @@ public class SurplusPostSchedulerService {
             logger.info("No posts eligible for NOT_COMPLETED update.");
             return;
         }
+        List<DonationTimeline> timelineEvents = new ArrayList<>(postsToUpdate.size());
         for (SurplusPost post : postsToUpdate) {
             PostStatus oldStatus = post.getStatus();
             post.setStatus(PostStatus.NOT_COMPLETED);
             surplusPostRepository.save(post);
             // Also update claim status for claimed/ready posts.
             if (oldStatus == PostStatus.CLAIMED || oldStatus == PostStatus.READY_FOR_PICKUP) {
-                Optional<Claim> claimOpt = findActiveClaim(post);
+                Optional<Claim> claimOpt = findActiveClaim(activeClaims, post);
                 if (claimOpt.isPresent()) {
                     Claim claim = claimOpt.get();
                     claim.setStatus(com.example.foodflow.model.types.ClaimStatus.NOT_COMPLETED);
@@ -303,7 +338,7 @@ public class SurplusPostSchedulerService {
                 }
             }
             // Create timeline event for missed pickup
-            timelineService.createTimelineEvent(
+            timelineEvents.add(timelineService.buildTimelineEvent(
                     post,
                     "PICKUP_MISSED",
                     "system",
@@ -311,20 +346,24 @@ public class SurplusPostSchedulerService {
                     oldStatus,
                     PostStatus.NOT_COMPLETED,
                     "Pickup window expired - marked as not completed automatically",
-                    true);
+                    true));
             logger.info("Post ID {} marked as NOT_COMPLETED", post.getId());
         }
+        timelineService.createTimelineEvents(timelineEvents);
     }
     /**
      * Every minute: mark active posts as EXPIRED when effective expiry is reached.
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedRate = MARK_EXPIRED_INTERVAL_MS)
     @Transactional
     public void markExpiredPosts() {
         if (!enableAutoFlagging) {
             logger.debug("Auto-flagging of expired posts is disabled");
             return;
         }
+        runSharded("markExpiredPosts", MARK_EXPIRED_INTERVAL_MS, this::markExpiredPosts);
+    }
+    private void markExpiredPosts(int shard) {
         LocalDateTime nowUtc = LocalDateTime.now(clock);
         logger.info("===== markExpiredPosts running at {} UTC =====", nowUtc);
         List<PostStatus> activeStatuses = List.of(
@@ -332,7 +371,7 @@ public class SurplusPostSchedulerService {
                 PostStatus.CLAIMED,
                 PostStatus.READY_FOR_PICKUP,
                 PostStatus.NOT_COMPLETED);
-        List<SurplusPost> activePosts = surplusPostRepository.findByStatusIn(activeStatuses);
+        List<SurplusPost> activePosts = findPostsByStatusIn(activeStatuses, shard);
         logger.info("Found {} active posts to check for expiry", activePosts.size());
         List<SurplusPost> expiredPosts = activePosts.stream()
                 .filter(post -> {
@@ -344,17 +383,19 @@ public class SurplusPostSchedulerService {
             logger.info("No expired posts found.");
             return;
         }
+        Map<Long, Claim> activeClaims = loadActiveClaims(expiredPosts);
+        List<DonationTimeline> timelineEvents = new ArrayList<>(expiredPosts.size());
         for (SurplusPost post : expiredPosts) {
             PostStatus oldStatus = post.getStatus();
             post.setStatus(PostStatus.EXPIRED);
             surplusPostRepository.save(post);
             // Keep claim lifecycle aligned with post lifecycle to avoid stale "CLAIMED" cards.
-            findActiveClaim(post).ifPresent(claim -> {
+            findActiveClaim(activeClaims, post).ifPresent(claim -> {
                 claim.setStatus(ClaimStatus.EXPIRED);
                 claimRepository.save(claim);
             });
             // Create timeline event for expiration
-            timelineService.createTimelineEvent(
+            timelineEvents.add(timelineService.buildTimelineEvent(
                     post,
                     "DONATION_EXPIRED",
                     "system",
@@ -362,12 +403,17 @@ public class SurplusPostSchedulerService {
                     oldStatus,
                     PostStatus.EXPIRED,
                     "Expired automatically (effective expiry: " + getEffectiveExpiry(post) + ")",
-                    true);
+                    true));
             logger.info("Post ID {} marked as EXPIRED (effective expiry: {})", post.getId(), getEffectiveExpiry(post));
-            // Send notification to donor
+            // Notify the donor after commit, or inline when there is no outbox
             User donor = post.getDonor();
-            sendExpiredNotificationToDonor(post, donor);
+            if (domainEventOutbox != null) {
+                domainEventOutbox.record(new DonationExpired(post.getId(), donor.getId()));
+            } else {
+                sendExpiredNotificationToDonor(post, donor);
+            }
         }
+        timelineService.createTimelineEvents(timelineEvents);
         logger.info("Marked {} posts as EXPIRED", expiredPosts.size());
     }
     /**
@@ -375,18 +421,22 @@ public class SurplusPostSchedulerService {
      * (default 48h and 24h), deduped by post+threshold+channel.
      * Only AVAILABLE posts are considered.
      */
-    @Scheduled(fixedRate = 1800000)
+    @Scheduled(fixedRate = EXPIRING_SOON_INTERVAL_MS)
     @Transactional
     public void sendExpiringSoonNotifications() {
         if (expiryNotificationLogRepository == null) {
             return;
         }
-        LocalDateTime nowUtc = LocalDateTime.now(clock);
         List<Integer> thresholds = parseThresholdHours();
         if (thresholds.isEmpty()) {
             return;
         }
-        List<SurplusPost> availablePosts = surplusPostRepository.findByStatus(PostStatus.AVAILABLE);
+        runSharded("sendExpiringSoonNotifications", EXPIRING_SOON_INTERVAL_MS,
+                shard -> sendExpiringSoonNotifications(thresholds, shard));
+    }
+    private void sendExpiringSoonNotifications(List<Integer> thresholds, int shard) {
+        LocalDateTime nowUtc = LocalDateTime.now(clock);
+        List<SurplusPost> availablePosts = findPostsByStatus(PostStatus.AVAILABLE, shard);
         for (SurplusPost post : availablePosts) {
             LocalDateTime effectiveExpiry = getEffectiveExpiry(post);
             if (effectiveExpiry == null || !effectiveExpiry.isAfter(nowUtc)) {
@@ -402,27 +452,26 @@ public class SurplusPostSchedulerService {
     }
     /**
      * Every 5 minutes: send ONE pickup reminder notification to donor and receiver
-     * exactly 1 hour before pickup time starts (only sent once per post)
+     * exactly 1 hour before pickup time starts (only sent once per claim, tracked in pickup_reminder_log)
      */
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
+    @Scheduled(fixedRate = PICKUP_REMINDER_INTERVAL_MS) // Run every 5 minutes
     @Transactional
     public void sendPickupReminders() {
+        runSharded("sendPickupReminders", PICKUP_REMINDER_INTERVAL_MS, this::sendPickupReminders);
+    }
+    private void sendPickupReminders(int shard) {
         // Use UTC for all time comparisons
         ZonedDateTime nowUtc = ZonedDateTime.now(clock);
         LocalDateTime nowDateTime = nowUtc.toLocalDateTime();
         logger.info("===== sendPickupReminders running at {} UTC =====", nowUtc);
         // Find CLAIMED posts (pickup hasn't started yet)
-        List<SurplusPost> claimedPosts = surplusPostRepository.findByStatus(PostStatus.CLAIMED);
+        List<SurplusPost> claimedPosts = findPostsByStatus(PostStatus.CLAIMED, shard);
         logger.info("Found {} CLAIMED posts to check for pickup reminders", claimedPosts.size());
+        Map<Long, Claim> activeClaims = loadActiveClaims(claimedPosts);
         for (SurplusPost post : claimedPosts) {
             try {
-                // Skip if reminder already sent for this post
-                if (remindersSentForPosts.contains(post.getId())) {
-                    logger.debug("Post ID {} - Reminder already sent, skipping", post.getId());
-                    continue;
-                }
                 // Find the claim to get confirmed pickup time
-                Optional<Claim> claimOpt = findActiveClaim(post);
+                Optional<Claim> claimOpt = findActiveClaim(activeClaims, post);
                 if (claimOpt.isEmpty()) {
                     continue;
                 }
@@ -438,11 +487,16 @@ public class SurplusPostSchedulerService {
                 long minutesUntilPickup = java.time.Duration.between(nowDateTime, pickupStartTime).toMinutes();
                 // Send reminder if pickup is between 55-65 minutes away
                 // This 10-minute window accounts for the 5-minute scheduler interval
-                // But we only send ONCE per post thanks to the tracking set
+                // But we only send ONCE per claim thanks to the reminder log
                 if (minutesUntilPickup >= 55 && minutesUntilPickup <= 65) {
+                    // Record BEFORE sending; skip if this claim's reminder was already recorded
+                    // (by an earlier run or another node). A conflict inserts nothing instead of
+                    // failing, so it cannot roll back the rest of the sweep.
+                    if (pickupReminderLogRepository.insertIfAbsent(claim.getId(), post.getId(), nowDateTime) == 0) {
+                        logger.debug("Post ID {} - Reminder already sent for claim {}, skipping", post.getId(), claim.getId());
+                        continue;
+                    }
                     logger.info("Post ID {} - Pickup in {} minutes, sending ONE-TIME reminder", post.getId(), minutesUntilPickup);
-                    // Mark as sent BEFORE sending to prevent race conditions
-                    remindersSentForPosts.add(post.getId());
                     // Get donor and receiver
                     com.example.foodflow.model.entity.User donor = post.getDonor();
                     com.example.foodflow.model.entity.User receiver = claim.getReceiver();
@@ -463,10 +517,38 @@ public class SurplusPostSchedulerService {
                 logger.error("Error processing pickup reminder for post ID {}: {}", post.getId(), e.getMessage());
             }
         }
-        // Clean up tracking set: remove posts that are no longer CLAIMED
-        // This allows reminders to be sent again if a post is reclaimed later
-        List<Long> claimedPostIds = claimedPosts.stream().map(SurplusPost::getId).toList();
-        remindersSentForPosts.retainAll(claimedPostIds);
+    }
+    /**
+     * Run a job through the scheduler lease so only one replica processes each shard per interval.
+     * Without a lease service (unit tests) every shard runs locally.
+     */
+    private void runSharded(String jobName, long intervalMs, IntConsumer shardTask) {
+        int shards = Math.max(shardCount, 1);
+        // One span per shard actually swept, so lease misses cost nothing
+        IntConsumer observedTask = shard -> Observation.createNotStarted("foodflow.scheduler.sweep", observationRegistry)
+                .contextualName("sweep " + jobName)
+                .lowCardinalityKeyValue("job", jobName)
+                .lowCardinalityKeyValue("shard", String.valueOf(shard))
+                .observe(() -> shardTask.accept(shard));
+        if (schedulerLeaseService == null) {
+            for (int shard = 0; shard < shards; shard++) {
+                observedTask.accept(shard);
+            }
+            return;
+        }
+        schedulerLeaseService.runSharded("surplus-post." + jobName, shards, Duration.ofMillis(intervalMs), observedTask);
+    }
+    private List<SurplusPost> findPostsByStatus(PostStatus status, int shard) {
+        if (Math.max(shardCount, 1) == 1) {
+            return surplusPostRepository.findByStatus(status);
+        }
+        return surplusPostRepository.findByStatusInAndShard(List.of(status), Math.max(shardCount, 1), shard);
+    }
+    private List<SurplusPost> findPostsByStatusIn(List<PostStatus> statuses, int shard) {
+        if (Math.max(shardCount, 1) == 1) {
+            return surplusPostRepository.findByStatusIn(statuses);
+        }
+        return surplusPostRepository.findByStatusInAndShard(statuses, Math.max(shardCount, 1), shard);
     }
     /**
      * Helper method to send pickup reminder to a user via SMS
@@ -518,11 +600,30 @@ public class SurplusPostSchedulerService {
     private LocalDateTime getEffectiveExpiry(SurplusPost post) {
         return ExpiryDateTimeResolver.resolveEffectiveExpiryUtc(post);
     }
-    private Optional<Claim> findActiveClaim(SurplusPost post) {
+    private Optional<Claim> findActiveClaim(Map<Long, Claim> activeClaims, SurplusPost post) {
         if (post == null || post.getId() == null) {
             return Optional.empty();
         }
-        return claimRepository.findBySurplusPostIdAndStatus(post.getId(), ClaimStatus.ACTIVE);
+        return Optional.ofNullable(activeClaims.get(post.getId()));
+    }
+    /**
+     * Load the active claims for a whole sweep in a few queries instead of one query per post.
+     */
+    private Map<Long, Claim> loadActiveClaims(List<SurplusPost> posts) {
+        List<Long> postIds = posts.stream()
+                .map(SurplusPost::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Claim> activeClaims = new HashMap<>();
+        for (List<Long> chunk : Lists.partition(postIds, CLAIM_LOOKUP_CHUNK_SIZE)) {
+            for (Claim claim : claimRepository.findBySurplusPostIdInAndStatus(chunk, ClaimStatus.ACTIVE)) {
+                activeClaims.putIfAbsent(claim.getSurplusPost().getId(), claim);
+            }
+        }
+        return activeClaims;
     }
     private boolean hasClaimPickupWindowEnded(Claim claim, LocalDateTime nowUtc) {
         LocalDate date = claim.getConfirmedPickupDate();
@@ -621,7 +722,7 @@ public class SurplusPostSchedulerService {
         log.setDedupeKey(dedupeKey);
         expiryNotificationLogRepository.save(log);
     }
-    private void sendExpiredNotificationToDonor(SurplusPost post, User donor) {
+    void sendExpiredNotificationToDonor(SurplusPost post, User donor) {
         LocalDateTime effectiveExpiry = getEffectiveExpiry(post);
         try {
             logger.info("Checking email preference for donor userId={} for donationExpired notification", donor.getId());
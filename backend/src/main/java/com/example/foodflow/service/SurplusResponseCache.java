@@ -0,0 +1,87 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+/**
+ * Receiver views of surplus posts, rendered once per post version and timezone.
+ *
+ * Views are grouped per post and tagged with the post's {@code updatedAt}, so any save of the
+ * post (edits, claims, status transitions) makes readers start a new group; the writes in
+ * {@link SurplusService} also evict the post's group straight away. The size limit counts
+ * posts, and the TTL, counted from the first view of a version, bounds how long details that
+ * live outside the post, such as the donor's name or logo, can lag behind.
+ * Cached responses are shared between requests and must not be modified.
+ */
+@Component
+public class SurplusResponseCache {
+    private record PostViews(LocalDateTime version, Map<String, SurplusResponse> byTimezone) {
+        private PostViews(LocalDateTime version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+    }
+    private final Cache<Long, PostViews> views;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    public SurplusResponseCache(MeterRegistry meterRegistry,
+                                @Value("${surplus.response-cache.max-size:20000}") long maxSize,
+                                @Value("${surplus.response-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.views = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+        this.hitCounter = Counter.builder("foodflow.surplus.response_cache.hits")
+                .description("Receiver surplus responses served from the response cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("foodflow.surplus.response_cache.misses")
+                .description("Receiver surplus responses rendered because no current cached view existed")
+                .register(meterRegistry);
+    }
+    /**
+     * Returns the cached view of {@code post} in {@code timezone} if there is one and
+     * {@code current} still accepts it, otherwise renders and caches a new one. Posts that
+     * have not been saved yet are rendered without caching.
+     */
+    public SurplusResponse get(SurplusPost post, String timezone, Predicate<SurplusResponse> current,
+                               Supplier<SurplusResponse> render) {
+        if (post.getId() == null || post.getUpdatedAt() == null) {
+            return render.get();
+        }
+        String zone = timezone == null ? "" : timezone;
+        PostViews postViews = views.getIfPresent(post.getId());
+        if (postViews == null || !postViews.version().equals(post.getUpdatedAt())) {
+            postViews = new PostViews(post.getUpdatedAt());
+            views.put(post.getId(), postViews);
+        }
+        SurplusResponse cached = postViews.byTimezone().get(zone);
+        if (cached != null && current.test(cached)) {
+            hitCounter.increment();
+            return cached;
+        }
+        missCounter.increment();
+        SurplusResponse response = render.get();
+        postViews.byTimezone().put(zone, response);
+        return response;
+    }
+    /**
+     * Drops every cached view of the post, in all versions and timezones.
+     */
+    public void evict(Long postId) {
+        if (postId != null) {
+            views.invalidate(postId);
+        }
+    }
+    long size() {
+        return views.size();
+    }
+}
@@ -7,8 +7,13 @@ import com.example.foodflow.helpers.SpecificationHandler;
 import com.example.foodflow.model.dto.CreateSurplusRequest;
 import com.example.foodflow.model.dto.DonationTimelineDTO;
 import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.dto.SurplusKeywordHit;
 import com.example.foodflow.model.dto.PickupSlotRequest;
 import com.example.foodflow.model.dto.PickupSlotResponse;
+import com.example.foodflow.model.dto.PickupSlotRow;
+import com.example.foodflow.model.dto.SurplusCardResponse;
+import com.example.foodflow.model.dto.SurplusCardRow;
+import com.example.foodflow.model.dto.SurplusCategoryRow;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.model.dto.UploadEvidenceResponse;
 import com.example.foodflow.model.entity.Claim;
@@ -34,8 +39,13 @@ import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.repository.SyncedCalendarEventRepository;
 import com.example.foodflow.service.calendar.CalendarEventService;
 import com.example.foodflow.service.calendar.CalendarIntegrationService;
-import com.example.foodflow.service.calendar.CalendarSyncService;
+import com.example.foodflow.service.calendar.CalendarSyncJobQueue;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationPosted;
+import com.example.foodflow.service.events.DonationsImported;
+import com.example.foodflow.service.events.PickupConfirmed;
 import com.example.foodflow.util.ExpiryDateTimeResolver;
+import com.example.foodflow.util.SearchTextUtils;
 import com.example.foodflow.util.TimezoneResolver;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -61,13 +71,17 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.slf4j.Logger;
@@ -88,7 +102,6 @@ public class SurplusService {
     private final TimelineService timelineService;
     private final DonationTimelineRepository timelineRepository;
     private final FileStorageService fileStorageService;
-    private final GamificationService gamificationService;
     private final ClaimService claimService;
     private final SimpMessagingTemplate messagingTemplate;
     private final EmailNotificationService emailService;
@@ -97,19 +110,46 @@ public class SurplusService {
     private final ImpactCalculationService impactCalculationService;
     private final CalendarEventService calendarEventService;
     private final CalendarIntegrationService calendarIntegrationService;
-    private final CalendarSyncService calendarSyncService;
+    private final CalendarSyncJobQueue calendarSyncJobQueue;
     private final CalendarSyncPreferenceRepository calendarSyncPreferenceRepository;
     private final SyncedCalendarEventRepository syncedCalendarEventRepository;
+    private final DomainEventOutbox domainEventOutbox;
     @Autowired
     private Clock clock = Clock.systemUTC();
     @Autowired(required = false)
     private DonationImageResolverService donationImageResolverService;
+    @Autowired(required = false)
+    private DonationFeedService donationFeedService;
+    @Autowired(required = false)
+    private SurplusResponseCache surplusResponseCache;
     @Value("${pickup.tolerance.early-minutes:15}")
     private int earlyToleranceMinutes;
     @Value("${pickup.tolerance.late-minutes:15}")
     private int lateToleranceMinutes;
     @Value("${foodflow.expiring-soon-hours:24}")
     private int expiringSoonHours;
+    @Value("${foodflow.search.keyword-candidates:200}")
+    private int keywordCandidateLimit = 200;
+    /**
+     * Card rows per category/slot lookup, keeping the IN lists well under driver limits.
+     */
+    private static final int CARD_LOOKUP_BATCH = 500;
+    /**
+     * How the receiver feed reads the values it filters and sorts on, so full entities and
+     * card rows share one pipeline.
+     */
+    private record FeedItemAccess<T>(Function<T, Long> id,
+            Function<T, String[]> dietaryTags,
+            Function<T, LocalDateTime> effectiveExpiry,
+            Function<T, LocalDateTime> createdAt,
+            Function<T, Location> pickupLocation) {
+    }
+    private static final FeedItemAccess<SurplusPost> POST_ACCESS = new FeedItemAccess<>(
+            SurplusPost::getId, SurplusPost::getDietaryTags, SurplusService::resolveEffectiveExpiryForSort,
+            SurplusPost::getCreatedAt, SurplusPost::getPickupLocation);
+    private static final FeedItemAccess<SurplusCardRow> CARD_ACCESS = new FeedItemAccess<>(
+            SurplusCardRow::getId, SurplusCardRow::getDietaryTags, SurplusCardRow::getEffectiveExpiryUtc,
+            SurplusCardRow::getCreatedAt, SurplusCardRow::getPickupLocation);
     public SurplusService(SurplusPostRepository surplusPostRepository,
             ClaimRepository claimRepository,
             PickupSlotValidationService pickupSlotValidationService,
@@ -123,7 +163,6 @@ public class SurplusService {
             TimelineService timelineService,
             DonationTimelineRepository timelineRepository,
             FileStorageService fileStorageService,
-            GamificationService gamificationService,
             ClaimService claimService,
             SimpMessagingTemplate messagingTemplate,
             EmailNotificationService emailService,
@@ -132,9 +171,10 @@ public class SurplusService {
             ImpactCalculationService impactCalculationService,
             CalendarEventService calendarEventService,
             CalendarIntegrationService calendarIntegrationService,
-            CalendarSyncService calendarSyncService,
+            CalendarSyncJobQueue calendarSyncJobQueue,
             CalendarSyncPreferenceRepository calendarSyncPreferenceRepository,
-            SyncedCalendarEventRepository syncedCalendarEventRepository) {
+            SyncedCalendarEventRepository syncedCalendarEventRepository,
+            DomainEventOutbox domainEventOutbox) {
         this.surplusPostRepository = surplusPostRepository;
         this.claimRepository = claimRepository;
         this.pickupSlotValidationService = pickupSlotValidationService;
@@ -148,7 +188,6 @@ public class SurplusService {
         this.timelineService = timelineService;
         this.timelineRepository = timelineRepository;
         this.fileStorageService = fileStorageService;
-        this.gamificationService = gamificationService;
         this.claimService = claimService;
         this.messagingTemplate = messagingTemplate;
         this.emailService = emailService;
@@ -157,9 +196,10 @@ public class SurplusService {
         this.impactCalculationService = impactCalculationService;
         this.calendarEventService = calendarEventService;
         this.calendarIntegrationService = calendarIntegrationService;
-        this.calendarSyncService = calendarSyncService;
+        this.calendarSyncJobQueue = calendarSyncJobQueue;
         this.calendarSyncPreferenceRepository = calendarSyncPreferenceRepository;
         this.syncedCalendarEventRepository = syncedCalendarEventRepository;
+        this.domainEventOutbox = domainEventOutbox;
     }
     /**
      * Creates a new SurplusPost from the request DTO and saves it to the database.
@@ -169,6 +209,58 @@ public class SurplusService {
     public SurplusResponse createSurplusPost(CreateSurplusRequest request, User donor) {
         ensureAccountApprovedForDonations(donor);
         Timer.Sample sample = businessMetricsService.startTimer();
+        SurplusPost post = buildSurplusPost(request, donor);
+        SurplusPost savedPost = surplusPostRepository.save(post);
+        // Create timeline event for donation posting
+        timelineService.createTimelineEvent(
+                savedPost,
+                "DONATION_POSTED",
+                "donor",
+                donor.getId(),
+                null,
+                PostStatus.AVAILABLE,
+                donationPostedDetails(donor),
+                true);
+        recordPostCreatedMetrics(savedPost);
+        businessMetricsService.recordDonationCreationDuration(sample);
+        businessMetricsService.recordTimer(sample, "surplus.service.create", "status",
+                savedPost.getStatus().toString());
+        // Points, receiver notifications and the feed push are delivered from the outbox after commit
+        domainEventOutbox.record(new DonationPosted(savedPost.getId(), donor.getId()));
+        return convertToResponse(savedPost);
+    }
+    /**
+     * Saves posts built with {@link #buildSurplusPost} for a bulk import in one transaction.
+     * Posts, pickup slots and timeline events take their ids from pooled sequences, so they are
+     * written as JDBC batches; points and receiver notifications are recorded once for the
+     * whole import rather than once per post.
+     */
+    @Transactional
+    @Timed(value = "surplus.service.createBulk", description = "Time taken to save an imported batch of surplus posts")
+    public List<SurplusPost> createSurplusPosts(List<SurplusPost> posts, User donor) {
+        ensureAccountApprovedForDonations(donor);
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<SurplusPost> savedPosts = surplusPostRepository.saveAll(posts);
+        String details = donationPostedDetails(donor);
+        List<DonationTimeline> events = new ArrayList<>(savedPosts.size());
+        for (SurplusPost savedPost : savedPosts) {
+            events.add(timelineService.buildTimelineEvent(savedPost, "DONATION_POSTED", "donor", donor.getId(),
+                    null, PostStatus.AVAILABLE, details, true));
+            recordPostCreatedMetrics(savedPost);
+        }
+        timelineService.createTimelineEvents(events);
+        domainEventOutbox.record(new DonationsImported(savedPosts.get(0).getId(), donor.getId(),
+                savedPosts.stream().map(SurplusPost::getId).toList()));
+        return savedPosts;
+    }
+    /**
+     * Validates a create request and builds the post it describes, without saving it. Throws
+     * {@link BusinessException} or {@link com.example.foodflow.exception.domain.InvalidSurplusPostException}
+     * when the request breaks a rule that bean validation does not cover.
+     */
+    public SurplusPost buildSurplusPost(CreateSurplusRequest request, User donor) {
         SurplusPost post = new SurplusPost();
         post.setDonor(donor);
         post.setTitle(request.getTitle());
@@ -265,64 +357,127 @@ public class SurplusService {
         // and when the confirmed pickup slot time arrives (handled by scheduler)
         post.setStatus(request.getStatus() != null ? request.getStatus() : PostStatus.AVAILABLE);
         applyExpiryPredictionAndResolution(post, donor, "PREDICTION_RECALCULATED");
-        SurplusPost savedPost = surplusPostRepository.save(post);
+        return post;
+    }
+    private String donationPostedDetails(User donor) {
+        return "Donation posted by "
+                + (donor.getOrganization() != null ? donor.getOrganization().getName() : donor.getEmail());
+    }
+    private void recordPostCreatedMetrics(SurplusPost savedPost) {
         // Track food category metrics
         if (savedPost.getFoodCategories() != null) {
             for (FoodCategory category : savedPost.getFoodCategories()) {
                 businessMetricsService.incrementFoodCategoryPosts(category.name());
             }
         }
-        // Create timeline event for donation posting
-        timelineService.createTimelineEvent(
-                savedPost,
-                "DONATION_POSTED",
-                "donor",
-                donor.getId(),
-                null,
-                PostStatus.AVAILABLE,
-                "Donation posted by "
-                        + (donor.getOrganization() != null ? donor.getOrganization().getName() : donor.getEmail()),
-                true);
         businessMetricsService.incrementSurplusPostCreated();
         businessMetricsService.incrementDonationsCreated();
         if (savedPost.getQuantity() != null) {
             businessMetricsService.recordDonationQuantity(
                     impactCalculationService.convertToKg(savedPost.getQuantity()));
         }
-        businessMetricsService.recordDonationCreationDuration(sample);
-        businessMetricsService.recordTimer(sample, "surplus.service.create", "status",
-                savedPost.getStatus().toString());
-        // Award gamification points for donation creation
+    }
+    /**
+     * Notify eligible receivers about a new post and push it to matching feed subscriptions.
+     */
+    void notifyDonationPosted(SurplusPost post) {
         try {
-            gamificationService.awardPoints(donor.getId(), 10, "Created donation: " + savedPost.getTitle());
-            gamificationService.checkAndUnlockAchievements(donor.getId());
+            notificationService.sendNewPostNotification(post);
         } catch (Exception e) {
-            // Log error but don't fail the post creation
-            org.slf4j.LoggerFactory.getLogger(SurplusService.class)
-                    .error("Failed to award gamification points for postId={}: {}", savedPost.getId(), e.getMessage());
+            // Best effort: a retry would re-notify every receiver that was already reached
+            logger.error("Failed to send notifications for postId={}: {}", post.getId(), e.getMessage());
         }
-        // Send notifications to eligible receivers
+        publishToDonationFeed(post);
+    }
+    /**
+     * Notify receivers once about a whole import, then push each post to the matching feed
+     * subscriptions.
+     */
+    void notifyDonationsImported(List<SurplusPost> posts) {
         try {
-            notificationService.sendNewPostNotification(savedPost);
+            notificationService.sendNewPostsNotification(posts);
         } catch (Exception e) {
-            // Log error but don't fail the post creation
-            org.slf4j.LoggerFactory.getLogger(SurplusService.class)
-                    .error("Failed to send notifications for postId={}: {}", savedPost.getId(), e.getMessage());
+            logger.error("Failed to send notifications for {} imported posts: {}", posts.size(), e.getMessage());
         }
-        return convertToResponse(savedPost);
+        posts.forEach(this::publishToDonationFeed);
+    }
+    /**
+     * Retrieves all surplus posts for a given user (donor), archived ones included.
+     */
+    public List<SurplusResponse> getUserSurplusPosts(User user) {
+        return getUserSurplusPosts(user, true);
     }
     /**
-     * Retrieves all surplus posts for a given user (donor).
+     * Retrieves a donor's surplus posts, leaving out archived ones (terminal posts past
+     * {@code surplus.archive.after-days}) unless {@code includeArchived} is set.
      * Converts times from UTC back to donor's timezone.
      */
     @Timed(value = "surplus.service.getUserPosts", description = "Time taken to get user surplus posts")
-    public List<SurplusResponse> getUserSurplusPosts(User user) {
+    public List<SurplusResponse> getUserSurplusPosts(User user, boolean includeArchived) {
         String donorTimezone = user.getTimezone() != null ? user.getTimezone() : "UTC";
-        return surplusPostRepository.findByDonorId(user.getId())
+        List<SurplusPost> posts = includeArchived
+                ? surplusPostRepository.findByDonorId(user.getId())
+                : surplusPostRepository.findByDonorIdAndArchivedAtIsNull(user.getId());
+        return posts
                 .stream()
                 .map(post -> convertToResponseForDonor(post, donorTimezone))
                 .collect(Collectors.toList());
     }
+    /**
+     * A donor's posts as cards, read through the card projection.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "surplus.service.getUserCards", description = "Time taken to get user surplus cards")
+    public List<SurplusCardResponse> getUserSurplusCards(User user, boolean includeArchived) {
+        Long donorId = user.getId();
+        Specification<SurplusPost> specification = (root, query, cb) -> cb.equal(root.get("donor").get("id"), donorId);
+        if (!includeArchived) {
+            specification = specification.and((root, query, cb) -> cb.isNull(root.get("archivedAt")));
+        }
+        return convertToCards(surplusPostRepository.findCardRows(specification), user.getTimezone());
+    }
+    /**
+     * A donor's posts honouring a {@code fields=} selection.
+     */
+    @Transactional(readOnly = true)
+    public List<?> getUserSurplusPosts(User user, boolean includeArchived, SurplusFieldSelection selection) {
+        return selectFields(selection,
+                () -> getUserSurplusCards(user, includeArchived),
+                () -> getUserSurplusPosts(user, includeArchived));
+    }
+    /**
+     * Cards for the given posts that also match {@code filter}, in the order of {@code postIds}.
+     */
+    @Transactional(readOnly = true)
+    public List<SurplusCardResponse> getSurplusCardsForReceiver(List<Long> postIds, Specification<SurplusPost> filter,
+            User receiver) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Specification<SurplusPost> specification = (root, query, cb) -> root.get("id").in(postIds);
+        if (filter != null) {
+            specification = specification.and(filter);
+        }
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < postIds.size(); i++) {
+            position.putIfAbsent(postIds.get(i), i);
+        }
+        List<SurplusCardRow> rows = new ArrayList<>(surplusPostRepository.findCardRows(specification));
+        rows.sort(Comparator.comparing(row -> position.get(row.getId())));
+        return convertToCards(rows, receiver != null ? receiver.getTimezone() : null);
+    }
+    /**
+     * Serve a list endpoint's {@code fields=} selection: full responses when there is none, cards
+     * when the card covers it, and otherwise full responses cut down to the selected properties.
+     */
+    public List<?> selectFields(SurplusFieldSelection selection,
+            Supplier<? extends List<SurplusCardResponse>> cards,
+            Supplier<? extends List<SurplusResponse>> full) {
+        if (selection.isFull()) {
+            return full.get();
+        }
+        return selection.apply(selection.fitsCard() ? cards.get() : full.get(), objectMapper);
+    }
     /**
      * Retrieves a single surplus post by ID for the donor.
      * Validates that the requesting user is the owner of the post.
@@ -370,6 +525,8 @@ public class SurplusService {
         post.setPackagingType(request.getPackagingType());
         post.setFoodType(resolveFoodType(request));
         post.setDietaryTags(toDietaryTagArray(request.getDietaryTags()));
+        // Category-only edits would not dirty the row, so refresh the keyword-search labels here
+        post.refreshSearchLabels();
         // Handle optional fabrication/actual expiry dates.
         LocalDate fabricationDate = request.getFabricationDate();
         LocalDate expiryDate = request.getExpiryDate();
@@ -456,6 +613,7 @@ public class SurplusService {
         }
         applyExpiryPredictionAndResolution(post, donor, "PREDICTION_RECALCULATED");
         SurplusPost updatedPost = surplusPostRepository.saveAndFlush(post);
+        evictCachedResponses(updatedPost.getId());
         // Create timeline event for donation update
         timelineService.createTimelineEvent(
                 updatedPost,
@@ -468,8 +626,27 @@ public class SurplusService {
                         + (donor.getOrganization() != null ? donor.getOrganization().getName() : donor.getEmail()),
                 true);
         businessMetricsService.recordTimer(sample, "surplus.service.update", "status", "success");
+        publishToDonationFeed(updatedPost);
         return convertToResponseForDonor(updatedPost, donorTimezone);
     }
+    /**
+     * Drops cached receiver views of a post that was just changed or removed.
+     */
+    private void evictCachedResponses(Long postId) {
+        if (surplusResponseCache != null) {
+            surplusResponseCache.evict(postId);
+        }
+    }
+    /**
+     * Pushes a new or changed post to receivers with a matching standing feed subscription, once
+     * the surrounding transaction has committed.
+     */
+    private void publishToDonationFeed(SurplusPost post) {
+        if (donationFeedService == null) {
+            return;
+        }
+        donationFeedService.publishAfterCommit(post, timezone -> convertToResponseForReceiver(post, timezone));
+    }
     /**
      * Converts a SurplusPost entity to the SurplusResponse DTO.
      * Times are kept in UTC (as stored in database).
@@ -544,7 +721,7 @@ public class SurplusService {
                 });
         return response;
     }
-    private void ensureAccountApprovedForDonations(User donor) {
+    void ensureAccountApprovedForDonations(User donor) {
         if (donor == null || donor.getAccountStatus() != AccountStatus.ACTIVE) {
             throw new BusinessException("error.account.not_approved");
         }
@@ -653,6 +830,17 @@ public class SurplusService {
      * All UTC times from database are converted to the receiver's local timezone.
      */
     public SurplusResponse convertToResponseForReceiver(SurplusPost post, String receiverTimezone) {
+        if (surplusResponseCache == null) {
+            return renderForReceiver(post, receiverTimezone);
+        }
+        // The expiry flags move with the clock rather than the post, so a cached view is only
+        // reused while they still hold
+        return surplusResponseCache.get(post, receiverTimezone,
+                cached -> Objects.equals(cached.getExpired(), isExpired(post))
+                        && Objects.equals(cached.getExpiringSoon(), isExpiringSoon(post)),
+                () -> renderForReceiver(post, receiverTimezone));
+    }
+    private SurplusResponse renderForReceiver(SurplusPost post, String receiverTimezone) {
         // Get the base response (in UTC)
         SurplusResponse response = convertToResponse(post);
         // If receiver has no timezone, return UTC times
@@ -729,6 +917,99 @@ public class SurplusService {
         }
         return response;
     }
+    /**
+     * Converts card rows to cards with pickup times in the viewer's timezone. Categories, pickup
+     * slots and donation images are read for the whole list in batches rather than per post.
+     */
+    private List<SurplusCardResponse> convertToCards(List<SurplusCardRow> rows, String viewerTimezone) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        String timezone = viewerTimezone == null || viewerTimezone.trim().isEmpty() ? "UTC" : viewerTimezone;
+        Map<Long, Set<FoodCategory>> categories = new HashMap<>();
+        Map<Long, List<PickupSlotResponse>> slots = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += CARD_LOOKUP_BATCH) {
+            List<Long> ids = rows.subList(from, Math.min(from + CARD_LOOKUP_BATCH, rows.size())).stream()
+                    .map(SurplusCardRow::getId)
+                    .collect(Collectors.toList());
+            for (SurplusCategoryRow row : surplusPostRepository.findCategoryRowsByPostIds(ids)) {
+                categories.computeIfAbsent(row.getPostId(), id -> EnumSet.noneOf(FoodCategory.class))
+                        .add(row.getCategory());
+            }
+            for (PickupSlotRow row : surplusPostRepository.findPickupSlotRowsByPostIds(ids)) {
+                slots.computeIfAbsent(row.getPostId(), id -> new ArrayList<>())
+                        .add(convertSlotToTimezone(row, timezone));
+            }
+        }
+        Map<Long, String> imageUrls = donationImageResolverService == null ? Map.of()
+                : donationImageResolverService.resolveDonationImageUrls(rows.stream()
+                        .map(row -> new DonationImageResolverService.DonationImageLookup(
+                                row.getId(), row.getDonorId(), row.getFoodType()))
+                        .collect(Collectors.toList()));
+        return rows.stream()
+                .map(row -> convertToCard(row, categories.getOrDefault(row.getId(), Set.of()),
+                        slots.getOrDefault(row.getId(), List.of()), imageUrls.get(row.getId()), timezone))
+                .collect(Collectors.toList());
+    }
+    private SurplusCardResponse convertToCard(SurplusCardRow row, Set<FoodCategory> categories,
+            List<PickupSlotResponse> slots, String imageUrl, String timezone) {
+        LocalDateTime effectiveExpiry = row.getEffectiveExpiryUtc();
+        SurplusCardResponse card = SurplusCardResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .description(row.getDescription())
+                .foodCategories(categories)
+                .quantity(row.getQuantity())
+                .pickupLocation(row.getPickupLocation())
+                .expiryDate(row.getExpiryDate())
+                .expiryDateActual(row.getExpiryDateActual())
+                .expiryDatePredicted(row.getExpiryDatePredicted())
+                .expiryDateEffective(row.getExpiryDateEffective())
+                .expiryOverridden(row.getExpiryOverridden())
+                .expiringSoon(isExpiringSoon(effectiveExpiry))
+                .expired(isExpired(effectiveExpiry))
+                .pickupDate(row.getPickupDate())
+                .pickupFrom(row.getPickupFrom())
+                .pickupTo(row.getPickupTo())
+                .pickupSlots(slots)
+                .status(row.getStatus())
+                .donorName(row.getDonorName())
+                .donorLogoUrl(row.getDonorLogoUrl())
+                .createdAt(row.getCreatedAt())
+                .temperatureCategory(row.getTemperatureCategory())
+                .packagingType(row.getPackagingType())
+                .foodType(row.getFoodType())
+                .dietaryTags(fromDietaryTagArray(row.getDietaryTags()))
+                .resolvedDonationImageUrl(imageUrl)
+                .build();
+        // Convert legacy pickup times from UTC to the viewer's timezone
+        if (row.getPickupDate() != null && row.getPickupFrom() != null && row.getPickupTo() != null) {
+            LocalDateTime pickupFrom = TimezoneResolver.convertDateTime(
+                    row.getPickupDate(), row.getPickupFrom(), "UTC", timezone);
+            LocalDateTime pickupTo = TimezoneResolver.convertDateTime(
+                    row.getPickupDate(), row.getPickupTo(), "UTC", timezone);
+            if (pickupFrom != null) {
+                card.setPickupDate(pickupFrom.toLocalDate());
+                card.setPickupFrom(pickupFrom.toLocalTime());
+            }
+            if (pickupTo != null) {
+                card.setPickupTo(pickupTo.toLocalTime());
+            }
+        }
+        return card;
+    }
+    private PickupSlotResponse convertSlotToTimezone(PickupSlotRow row, String timezone) {
+        LocalDateTime start = TimezoneResolver.convertDateTime(row.getPickupDate(), row.getStartTime(), "UTC", timezone);
+        LocalDateTime end = TimezoneResolver.convertDateTime(row.getPickupDate(), row.getEndTime(), "UTC", timezone);
+        PickupSlotResponse slot = new PickupSlotResponse();
+        slot.setId(row.getId());
+        slot.setPickupDate(start != null ? start.toLocalDate() : row.getPickupDate());
+        slot.setStartTime(start != null ? start.toLocalTime() : row.getStartTime());
+        slot.setEndTime(end != null ? end.toLocalTime() : row.getEndTime());
+        slot.setNotes(row.getNotes());
+        slot.setSlotOrder(row.getSlotOrder());
+        return slot;
+    }
     @Timed(value = "surplus.service.getAllAvailablePosts", description = "Time taken to get all available surplus posts")
     public List<SurplusResponse> getAllAvailableSurplusPosts() {
         List<PostStatus> claimableStatuses = Arrays.asList(
@@ -764,15 +1045,9 @@ public class SurplusService {
      * @return List of surplus posts with times in receiver's timezone, filtered by
      *         country
      */
+    @Transactional(readOnly = true)
     public List<SurplusResponse> searchSurplusPostsForReceiver(SurplusFilterRequest filterRequest, User receiver) {
-        Specification<SurplusPost> specification = buildSpecificationFromFilter(filterRequest);
-        List<SurplusPost> posts = applyPostFiltersAndSort(surplusPostRepository.findAll(specification), filterRequest);
-        // Apply country-based filtering only if receiver exists (skip for test mocks)
-        if (receiver != null) {
-            posts = applyCountryFilter(posts, receiver);
-        }
-        // Apply receiver prioritization (expiring soon first, etc.)
-        posts = applyReceiverPrioritization(posts, filterRequest);
+        List<SurplusPost> posts = selectForReceiver(filterRequest, receiver, surplusPostRepository::findAll, POST_ACCESS);
         String receiverTimezone = receiver != null && receiver.getTimezone() != null
                 ? receiver.getTimezone()
                 : "UTC";
@@ -780,6 +1055,113 @@ public class SurplusService {
                 .map(post -> convertToResponseForReceiver(post, receiverTimezone))
                 .collect(Collectors.toList());
     }
+    /**
+     * Same search as {@link #searchSurplusPostsForReceiver(SurplusFilterRequest, User)}, returning
+     * cards read through the card projection instead of full responses.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "surplus.service.searchCards", description = "Time taken to search surplus cards for a receiver")
+    public List<SurplusCardResponse> searchSurplusCardsForReceiver(SurplusFilterRequest filterRequest, User receiver) {
+        List<SurplusCardRow> rows = selectForReceiver(filterRequest, receiver, surplusPostRepository::findCardRows,
+                CARD_ACCESS);
+        return convertToCards(rows, receiver != null ? receiver.getTimezone() : null);
+    }
+    /**
+     * Receiver search honouring a {@code fields=} selection.
+     */
+    @Transactional(readOnly = true)
+    public List<?> searchSurplusPostsForReceiver(SurplusFilterRequest filterRequest, User receiver,
+            SurplusFieldSelection selection) {
+        return selectFields(selection,
+                () -> searchSurplusCardsForReceiver(filterRequest, receiver),
+                () -> searchSurplusPostsForReceiver(filterRequest, receiver));
+    }
+    /**
+     * Keyword ranking, filters, country restriction and receiver prioritization, shared by the
+     * entity and card searches through {@code access}.
+     */
+    private <T> List<T> selectForReceiver(SurplusFilterRequest filterRequest, User receiver,
+            Function<Specification<SurplusPost>, List<T>> loader, FeedItemAccess<T> access) {
+        Specification<SurplusPost> specification = buildSpecificationFromFilter(filterRequest);
+        if (!filterRequest.hasQuery()) {
+            return applyReceiverPrioritization(filterForReceiver(loader.apply(specification), filterRequest, receiver,
+                    access), access);
+        }
+        // Keyword hits are ranked platform-wide, so keep taking candidate pages until enough of
+        // them survive the receiver's filters or the matches run out
+        int limit = filterRequest.resolveLimit();
+        Map<Long, Double> keywordRanks = new HashMap<>();
+        List<T> items = new ArrayList<>();
+        int offset = 0;
+        while (items.size() < limit) {
+            Map<Long, Double> pageRanks = rankKeywordMatches(filterRequest, receiver, offset);
+            if (pageRanks.isEmpty()) {
+                break;
+            }
+            keywordRanks.putAll(pageRanks);
+            Set<Long> candidateIds = pageRanks.keySet();
+            items.addAll(filterForReceiver(
+                    loader.apply(specification.and((root, query, cb) -> root.get("id").in(candidateIds))),
+                    filterRequest, receiver, access));
+            if (pageRanks.size() < keywordCandidateLimit) {
+                break;
+            }
+            offset += pageRanks.size();
+        }
+        if (items.isEmpty()) {
+            return items;
+        }
+        // Apply receiver prioritization (expiring soon first, etc.)
+        return orderByKeywordRank(applyReceiverPrioritization(items, access), access.id(), keywordRanks, limit);
+    }
+    private <T> List<T> filterForReceiver(List<T> loaded, SurplusFilterRequest filterRequest, User receiver,
+            FeedItemAccess<T> access) {
+        List<T> items = applyFiltersAndSort(loaded, filterRequest, access);
+        // Apply country-based filtering only if receiver exists (skip for test mocks)
+        if (receiver != null) {
+            items = applyCountryFilter(items, receiver, access);
+        }
+        return items;
+    }
+    /**
+     * One page of full-text candidates for {@code filterRequest.query}, by post id with their
+     * text rank. The receiver's language picks the stemmer; the structured filters are applied
+     * afterwards.
+     */
+    private Map<Long, Double> rankKeywordMatches(SurplusFilterRequest filterRequest, User receiver, int offset) {
+        String term = SearchTextUtils.normalize(filterRequest.getQuery());
+        List<String> statuses = filterRequest.hasStatus()
+                ? List.of(filterRequest.getStatus().trim().toUpperCase())
+                : Arrays.stream(PostStatus.values()).map(Enum::name).collect(Collectors.toList());
+        String language = receiver != null ? receiver.getLanguagePreference() : null;
+        Map<Long, Double> ranks = new HashMap<>();
+        for (SurplusKeywordHit hit : surplusPostRepository.searchByKeyword(
+                term,
+                SearchTextUtils.containsPattern(term),
+                SearchTextUtils.textSearchConfig(language),
+                SearchTextUtils.needsSubstringMatch(term),
+                statuses,
+                keywordCandidateLimit,
+                offset)) {
+            ranks.put(hit.getId(), hit.getRank() != null ? hit.getRank() : 0.0);
+        }
+        return ranks;
+    }
+    /**
+     * Most relevant first. The sort is stable, so posts with equal rank keep the receiver
+     * prioritization order they arrive in.
+     */
+    static List<SurplusPost> orderByKeywordRank(List<SurplusPost> posts, Map<Long, Double> ranks, int limit) {
+        return orderByKeywordRank(posts, SurplusPost::getId, ranks, limit);
+    }
+    private static <T> List<T> orderByKeywordRank(List<T> items, Function<T, Long> id, Map<Long, Double> ranks,
+            int limit) {
+        return items.stream()
+                .sorted(Comparator.comparingDouble((T item) -> ranks.getOrDefault(id.apply(item), 0.0))
+                        .reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
     /**
      * Builds a JPA Specification from the filter request using our custom filter
      * classes.
@@ -831,8 +1213,16 @@ public class SurplusService {
         }
         return builder.buildOrDefault(SpecificationHandler.alwaysTrue());
     }
-    private List<SurplusPost> applyPostFiltersAndSort(List<SurplusPost> posts, SurplusFilterRequest filterRequest) {
-        List<SurplusPost> filtered = posts;
+    /**
+     * In-memory dietary filtering and expiry sorting applied after the database query.
+     * Package-private and static so the benchmark module can measure it without a full service.
+     */
+    static List<SurplusPost> applyPostFiltersAndSort(List<SurplusPost> posts, SurplusFilterRequest filterRequest) {
+        return applyFiltersAndSort(posts, filterRequest, POST_ACCESS);
+    }
+    private static <T> List<T> applyFiltersAndSort(List<T> items, SurplusFilterRequest filterRequest,
+            FeedItemAccess<T> access) {
+        List<T> filtered = items;
         if (filterRequest.hasDietaryTags()) {
             DietaryMatchMode mode = filterRequest.getDietaryMatch() != null
                     ? filterRequest.getDietaryMatch()
@@ -841,13 +1231,13 @@ public class SurplusService {
                     .map(Enum::name)
                     .collect(Collectors.toSet());
             filtered = filtered.stream()
-                    .filter(post -> matchesDietaryTags(post.getDietaryTags(), requestedTags, mode))
+                    .filter(item -> matchesDietaryTags(access.dietaryTags().apply(item), requestedTags, mode))
                     .collect(Collectors.toList());
         }
         String sort = filterRequest.getSort();
         if (sort != null && !sort.isBlank()) {
-            Comparator<SurplusPost> byEffectiveExpiry = Comparator.comparing(
-                    this::resolveEffectiveExpiryForSort,
+            Comparator<T> byEffectiveExpiry = Comparator.comparing(
+                    access.effectiveExpiry(),
                     Comparator.nullsLast(Comparator.naturalOrder()));
             if ("expiry_desc".equalsIgnoreCase(sort)) {
                 filtered = filtered.stream()
@@ -861,17 +1251,17 @@ public class SurplusService {
         }
         return filtered;
     }
-    private List<SurplusPost> applyReceiverPrioritization(List<SurplusPost> posts, SurplusFilterRequest filterRequest) {
-        List<SurplusPost> nonExpired = posts.stream()
-                .filter(post -> !isExpired(post))
+    private <T> List<T> applyReceiverPrioritization(List<T> items, FeedItemAccess<T> access) {
+        List<T> nonExpired = items.stream()
+                .filter(item -> !isExpired(access.effectiveExpiry().apply(item)))
                 .collect(Collectors.toList());
-        Comparator<SurplusPost> comparator = Comparator
-                .comparing((SurplusPost post) -> isExpiringSoon(post) ? 0 : 1)
+        Comparator<T> comparator = Comparator
+                .comparing((T item) -> isExpiringSoon(access.effectiveExpiry().apply(item)) ? 0 : 1)
                 .thenComparing(
-                        this::resolveEffectiveExpiryForSort,
+                        access.effectiveExpiry(),
                         Comparator.nullsLast(Comparator.naturalOrder()))
                 .thenComparing(
-                        SurplusPost::getCreatedAt,
+                        access.createdAt(),
                         Comparator.nullsLast(Comparator.naturalOrder()));
         return nonExpired.stream()
                 .sorted(comparator)
@@ -884,7 +1274,7 @@ public class SurplusService {
      * (permissive).
      * Only filters out donations from DIFFERENT countries.
      */
-    private List<SurplusPost> applyCountryFilter(List<SurplusPost> posts, User receiver) {
+    private <T> List<T> applyCountryFilter(List<T> items, User receiver, FeedItemAccess<T> access) {
         // Extract country from receiver's organization address
         String receiverCountryRaw = extractCountryFromOrganization(receiver);
         // If receiver has no country, show all donations (permissive)
@@ -892,27 +1282,28 @@ public class SurplusService {
             logger.debug("Receiver {} has no country set (org address: {}), showing all donations",
                     receiver.getId(),
                     receiver.getOrganization() != null ? receiver.getOrganization().getAddress() : "null");
-            return posts;
+            return items;
         }
         final String receiverCountry = receiverCountryRaw.trim();
         logger.debug("Applying country filter for receiver {} with country: {} (extracted from org address)",
                 receiver.getId(), receiverCountry);
-        return posts.stream()
-                .filter(post -> {
-                    Location pickupLocation = post.getPickupLocation();
+        return items.stream()
+                .filter(item -> {
+                    Location pickupLocation = access.pickupLocation().apply(item);
                     if (pickupLocation == null || pickupLocation.getCountry() == null
                             || pickupLocation.getCountry().trim().isEmpty()) {
                         // If donation has no country, allow it (permissive for legacy data)
-                        logger.debug("Post {} has no country, allowing", post.getId());
+                        logger.debug("Post {} has no country, allowing", access.id().apply(item));
                         return true;
                     }
                     String postCountry = pickupLocation.getCountry().trim();
                     boolean sameCountry = isSameCountry(receiverCountry, postCountry);
                     if (!sameCountry) {
                         logger.debug("Filtering out post {} - receiver country: {}, post country: {}",
-                                post.getId(), receiverCountry, postCountry);
+                                access.id().apply(item), receiverCountry, postCountry);
                     } else {
-                        logger.debug("Including post {} - countries match: {}", post.getId(), receiverCountry);
+                        logger.debug("Including post {} - countries match: {}", access.id().apply(item),
+                                receiverCountry);
                     }
                     return sameCountry;
                 })
@@ -926,7 +1317,7 @@ public class SurplusService {
      * @param user The user whose organization address to parse
      * @return Country name, or null if not found
      */
-    private String extractCountryFromOrganization(User user) {
+    static String extractCountryFromOrganization(User user) {
         if (user == null || user.getOrganization() == null) {
             return null;
         }
@@ -949,13 +1340,13 @@ public class SurplusService {
      * Helper method to compare two country codes/names.
      * Performs case-insensitive comparison.
      */
-    private boolean isSameCountry(String country1, String country2) {
+    static boolean isSameCountry(String country1, String country2) {
         if (country1 == null || country2 == null) {
             return true; // Permissive if either is null
         }
         return country1.equalsIgnoreCase(country2);
     }
-    private boolean matchesDietaryTags(String[] postDietaryTags, Set<String> requestedTags, DietaryMatchMode mode) {
+    static boolean matchesDietaryTags(String[] postDietaryTags, Set<String> requestedTags, DietaryMatchMode mode) {
         if (requestedTags.isEmpty()) {
             return true;
         }
@@ -1036,8 +1427,10 @@ public class SurplusService {
         post.setExpiryDateEffective(overrideExpiry);
         applyExpiryPredictionAndResolution(post, actor, "EXPIRY_OVERRIDDEN");
         SurplusPost saved = surplusPostRepository.save(post);
+        evictCachedResponses(saved.getId());
         logExpiryAudit(saved, actor.getId(), "EXPIRY_OVERRIDDEN", previousEffective, saved.getExpiryDateEffective(),
                 Map.of("reason", reason));
+        publishToDonationFeed(saved);
         return convertToResponse(saved);
     }
     @Transactional
@@ -1056,9 +1449,11 @@ public class SurplusService {
         post.setExpiryOverriddenBy(null);
         applyExpiryPredictionAndResolution(post, actor, "EXPIRY_OVERRIDE_REMOVED");
         SurplusPost saved = surplusPostRepository.save(post);
+        evictCachedResponses(saved.getId());
         logExpiryAudit(saved, actor.getId(), "EXPIRY_OVERRIDE_REMOVED", previousEffective,
                 saved.getExpiryDateEffective(),
                 Map.of("reason", "override_removed"));
+        publishToDonationFeed(saved);
         return convertToResponse(saved);
     }
     private void applyExpiryPredictionAndResolution(SurplusPost post, User actor, String eventType) {
@@ -1092,15 +1487,19 @@ public class SurplusService {
     private LocalDateTime resolveEffectiveExpiry(SurplusPost post) {
         return ExpiryDateTimeResolver.resolveEffectiveExpiryUtc(post);
     }
-    private LocalDateTime resolveEffectiveExpiryForSort(SurplusPost post) {
+    private static LocalDateTime resolveEffectiveExpiryForSort(SurplusPost post) {
         return ExpiryDateTimeResolver.resolveEffectiveExpiryUtc(post);
     }
     private boolean isExpired(SurplusPost post) {
-        LocalDateTime effective = resolveEffectiveExpiryForSort(post);
+        return isExpired(resolveEffectiveExpiryForSort(post));
+    }
+    private boolean isExpired(LocalDateTime effective) {
         return effective != null && !LocalDateTime.now(clock).isBefore(effective);
     }
     private boolean isExpiringSoon(SurplusPost post) {
-        LocalDateTime effective = resolveEffectiveExpiryForSort(post);
+        return isExpiringSoon(resolveEffectiveExpiryForSort(post));
+    }
+    private boolean isExpiringSoon(LocalDateTime effective) {
         if (effective == null) {
             return false;
         }
@@ -1194,6 +1593,7 @@ public class SurplusService {
         post.setStatus(PostStatus.COMPLETED);
         foodTypeImpactService.applyImpactSnapshot(post);
         SurplusPost updatedPost = surplusPostRepository.save(post);
+        evictCachedResponses(updatedPost.getId());
         // Keep timeline consistent with scheduler/manual transitions.
         timelineService.createTimelineEvent(
                 updatedPost,
@@ -1213,130 +1613,8 @@ public class SurplusService {
                                     claim.getStatus(), post.getId());
                             if (claim.getStatus() != ClaimStatus.COMPLETED) {
                                 claimService.completeClaim(claim.getId());
-                                User receiver = claim.getReceiver();
-                                String receiverName = receiver.getOrganization() != null
-                                        && receiver.getOrganization().getName() != null
-                                                ? receiver.getOrganization().getName()
-                                                : receiver.getFullName();
-                                // Send WebSocket notification to receiver that donation was completed (if
-                                // preference allows)
-                                try {
-                                    logger.info(
-                                            "Checking websocket preference for receiver userId={} for donationCompleted notification",
-                                            receiver.getId());
-                                    if (notificationPreferenceService.shouldSendNotification(receiver,
-                                            "donationCompleted", "websocket")) {
-                                        logger.info(
-                                                "Receiver {} has websocket notifications enabled for donationCompleted, sending websocket notification",
-                                                receiver.getId());
-                                        Map<String, Object> receiverNotification = new HashMap<>();
-                                        receiverNotification.put("type", "DONATION_COMPLETED");
-                                        receiverNotification.put("donationId", post.getId());
-                                        receiverNotification.put("title", post.getTitle());
-                                        receiverNotification.put("message", "Donation Completed");
-                                        receiverNotification.put("timestamp", System.currentTimeMillis());
-                                        messagingTemplate.convertAndSendToUser(
-                                                receiver.getId().toString(),
-                                                "/queue/donations/completed",
-                                                receiverNotification);
-                                        logger.info(
-                                                "Successfully sent donation completed websocket notification to receiver userId={} for postId={}",
-                                                receiver.getId(), post.getId());
-                                    } else {
-                                        logger.info(
-                                                "Receiver {} has websocket notifications disabled for donationCompleted, skipping websocket notification",
-                                                receiver.getId());
-                                    }
-                                } catch (Exception e) {
-                                    logger.error(
-                                            "Failed to send donation completed websocket notification to receiver: {}",
-                                            e.getMessage(), e);
-                                }
-                                // Send email notification to receiver that donation was completed (if
-                                // preference allows)
-                                try {
-                                    logger.info(
-                                            "Checking email preference for receiver userId={} for donationCompleted notification",
-                                            receiver.getId());
-                                    if (notificationPreferenceService.shouldSendNotification(receiver,
-                                            "donationCompleted", "email")) {
-                                        logger.info(
-                                                "Receiver {} has email notifications enabled for donationCompleted, sending email",
-                                                receiver.getId());
-                                        String donorName = donor.getOrganization() != null
-                                                && donor.getOrganization().getName() != null
-                                                        ? donor.getOrganization().getName()
-                                                        : donor.getFullName();
-                                        Map<String, Object> donationData = new HashMap<>();
-                                        donationData.put("donationTitle", post.getTitle());
-                                        donationData.put("quantity", post.getQuantity().getValue() + " "
-                                                + post.getQuantity().getUnit().getLabel());
-                                        donationData.put("donorName", donorName);
-                                        emailService.sendDonationCompletedNotification(
-                                                receiver.getEmail(),
-                                                receiverName,
-                                                donationData);
-                                        logger.info(
-                                                "Successfully sent donation completed email to receiver userId={} email={}",
-                                                receiver.getId(), receiver.getEmail());
-                                    } else {
-                                        logger.info(
-                                                "Receiver {} has email notifications disabled for donationCompleted or email globally disabled, skipping email",
-                                                receiver.getId());
-                                    }
-                                } catch (Exception e) {
-                                    logger.error("Failed to send donation completed email notification to receiver: {}",
-                                            e.getMessage(), e);
-                                    // Don't throw - email is secondary to main functionality
-                                }
-                                // Send email notification to donor that donation was picked up (with preference
-                                // checking)
-                                try {
-                                    logger.info(
-                                            "Checking email preference for donor userId={} for donationPickedUp notification",
-                                            donor.getId());
-                                    if (notificationPreferenceService.shouldSendNotification(donor, "donationPickedUp",
-                                            "email")) {
-                                        logger.info(
-                                                "Donor {} has email notifications enabled for donationPickedUp, sending email",
-                                                donor.getId());
-                                        // Prepare notification data
-                                        String donorName = donor.getOrganization() != null
-                                                && donor.getOrganization().getName() != null
-                                                        ? donor.getOrganization().getName()
-                                                        : donor.getFullName();
-                                        Map<String, Object> donationData = new HashMap<>();
-                                        donationData.put("donationTitle", post.getTitle());
-                                        donationData.put("quantity", post.getQuantity().getValue() + " "
-                                                + post.getQuantity().getUnit().getLabel());
-                                        donationData.put("receiverName", receiverName);
-                                        emailService.sendDonationPickedUpNotification(
-                                                donor.getEmail(),
-                                                donorName,
-                                                donationData);
-                                        logger.info(
-                                                "Successfully sent donation picked up email to donor userId={} email={}",
-                                                donor.getId(), donor.getEmail());
-                                    } else {
-                                        logger.info(
-                                                "Donor {} has email notifications disabled for donationPickedUp or email globally disabled, skipping email",
-                                                donor.getId());
-                                    }
-                                } catch (Exception e) {
-                                    logger.error("Failed to send donation picked up email notification to donor: {}",
-                                            e.getMessage(), e);
-                                }
-                                // Update calendar events to mark as completed
-                                try {
-                                    updateCalendarEventsForCompletion(claim.getId());
-                                    // Trigger async sync for both donor and receiver
-                                    triggerCalendarSyncIfEnabled(donor);
-                                    triggerCalendarSyncIfEnabled(claim.getReceiver());
-                                } catch (Exception e) {
-                                    logger.error("Failed to update calendar events for completed claim {}: {}",
-                                            claim.getId(), e.getMessage(), e);
-                                    // Don't fail the completion if calendar update fails
-                                }
+                                // Notifications and calendar updates are delivered from the outbox after commit
+                                domainEventOutbox.record(new PickupConfirmed(claim.getId(), post.getId()));
                             } else {
                                 logger.info("Claim claimId={} already completed, skipping notification", claim.getId());
                             }
@@ -1352,6 +1630,136 @@ public class SurplusService {
         businessMetricsService.recordTimer(sample, "surplus.service.complete", "status", "complete");
         return convertToResponse(updatedPost);
     }
+    /**
+     * Tell the receiver that the pickup was confirmed and the donor that it was picked up (per
+     * their notification preferences).
+     */
+    void sendPickupConfirmedNotifications(Claim claim) {
+        SurplusPost post = claim.getSurplusPost();
+        User donor = post.getDonor();
+        User receiver = claim.getReceiver();
+        String receiverName = receiver.getOrganization() != null
+                && receiver.getOrganization().getName() != null
+                        ? receiver.getOrganization().getName()
+                        : receiver.getFullName();
+        // Send WebSocket notification to receiver that donation was completed (if
+        // preference allows)
+        try {
+            logger.info(
+                    "Checking websocket preference for receiver userId={} for donationCompleted notification",
+                    receiver.getId());
+            if (notificationPreferenceService.shouldSendNotification(receiver,
+                    "donationCompleted", "websocket")) {
+                logger.info(
+                        "Receiver {} has websocket notifications enabled for donationCompleted, sending websocket notification",
+                        receiver.getId());
+                Map<String, Object> receiverNotification = new HashMap<>();
+                receiverNotification.put("type", "DONATION_COMPLETED");
+                receiverNotification.put("donationId", post.getId());
+                receiverNotification.put("title", post.getTitle());
+                receiverNotification.put("message", "Donation Completed");
+                receiverNotification.put("timestamp", System.currentTimeMillis());
+                messagingTemplate.convertAndSendToUser(
+                        receiver.getId().toString(),
+                        "/queue/donations/completed",
+                        receiverNotification);
+                logger.info(
+                        "Successfully sent donation completed websocket notification to receiver userId={} for postId={}",
+                        receiver.getId(), post.getId());
+            } else {
+                logger.info(
+                        "Receiver {} has websocket notifications disabled for donationCompleted, skipping websocket notification",
+                        receiver.getId());
+            }
+        } catch (Exception e) {
+            logger.error(
+                    "Failed to send donation completed websocket notification to receiver: {}",
+                    e.getMessage(), e);
+        }
+        // Send email notification to receiver that donation was completed (if
+        // preference allows)
+        try {
+            logger.info(
+                    "Checking email preference for receiver userId={} for donationCompleted notification",
+                    receiver.getId());
+            if (notificationPreferenceService.shouldSendNotification(receiver,
+                    "donationCompleted", "email")) {
+                logger.info(
+                        "Receiver {} has email notifications enabled for donationCompleted, sending email",
+                        receiver.getId());
+                String donorName = donor.getOrganization() != null
+                        && donor.getOrganization().getName() != null
+                                ? donor.getOrganization().getName()
+                                : donor.getFullName();
+                Map<String, Object> donationData = new HashMap<>();
+                donationData.put("donationTitle", post.getTitle());
+                donationData.put("quantity", post.getQuantity().getValue() + " "
+                        + post.getQuantity().getUnit().getLabel());
+                donationData.put("donorName", donorName);
+                emailService.sendDonationCompletedNotification(
+                        receiver.getEmail(),
+                        receiverName,
+                        donationData);
+                logger.info(
+                        "Successfully sent donation completed email to receiver userId={} email={}",
+                        receiver.getId(), receiver.getEmail());
+            } else {
+                logger.info(
+                        "Receiver {} has email notifications disabled for donationCompleted or email globally disabled, skipping email",
+                        receiver.getId());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to send donation completed email notification to receiver: {}",
+                    e.getMessage(), e);
+            // Don't throw - email is secondary to main functionality
+        }
+        // Send email notification to donor that donation was picked up (with preference
+        // checking)
+        try {
+            logger.info(
+                    "Checking email preference for donor userId={} for donationPickedUp notification",
+                    donor.getId());
+            if (notificationPreferenceService.shouldSendNotification(donor, "donationPickedUp",
+                    "email")) {
+                logger.info(
+                        "Donor {} has email notifications enabled for donationPickedUp, sending email",
+                        donor.getId());
+                // Prepare notification data
+                String donorName = donor.getOrganization() != null
+                        && donor.getOrganization().getName() != null
+                                ? donor.getOrganization().getName()
+                                : donor.getFullName();
+                Map<String, Object> donationData = new HashMap<>();
+                donationData.put("donationTitle", post.getTitle());
+                donationData.put("quantity", post.getQuantity().getValue() + " "
+                        + post.getQuantity().getUnit().getLabel());
+                donationData.put("receiverName", receiverName);
+                emailService.sendDonationPickedUpNotification(
+                        donor.getEmail(),
+                        donorName,
+                        donationData);
+                logger.info(
+                        "Successfully sent donation picked up email to donor userId={} email={}",
+                        donor.getId(), donor.getEmail());
+            } else {
+                logger.info(
+                        "Donor {} has email notifications disabled for donationPickedUp or email globally disabled, skipping email",
+                        donor.getId());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to send donation picked up email notification to donor: {}",
+                    e.getMessage(), e);
+        }
+    }
+    /**
+     * Mark both parties' pickup calendar events as completed and queue their sync. Failures
+     * propagate so the delivery is retried.
+     */
+    void completePickupCalendarEvents(Claim claim) {
+        updateCalendarEventsForCompletion(claim.getId());
+        triggerCalendarSyncIfEnabled(claim.getSurplusPost().getDonor());
+        triggerCalendarSyncIfEnabled(claim.getReceiver());
+    }
     private String generateOtpCode() {
         java.security.SecureRandom random = new java.security.SecureRandom();
         int otp = 100000 + random.nextInt(900000);
@@ -1406,6 +1814,7 @@ public class SurplusService {
         post.setOtpCode(null);
         foodTypeImpactService.applyImpactSnapshot(post);
         surplusPostRepository.save(post);
+        evictCachedResponses(post.getId());
         // Complete the claim - this awards points and checks achievements for the
         // receiver
         claimService.completeClaim(claim.getId());
@@ -1440,6 +1849,7 @@ public class SurplusService {
             claimRepository.deleteAll(claims);
         }
         surplusPostRepository.delete(post);
+        evictCachedResponses(postId);
     }
     /**
      * Get timeline events for a donation post.
@@ -1476,7 +1886,8 @@ public class SurplusService {
         }
         // Fetch timeline events that are visible to users
         List<DonationTimeline> timeline = timelineRepository
-                .findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(postId, true);
+                .findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(
+                        postId, true, DonationTimelineRepository.timelineStart(post));
         // Map to DTOs
         return timeline.stream()
                 .map(this::mapToTimelineDTO)
@@ -1590,20 +2001,20 @@ public class SurplusService {
                 return;
             }
             // Register callback to trigger async sync AFTER transaction commits
-            // This fixes the bug where @Async threads query before the transaction commits
+            // This fixes the bug where sync workers query before the transaction commits
             if (TransactionSynchronizationManager.isSynchronizationActive()) {
                 logger.info("📌 Registering post-commit sync callback for user {}", user.getId());
                 TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                     @Override
                     public void afterCommit() {
-                        logger.info("🚀 [POST-COMMIT] Triggering async calendar sync for user {}", user.getId());
-                        calendarSyncService.syncUserPendingEventsAsync(user);
+                        logger.info("🚀 [POST-COMMIT] Queueing calendar sync for user {}", user.getId());
+                        calendarSyncJobQueue.requestSync(user);
                     }
                 });
             } else {
                 // Fallback: trigger immediately if no transaction is active
-                logger.info("🚀 Triggering async calendar sync for user {} (no active transaction)", user.getId());
-                calendarSyncService.syncUserPendingEventsAsync(user);
+                logger.info("🚀 Queueing calendar sync for user {} (no active transaction)", user.getId());
+                calendarSyncJobQueue.requestSync(user);
             }
         } catch (Exception e) {
             logger.error("Error triggering calendar sync for user {}: {}", user.getId(), e.getMessage());
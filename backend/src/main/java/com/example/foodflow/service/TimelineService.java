@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.List;
 /**
  * Service for managing donation timeline events.
  * Centralizes timeline event creation to ensure consistency across the application.
@@ -48,6 +49,25 @@ public class TimelineService {
             PostStatus newStatus,
             String details,
             Boolean visibleToUsers) {
+        DonationTimeline event = buildTimelineEvent(post, eventType, actor, actorUserId, oldStatus, newStatus,
+                details, visibleToUsers);
+        DonationTimeline savedEvent = timelineRepository.save(event);
+        businessMetricsService.incrementTimelineEventsCreated();
+        return savedEvent;
+    }
+    /**
+     * Builds a timeline event without saving it, for callers that record many events at once
+     * through {@link #createTimelineEvents}.
+     */
+    public DonationTimeline buildTimelineEvent(
+            SurplusPost post,
+            String eventType,
+            String actor,
+            Long actorUserId,
+            PostStatus oldStatus,
+            PostStatus newStatus,
+            String details,
+            Boolean visibleToUsers) {
         DonationTimeline event = new DonationTimeline();
         event.setSurplusPost(post);
         event.setEventType(eventType);
@@ -58,9 +78,20 @@ public class TimelineService {
         event.setDetails(details);
         event.setVisibleToUsers(visibleToUsers != null ? visibleToUsers : true);
         event.setTimestamp(LocalDateTime.now(clock)); // UTC timestamp
-        DonationTimeline savedEvent = timelineRepository.save(event);
-        businessMetricsService.incrementTimelineEventsCreated();
-        return savedEvent;
+        return event;
+    }
+    /**
+     * Saves a batch of events built with {@link #buildTimelineEvent}. Ids come from a pooled
+     * sequence, so the inserts are sent as JDBC batches when the transaction flushes.
+     */
+    @Transactional
+    public List<DonationTimeline> createTimelineEvents(List<DonationTimeline> events) {
+        if (events == null || events.isEmpty()) {
+            return List.of();
+        }
+        List<DonationTimeline> savedEvents = timelineRepository.saveAll(events);
+        savedEvents.forEach(event -> businessMetricsService.incrementTimelineEventsCreated());
+        return savedEvents;
     }
     /**
      * Convenience method for creating timeline events without old/new status tracking.
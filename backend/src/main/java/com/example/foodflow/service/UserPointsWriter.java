@@ -0,0 +1,81 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.TreeMap;
+/**
+ * Writes point awards as atomic {@code total_points + delta} updates instead of loading and
+ * saving the user.
+ *
+ * Inside a transaction, awards are summed per user and written once just before commit, so a
+ * burst such as the points for an action plus the achievements it unlocks costs one UPDATE per
+ * user and holds the row lock only for the tail of the transaction. Awards made outside a
+ * transaction are written straight away.
+ *
+ * An award for a user that does not exist fails with "User not found"; for a batched award
+ * that happens at commit, which rolls the transaction back.
+ */
+@Component
+public class UserPointsWriter {
+    private static final Logger logger = LoggerFactory.getLogger(UserPointsWriter.class);
+    private final UserRepository userRepository;
+    public UserPointsWriter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    @Transactional
+    public void add(Long userId, int points) {
+        if (points == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(userId, points);
+            return;
+        }
+        pendingPoints().add(userId, points);
+    }
+    private PendingPoints pendingPoints() {
+        // Looked up among the synchronizations rather than bound as a resource, so a nested
+        // REQUIRES_NEW transaction gets its own batch
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingPoints pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingPoints pending = new PendingPoints();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    /**
+     * Apply one award now with a single atomic UPDATE.
+     */
+    @Transactional
+    public void write(Long userId, int points) {
+        if (userRepository.addPoints(userId, points) == 0) {
+            logger.warn("Cannot award {} points to missing userId={}", points, userId);
+            throw new RuntimeException("User not found");
+        }
+    }
+    private final class PendingPoints implements TransactionSynchronization {
+        // Ordered by user ID so concurrent transactions lock user rows in the same order
+        private final Map<Long, Integer> pointsByUser = new TreeMap<>();
+        private UserPointsWriter owner() {
+            return UserPointsWriter.this;
+        }
+        private void add(Long userId, int points) {
+            pointsByUser.merge(userId, points, Integer::sum);
+        }
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            pointsByUser.forEach((userId, points) -> {
+                if (points != 0) {
+                    write(userId, points);
+                }
+            });
+        }
+    }
+}
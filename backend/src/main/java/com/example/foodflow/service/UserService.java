@@ -85,6 +85,7 @@ public class UserService {
             }
         }
         User savedUser = userRepository.save(user);
+        notificationPreferenceService.invalidate(userId);
         logger.info("Successfully updated notification preferences for userId={}", userId);
         return savedUser;
     }
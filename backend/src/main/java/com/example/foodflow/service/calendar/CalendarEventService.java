@@ -4,11 +4,15 @@ import com.example.foodflow.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 /**
  * Service for managing synced calendar events and their lifecycle
  */
@@ -19,6 +23,10 @@ public class CalendarEventService {
     private final SyncedCalendarEventRepository syncedCalendarEventRepository;
     private final CalendarSyncLogRepository calendarSyncLogRepository;
     private final CalendarSyncPreferenceRepository calendarSyncPreferenceRepository;
+    @Value("${calendar.sync.retry-attempts:3}")
+    private int retryAttempts = 3;
+    @Value("${calendar.sync.retry-delay-ms:1000}")
+    private long retryDelayMs = 1000;
     public CalendarEventService(SyncedCalendarEventRepository syncedCalendarEventRepository,
                                CalendarSyncLogRepository calendarSyncLogRepository,
                                CalendarSyncPreferenceRepository calendarSyncPreferenceRepository) {
@@ -83,21 +91,47 @@ public class CalendarEventService {
         event.setExternalEventId(externalEventId);
         event.setSyncStatus("SYNCED");
         event.setLastSyncError(null);
+        event.setSyncAttempts(0);
+        event.setNextSyncAttemptAt(null);
         syncedCalendarEventRepository.save(event);
         logSyncAction(event.getUser(), "EVENT_SYNCED", externalEventId, event.getId(), 
                      event.getEventType(), "SUCCESS");
         logger.info("Calendar event {} marked as synced with external ID {}", event.getId(), externalEventId);
     }
     /**
-     * Mark event as failed to sync
+     * Mark event as failed to sync and schedule the next retry with exponential backoff.
+     * Once calendar.sync.retry-attempts is exhausted the event stays FAILED with no retry time.
      */
     public void markEventAsFailed(SyncedCalendarEvent event, String errorMessage) {
+        int attempts = (event.getSyncAttempts() != null ? event.getSyncAttempts() : 0) + 1;
         event.setSyncStatus("FAILED");
         event.setLastSyncError(errorMessage);
+        event.setSyncAttempts(attempts);
+        event.setNextSyncAttemptAt(attempts < retryAttempts
+            ? LocalDateTime.now().plus(computeRetryDelayMs(attempts), ChronoUnit.MILLIS)
+            : null);
         syncedCalendarEventRepository.save(event);
         logSyncAction(event.getUser(), "SYNC_FAILED", event.getExternalEventId(), event.getId(),
                      event.getEventType(), "FAILED", errorMessage);
-        logger.warn("Calendar event {} sync failed: {}", event.getId(), errorMessage);
+        if (event.getNextSyncAttemptAt() != null) {
+            logger.warn("Calendar event {} sync failed (attempt {}), retry at {}: {}",
+                       event.getId(), attempts, event.getNextSyncAttemptAt(), errorMessage);
+        } else {
+            logger.warn("Calendar event {} sync failed after {} attempts, giving up: {}",
+                       event.getId(), attempts, errorMessage);
+        }
+    }
+    /**
+     * Exponential backoff with full jitter: a random delay in [base/2, base * 2^(attempt-1)]
+     * so that events which failed together (e.g. a provider outage) do not retry in lockstep.
+     */
+    long computeRetryDelayMs(int attempt) {
+        long ceiling = retryDelayMs * (1L << Math.min(Math.max(attempt - 1, 0), 16));
+        long floor = Math.max(retryDelayMs / 2, 1);
+        if (ceiling <= floor) {
+            return floor;
+        }
+        return ThreadLocalRandom.current().nextLong(floor, ceiling + 1);
     }
     /**
      * Mark event as deleted (soft delete)
@@ -116,6 +150,16 @@ public class CalendarEventService {
     public List<SyncedCalendarEvent> getUserPendingSyncEvents(Long userId) {
         return syncedCalendarEventRepository.findByUserIdAndSyncStatus(userId, "PENDING");
     }
+    /**
+     * Get sync work that is due for a user: pending events followed by failed events whose
+     * retry time has passed, capped at {@code limit} so one user cannot monopolise a worker.
+     */
+    public List<SyncedCalendarEvent> getUserDueSyncEvents(Long userId, int limit) {
+        List<SyncedCalendarEvent> due = new ArrayList<>(getUserPendingSyncEvents(userId));
+        due.addAll(syncedCalendarEventRepository.findByUserIdAndSyncStatusAndNextSyncAttemptAtLessThanEqual(
+            userId, "FAILED", LocalDateTime.now()));
+        return due.size() > limit ? due.subList(0, limit) : due;
+    }
     /**
      * Get all pending sync events across all users
      */
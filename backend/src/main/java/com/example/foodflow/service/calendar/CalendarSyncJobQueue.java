@@ -0,0 +1,163 @@
+package com.example.foodflow.service.calendar;
+import com.example.foodflow.config.ExecutorConfig;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.SyncedCalendarEventRepository;
+import com.example.foodflow.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Durable calendar sync job queue.
+ *
+ * The queue itself is the {@code synced_calendar_events} table: PENDING rows and FAILED rows
+ * whose {@code next_sync_attempt_at} has passed are "due". Workers on the bounded
+ * {@link ExecutorConfig#CALENDAR_SYNC_EXECUTOR} pool drain one user at a time. Requests for a
+ * user that is already queued or running are coalesced into a single follow-up pass, so a burst
+ * of claims produces one sync run. If the process dies, or the pool rejects work, nothing is
+ * lost: the scheduled drain re-discovers due rows from the database.
+ */
+@Service
+public class CalendarSyncJobQueue {
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSyncJobQueue.class);
+    private final CalendarSyncService calendarSyncService;
+    private final UserRepository userRepository;
+    private final SyncedCalendarEventRepository syncedCalendarEventRepository;
+    private final TaskExecutor executor;
+    // userId -> "another pass needed" flag; presence means a run is queued or in flight
+    private final ConcurrentHashMap<Long, AtomicBoolean> scheduledUsers = new ConcurrentHashMap<>();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter runsCounter;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+    private final Timer runTimer;
+    @Value("${calendar.sync.enabled:true}")
+    private boolean syncEnabled = true;
+    public CalendarSyncJobQueue(CalendarSyncService calendarSyncService,
+                                UserRepository userRepository,
+                                SyncedCalendarEventRepository syncedCalendarEventRepository,
+                                @Qualifier(ExecutorConfig.CALENDAR_SYNC_EXECUTOR) TaskExecutor executor,
+                                MeterRegistry meterRegistry) {
+        this.calendarSyncService = calendarSyncService;
+        this.userRepository = userRepository;
+        this.syncedCalendarEventRepository = syncedCalendarEventRepository;
+        this.executor = executor;
+        Gauge.builder("foodflow.calendar.sync.backlog", backlog, AtomicLong::get)
+                .description("Calendar events due for sync (pending or awaiting retry)")
+                .register(meterRegistry);
+        Gauge.builder("foodflow.calendar.sync.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending calendar event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("foodflow.calendar.sync.users.scheduled", scheduledUsers, ConcurrentHashMap::size)
+                .description("Users with a sync run queued or in flight")
+                .register(meterRegistry);
+        this.runsCounter = Counter.builder("foodflow.calendar.sync.runs")
+                .description("Per-user calendar sync runs executed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("foodflow.calendar.sync.coalesced")
+                .description("Sync requests folded into an already scheduled run")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("foodflow.calendar.sync.rejected")
+                .description("Sync requests rejected by the full worker pool (picked up by the next drain)")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("foodflow.calendar.sync.run.duration")
+                .description("Time spent syncing one user's due events")
+                .register(meterRegistry);
+    }
+    /**
+     * Request a sync run for a user. Returns immediately; the work runs on the calendar sync pool.
+     */
+    public void requestSync(User user) {
+        requestSync(user.getId());
+    }
+    public void requestSync(Long userId) {
+        if (!syncEnabled || userId == null) {
+            return;
+        }
+        AtomicBoolean flag = new AtomicBoolean(true);
+        AtomicBoolean existing = scheduledUsers.putIfAbsent(userId, flag);
+        if (existing != null) {
+            existing.set(true);
+            coalescedCounter.increment();
+            return;
+        }
+        try {
+            executor.execute(() -> runUser(userId, flag));
+        } catch (RejectedExecutionException e) {
+            scheduledUsers.remove(userId, flag);
+            rejectedCounter.increment();
+            logger.warn("Calendar sync pool saturated, deferring user {} to the next drain", userId);
+        }
+    }
+    /**
+     * Periodically enqueue users with due work. This is what makes the queue durable: work
+     * created while the pool was saturated, before a restart, or awaiting a backoff retry is
+     * re-discovered here. Also refreshes the backlog and lag gauges.
+     */
+    @Scheduled(fixedDelayString = "${calendar.sync.poll-interval-ms:30000}")
+    public void drainDueWork() {
+        if (!syncEnabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            refreshMetrics(now);
+            int limit = Math.max(calendarSyncService.getBatchSize(), 1) * 10;
+            List<Long> userIds = syncedCalendarEventRepository.findUserIdsWithDueSyncWork(now, PageRequest.of(0, limit));
+            if (!userIds.isEmpty()) {
+                logger.debug("Calendar sync drain found {} users with due work", userIds.size());
+            }
+            userIds.forEach(this::requestSync);
+        } catch (Exception e) {
+            logger.error("Calendar sync drain failed", e);
+        }
+    }
+    private void runUser(Long userId, AtomicBoolean flag) {
+        try {
+            // Keep going while new requests arrive mid-run, or a full batch suggests more work
+            while (flag.getAndSet(false)) {
+                User user = userRepository.findById(userId).orElse(null);
+                if (user == null) {
+                    break;
+                }
+                runsCounter.increment();
+                Timer.Sample sample = Timer.start();
+                int attempted = calendarSyncService.syncUserDueEvents(user);
+                sample.stop(runTimer);
+                if (attempted >= calendarSyncService.getBatchSize()) {
+                    flag.set(true);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Calendar sync failed for user {}", userId, e);
+        } finally {
+            scheduledUsers.remove(userId, flag);
+            // A request that raced with the loop exit saw our entry and only set the flag
+            if (flag.get()) {
+                requestSync(userId);
+            }
+        }
+    }
+    private void refreshMetrics(LocalDateTime now) {
+        backlog.set(syncedCalendarEventRepository.countDueSyncWork(now));
+        LocalDateTime oldest = syncedCalendarEventRepository.findOldestPendingSince();
+        lagSeconds.set(oldest == null ? 0 : Math.max(Duration.between(oldest, now).getSeconds(), 0));
+    }
+}
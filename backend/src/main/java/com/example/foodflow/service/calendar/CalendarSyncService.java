@@ -14,7 +14,7 @@ import com.example.foodflow.util.TimezoneResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -34,6 +34,8 @@ public class CalendarSyncService {
     private final ClaimRepository claimRepository;
     private final CalendarSyncPreferenceRepository calendarSyncPreferenceRepository;
     private final SyncedCalendarEventRepository syncedCalendarEventRepository;
+    @Value("${calendar.sync.batch-size:10}")
+    private int batchSize = 10;
     public CalendarSyncService(CalendarIntegrationService calendarIntegrationService,
                               CalendarEventService calendarEventService,
                               GoogleCalendarProvider googleCalendarProvider,
@@ -47,20 +49,6 @@ public class CalendarSyncService {
         this.calendarSyncPreferenceRepository = calendarSyncPreferenceRepository;
         this.syncedCalendarEventRepository = syncedCalendarEventRepository;
     }
-    /**
-     * Asynchronously sync pending events for a user immediately after creation
-     * Runs in background thread so it doesn't block the HTTP response
-     */
-    @Async
-    public void syncUserPendingEventsAsync(User user) {
-        logger.info("🔄 [ASYNC] Starting calendar sync for user {}...", user.getId());
-        try {
-            syncUserPendingEvents(user);
-            logger.info("✅ [ASYNC] Calendar sync completed for user {}", user.getId());
-        } catch (Exception e) {
-            logger.error("❌ [ASYNC] Error syncing calendar for user {}", user.getId(), e);
-        }
-    }
     /**
      * Sync all pending events for a user to their connected calendars
      */
@@ -76,6 +64,28 @@ public class CalendarSyncService {
             syncEventToCalendar(user, integration.get(), event);
         }
     }
+    /**
+     * Sync one batch of due events (pending, plus failed events whose retry time has passed)
+     * for a user. Called by {@link CalendarSyncJobQueue} workers.
+     *
+     * @return number of events attempted; a full batch means more work may remain
+     */
+    public int syncUserDueEvents(User user) {
+        Optional<CalendarIntegration> integration = calendarIntegrationService.getUserIntegration(user);
+        if (!integration.isPresent() || !integration.get().getIsConnected()) {
+            logger.info("User {} has no active calendar integration", user.getId());
+            return 0;
+        }
+        List<SyncedCalendarEvent> dueEvents = calendarEventService.getUserDueSyncEvents(user.getId(), batchSize);
+        logger.info("Found {} due events to sync for user {}", dueEvents.size(), user.getId());
+        for (SyncedCalendarEvent event : dueEvents) {
+            syncEventToCalendar(user, integration.get(), event);
+        }
+        return dueEvents.size();
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
     /**
      * Sync all upcoming pickups for a user - creates calendar events for active claims
      * and syncs them to the calendar
@@ -127,10 +137,8 @@ public class CalendarSyncService {
             }
         }
         logger.info("Created {} new calendar events for user {}", eventsCreated, user.getId());
-        // Now sync all pending events to Google Calendar
-        if (eventsCreated > 0) {
-            syncUserPendingEventsAsync(user);
-        }
+        // Newly created events are PENDING; callers push them out via syncUserPendingEvents
+        // or CalendarSyncJobQueue.requestSync
         return eventsCreated;
     }
     /**
@@ -8,6 +8,7 @@ import com.example.foodflow.model.entity.SyncedCalendarEvent;
 import com.example.foodflow.repository.CalendarSyncPreferenceRepository;
 import com.example.foodflow.service.calendar.EncryptionUtility;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +62,8 @@ public class GoogleCalendarProvider implements CalendarProvider {
     }
 
     @Override
+    @Observed(name = "foodflow.external.call", contextualName = "google-calendar-create-event",
+            lowCardinalityKeyValues = {"provider", "google", "operation", "create_event"})
     public String createEvent(String encryptedRefreshToken, SyncedCalendarEvent event)
             throws CalendarProviderException {
         try {
@@ -103,6 +106,8 @@ public class GoogleCalendarProvider implements CalendarProvider {
     }
 
     @Override
+    @Observed(name = "foodflow.external.call", contextualName = "google-calendar-update-event",
+            lowCardinalityKeyValues = {"provider", "google", "operation", "update_event"})
     public void updateEvent(String encryptedRefreshToken, SyncedCalendarEvent event) throws CalendarProviderException {
         try {
             if (event.getExternalEventId() == null) {
@@ -129,6 +134,8 @@ public class GoogleCalendarProvider implements CalendarProvider {
     }
 
     @Override
+    @Observed(name = "foodflow.external.call", contextualName = "google-calendar-delete-event",
+            lowCardinalityKeyValues = {"provider", "google", "operation", "delete_event"})
     public void deleteEvent(String encryptedRefreshToken, String externalEventId) throws CalendarProviderException {
         try {
             String refreshToken = encryptionUtility.decrypt(encryptedRefreshToken);
@@ -0,0 +1,24 @@
+package com.example.foodflow.service.events;
+import java.util.Map;
+/**
+ * Something that happened to a donation, recorded in the transaction that caused it and
+ * delivered to {@link DomainEventHandler}s after commit. Events carry ids only; handlers reload
+ * whatever they need, so a retried delivery always sees current state.
+ */
+public sealed interface DomainEvent permits DonationPosted, DonationsImported, DonationClaimed, PickupConfirmed,
+        DonationExpired {
+    Map<String, Class<? extends DomainEvent>> TYPES = Map.of(
+            DonationPosted.TYPE, DonationPosted.class,
+            DonationsImported.TYPE, DonationsImported.class,
+            DonationClaimed.TYPE, DonationClaimed.class,
+            PickupConfirmed.TYPE, PickupConfirmed.class,
+            DonationExpired.TYPE, DonationExpired.class);
+    /**
+     * Stored event type, also the metrics tag.
+     */
+    String type();
+    /**
+     * The post the event belongs to; a handler sees one post's events in order.
+     */
+    Long surplusPostId();
+}
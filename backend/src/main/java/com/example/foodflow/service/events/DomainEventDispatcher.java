@@ -0,0 +1,293 @@
+package com.example.foodflow.service.events;
+import com.example.foodflow.config.ExecutorConfig;
+import com.example.foodflow.model.entity.OutboxEvent;
+import com.example.foodflow.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+/**
+ * Delivers outbox rows to their {@link DomainEventHandler}.
+ *
+ * Same shape as the Stripe webhook queue: workers on the bounded
+ * {@link ExecutorConfig#DOMAIN_EVENT_EXECUTOR} pool take one ordering key (handler + post) at a
+ * time and deliver its events in the order they were recorded. A failed delivery is retried with
+ * exponential backoff and blocks later events for the same key until it succeeds or is
+ * dead-lettered after {@code domain.events.max-attempts}; other handlers are unaffected. The
+ * table is the queue, so the scheduled drain picks up rejected work, due retries and rows left
+ * behind by a restart.
+ */
+@Service
+public class DomainEventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventDispatcher.class);
+    private static final int BATCH_SIZE = 50;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<DomainEventHandler> handlerProvider;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // orderingKey -> "another pass needed" flag; presence means a run is queued or in flight
+    private final ConcurrentHashMap<String, AtomicBoolean> scheduledKeys = new ConcurrentHashMap<>();
+    // handler -> age in seconds of its oldest undelivered event, refreshed by the drain
+    private final ConcurrentHashMap<String, AtomicLong> oldestPendingSeconds = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final Counter rejectedCounter;
+    private volatile Map<String, DomainEventHandler> handlersByName;
+    @Value("${domain.events.max-attempts:8}")
+    private int maxAttempts = 8;
+    @Value("${domain.events.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs = 5000;
+    @Value("${domain.events.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs = 3600000;
+    @Value("${domain.events.retention-days:7}")
+    private int retentionDays = 7;
+    enum Outcome { PROCESSED, DEAD_LETTERED, RETRY_LATER, BUSY }
+    public DomainEventDispatcher(OutboxEventRepository outboxEventRepository,
+                                 ObjectProvider<DomainEventHandler> handlerProvider,
+                                 @Qualifier(ExecutorConfig.DOMAIN_EVENT_EXECUTOR) TaskExecutor executor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlerProvider = handlerProvider;
+        this.executor = executor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        Gauge.builder("foodflow.domain_events.pending", pending, AtomicLong::get)
+                .description("Domain events waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("foodflow.domain_events.dead_lettered", deadLettered, AtomicLong::get)
+                .description("Domain events that exhausted their retries")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("foodflow.domain_events.rejected")
+                .description("Delivery requests rejected by the full worker pool (picked up by the next drain)")
+                .register(meterRegistry);
+    }
+    private Counter eventCounter(String handler, String outcome) {
+        return Counter.builder("foodflow.domain_events.events")
+                .description("Domain event deliveries by handler and outcome")
+                .tag("handler", handler)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    private Timer lagTimer(String handler) {
+        return Timer.builder("foodflow.domain_events.lag")
+                .description("Time from recording an event to its successful delivery")
+                .tag("handler", handler)
+                .register(meterRegistry);
+    }
+    public void requestProcessing(String orderingKey) {
+        AtomicBoolean flag = new AtomicBoolean(true);
+        AtomicBoolean existing = scheduledKeys.putIfAbsent(orderingKey, flag);
+        if (existing != null) {
+            existing.set(true);
+            return;
+        }
+        try {
+            executor.execute(() -> runKey(orderingKey, flag));
+        } catch (RejectedExecutionException e) {
+            scheduledKeys.remove(orderingKey, flag);
+            rejectedCounter.increment();
+            logger.warn("Domain event pool saturated, deferring {} to the next drain", orderingKey);
+        }
+    }
+    /**
+     * Re-discover keys with due events and refresh the backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${domain.events.poll-interval-ms:10000}")
+    public void drainDueWork() {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            pending.set(outboxEventRepository.countPending());
+            deadLettered.set(outboxEventRepository.countByDeadLetteredTrue());
+            refreshOldestPending(now);
+            List<String> keys = outboxEventRepository.findDueOrderingKeys(now, PageRequest.of(0, BATCH_SIZE * 4));
+            keys.forEach(this::requestProcessing);
+        } catch (Exception e) {
+            logger.error("Domain event drain failed", e);
+        }
+    }
+    /**
+     * Delete delivered rows older than {@code domain.events.retention-days}. Dead-lettered rows
+     * are kept for inspection.
+     */
+    @Scheduled(cron = "${domain.events.purge-cron:0 45 3 * * *}")
+    public void purgeDelivered() {
+        Integer removed = transaction.execute(status -> outboxEventRepository.deleteProcessedBefore(
+                LocalDateTime.now(clock).minusDays(Math.max(retentionDays, 1))));
+        if (removed != null && removed > 0) {
+            logger.info("Purged {} delivered domain events", removed);
+        }
+    }
+    private void refreshOldestPending(LocalDateTime now) {
+        Map<String, Long> ages = outboxEventRepository.findOldestPendingByHandler().stream()
+                .collect(Collectors.toMap(
+                        row -> (String) row[0],
+                        row -> Math.max(Duration.between((LocalDateTime) row[1], now).getSeconds(), 0)));
+        handlers().keySet().forEach(handler -> oldestPendingGauge(handler).set(ages.getOrDefault(handler, 0L)));
+    }
+    private AtomicLong oldestPendingGauge(String handler) {
+        return oldestPendingSeconds.computeIfAbsent(handler, name -> {
+            AtomicLong age = new AtomicLong();
+            Gauge.builder("foodflow.domain_events.oldest_pending_seconds", age, AtomicLong::get)
+                    .description("Age of the oldest undelivered domain event")
+                    .tag("handler", name)
+                    .register(meterRegistry);
+            return age;
+        });
+    }
+    private void runKey(String orderingKey, AtomicBoolean flag) {
+        try {
+            while (flag.getAndSet(false)) {
+                if (processKey(orderingKey)) {
+                    flag.set(true);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Domain event delivery failed for {}", orderingKey, e);
+        } finally {
+            scheduledKeys.remove(orderingKey, flag);
+            // A request that raced with the loop exit saw our entry and only set the flag
+            if (flag.get()) {
+                requestProcessing(orderingKey);
+            }
+        }
+    }
+    /**
+     * Deliver due events for one key in order, stopping at the first one that has to wait.
+     *
+     * @return true if a full batch was delivered and more events may be waiting
+     */
+    boolean processKey(String orderingKey) {
+        List<OutboxEvent> events = outboxEventRepository.findPendingByOrderingKey(
+                orderingKey, PageRequest.of(0, BATCH_SIZE));
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (OutboxEvent event : events) {
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                return false;
+            }
+            Outcome outcome = processEvent(event.getId());
+            if (outcome == Outcome.RETRY_LATER || outcome == Outcome.BUSY) {
+                return false;
+            }
+        }
+        return events.size() >= BATCH_SIZE;
+    }
+    Outcome processEvent(Long eventId) {
+        try {
+            OutboxEvent delivered = transaction.execute(status -> {
+                OutboxEvent event = outboxEventRepository.lockPendingById(eventId).orElse(null);
+                if (event == null) {
+                    return null;
+                }
+                DomainEventHandler handler = handlers().get(event.getHandler());
+                if (handler == null) {
+                    throw new UndeliverableEventException("No handler named " + event.getHandler());
+                }
+                handler.handle(deserialize(event));
+                event.setProcessed(true);
+                event.setProcessedAt(LocalDateTime.now(clock));
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(null);
+                event.setErrorMessage(null);
+                return outboxEventRepository.save(event);
+            });
+            if (delivered == null) {
+                return Outcome.BUSY;
+            }
+            eventCounter(delivered.getHandler(), "processed").increment();
+            lagTimer(delivered.getHandler()).record(Duration.between(delivered.getCreatedAt(), delivered.getProcessedAt()));
+            return Outcome.PROCESSED;
+        } catch (UndeliverableEventException e) {
+            return recordFailure(eventId, e, true);
+        } catch (Exception e) {
+            return recordFailure(eventId, e, false);
+        }
+    }
+    private DomainEvent deserialize(OutboxEvent event) {
+        Class<? extends DomainEvent> type = DomainEvent.TYPES.get(event.getEventType());
+        if (type == null) {
+            throw new UndeliverableEventException("Unknown domain event type " + event.getEventType());
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new UndeliverableEventException("Unreadable " + event.getEventType() + " payload: " + e.getMessage());
+        }
+    }
+    private Outcome recordFailure(Long eventId, Exception error, boolean permanent) {
+        return transaction.execute(status -> {
+            OutboxEvent event = outboxEventRepository.findById(eventId).orElse(null);
+            if (event == null) {
+                return Outcome.DEAD_LETTERED;
+            }
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setErrorMessage(error.getMessage());
+            if (permanent || attempts >= maxAttempts) {
+                event.setDeadLettered(true);
+                event.setNextAttemptAt(null);
+                outboxEventRepository.save(event);
+                eventCounter(event.getHandler(), "dead_lettered").increment();
+                logger.error("Domain event {} ({} -> {}) dead-lettered after {} attempts: {}",
+                        event.getId(), event.getEventType(), event.getHandler(), attempts, error.getMessage());
+                return Outcome.DEAD_LETTERED;
+            }
+            event.setNextAttemptAt(LocalDateTime.now(clock).plus(Duration.ofMillis(backoffMillis(attempts))));
+            outboxEventRepository.save(event);
+            eventCounter(event.getHandler(), "retried").increment();
+            logger.warn("Domain event {} ({} -> {}) failed on attempt {}, retrying at {}: {}",
+                    event.getId(), event.getEventType(), event.getHandler(), attempts, event.getNextAttemptAt(),
+                    error.getMessage());
+            return Outcome.RETRY_LATER;
+        });
+    }
+    long backoffMillis(int attempts) {
+        long delay = retryBaseDelayMs << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(delay, retryMaxDelayMs);
+    }
+    private Map<String, DomainEventHandler> handlers() {
+        Map<String, DomainEventHandler> byName = handlersByName;
+        if (byName == null) {
+            byName = handlerProvider.orderedStream()
+                    .collect(Collectors.toMap(DomainEventHandler::name, handler -> handler));
+            handlersByName = byName;
+        }
+        return byName;
+    }
+    /**
+     * A row that can never be delivered (unknown type or handler, unreadable payload).
+     */
+    private static class UndeliverableEventException extends RuntimeException {
+        UndeliverableEventException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.foodflow.service.events;
+import java.util.Set;
+/**
+ * Independent consumer of domain events. Each handler gets its own outbox row per event, so it
+ * is retried (and can fail) without affecting the others.
+ *
+ * {@link #handle} runs inside the dispatcher's transaction together with marking the row
+ * delivered: database side effects happen exactly once, external ones (email, push) at least
+ * once. Throw to have the delivery retried with backoff.
+ */
+public interface DomainEventHandler {
+    /**
+     * Stable name stored on outbox rows; renaming it orphans undelivered rows.
+     */
+    String name();
+    /**
+     * Event types ({@link DomainEvent#type()}) this handler wants.
+     */
+    Set<String> eventTypes();
+    void handle(DomainEvent event);
+}
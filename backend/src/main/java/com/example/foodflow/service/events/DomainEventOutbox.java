@@ -0,0 +1,79 @@
+package com.example.foodflow.service.events;
+import com.example.foodflow.model.entity.OutboxEvent;
+import com.example.foodflow.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+/**
+ * Records domain events in the caller's transaction: one outbox row per subscribed handler.
+ * Nothing is delivered unless the transaction commits; after commit the dispatcher is asked to
+ * deliver right away, and its scheduled drain covers anything that hint misses.
+ */
+@Service
+public class DomainEventOutbox {
+    private final OutboxEventRepository outboxEventRepository;
+    // Handlers depend on the services that record events, so they are looked up lazily
+    private final ObjectProvider<DomainEventHandler> handlers;
+    private final DomainEventDispatcher dispatcher;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    public DomainEventOutbox(OutboxEventRepository outboxEventRepository,
+                             ObjectProvider<DomainEventHandler> handlers,
+                             DomainEventDispatcher dispatcher,
+                             Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.dispatcher = dispatcher;
+        this.clock = clock;
+    }
+    static String orderingKey(String handler, DomainEvent event) {
+        return handler + ":post:" + event.surplusPostId();
+    }
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable domain event " + event, e);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> rows = new ArrayList<>();
+        Set<String> keys = new LinkedHashSet<>();
+        handlers.orderedStream()
+                .filter(handler -> handler.eventTypes().contains(event.type()))
+                .forEach(handler -> {
+                    OutboxEvent row = new OutboxEvent();
+                    row.setEventType(event.type());
+                    row.setHandler(handler.name());
+                    row.setOrderingKey(orderingKey(handler.name(), event));
+                    row.setPayload(payload);
+                    row.setCreatedAt(now);
+                    rows.add(row);
+                    keys.add(row.getOrderingKey());
+                });
+        if (rows.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.saveAll(rows);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(dispatcher::requestProcessing);
+                }
+            });
+        }
+    }
+}
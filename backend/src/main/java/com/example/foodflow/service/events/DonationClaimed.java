@@ -0,0 +1,8 @@
+package com.example.foodflow.service.events;
+public record DonationClaimed(Long claimId, Long surplusPostId, Long receiverId) implements DomainEvent {
+    public static final String TYPE = "DonationClaimed";
+    @Override
+    public String type() {
+        return TYPE;
+    }
+}
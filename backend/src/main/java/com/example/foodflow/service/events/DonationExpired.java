@@ -0,0 +1,8 @@
+package com.example.foodflow.service.events;
+public record DonationExpired(Long surplusPostId, Long donorId) implements DomainEvent {
+    public static final String TYPE = "DonationExpired";
+    @Override
+    public String type() {
+        return TYPE;
+    }
+}
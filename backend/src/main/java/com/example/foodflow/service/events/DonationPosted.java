@@ -0,0 +1,8 @@
+package com.example.foodflow.service.events;
+public record DonationPosted(Long surplusPostId, Long donorId) implements DomainEvent {
+    public static final String TYPE = "DonationPosted";
+    @Override
+    public String type() {
+        return TYPE;
+    }
+}
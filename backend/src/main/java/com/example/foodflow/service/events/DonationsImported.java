@@ -0,0 +1,13 @@
+package com.example.foodflow.service.events;
+import java.util.List;
+/**
+ * A donor's bulk import. Recorded once for the whole batch, so receivers get one notification
+ * and the donor one points update; {@code surplusPostId} is the first imported post.
+ */
+public record DonationsImported(Long surplusPostId, Long donorId, List<Long> surplusPostIds) implements DomainEvent {
+    public static final String TYPE = "DonationsImported";
+    @Override
+    public String type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.foodflow.service.events;
+public record PickupConfirmed(Long claimId, Long surplusPostId) implements DomainEvent {
+    public static final String TYPE = "PickupConfirmed";
+    @Override
+    public String type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.foodflow.service.scheduling;
+import com.example.foodflow.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.net.InetAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+/**
+ * Coordinates {@code @Scheduled} jobs across replicas with leases stored in the
+ * {@code scheduler_lease} table.
+ *
+ * A job (or one shard of a job) only runs on the node that acquires its lease. The lease is
+ * held for at most {@code max(interval, max-hold)} so a crashed node cannot block a job for
+ * long, and after a run it is kept until at least 80% of the interval has passed so a node
+ * whose timer fires slightly later does not run the same job again. Lease changes run in
+ * their own short transactions, independent of the job's transaction.
+ *
+ * When the job runs inside a transaction (the {@code @Transactional} scheduled methods), the
+ * lease is confirmed and extended just before that transaction commits, and given back only
+ * after it completes. Another node therefore never takes the lease while this node's changes
+ * are still uncommitted, and a run that outlived its lease is rolled back instead of
+ * committing on top of the next holder's work.
+ */
+@Service
+public class SchedulerLeaseService {
+    private static final Logger log = LoggerFactory.getLogger(SchedulerLeaseService.class);
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String nodeId;
+    private final boolean enabled;
+    private final Duration maxHold;
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 Clock clock,
+                                 @Value("${scheduler.node-id:}") String nodeId,
+                                 @Value("${scheduler.lease.enabled:true}") boolean enabled,
+                                 @Value("${scheduler.lease.max-hold-ms:120000}") long maxHoldMs) {
+        this.leaseRepository = leaseRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId.trim();
+        this.enabled = enabled;
+        this.maxHold = Duration.ofMillis(Math.max(maxHoldMs, 1000));
+    }
+    /**
+     * Run {@code task} if this node can take the lease for {@code jobName}.
+     *
+     * @return true if the task ran here, false if another node holds the lease
+     */
+    public boolean runExclusively(String jobName, Duration interval, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+        LocalDateTime acquiredAt = tryAcquire(jobName, interval);
+        if (acquiredAt == null) {
+            record(jobName, "skipped");
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Registered first so a failing task still gives the lease back once the transaction ends
+            TransactionSynchronizationManager.registerSynchronization(new LeaseSynchronization(jobName, acquiredAt, interval));
+            task.run();
+        } else {
+            try {
+                task.run();
+            } finally {
+                release(jobName, acquiredAt, interval);
+            }
+        }
+        record(jobName, "ran");
+        return true;
+    }
+    /**
+     * Split a job into {@code shardCount} shards, each with its own lease, and run every shard
+     * this node can acquire. Nodes start at different shards so the work spreads out instead of
+     * the first node to wake up taking all of it.
+     *
+     * @return the number of shards that ran on this node
+     */
+    public int runSharded(String jobName, int shardCount, Duration interval, IntConsumer shardTask) {
+        int shards = Math.max(shardCount, 1);
+        if (shards == 1) {
+            return runExclusively(jobName, interval, () -> shardTask.accept(0)) ? 1 : 0;
+        }
+        int start = Math.floorMod(nodeId.hashCode(), shards);
+        int ran = 0;
+        for (int i = 0; i < shards; i++) {
+            int shard = (start + i) % shards;
+            if (runExclusively(jobName + "#" + shard + "/" + shards, interval, () -> shardTask.accept(shard))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+    public String getNodeId() {
+        return nodeId;
+    }
+    /**
+     * Give up every lease held by this node on shutdown so another replica can take over
+     * without waiting for them to expire.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            leaseTransaction.executeWithoutResult(status ->
+                    leaseRepository.releaseAllHeldBy(nodeId, LocalDateTime.now(clock)));
+        } catch (Exception e) {
+            log.warn("Could not release scheduler leases held by {}: {}", nodeId, e.getMessage());
+        }
+    }
+    private LocalDateTime tryAcquire(String jobName, Duration interval) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = holdUntil(now, interval);
+        try {
+            Boolean acquired = leaseTransaction.execute(status -> {
+                if (leaseRepository.acquireIfExpired(jobName, now, until, nodeId) > 0) {
+                    return true;
+                }
+                if (leaseRepository.existsById(jobName)) {
+                    return false;
+                }
+                return leaseRepository.insertLease(jobName, now, until, nodeId) > 0;
+            });
+            return Boolean.TRUE.equals(acquired) ? now : null;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+            return null;
+        } catch (Exception e) {
+            log.warn("Could not acquire scheduler lease {}: {}", jobName, e.getMessage());
+            return null;
+        }
+    }
+    private LocalDateTime holdUntil(LocalDateTime now, Duration interval) {
+        return now.plus(interval.compareTo(maxHold) > 0 ? interval : maxHold);
+    }
+    /**
+     * Extend the lease if this node still holds it.
+     *
+     * @return false if the lease expired or another node has taken it
+     */
+    private boolean renew(String jobName, Duration interval) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Boolean renewed = leaseTransaction.execute(status ->
+                leaseRepository.renewIfHeld(jobName, now, holdUntil(now, interval), nodeId) > 0);
+        return Boolean.TRUE.equals(renewed);
+    }
+    private void release(String jobName, LocalDateTime acquiredAt, Duration interval) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime atLeast = acquiredAt.plus(interval.multipliedBy(4).dividedBy(5));
+        LocalDateTime until = now.isAfter(atLeast) ? now : atLeast;
+        try {
+            leaseTransaction.executeWithoutResult(status -> leaseRepository.releaseUntil(jobName, until, nodeId));
+        } catch (Exception e) {
+            // The lease simply runs until its maximum hold time
+            log.warn("Could not release scheduler lease {}: {}", jobName, e.getMessage());
+        }
+    }
+    private void record(String jobName, String outcome) {
+        Counter.builder("foodflow.scheduler.runs")
+                .description("Scheduled job runs by outcome on this node")
+                .tag("job", jobName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+    /**
+     * Ties a lease to the job transaction it was taken for.
+     */
+    private final class LeaseSynchronization implements TransactionSynchronization {
+        private final String jobName;
+        private final LocalDateTime acquiredAt;
+        private final Duration interval;
+        private LeaseSynchronization(String jobName, LocalDateTime acquiredAt, Duration interval) {
+            this.jobName = jobName;
+            this.acquiredAt = acquiredAt;
+            this.interval = interval;
+        }
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!renew(jobName, interval)) {
+                record(jobName, "lease_lost");
+                throw new IllegalStateException("Scheduler lease " + jobName + " was lost before the run committed");
+            }
+        }
+        @Override
+        public void afterCompletion(int status) {
+            release(jobName, acquiredAt, interval);
+        }
+    }
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
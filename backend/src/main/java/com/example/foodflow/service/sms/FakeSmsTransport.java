@@ -0,0 +1,55 @@
+package com.example.foodflow.service.sms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * In-memory SMS transport for local development and tests (sms.transport=fake).
+ * Records every delivered message and can be told to fail the next N sends.
+ */
+@Component
+@ConditionalOnProperty(name = "sms.transport", havingValue = "fake")
+public class FakeSmsTransport implements SmsTransport {
+    private static final Logger log = LoggerFactory.getLogger(FakeSmsTransport.class);
+    private final List<SentSms> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private final AtomicInteger attempts = new AtomicInteger();
+    @Override
+    public String getName() {
+        return "FAKE";
+    }
+    @Override
+    public String send(String toPhoneNumber, String messageBody) throws SmsTransportException {
+        attempts.incrementAndGet();
+        if (failuresRemaining.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            throw new SmsTransportException("Simulated provider failure");
+        }
+        String id = "FAKE-" + (sent.size() + 1);
+        sent.add(new SentSms(toPhoneNumber, messageBody));
+        log.info("[FAKE SMS] {} -> {}: {}", id, toPhoneNumber, messageBody);
+        return id;
+    }
+    /**
+     * Make the next {@code count} sends throw.
+     */
+    public void failNext(int count) {
+        failuresRemaining.set(count);
+    }
+    public List<SentSms> getSent() {
+        return Collections.unmodifiableList(new ArrayList<>(sent));
+    }
+    public int getAttempts() {
+        return attempts.get();
+    }
+    public void reset() {
+        sent.clear();
+        failuresRemaining.set(0);
+        attempts.set(0);
+    }
+    public record SentSms(String to, String body) {}
+}
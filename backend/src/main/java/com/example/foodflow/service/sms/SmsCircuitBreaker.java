@@ -0,0 +1,66 @@
+package com.example.foodflow.service.sms;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+/**
+ * Minimal consecutive-failure circuit breaker for the SMS provider.
+ *
+ * CLOSED: all sends allowed. After {@code failureThreshold} consecutive failures the breaker
+ * OPENs and rejects sends for {@code openDuration}. It then goes HALF_OPEN and lets a single
+ * probe through: success closes it, failure re-opens it.
+ */
+class SmsCircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean probeInFlight;
+    SmsCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+    /**
+     * Time until the breaker will allow a probe; zero when not open.
+     */
+    synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(clock.instant(), openedAt.plus(openDuration));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.foodflow.service.sms;
+import com.example.foodflow.config.ExecutorConfig;
+import com.example.foodflow.service.BusinessMetricsService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Non-blocking SMS delivery.
+ *
+ * {@link #dispatch} validates capacity and de-duplicates, then hands the message to a small
+ * scheduler pool and returns immediately. Failed sends are re-scheduled with exponential
+ * backoff instead of sleeping, so a flaky provider never holds the caller's thread. A circuit
+ * breaker stops hammering the provider while it is unhealthy; messages that arrive while it is
+ * open are deferred until the breaker allows a probe. Deferrals do not use up the attempt budget,
+ * which only counts real sends; instead a message is abandoned once it could not be sent within
+ * {@code sms.dispatch.max-defer-ms} of being accepted.
+ */
+@Service
+public class SmsDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(SmsDispatcher.class);
+    private final SmsTransport transport;
+    private final TaskScheduler scheduler;
+    private final BusinessMetricsService businessMetricsService;
+    private final Clock clock;
+    private final SmsCircuitBreaker circuitBreaker;
+    private final Cache<String, Boolean> recentDestinations;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final int maxAttempts;
+    private final long initialRetryDelayMs;
+    private final int maxPending;
+    private final Duration maxDefer;
+    private final Counter dedupedCounter;
+    private final Counter rejectedCounter;
+    private final Counter retriedCounter;
+    private final Counter circuitOpenCounter;
+    public SmsDispatcher(SmsTransport transport,
+                         @Qualifier(ExecutorConfig.SMS_DISPATCH_SCHEDULER) TaskScheduler scheduler,
+                         BusinessMetricsService businessMetricsService,
+                         MeterRegistry meterRegistry,
+                         Clock clock,
+                         @Value("${sms.dispatch.max-attempts:3}") int maxAttempts,
+                         @Value("${sms.dispatch.initial-retry-delay-ms:1000}") long initialRetryDelayMs,
+                         @Value("${sms.dispatch.max-pending:500}") int maxPending,
+                         @Value("${sms.dispatch.dedupe-window-seconds:300}") long dedupeWindowSeconds,
+                         @Value("${sms.dispatch.circuit.failure-threshold:5}") int circuitFailureThreshold,
+                         @Value("${sms.dispatch.circuit.open-duration-ms:30000}") long circuitOpenDurationMs,
+                         @Value("${sms.dispatch.max-defer-ms:600000}") long maxDeferMs) {
+        this.transport = transport;
+        this.scheduler = scheduler;
+        this.businessMetricsService = businessMetricsService;
+        this.clock = clock;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialRetryDelayMs = initialRetryDelayMs;
+        this.maxPending = maxPending;
+        this.maxDefer = Duration.ofMillis(maxDeferMs);
+        this.circuitBreaker = new SmsCircuitBreaker(circuitFailureThreshold,
+                Duration.ofMillis(circuitOpenDurationMs), clock);
+        this.recentDestinations = CacheBuilder.newBuilder()
+                .expireAfterWrite(dedupeWindowSeconds, TimeUnit.SECONDS)
+                .maximumSize(10_000)
+                .build();
+        Gauge.builder("sms.dispatch.pending", pending, AtomicInteger::get)
+                .description("SMS messages accepted but not yet delivered or abandoned")
+                .register(meterRegistry);
+        Gauge.builder("sms.dispatch.circuit.open", circuitBreaker,
+                        cb -> cb.getState() == SmsCircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the SMS provider circuit breaker is open or half-open")
+                .register(meterRegistry);
+        this.dedupedCounter = Counter.builder("sms.dispatch.deduplicated")
+                .description("SMS messages dropped as duplicates within the dedupe window")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("sms.dispatch.rejected")
+                .description("SMS messages rejected because the dispatch queue was full")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("sms.dispatch.retries")
+                .description("SMS delivery retries scheduled")
+                .register(meterRegistry);
+        this.circuitOpenCounter = Counter.builder("sms.dispatch.circuit.short_circuited")
+                .description("SMS attempts skipped because the circuit breaker was open")
+                .register(meterRegistry);
+    }
+    /**
+     * Accept an SMS for background delivery.
+     *
+     * @return true if the message was accepted (or is a duplicate of one already accepted),
+     *         false if the dispatcher is at capacity
+     */
+    public boolean dispatch(String toPhoneNumber, String messageBody) {
+        String dedupeKey = toPhoneNumber + '\n' + messageBody;
+        if (recentDestinations.asMap().putIfAbsent(dedupeKey, Boolean.TRUE) != null) {
+            dedupedCounter.increment();
+            log.info("Skipping duplicate SMS to {} within dedupe window", toPhoneNumber);
+            return true;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            recentDestinations.invalidate(dedupeKey);
+            rejectedCounter.increment();
+            businessMetricsService.incrementSmsFailed();
+            log.warn("SMS dispatch queue full ({} pending), dropping SMS to {}", maxPending, toPhoneNumber);
+            return false;
+        }
+        SmsJob job = new SmsJob(toPhoneNumber, messageBody, dedupeKey, Instant.now(clock).plus(maxDefer));
+        if (!schedule(job, Duration.ZERO)) {
+            complete(job, false);
+            return false;
+        }
+        return true;
+    }
+    private void attempt(SmsJob job) {
+        if (!circuitBreaker.allowRequest()) {
+            circuitOpenCounter.increment();
+            deferOrAbandon(job);
+            return;
+        }
+        job.attempts++;
+        try {
+            String messageId = transport.send(job.to, job.body);
+            circuitBreaker.recordSuccess();
+            log.info("SMS sent successfully to: {} via {} (attempt {}). Message ID: {}",
+                    job.to, transport.getName(), job.attempts, messageId);
+            complete(job, true);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            log.error("Failed to send SMS to: {} (attempt {}/{}): {}",
+                    job.to, job.attempts, maxAttempts, e.getMessage());
+            retryOrAbandon(job, e.getMessage());
+        }
+    }
+    private void retryOrAbandon(SmsJob job, String reason) {
+        if (job.attempts >= maxAttempts) {
+            log.error("All retry attempts exhausted for SMS to: {} ({}). SMS delivery failed.", job.to, reason);
+            complete(job, false);
+            return;
+        }
+        Duration delay = Duration.ofMillis(initialRetryDelayMs << Math.min(job.attempts - 1, 16));
+        retriedCounter.increment();
+        log.info("Retrying SMS to {} in {} ms", job.to, delay.toMillis());
+        if (!schedule(job, delay)) {
+            complete(job, false);
+        }
+    }
+    /**
+     * Wait for the breaker to allow a probe, or give up if that would be past the job's deadline.
+     * While another message's probe is in flight the breaker reports no open time left, so the
+     * wait is never shorter than the initial retry delay.
+     */
+    private void deferOrAbandon(SmsJob job) {
+        Duration remaining = circuitBreaker.remainingOpenTime();
+        Duration minimum = Duration.ofMillis(initialRetryDelayMs);
+        Duration delay = remaining.compareTo(minimum) >= 0 ? remaining : minimum;
+        if (Instant.now(clock).plus(delay).isAfter(job.deferDeadline)) {
+            log.error("SMS provider circuit breaker still open, giving up on SMS to: {}. SMS delivery failed.", job.to);
+            complete(job, false);
+            return;
+        }
+        log.info("SMS provider circuit breaker open, deferring SMS to {} by {} ms", job.to, delay.toMillis());
+        if (!schedule(job, delay)) {
+            complete(job, false);
+        }
+    }
+    private boolean schedule(SmsJob job, Duration delay) {
+        try {
+            scheduler.schedule(() -> attempt(job), Instant.now(clock).plus(delay));
+            return true;
+        } catch (Exception e) {
+            log.error("Could not schedule SMS to {}: {}", job.to, e.getMessage());
+            return false;
+        }
+    }
+    private void complete(SmsJob job, boolean delivered) {
+        pending.decrementAndGet();
+        if (delivered) {
+            businessMetricsService.incrementSmsSent();
+        } else {
+            // Allow a later, legitimate resend of the same message
+            recentDestinations.invalidate(job.dedupeKey);
+            businessMetricsService.incrementSmsFailed();
+        }
+    }
+    int getPendingCount() {
+        return pending.get();
+    }
+    SmsCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    private static final class SmsJob {
+        private final String to;
+        private final String body;
+        private final String dedupeKey;
+        private final Instant deferDeadline;
+        private int attempts;
+        private SmsJob(String to, String body, String dedupeKey, Instant deferDeadline) {
+            this.to = to;
+            this.body = body;
+            this.dedupeKey = dedupeKey;
+            this.deferDeadline = deferDeadline;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.foodflow.service.sms;
+/**
+ * Interface for SMS delivery providers (Twilio, local fake, etc.)
+ * Implementations perform a single blocking send; retries and scheduling are handled by
+ * {@link SmsDispatcher}.
+ */
+public interface SmsTransport {
+    /**
+     * Get the transport name (e.g., 'TWILIO', 'FAKE')
+     */
+    String getName();
+    /**
+     * Send one SMS. Returns the provider message ID.
+     */
+    String send(String toPhoneNumber, String messageBody) throws SmsTransportException;
+    /**
+     * Custom exception for SMS transport errors
+     */
+    class SmsTransportException extends Exception {
+        public SmsTransportException(String message) {
+            super(message);
+        }
+        public SmsTransportException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.foodflow.service.sms;
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+/**
+ * Twilio-backed SMS transport (default).
+ */
+@Component
+@ConditionalOnProperty(name = "sms.transport", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsTransport implements SmsTransport {
+    private static final Logger log = LoggerFactory.getLogger(TwilioSmsTransport.class);
+    @Value("${twilio.account.sid}")
+    private String accountSid;
+    @Value("${twilio.auth.token}")
+    private String authToken;
+    @Value("${twilio.phone.number}")
+    private String fromPhoneNumber;
+    /**
+     * Initialize Twilio client on startup
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Twilio.init(accountSid, authToken);
+            log.info("Twilio SMS transport initialized successfully with sender number: {}", fromPhoneNumber);
+        } catch (Exception e) {
+            log.error("Failed to initialize Twilio SMS transport: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to initialize Twilio SMS service", e);
+        }
+    }
+    @Override
+    public String getName() {
+        return "TWILIO";
+    }
+    @Override
+    @Observed(name = "foodflow.external.call", contextualName = "twilio-send-sms",
+            lowCardinalityKeyValues = {"provider", "twilio", "operation", "send_sms"})
+    public String send(String toPhoneNumber, String messageBody) throws SmsTransportException {
+        try {
+            Message message = Message.creator(
+                    new PhoneNumber(toPhoneNumber),
+                    new PhoneNumber(fromPhoneNumber),
+                    messageBody
+            ).create();
+            log.debug("Twilio accepted SMS to {}. Message SID: {}, Status: {}",
+                    toPhoneNumber, message.getSid(), message.getStatus());
+            return message.getSid();
+        } catch (Exception e) {
+            throw new SmsTransportException("Twilio send failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.foodflow.util;
 
+import com.example.foodflow.model.dto.DonationExportRow;
+
 import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 
 /**
  * Utility class for generating professional CSV exports with FoodFlow branding.
@@ -66,6 +69,36 @@ public class CsvExportUtils {
         }
     }
 
+    /**
+     * Write one line per donation. Rows are consumed as they are produced, and the writer is
+     * flushed every {@code flushEvery} rows so large exports reach the client incrementally.
+     * Nothing is written when there are no rows.
+     */
+    public static long writeDonationDetails(PrintWriter writer, Iterable<DonationExportRow> rows, int flushEvery) {
+        Iterator<DonationExportRow> iterator = rows.iterator();
+        if (!iterator.hasNext()) {
+            return 0;
+        }
+        writeSectionHeader(writer, "Donation Details");
+        writer.println("Donation ID,Title,Status,Quantity,Created");
+        long count = 0;
+        while (iterator.hasNext()) {
+            DonationExportRow row = iterator.next();
+            String quantity = row.getQuantityValue() == null ? ""
+                    : formatNumber(row.getQuantityValue())
+                            + (row.getQuantityUnit() != null ? " " + row.getQuantityUnit().getLabel() : "");
+            writer.println(row.getId() + ","
+                    + escapeCsvValue(row.getTitle()) + ","
+                    + (row.getStatus() != null ? row.getStatus().name() : "") + ","
+                    + escapeCsvValue(quantity) + ","
+                    + escapeCsvValue(formatDateTime(row.getCreatedAt())));
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        return count;
+    }
+
     public static void writeFooter(PrintWriter writer) {
         writer.println();
         writer.println("Generated by FoodFlow");
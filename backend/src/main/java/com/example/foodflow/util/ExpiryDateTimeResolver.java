@@ -20,16 +20,26 @@ public final class ExpiryDateTimeResolver {
         if (post == null) {
             return null;
         }
-        if (Boolean.TRUE.equals(post.getExpiryOverridden()) && post.getExpiryDateEffective() != null) {
-            return post.getExpiryDateEffective();
+        return resolveEffectiveExpiryUtc(post.getExpiryOverridden(), post.getExpiryDateEffective(),
+                post.getExpiryDate(), post.getExpiryDate() != null ? resolveDonorTimezone(post) : null,
+                post.getExpiryDatePredicted());
+    }
+    /**
+     * Same resolution from the individual columns, for callers that hold a projection rather
+     * than the entity.
+     */
+    public static LocalDateTime resolveEffectiveExpiryUtc(Boolean expiryOverridden, LocalDateTime expiryDateEffective,
+            LocalDate expiryDate, String donorTimezone, LocalDateTime expiryDatePredicted) {
+        if (Boolean.TRUE.equals(expiryOverridden) && expiryDateEffective != null) {
+            return expiryDateEffective;
         }
-        if (post.getExpiryDate() != null) {
-            return donorLocalEndOfDayUtc(post.getExpiryDate(), resolveDonorTimezone(post));
+        if (expiryDate != null) {
+            return donorLocalEndOfDayUtc(expiryDate, donorTimezone);
         }
-        if (post.getExpiryDateEffective() != null) {
-            return post.getExpiryDateEffective();
+        if (expiryDateEffective != null) {
+            return expiryDateEffective;
         }
-        return post.getExpiryDatePredicted();
+        return expiryDatePredicted;
     }
     public static LocalDateTime resolveDateExpiryUtc(SurplusPost post) {
         if (post == null || post.getExpiryDate() == null) {
@@ -65,6 +75,15 @@ public final class ExpiryDateTimeResolver {
         }
         return DEFAULT_TIMEZONE;
     }
+    public static String resolveDonorTimezone(String donorTimezone, String organizationTimezone) {
+        if (isValidTimezone(donorTimezone)) {
+            return donorTimezone;
+        }
+        if (isValidTimezone(organizationTimezone)) {
+            return organizationTimezone;
+        }
+        return DEFAULT_TIMEZONE;
+    }
     private static boolean isValidTimezone(String timezone) {
         if (timezone == null || timezone.isBlank()) {
             return false;
@@ -0,0 +1,53 @@
+package com.example.foodflow.util;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.entity.Message;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+/**
+ * Position of a message in its conversation, ordered by {@code (createdAt, id)}.
+ *
+ * Clients treat the encoded form as opaque: they get it back on every message and page and
+ * pass it to the history and sync endpoints to continue from that message.
+ */
+public record MessageCursor(LocalDateTime createdAt, Long id) {
+    private static final String SEPARATOR = "|";
+    public static MessageCursor of(Message message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+    /**
+     * Encodes the cursor of a message, or returns null for a message that has not been saved.
+     */
+    public static String encode(Message message) {
+        if (message.getCreatedAt() == null || message.getId() == null) {
+            return null;
+        }
+        return of(message).encode();
+    }
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @throws BusinessException if the value is not a valid cursor
+     */
+    public static MessageCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            throw new BusinessException("error.message.invalid_cursor");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessException("error.message.invalid_cursor");
+            }
+            return new MessageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("error.message.invalid_cursor");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.foodflow.util;
 
+import com.example.foodflow.model.dto.DonationExportRow;
 import com.example.foodflow.model.dto.ImpactMetricsDTO;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceRgb;
@@ -17,7 +18,10 @@ import com.itextpdf.layout.properties.UnitValue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
 
 /**
  * Utility class for generating professional PDF exports with FoodFlow branding.
@@ -29,12 +33,25 @@ public class PdfExportUtils {
     private static final Color LIGHT_GRAY = new DeviceRgb(241, 245, 249);
     private static final Color WHITE = new DeviceRgb(255, 255, 255);
     private static final Color SUCCESS_COLOR = new DeviceRgb(34, 197, 94);
+    private static final int DETAIL_FLUSH_ROWS = 100;
 
     private PdfExportUtils() {}
 
     public static byte[] generatePdf(ImpactMetricsDTO metrics) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writePdf(metrics, Collections.emptyList(), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Render the report straight into {@code outputStream}. Completed pages are flushed to the
+     * stream as the document grows, and {@code detailRows} is consumed incrementally through a
+     * large table, so memory use does not grow with the number of rows. The stream is left open.
+     */
+    public static void writePdf(ImpactMetricsDTO metrics, Iterable<DonationExportRow> detailRows,
+            OutputStream outputStream) throws IOException {
         PdfWriter writer = new PdfWriter(outputStream);
+        writer.setCloseStream(false);
         PdfDocument pdf = new PdfDocument(writer);
         Document document = new Document(pdf, PageSize.A4);
         document.setMargins(36, 36, 36, 36);
@@ -54,10 +71,10 @@ public class PdfExportUtils {
             }
 
             addMethodologySection(document, metrics);
+            addDonationDetailsSection(document, detailRows);
             addFooter(document, regularFont);
 
             document.close();
-            return outputStream.toByteArray();
         } catch (Exception e) {
             document.close();
             throw new IOException("Failed to generate PDF", e);
@@ -239,6 +256,46 @@ public class PdfExportUtils {
         document.add(new Paragraph("").setMarginBottom(12));
     }
 
+    private static void addDonationDetailsSection(Document document, Iterable<DonationExportRow> rows) {
+        Iterator<DonationExportRow> iterator = rows.iterator();
+        if (!iterator.hasNext()) {
+            return;
+        }
+        addSectionHeader(document, "Donation Details");
+
+        // A "large" table is laid out and written in chunks instead of being held until complete
+        Table table = new Table(UnitValue.createPercentArray(new float[] { 12, 40, 16, 16, 16 }), true);
+        table.setWidth(UnitValue.createPercentValue(100));
+        for (String heading : new String[] { "ID", "Title", "Status", "Quantity", "Created" }) {
+            table.addHeaderCell(new Cell().add(new Paragraph(heading).setBold())
+                    .setBackgroundColor(PRIMARY_COLOR)
+                    .setFontColor(WHITE)
+                    .setPadding(6));
+        }
+        document.add(table);
+
+        int rowCount = 0;
+        while (iterator.hasNext()) {
+            DonationExportRow row = iterator.next();
+            addDetailCell(table, String.valueOf(row.getId()));
+            addDetailCell(table, row.getTitle() != null ? row.getTitle() : "");
+            addDetailCell(table, row.getStatus() != null ? row.getStatus().name() : "");
+            addDetailCell(table, row.getQuantityValue() == null ? ""
+                    : CsvExportUtils.formatNumber(row.getQuantityValue())
+                            + (row.getQuantityUnit() != null ? " " + row.getQuantityUnit().getLabel() : ""));
+            addDetailCell(table, CsvExportUtils.formatDateTime(row.getCreatedAt()));
+            if (++rowCount % DETAIL_FLUSH_ROWS == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+        document.add(new Paragraph("").setMarginBottom(12));
+    }
+
+    private static void addDetailCell(Table table, String value) {
+        table.addCell(new Cell().add(new Paragraph(value).setFontSize(8)).setPadding(4));
+    }
+
     private static void addFooter(Document document, PdfFont font) {
         document.add(new Paragraph("").setMarginBottom(20));
 
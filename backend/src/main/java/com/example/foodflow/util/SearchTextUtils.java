@@ -0,0 +1,167 @@
+package com.example.foodflow.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for text search: LIKE patterns that match the lower(...) trigram indexes, the
+ * PostgreSQL text search configuration for a user's language, and highlighting of matched terms
+ * for display.
+ */
+public class SearchTextUtils {
+
+    private static final String MARK_OPEN = "<mark>";
+    private static final String MARK_CLOSE = "</mark>";
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    // Languages we ship message bundles for; Chinese has no stemmer and falls back to 'simple'
+    private static final Map<String, String> TEXT_SEARCH_CONFIGS = Map.of(
+            "en", "english",
+            "fr", "french",
+            "es", "spanish",
+            "pt", "portuguese",
+            "ar", "arabic");
+
+    private SearchTextUtils() {}
+
+    /**
+     * Normalized search term: trimmed, lower-cased, inner whitespace collapsed.
+     */
+    public static String normalize(String term) {
+        if (term == null) {
+            return "";
+        }
+        return term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * {@code %term%} for {@code LOWER(column) LIKE ...}, with LIKE wildcards in the term escaped
+     * so they match literally.
+     */
+    public static String containsPattern(String term) {
+        String escaped = normalize(term)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * HTML-escape {@code text} and wrap every case-insensitive occurrence of the term (or of
+     * its words) in {@code <mark>}.
+     */
+    public static String highlight(String text, String term) {
+        if (text == null) {
+            return null;
+        }
+        Pattern pattern = tokenPattern(term);
+        if (pattern == null) {
+            return HtmlUtils.htmlEscape(text);
+        }
+        StringBuilder out = new StringBuilder();
+        Matcher matcher = pattern.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            out.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                    .append(MARK_OPEN)
+                    .append(HtmlUtils.htmlEscape(matcher.group()))
+                    .append(MARK_CLOSE);
+            last = matcher.end();
+        }
+        out.append(HtmlUtils.htmlEscape(text.substring(last)));
+        return out.toString();
+    }
+
+    /**
+     * Highlighted window of at most {@code maxLength} characters around the first match, with
+     * an ellipsis where text was cut.
+     */
+    public static String snippet(String text, String term, int maxLength) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() <= maxLength) {
+            return highlight(text, term);
+        }
+        Pattern pattern = tokenPattern(term);
+        int matchAt = 0;
+        if (pattern != null) {
+            Matcher matcher = pattern.matcher(text);
+            if (matcher.find()) {
+                matchAt = matcher.start();
+            }
+        }
+        int start = Math.max(0, Math.min(matchAt - maxLength / 4, text.length() - maxLength));
+        int end = Math.min(text.length(), start + maxLength);
+        return (start > 0 ? "…" : "") + highlight(text.substring(start, end), term)
+                + (end < text.length() ? "…" : "");
+    }
+
+    /**
+     * PostgreSQL text search configuration for a language preference such as {@code fr} or
+     * {@code pt-BR}; {@code simple} (no stemming) when there is no stemmer for it.
+     */
+    public static String textSearchConfig(String language) {
+        if (language == null || language.isBlank()) {
+            return "english";
+        }
+        String primary = language.trim().toLowerCase(Locale.ROOT).split("[-_]")[0];
+        return TEXT_SEARCH_CONFIGS.getOrDefault(primary, "simple");
+    }
+
+    /**
+     * Whether the term is written in a script without spaces between words (Chinese, Japanese,
+     * Korean), where the text search parser cannot split words and a substring match is needed.
+     */
+    public static boolean needsSubstringMatch(String term) {
+        if (term == null) {
+            return false;
+        }
+        return term.codePoints().anyMatch(codePoint -> {
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            return script == Character.UnicodeScript.HAN
+                    || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA
+                    || script == Character.UnicodeScript.HANGUL;
+        });
+    }
+
+    /**
+     * Whether every word of the term occurs in {@code text}, ignoring case. An in-memory
+     * approximation of the full-text match for checking a single post.
+     */
+    public static boolean containsAllWords(String text, String term) {
+        String normalized = normalize(term);
+        if (normalized.isEmpty()) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+        String haystack = text.toLowerCase(Locale.ROOT);
+        return Arrays.stream(normalized.split(" ")).allMatch(haystack::contains);
+    }
+
+    private static Pattern tokenPattern(String term) {
+        String normalized = normalize(term);
+        List<String> tokens = Arrays.stream(normalized.split(" "))
+                .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+                .collect(Collectors.toList());
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        // Whole term first so "green grocer" marks the phrase rather than two separate words
+        if (tokens.size() > 1) {
+            tokens.add(0, normalized);
+        }
+        String alternation = tokens.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        return Pattern.compile(alternation, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+}
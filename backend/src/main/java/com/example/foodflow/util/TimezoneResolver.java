@@ -3,6 +3,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 /**
  * Utility class for resolving timezone IDs from city and country combinations.
  * This provides a mapping between major cities and their timezone identifiers.
@@ -10,6 +11,8 @@ import java.util.Map;
 public class TimezoneResolver {
     // Static mapping of major cities to timezone IDs
     private static final Map<String, String> CITY_TIMEZONE_MAP = new HashMap<>();
+    // Parsed zones by ID, so conversions on hot paths look up the zone rules once per ID
+    private static final Map<String, ZoneId> ZONES = new ConcurrentHashMap<>();
     static {
         // North America - Canada
         CITY_TIMEZONE_MAP.put("Toronto|Canada", "America/Toronto");
@@ -249,7 +252,7 @@ public class TimezoneResolver {
             return "+00:00";
         }
         try {
-            ZoneId zoneId = ZoneId.of(timezoneId);
+            ZoneId zoneId = zoneOf(timezoneId);
             ZonedDateTime now = ZonedDateTime.now(zoneId);
             return now.getOffset().getId();
         } catch (Exception e) {
@@ -267,7 +270,7 @@ public class TimezoneResolver {
             return false;
         }
         try {
-            ZoneId.of(timezoneId);
+            zoneOf(timezoneId);
             return true;
         } catch (Exception e) {
             return false;
@@ -360,8 +363,8 @@ public class TimezoneResolver {
             return null;
         }
         try {
-            ZoneId fromZone = ZoneId.of(fromTimezone != null ? fromTimezone : "UTC");
-            ZoneId toZone = ZoneId.of(toTimezone != null ? toTimezone : "UTC");
+            ZoneId fromZone = zoneOf(fromTimezone != null ? fromTimezone : "UTC");
+            ZoneId toZone = zoneOf(toTimezone != null ? toTimezone : "UTC");
             // Convert LocalDateTime to ZonedDateTime in source timezone
             ZonedDateTime zonedDateTime = dateTime.atZone(fromZone);
             // Convert to target timezone
@@ -393,4 +396,19 @@ public class TimezoneResolver {
         java.time.LocalDateTime dateTime = java.time.LocalDateTime.of(date, time);
         return convertTimezone(dateTime, fromTimezone, toTimezone);
     }
+    /**
+     * Same as {@link ZoneId#of(String)}, but each valid ID is parsed only once. Invalid IDs
+     * throw as before and are not remembered.
+     *
+     * @param timezoneId Timezone identifier (e.g., "America/Toronto")
+     * @return The zone for the ID
+     */
+    public static ZoneId zoneOf(String timezoneId) {
+        ZoneId zone = ZONES.get(timezoneId);
+        if (zone == null) {
+            zone = ZoneId.of(timezoneId);
+            ZONES.putIfAbsent(timezoneId, zone);
+        }
+        return zone;
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.foodflow.websocket;
+import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.service.DonationFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import java.security.Principal;
+import java.util.Map;
+/**
+ * STOMP endpoints for standing donation-feed subscriptions.
+ *
+ * Clients send a {@link SurplusFilterRequest} to {@code /app/feed/subscribe}, receive the
+ * subscription id on {@code /user/queue/feed/subscriptions}, and matching posts on
+ * {@code /user/queue/feed}.
+ */
+@Controller
+public class DonationFeedController {
+    private static final Logger logger = LoggerFactory.getLogger(DonationFeedController.class);
+    private final DonationFeedService donationFeedService;
+    public DonationFeedController(DonationFeedService donationFeedService) {
+        this.donationFeedService = donationFeedService;
+    }
+    @MessageMapping("/feed/subscribe")
+    @SendToUser("/queue/feed/subscriptions")
+    public Map<String, Object> subscribe(@Payload SurplusFilterRequest filter,
+                                         Principal principal,
+                                         @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        String subscriptionId = donationFeedService.subscribe(userId(principal), sessionId, filter);
+        return Map.of("status", "SUBSCRIBED", "subscriptionId", subscriptionId);
+    }
+    @MessageMapping("/feed/unsubscribe")
+    @SendToUser("/queue/feed/subscriptions")
+    public Map<String, Object> unsubscribe(@Payload Map<String, String> request, Principal principal) {
+        String subscriptionId = request.get("subscriptionId");
+        boolean removed = subscriptionId != null && donationFeedService.unsubscribe(userId(principal), subscriptionId);
+        return Map.of("status", removed ? "UNSUBSCRIBED" : "NOT_FOUND",
+                "subscriptionId", subscriptionId != null ? subscriptionId : "");
+    }
+    @MessageExceptionHandler(IllegalArgumentException.class)
+    @SendToUser("/queue/feed/subscriptions")
+    public Map<String, Object> handleInvalidSubscription(IllegalArgumentException e) {
+        logger.debug("Rejected feed subscription request: {}", e.getMessage());
+        return Map.of("status", "ERROR", "message", e.getMessage());
+    }
+    private static Long userId(Principal principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("Authentication required");
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Authentication required");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.foodflow.websocket;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.exception.domain.UnauthorizedAccessException;
+import com.example.foodflow.model.dto.MessagePageResponse;
+import com.example.foodflow.model.dto.MessageSyncRequest;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.service.MessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import java.security.Principal;
+import java.util.Map;
+/**
+ * STOMP endpoint for catching up on a conversation after a reconnect.
+ *
+ * Clients send a {@link MessageSyncRequest} with the cursor of the last message they saw to
+ * {@code /app/messages/sync} and receive the messages posted since then on
+ * {@code /user/queue/messages/sync}, repeating with the returned {@code newestCursor} while
+ * {@code hasMore} is set.
+ */
+@Controller
+public class MessageSyncController {
+    private static final Logger logger = LoggerFactory.getLogger(MessageSyncController.class);
+    private final MessageService messageService;
+    private final UserRepository userRepository;
+    public MessageSyncController(MessageService messageService, UserRepository userRepository) {
+        this.messageService = messageService;
+        this.userRepository = userRepository;
+    }
+    @MessageMapping("/messages/sync")
+    @SendToUser("/queue/messages/sync")
+    public Map<String, Object> sync(@Payload MessageSyncRequest request, Principal principal) {
+        if (request == null || request.getConversationId() == null) {
+            throw new IllegalArgumentException("conversationId is required");
+        }
+        User user = userRepository.findById(userId(principal))
+                .orElseThrow(() -> new IllegalArgumentException("Authentication required"));
+        int limit = request.getLimit() != null ? request.getLimit() : 20;
+        MessagePageResponse page = messageService.getMessagesSince(
+                request.getConversationId(), user, request.getCursor(), limit);
+        return Map.of("status", "OK", "conversationId", request.getConversationId(), "page", page);
+    }
+    @MessageExceptionHandler({IllegalArgumentException.class, BusinessException.class,
+            UnauthorizedAccessException.class})
+    @SendToUser("/queue/messages/sync")
+    public Map<String, Object> handleInvalidSync(RuntimeException e) {
+        logger.debug("Rejected message sync request: {}", e.getMessage());
+        return Map.of("status", "ERROR", "message", String.valueOf(e.getMessage()));
+    }
+    private static Long userId(Principal principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("Authentication required");
+        }
+        try {
+            return Long.valueOf(principal.getName());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Authentication required");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.foodflow.websocket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.core.MessagePostProcessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * {@link SimpMessagingTemplate} for user destinations that only delivers to users with a live
+ * STOMP session and coalesces bursts.
+ *
+ * Events for a user with no session are dropped before their payload is serialized; those users
+ * are reached through the email/SMS paths instead. Events for the same user and destination that
+ * arrive within the coalescing window go out as a single frame: one event is sent unchanged, several
+ * are sent as a JSON array with the {@value #COALESCED_HEADER} header so the client can unpack them.
+ * At most {@code maxPendingPerUser} events are held per user and destination; beyond that the oldest
+ * are dropped, which together with the per-session send buffer limit keeps one slow client from
+ * backing up the outbound channel.
+ *
+ * Sends with explicit headers or a post-processor bypass coalescing but still check presence.
+ */
+public class PresenceAwareMessagingTemplate extends SimpMessagingTemplate implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(PresenceAwareMessagingTemplate.class);
+    public static final String COALESCED_HEADER = "coalesced";
+    private final SimpUserRegistry userRegistry;
+    private final TaskScheduler scheduler;
+    private final long coalesceWindowMs;
+    private final int maxPendingPerUser;
+    private final Map<PendingKey, List<Object>> pending = new ConcurrentHashMap<>();
+    private final Counter offlineEvents;
+    private final Counter queuedEvents;
+    private final Counter droppedEvents;
+    private final Counter failedEvents;
+    private final Counter deliveredEvents;
+    private final Counter frames;
+    public PresenceAwareMessagingTemplate(MessageChannel brokerChannel,
+                                          SimpUserRegistry userRegistry,
+                                          TaskScheduler scheduler,
+                                          MeterRegistry meterRegistry,
+                                          long coalesceWindowMs,
+                                          int maxPendingPerUser) {
+        super(brokerChannel);
+        this.userRegistry = userRegistry;
+        this.scheduler = scheduler;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.maxPendingPerUser = Math.max(1, maxPendingPerUser);
+        this.offlineEvents = eventCounter(meterRegistry, "offline");
+        this.queuedEvents = eventCounter(meterRegistry, "queued");
+        this.droppedEvents = eventCounter(meterRegistry, "dropped");
+        this.failedEvents = eventCounter(meterRegistry, "failed");
+        this.deliveredEvents = eventCounter(meterRegistry, "delivered");
+        this.frames = Counter.builder("foodflow.websocket.frames")
+                .description("User-destination frames handed to the broker")
+                .register(meterRegistry);
+        meterRegistry.gauge("foodflow.websocket.pending", pending, Map::size);
+        meterRegistry.gauge("foodflow.websocket.online.users", userRegistry, SimpUserRegistry::getUserCount);
+    }
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("foodflow.websocket.events")
+                .description("User-destination events by delivery outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    public boolean isOnline(String user) {
+        return userRegistry.getUser(user) != null;
+    }
+    @Override
+    public void convertAndSendToUser(String user, String destination, Object payload,
+                                     @Nullable Map<String, Object> headers,
+                                     @Nullable MessagePostProcessor postProcessor) throws MessagingException {
+        if (!isOnline(user)) {
+            offlineEvents.increment();
+            return;
+        }
+        if (coalesceWindowMs <= 0 || headers != null || postProcessor != null) {
+            super.convertAndSendToUser(user, destination, payload, headers, postProcessor);
+            frames.increment();
+            deliveredEvents.increment();
+            return;
+        }
+        enqueue(new PendingKey(user, destination), payload);
+    }
+    private void enqueue(PendingKey key, Object payload) {
+        boolean[] opened = {false};
+        pending.compute(key, (k, events) -> {
+            if (events == null) {
+                events = new ArrayList<>();
+                opened[0] = true;
+            }
+            if (events.size() >= maxPendingPerUser) {
+                events.remove(0);
+                droppedEvents.increment();
+            }
+            events.add(payload);
+            return events;
+        });
+        queuedEvents.increment();
+        if (opened[0]) {
+            try {
+                scheduler.schedule(() -> flush(key), Instant.now().plusMillis(coalesceWindowMs));
+            } catch (TaskRejectedException e) {
+                flush(key);
+            }
+        }
+    }
+    void flush(PendingKey key) {
+        List<Object> events = pending.remove(key);
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        try {
+            if (events.size() == 1) {
+                super.convertAndSendToUser(key.user(), key.destination(), events.get(0), null, null);
+            } else {
+                super.convertAndSendToUser(key.user(), key.destination(), List.copyOf(events),
+                        Map.of(COALESCED_HEADER, "true"), null);
+            }
+            frames.increment();
+            deliveredEvents.increment(events.size());
+        } catch (MessagingException e) {
+            failedEvents.increment(events.size());
+            logger.warn("Failed to deliver {} events to user {} at {}: {}",
+                    events.size(), key.user(), key.destination(), e.getMessage());
+        }
+    }
+    /**
+     * Sends everything still waiting for its coalescing window.
+     */
+    public void flushAll() {
+        for (PendingKey key : List.copyOf(pending.keySet())) {
+            flush(key);
+        }
+    }
+    @Override
+    public void destroy() {
+        flushAll();
+    }
+    record PendingKey(String user, String destination) {
+    }
+}
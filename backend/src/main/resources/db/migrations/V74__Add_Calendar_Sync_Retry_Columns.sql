@@ -0,0 +1,9 @@
+-- Durable retry state for the calendar sync job queue
+ALTER TABLE synced_calendar_events
+    ADD COLUMN sync_attempts INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN next_sync_attempt_at TIMESTAMP;
+
+-- Drives the scheduled drain: due PENDING/FAILED rows ordered by retry time
+CREATE INDEX idx_synced_calendar_events_due
+    ON synced_calendar_events(sync_status, next_sync_attempt_at)
+    WHERE sync_status IN ('PENDING', 'FAILED');
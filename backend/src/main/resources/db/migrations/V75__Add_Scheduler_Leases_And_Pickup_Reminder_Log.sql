@@ -0,0 +1,20 @@
+-- Scheduler coordination across replicas: one row per scheduled job (or job shard).
+-- A node runs the job only while it holds the lease (locked_until in the future).
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    name VARCHAR(150) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+-- Durable pickup reminder dedupe (replaces the node-local in-memory set).
+-- One reminder per claim, so a re-claimed post gets a fresh reminder.
+CREATE TABLE IF NOT EXISTS pickup_reminder_log (
+    id BIGSERIAL PRIMARY KEY,
+    claim_id BIGINT NOT NULL REFERENCES claims(id) ON DELETE CASCADE,
+    surplus_post_id BIGINT NOT NULL REFERENCES surplus_posts(id) ON DELETE CASCADE,
+    sent_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_pickup_reminder_log_claim UNIQUE (claim_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pickup_reminder_log_post_id ON pickup_reminder_log(surplus_post_id);
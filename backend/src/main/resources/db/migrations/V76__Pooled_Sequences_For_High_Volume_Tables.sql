@@ -0,0 +1,22 @@
+-- Switch high-volume tables from per-row IDENTITY inserts to pooled sequence allocation.
+-- Hibernate reserves 50 ids per sequence call, which lets it batch inserts.
+-- The BIGSERIAL sequences are reused so column defaults (and any plain SQL inserts) keep working.
+-- Each sequence is moved at least one block past the current max id so pooled ranges never overlap existing rows.
+
+ALTER SEQUENCE surplus_posts_id_seq INCREMENT BY 50;
+SELECT setval('surplus_posts_id_seq', COALESCE((SELECT MAX(id) FROM surplus_posts), 0) + 50);
+
+ALTER SEQUENCE messages_id_seq INCREMENT BY 50;
+SELECT setval('messages_id_seq', COALESCE((SELECT MAX(id) FROM messages), 0) + 50);
+
+ALTER SEQUENCE donation_timeline_id_seq INCREMENT BY 50;
+SELECT setval('donation_timeline_id_seq', COALESCE((SELECT MAX(id) FROM donation_timeline), 0) + 50);
+
+ALTER SEQUENCE audit_log_id_seq INCREMENT BY 50;
+SELECT setval('audit_log_id_seq', COALESCE((SELECT MAX(id) FROM audit_log), 0) + 50);
+
+ALTER SEQUENCE expiry_notification_log_id_seq INCREMENT BY 50;
+SELECT setval('expiry_notification_log_id_seq', COALESCE((SELECT MAX(id) FROM expiry_notification_log), 0) + 50);
+
+ALTER SEQUENCE pickup_slots_id_seq INCREMENT BY 50;
+SELECT setval('pickup_slots_id_seq', COALESCE((SELECT MAX(id) FROM pickup_slots), 0) + 50);
@@ -0,0 +1,21 @@
+-- Stripe webhooks are persisted on receipt and processed by a background worker.
+-- ordering_key groups events that must be applied in order (the payment intent, or the
+-- event itself when it is not tied to one); stripe_created_at is Stripe's event timestamp.
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS ordering_key VARCHAR(255);
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS stripe_created_at TIMESTAMP;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+ALTER TABLE stripe_webhook_events ADD COLUMN IF NOT EXISTS dead_lettered BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE stripe_webhook_events SET ordering_key = stripe_event_id WHERE ordering_key IS NULL;
+UPDATE stripe_webhook_events SET stripe_created_at = created_at WHERE stripe_created_at IS NULL;
+-- Rows stored before the queue existed were handled (or given up on) inline by the old
+-- endpoint; mark them done so the worker does not replay them on deploy
+UPDATE stripe_webhook_events SET processed = TRUE WHERE processed IS NULL OR processed = FALSE;
+ALTER TABLE stripe_webhook_events ALTER COLUMN ordering_key SET NOT NULL;
+ALTER TABLE stripe_webhook_events ALTER COLUMN processed SET NOT NULL;
+
+-- The worker only ever scans events that still need work
+CREATE INDEX IF NOT EXISTS idx_webhook_events_pending
+    ON stripe_webhook_events(ordering_key, stripe_created_at, id)
+    WHERE processed = FALSE AND dead_lettered = FALSE;
@@ -0,0 +1,23 @@
+-- Admin search indexes.
+-- Trigram GIN indexes on lower(...) let LIKE '%term%' and fuzzy (%) matches use an index
+-- instead of scanning every row; the tsvector index backs full-text ranking of donations.
+-- The expressions must stay identical to the ones in UserRepository / SurplusPostRepository.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_organizations_name_trgm
+    ON organizations USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_organizations_contact_person_trgm
+    ON organizations USING gin (lower(contact_person) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_title_trgm
+    ON surplus_posts USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_description_trgm
+    ON surplus_posts USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_search_tsv
+    ON surplus_posts USING gin (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, '')));
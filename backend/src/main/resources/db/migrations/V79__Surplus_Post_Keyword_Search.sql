@@ -0,0 +1,66 @@
+-- Keyword search for receivers.
+-- search_labels holds the category, food type and dietary tag labels; the application writes it
+-- whenever a post is saved (SurplusPost#refreshSearchLabels). search_document is derived from
+-- title, labels and description by the database, stemmed for every language we ship message
+-- bundles for. Chinese has no built-in parser, so it is covered by the 'simple' configuration
+-- plus the trigram indexes from V78.
+ALTER TABLE surplus_posts ADD COLUMN IF NOT EXISTS search_labels TEXT;
+
+-- Backfill with the same labels SurplusPost#refreshSearchLabels writes: category display labels
+-- (sorted), then the food type, then the dietary tags, each label once.
+UPDATE surplus_posts sp
+SET search_labels = coalesce((
+        SELECT string_agg(labels.label, ' ' ORDER BY labels.first_seen, labels.label COLLATE "C")
+        FROM (
+            SELECT all_labels.label, min(all_labels.seq) AS first_seen
+            FROM (
+                SELECT lower(CASE ft.food_category
+                            WHEN 'FRUITS_VEGETABLES' THEN 'Fruits & Vegetables'
+                            WHEN 'BAKERY_PASTRY' THEN 'Bakery & Pastry'
+                            WHEN 'FROZEN_FOOD' THEN 'Frozen Food'
+                            WHEN 'PREPARED_MEALS' THEN 'Prepared Meals'
+                            WHEN 'DAIRY_COLD' THEN 'Dairy & Cold Items'
+                            WHEN 'PACKAGED_PANTRY' THEN 'Packaged / Pantry Items'
+                            ELSE replace(ft.food_category, '_', ' ')
+                        END) AS label,
+                       0 AS seq
+                FROM surplus_post_food_types ft
+                WHERE ft.surplus_post_id = sp.id
+                UNION ALL
+                SELECT lower(replace(sp.food_type, '_', ' ')), 1
+                WHERE sp.food_type IS NOT NULL
+                UNION ALL
+                SELECT lower(replace(tag.value, '_', ' ')), 1 + tag.pos
+                FROM unnest(sp.dietary_tags) WITH ORDINALITY AS tag(value, pos)
+            ) all_labels
+            GROUP BY all_labels.label
+        ) labels), '')
+WHERE sp.search_labels IS NULL;
+
+CREATE OR REPLACE FUNCTION surplus_post_search_document(title TEXT, labels TEXT, description TEXT)
+RETURNS tsvector
+LANGUAGE sql
+IMMUTABLE
+AS $$
+    SELECT setweight(to_tsvector('simple'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('french'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('spanish'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('portuguese'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('arabic'::regconfig, coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple'::regconfig, coalesce(labels, '')), 'B')
+        || setweight(to_tsvector('english'::regconfig, coalesce(labels, '')), 'B')
+        || setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'C')
+        || setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'C')
+        || setweight(to_tsvector('french'::regconfig, coalesce(description, '')), 'C')
+        || setweight(to_tsvector('spanish'::regconfig, coalesce(description, '')), 'C')
+        || setweight(to_tsvector('portuguese'::regconfig, coalesce(description, '')), 'C')
+        || setweight(to_tsvector('arabic'::regconfig, coalesce(description, '')), 'C')
+$$;
+
+ALTER TABLE surplus_posts
+    ADD COLUMN IF NOT EXISTS search_document tsvector
+    GENERATED ALWAYS AS (surplus_post_search_document(title, search_labels, description)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_search_document
+    ON surplus_posts USING gin (search_document);
@@ -0,0 +1,28 @@
+-- Transactional outbox for donation/claim side effects (notifications, gamification, calendar).
+-- A row is written per (event, handler) in the same transaction as the state change and is
+-- dispatched after commit; ordering_key (handler + post) keeps one handler's events for a post
+-- in order while different handlers progress independently.
+CREATE TABLE IF NOT EXISTS domain_event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    handler VARCHAR(100) NOT NULL,
+    ordering_key VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    processed BOOLEAN NOT NULL DEFAULT FALSE,
+    processed_at TIMESTAMP,
+    dead_lettered BOOLEAN NOT NULL DEFAULT FALSE,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- The dispatcher only ever scans rows that still need work
+CREATE INDEX IF NOT EXISTS idx_domain_event_outbox_pending
+    ON domain_event_outbox(ordering_key, id)
+    WHERE processed = FALSE AND dead_lettered = FALSE;
+
+-- Retention purge of delivered rows
+CREATE INDEX IF NOT EXISTS idx_domain_event_outbox_processed_at
+    ON domain_event_outbox(processed_at)
+    WHERE processed = TRUE;
@@ -0,0 +1,256 @@
+-- Monthly range partitioning for the append-only log tables.
+-- Each table is rebuilt as a partitioned table on its timestamp column, with one partition per
+-- month plus a DEFAULT partition that only catches rows when a month's partition is missing.
+-- LogPartitionMaintenanceService keeps partitions created a few months ahead and detaches (and
+-- optionally exports) partitions past their retention, so inserts and index maintenance only
+-- ever touch the current month's small indexes.
+--
+-- Partitioned primary keys must contain the partition column, so they become (id, <column>);
+-- ids still come from the existing sequences and stay unique on their own.
+--
+-- expiry_notification_log and stripe_webhook_events are not partitioned: their dedupe keys
+-- (dedupe_key, stripe_event_id) have to be unique across all time, which PostgreSQL can only
+-- enforce on a partitioned table if the key includes the partition column. Webhook events are
+-- trimmed by batched deletes instead; expiry notification rows are kept, since deleting one
+-- would let its notice be sent again.
+--
+-- messages is not partitioned either: it is kept forever, so no partition would ever be retired,
+-- and its hot lookups (latest page, last message, unread counts) have no useful time bound, so
+-- they would have to probe every month's partition.
+--
+-- Rows are copied from the old tables inside this migration; expect it to take a while on a
+-- large database.
+
+-- Create the partition for the month starting at month_start, moving any rows for that month
+-- out of the DEFAULT partition first (ATTACH refuses while the default still holds them).
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, month_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_from DATE := date_trunc('month', month_start)::date;
+    month_to DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    partition_name TEXT := parent || '_' || to_char(month_start, 'YYYY_MM');
+    default_name TEXT := parent || '_default';
+    key_column TEXT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    SELECT a.attname INTO key_column
+    FROM pg_partitioned_table pt
+    JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+    WHERE pt.partrelid = parent::regclass;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent);
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                       default_name, key_column, month_from, key_column, month_to, partition_name);
+    END IF;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, month_from, month_to);
+    RETURN TRUE;
+END;
+$$;
+
+-- Create every missing monthly partition from from_month through to_month (inclusive).
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, from_month DATE, to_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_month LOOP
+        IF create_monthly_partition(parent, month_start) THEN
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- audit_log ------------------------------------------------------------------------------------
+ALTER TABLE audit_log RENAME TO audit_log_unpartitioned;
+ALTER SEQUENCE audit_log_id_seq OWNED BY NONE;
+
+CREATE TABLE audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    username VARCHAR(255),
+    action VARCHAR(255),
+    entity_type VARCHAR(255),
+    entity_id VARCHAR(255),
+    ip_address VARCHAR(255),
+    "timestamp" TIMESTAMP NOT NULL,
+    old_value TEXT,
+    new_value TEXT
+) PARTITION BY RANGE ("timestamp");
+CREATE TABLE audit_log_default PARTITION OF audit_log DEFAULT;
+SELECT create_monthly_partitions('audit_log',
+        COALESCE((SELECT MIN("timestamp") FROM audit_log_unpartitioned), CURRENT_TIMESTAMP)::date,
+        (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO audit_log (id, username, action, entity_type, entity_id, ip_address, "timestamp", old_value, new_value)
+SELECT id, username, action, entity_type, entity_id, ip_address, "timestamp", old_value, new_value
+FROM audit_log_unpartitioned;
+DROP TABLE audit_log_unpartitioned;
+ALTER SEQUENCE audit_log_id_seq OWNED BY audit_log.id;
+
+ALTER TABLE audit_log ADD CONSTRAINT audit_log_pkey PRIMARY KEY (id, "timestamp");
+CREATE INDEX idx_audit_log_username ON audit_log(username);
+CREATE INDEX idx_audit_log_timestamp ON audit_log("timestamp");
+CREATE INDEX idx_audit_log_entity ON audit_log(entity_type, entity_id);
+
+-- donation_timeline ----------------------------------------------------------------------------
+ALTER TABLE donation_timeline RENAME TO donation_timeline_unpartitioned;
+ALTER SEQUENCE donation_timeline_id_seq OWNED BY NONE;
+
+CREATE TABLE donation_timeline (
+    id BIGINT NOT NULL DEFAULT nextval('donation_timeline_id_seq'),
+    surplus_post_id BIGINT NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    "timestamp" TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    actor VARCHAR(50) NOT NULL,
+    actor_user_id BIGINT,
+    old_status VARCHAR(50),
+    new_status VARCHAR(50),
+    details TEXT,
+    visible_to_users BOOLEAN DEFAULT TRUE,
+    temperature DOUBLE PRECISION,
+    packaging_condition VARCHAR(100),
+    pickup_evidence_url VARCHAR(255)
+) PARTITION BY RANGE ("timestamp");
+CREATE TABLE donation_timeline_default PARTITION OF donation_timeline DEFAULT;
+SELECT create_monthly_partitions('donation_timeline',
+        COALESCE((SELECT MIN("timestamp") FROM donation_timeline_unpartitioned), CURRENT_TIMESTAMP)::date,
+        (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO donation_timeline (id, surplus_post_id, event_type, "timestamp", actor, actor_user_id, old_status,
+                               new_status, details, visible_to_users, temperature, packaging_condition,
+                               pickup_evidence_url)
+SELECT id, surplus_post_id, event_type, COALESCE("timestamp", CURRENT_TIMESTAMP), actor, actor_user_id, old_status,
+       new_status, details, visible_to_users, temperature, packaging_condition, pickup_evidence_url
+FROM donation_timeline_unpartitioned;
+DROP TABLE donation_timeline_unpartitioned;
+ALTER SEQUENCE donation_timeline_id_seq OWNED BY donation_timeline.id;
+
+ALTER TABLE donation_timeline ADD CONSTRAINT donation_timeline_pkey PRIMARY KEY (id, "timestamp");
+ALTER TABLE donation_timeline ADD CONSTRAINT fk_timeline_surplus_post
+    FOREIGN KEY (surplus_post_id) REFERENCES surplus_posts(id) ON DELETE CASCADE;
+-- Post lookups are bounded by the post's creation time, so they prune to the months it was active
+CREATE INDEX idx_timeline_surplus_post_id ON donation_timeline(surplus_post_id, "timestamp" DESC);
+CREATE INDEX idx_timeline_timestamp ON donation_timeline("timestamp" DESC);
+CREATE INDEX idx_timeline_actor ON donation_timeline(actor);
+
+COMMENT ON TABLE donation_timeline IS 'Tracks all events and status changes for donations, including admin interventions';
+COMMENT ON COLUMN donation_timeline.visible_to_users IS 'If false, this timeline event is only visible to admins (e.g., admin overrides)';
+
+-- expiry_audit_log -----------------------------------------------------------------------------
+ALTER TABLE expiry_audit_log RENAME TO expiry_audit_log_unpartitioned;
+ALTER SEQUENCE expiry_audit_log_id_seq OWNED BY NONE;
+
+CREATE TABLE expiry_audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('expiry_audit_log_id_seq'),
+    surplus_post_id BIGINT NOT NULL,
+    actor_id BIGINT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    previous_effective TIMESTAMP NULL,
+    new_effective TIMESTAMP NULL,
+    metadata JSONB NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (created_at);
+CREATE TABLE expiry_audit_log_default PARTITION OF expiry_audit_log DEFAULT;
+SELECT create_monthly_partitions('expiry_audit_log',
+        COALESCE((SELECT MIN(created_at) FROM expiry_audit_log_unpartitioned), CURRENT_TIMESTAMP)::date,
+        (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO expiry_audit_log (id, surplus_post_id, actor_id, event_type, previous_effective, new_effective,
+                              metadata, created_at)
+SELECT id, surplus_post_id, actor_id, event_type, previous_effective, new_effective, metadata, created_at
+FROM expiry_audit_log_unpartitioned;
+DROP TABLE expiry_audit_log_unpartitioned;
+ALTER SEQUENCE expiry_audit_log_id_seq OWNED BY expiry_audit_log.id;
+
+ALTER TABLE expiry_audit_log ADD CONSTRAINT expiry_audit_log_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE expiry_audit_log ADD CONSTRAINT expiry_audit_log_surplus_post_id_fkey
+    FOREIGN KEY (surplus_post_id) REFERENCES surplus_posts(id) ON DELETE CASCADE;
+CREATE INDEX idx_expiry_audit_log_post_id ON expiry_audit_log(surplus_post_id);
+CREATE INDEX idx_expiry_audit_log_created_at ON expiry_audit_log(created_at DESC);
+
+-- payment_audit_logs ---------------------------------------------------------------------------
+ALTER TABLE payment_audit_logs RENAME TO payment_audit_logs_unpartitioned;
+ALTER SEQUENCE payment_audit_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE payment_audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('payment_audit_logs_id_seq'),
+    payment_id BIGINT,
+    action VARCHAR(100) NOT NULL,
+    actor_user_id BIGINT,
+    details TEXT,
+    ip_address VARCHAR(45),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+CREATE TABLE payment_audit_logs_default PARTITION OF payment_audit_logs DEFAULT;
+SELECT create_monthly_partitions('payment_audit_logs',
+        COALESCE((SELECT MIN(created_at) FROM payment_audit_logs_unpartitioned), CURRENT_TIMESTAMP)::date,
+        (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO payment_audit_logs (id, payment_id, action, actor_user_id, details, ip_address, created_at)
+SELECT id, payment_id, action, actor_user_id, details, ip_address, created_at
+FROM payment_audit_logs_unpartitioned;
+DROP TABLE payment_audit_logs_unpartitioned;
+ALTER SEQUENCE payment_audit_logs_id_seq OWNED BY payment_audit_logs.id;
+
+ALTER TABLE payment_audit_logs ADD CONSTRAINT payment_audit_logs_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE payment_audit_logs ADD CONSTRAINT payment_audit_logs_payment_id_fkey
+    FOREIGN KEY (payment_id) REFERENCES payments(id);
+ALTER TABLE payment_audit_logs ADD CONSTRAINT payment_audit_logs_actor_user_id_fkey
+    FOREIGN KEY (actor_user_id) REFERENCES users(id);
+CREATE INDEX idx_payment_audit_payment ON payment_audit_logs(payment_id);
+CREATE INDEX idx_payment_audit_created ON payment_audit_logs(created_at DESC);
+
+-- calendar_sync_logs ---------------------------------------------------------------------------
+ALTER TABLE calendar_sync_logs RENAME TO calendar_sync_logs_unpartitioned;
+ALTER SEQUENCE calendar_sync_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE calendar_sync_logs (
+    id BIGINT NOT NULL DEFAULT nextval('calendar_sync_logs_id_seq'),
+    user_id BIGINT NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    event_id BIGINT,
+    external_event_id VARCHAR(255),
+    event_type VARCHAR(50),
+    status VARCHAR(20) NOT NULL,
+    error_message TEXT,
+    duration_ms BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+CREATE TABLE calendar_sync_logs_default PARTITION OF calendar_sync_logs DEFAULT;
+SELECT create_monthly_partitions('calendar_sync_logs',
+        COALESCE((SELECT MIN(created_at) FROM calendar_sync_logs_unpartitioned), CURRENT_TIMESTAMP)::date,
+        (CURRENT_DATE + INTERVAL '3 months')::date);
+
+-- created_at used to be nullable; undated rows are filed under the migration date
+INSERT INTO calendar_sync_logs (id, user_id, action, event_id, external_event_id, event_type, status,
+                                error_message, duration_ms, created_at)
+SELECT id, user_id, action, event_id, external_event_id, event_type, status, error_message, duration_ms,
+       COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM calendar_sync_logs_unpartitioned;
+DROP TABLE calendar_sync_logs_unpartitioned;
+ALTER SEQUENCE calendar_sync_logs_id_seq OWNED BY calendar_sync_logs.id;
+
+ALTER TABLE calendar_sync_logs ADD CONSTRAINT calendar_sync_logs_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE calendar_sync_logs ADD CONSTRAINT calendar_sync_logs_user_id_fkey
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+CREATE INDEX idx_calendar_sync_logs_user_id ON calendar_sync_logs(user_id, created_at DESC);
+CREATE INDEX idx_calendar_sync_logs_action ON calendar_sync_logs(action);
+CREATE INDEX idx_calendar_sync_logs_status ON calendar_sync_logs(status);
+
+-- Retention deletes on the unpartitioned webhook log scan by age
+CREATE INDEX IF NOT EXISTS idx_webhook_events_created_at ON stripe_webhook_events(created_at)
+    WHERE processed = TRUE OR dead_lettered = TRUE;
@@ -0,0 +1,27 @@
+-- Hot/cold split for surplus posts.
+-- Terminal posts (COMPLETED, EXPIRED, NOT_COMPLETED) older than surplus.archive.after-days are
+-- stamped with archived_at by SurplusPostArchiveService. They stay in surplus_posts because
+-- claims, timelines, conversations, disputes, images and calendar events all reference them;
+-- instead the live queries read through partial indexes that only contain the actionable or
+-- unarchived rows, so their size tracks the working set rather than the platform's history.
+ALTER TABLE surplus_posts ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
+
+-- Scheduler and discovery lookups by status (including the MOD(id, shards) shard filter)
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_actionable_status
+    ON surplus_posts(status, id)
+    WHERE status IN ('AVAILABLE', 'CLAIMED', 'READY_FOR_PICKUP');
+
+-- Donor dashboards list only live posts unless older ones are asked for
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_live_donor
+    ON surplus_posts(donor_id, created_at DESC)
+    WHERE archived_at IS NULL;
+
+-- Admin donation list, newest first, without archived posts
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_live_created_at
+    ON surplus_posts(created_at DESC)
+    WHERE archived_at IS NULL;
+
+-- Candidates for the nightly archive run
+CREATE INDEX IF NOT EXISTS idx_surplus_posts_archive_candidates
+    ON surplus_posts(updated_at)
+    WHERE archived_at IS NULL AND status IN ('COMPLETED', 'EXPIRED', 'NOT_COMPLETED');
@@ -0,0 +1,104 @@
+package com.example.foodflow.config;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+class AdaptiveTraceSamplerTest {
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1000);
+    private final AtomicLong now = new AtomicLong(-5_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveTraceSampler sampler;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sampler = new AdaptiveTraceSampler(meterRegistry, "/actuator/**, /api/files/**", 1.0, 1000, 60, 0.0f, 100,
+                List::of, now::get);
+    }
+    @AfterEach
+    void tearDown() {
+        // Clear any decision a failed test left on the thread
+        sampler.end(null, false, 0);
+    }
+    @Test
+    void routeKey_CollapsesIdSegments() {
+        assertThat(AdaptiveTraceSampler.routeKey("GET", "/api/surplus/42/claims/7"))
+                .isEqualTo("GET /api/surplus/{id}/claims/{id}");
+        assertThat(AdaptiveTraceSampler.routeKey("PUT", "/api/users/0f8fad5b-d9cb-469f-a165-70867728950e"))
+                .isEqualTo("PUT /api/users/{id}");
+        assertThat(AdaptiveTraceSampler.routeKey("GET", "/api/conversations/5/messages/history"))
+                .isEqualTo("GET /api/conversations/{id}/messages/history");
+        assertThat(AdaptiveTraceSampler.routeKey("GET", "/")).isEqualTo("GET /");
+    }
+    @Test
+    void begin_SkippedPathsAreNeverSampled() {
+        assertThat(sampler.begin("GET", "/actuator/health")).isNull();
+        assertThat(sampler.isSampled(1L)).isFalse();
+        sampler.end(null, true, SLOW_NANOS);
+        assertThat(meterRegistry.counter("foodflow.tracing.requests", "decision", "skipped").count()).isEqualTo(1.0);
+    }
+    @Test
+    void begin_RateLimitsEachRouteSeparately() {
+        assertThat(decide("GET", "/api/surplus/1")).isTrue();
+        assertThat(decide("GET", "/api/surplus/2")).isFalse();
+        assertThat(decide("GET", "/api/claims")).isTrue();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(decide("GET", "/api/surplus/3")).isTrue();
+    }
+    @Test
+    void begin_KeysRoutesByHandlerPatternAndSharesOneBudgetForUnmatchedPaths() {
+        AdaptiveTraceSampler routed = new AdaptiveTraceSampler(meterRegistry, "", 1.0, 1000, 60, 0.0f, 3,
+                () -> List.of("/api/surplus/{id}", "/api/surplus/search", "/api/blog/{slug}"), now::get);
+        assertThat(routed.resolveRoute("GET", "/api/surplus/42")).isEqualTo("GET /api/surplus/{id}");
+        assertThat(routed.resolveRoute("GET", "/api/surplus/search")).isEqualTo("GET /api/surplus/search");
+        assertThat(routed.resolveRoute("GET", "/api/blog/free-bread-tuesday")).isEqualTo("GET /api/blog/{slug}");
+        assertThat(routed.resolveRoute("GET", "/wp-login.php")).isEqualTo(AdaptiveTraceSampler.UNMATCHED_ROUTE);
+        assertThat(routed.resolveRoute("POST", "/.env")).isEqualTo(AdaptiveTraceSampler.UNMATCHED_ROUTE);
+        // Slugs share their route's budget instead of each getting a fresh one
+        assertThat(decide(routed, "GET", "/api/blog/free-bread-tuesday")).isTrue();
+        assertThat(decide(routed, "GET", "/api/blog/soup-kitchen-open-house")).isFalse();
+        // A burst of unknown paths uses one budget and does not evict the real routes
+        assertThat(decide(routed, "GET", "/api/surplus/1")).isTrue();
+        for (int i = 0; i < 50; i++) {
+            decide(routed, "GET", "/scan-" + i);
+        }
+        assertThat(decide(routed, "GET", "/api/surplus/2")).isFalse();
+    }
+    @Test
+    void end_ErrorsAndSlowRequestsBoostTheirRoute() {
+        assertThat(decide("GET", "/api/surplus/1")).isTrue();
+        String route = sampler.begin("GET", "/api/surplus/2");
+        assertThat(sampler.isSampled(1L)).isFalse();
+        sampler.end(route, true, 0);
+        assertThat(meterRegistry.counter("foodflow.tracing.unsampled_outliers", "reason", "error").count())
+                .isEqualTo(1.0);
+        // Every request on the route is traced during the boost window
+        assertThat(decide("GET", "/api/surplus/3")).isTrue();
+        assertThat(decide("GET", "/api/surplus/4")).isTrue();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertThat(decide("GET", "/api/surplus/5")).isTrue();
+        assertThat(decide("GET", "/api/surplus/6")).isFalse();
+        route = sampler.begin("GET", "/api/surplus/7");
+        sampler.end(route, false, SLOW_NANOS);
+        assertThat(decide("GET", "/api/surplus/8")).isTrue();
+    }
+    @Test
+    void isSampled_OutsideARequestUsesTheBackgroundProbability() {
+        assertThat(sampler.isSampled(1L)).isFalse();
+        AdaptiveTraceSampler always = new AdaptiveTraceSampler(meterRegistry, "", 1.0, 1000, 60, 1.0f, 100, List::of,
+                now::get);
+        assertThat(always.isSampled(1L)).isTrue();
+    }
+    private boolean decide(String method, String path) {
+        return decide(sampler, method, path);
+    }
+    private static boolean decide(AdaptiveTraceSampler sampler, String method, String path) {
+        String route = sampler.begin(method, path);
+        boolean sampled = sampler.isSampled(1L);
+        sampler.end(route, false, 0);
+        return sampled;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.foodflow.config.datasource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+/**
+ * Routes between two in-memory H2 databases that each identify themselves through a marker table.
+ */
+class ReplicaRoutingDataSourceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource primary;
+    private DataSource replica;
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = database("primary");
+        replica = database("replica");
+    }
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+    }
+    @Test
+    void readWriteTransaction_usesPrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", replica));
+        inTransaction(false);
+        assertThat(connectedTo(router)).isEqualTo("primary");
+    }
+    @Test
+    void readOnlyTransaction_usesReplica() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", replica));
+        inTransaction(true);
+        assertThat(connectedTo(router)).isEqualTo("replica");
+        assertThat(meterRegistry.get("foodflow.datasource.routed").tag("target", "replica").counter().count())
+                .isEqualTo(1.0);
+    }
+    @Test
+    void noTransaction_usesPrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", replica));
+        assertThat(connectedTo(router)).isEqualTo("primary");
+    }
+    @Test
+    void readOnlyTransaction_afterOwnWrite_staysOnPrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", replica));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("donor@test.com", null, List.of()));
+        inTransaction(false);
+        assertThat(connectedTo(router)).isEqualTo("primary");
+        inTransaction(true);
+        assertThat(connectedTo(router)).isEqualTo("primary");
+        // Another user is not affected by donor's write
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("receiver@test.com", null, List.of()));
+        assertThat(connectedTo(router)).isEqualTo("replica");
+    }
+    @Test
+    void unreachableReplica_fallsBackToPrimaryAndIsMarkedUnhealthy() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", unreachable());
+        replicas.put("replica-1", replica);
+        ReplicaRoutingDataSource router = router(replicas);
+        router.checkReplicas();
+        inTransaction(true);
+        assertThat(connectedTo(router)).isEqualTo("replica");
+        assertThat(connectedTo(router)).isEqualTo("replica");
+        assertThat(meterRegistry.get("foodflow.datasource.replica.healthy").tag("replica", "replica-0").gauge().value())
+                .isEqualTo(0.0);
+    }
+    @Test
+    void noHealthyReplica_readsFromPrimary() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", unreachable()));
+        inTransaction(true);
+        // The failed connection attempt marks the replica unhealthy without a health check
+        assertThat(connectedTo(router)).isEqualTo("primary");
+        assertThat(meterRegistry.get("foodflow.datasource.replica.healthy").gauge().value()).isEqualTo(0.0);
+        assertThat(meterRegistry.get("foodflow.datasource.routed").tag("reason", "no-healthy-replica")
+                .counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void replicaRecovers_afterHealthCheck() throws SQLException {
+        ReplicaRoutingDataSource router = router(Map.of("replica-0", replica));
+        inTransaction(true);
+        router.checkReplicas();
+        assertThat(connectedTo(router)).isEqualTo("replica");
+    }
+    private ReplicaRoutingDataSource router(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1), 10, meterRegistry);
+    }
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+    private static String connectedTo(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+    private static DataSource database(String name) throws SQLException {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE node (name VARCHAR(20))");
+            statement.execute("INSERT INTO node VALUES ('" + name + "')");
+        }
+        return dataSource;
+    }
+    private static DataSource unreachable() {
+        // No driver accepts this URL, so every connection attempt fails
+        return new DriverManagerDataSource("jdbc:unreachable-replica://localhost/foodflow", "sa", "");
+    }
+}
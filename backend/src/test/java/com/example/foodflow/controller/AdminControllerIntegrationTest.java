@@ -226,7 +226,7 @@ class AdminControllerIntegrationTest {
         donation.setTitle("Test Donation");
         donation.setStatus(PostStatus.AVAILABLE);
         Page<AdminDonationResponse> page = new PageImpl<>(Collections.singletonList(donation));
-        when(adminDonationService.getAllDonations(null, null, null, null, null, null, null, 0, 20))
+        when(adminDonationService.getAllDonations(null, null, null, null, null, null, null, false, 0, 20))
             .thenReturn(page);
         // When & Then
         mockMvc.perform(get("/api/admin/donations")
@@ -326,7 +326,7 @@ class AdminControllerIntegrationTest {
         donation.setDonorId(1L);
         donation.setFlagged(true);
         Page<AdminDonationResponse> page = new PageImpl<>(Collections.singletonList(donation));
-        when(adminDonationService.getAllDonations(eq("CLAIMED"), eq(1L), eq(2L), eq(true), any(), any(), eq("food"), eq(0), eq(20)))
+        when(adminDonationService.getAllDonations(eq("CLAIMED"), eq(1L), eq(2L), eq(true), any(), any(), eq("food"), eq(false), eq(0), eq(20)))
             .thenReturn(page);
         // When & Then
         mockMvc.perform(get("/api/admin/donations")
@@ -414,7 +414,7 @@ class AdminControllerIntegrationTest {
     @Test
     void getAllDonations_ServiceError_ShouldReturn500() throws Exception {
         // Given
-        when(adminDonationService.getAllDonations(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+        when(adminDonationService.getAllDonations(any(), any(), any(), any(), any(), any(), any(), anyBoolean(), anyInt(), anyInt()))
             .thenThrow(new RuntimeException("Service error"));
         // When & Then
         mockMvc.perform(get("/api/admin/donations")
@@ -142,6 +142,37 @@ class ConversationControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(1));
     }
     @Test
+    void getMessageHistory_ShouldReturn200() throws Exception {
+        // Given
+        MessageResponse msg = new MessageResponse();
+        msg.setId(1L);
+        msg.setCursor("c1");
+        when(messageService.getMessageHistory(eq(1L), any(User.class), eq("c2"), eq(50)))
+            .thenReturn(new MessagePageResponse(List.of(msg), "c1", "c1", true));
+        // When & Then
+        mockMvc.perform(get("/api/conversations/1/messages/history")
+                .param("before", "c2")
+                .param("limit", "50")
+                .with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages[0].id").value(1))
+                .andExpect(jsonPath("$.oldestCursor").value("c1"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+    @Test
+    void getMessagesSince_ShouldReturn200() throws Exception {
+        // Given
+        when(messageService.getMessagesSince(eq(1L), any(User.class), eq("c1"), eq(20)))
+            .thenReturn(new MessagePageResponse(List.of(), null, "c1", false));
+        // When & Then
+        mockMvc.perform(get("/api/conversations/1/messages/since")
+                .param("cursor", "c1")
+                .with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages").isEmpty())
+                .andExpect(jsonPath("$.newestCursor").value("c1"));
+    }
+    @Test
     void markConversationAsRead_ShouldReturn200() throws Exception {
         // Given
         doNothing().when(messageService).markConversationAsRead(eq(1L), any(User.class));
@@ -1,32 +1,49 @@
 package com.example.foodflow.controller;
 
+import com.example.foodflow.model.dto.DonationExportRow;
 import com.example.foodflow.model.dto.ImpactMetricsDTO;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.repository.SurplusPostRepository;
 import com.example.foodflow.service.ImpactDashboardService;
+import com.example.foodflow.service.ImpactExportService;
+import com.example.foodflow.service.StreamingExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -39,7 +56,9 @@ class ImpactDashboardControllerTest {
     @Mock
     private ImpactDashboardService impactDashboardService;
 
-    @InjectMocks
+    @Mock
+    private SurplusPostRepository surplusPostRepository;
+
     private ImpactDashboardController controller;
 
     private User donorUser;
@@ -49,6 +68,10 @@ class ImpactDashboardControllerTest {
 
     @BeforeEach
     void setUp() {
+        controller = new ImpactDashboardController(impactDashboardService,
+                new ImpactExportService(surplusPostRepository),
+                new StreamingExportService(new SimpleMeterRegistry(), 2));
+
         donorUser = new User();
         donorUser.setId(1L);
         donorUser.setEmail("donor@test.com");
@@ -198,11 +221,11 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().length > 0);
+            assertNotNull(bodyOf(response));
+            assertTrue(bodyOf(response).length > 0);
             assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
             assertTrue(response.getHeaders().getContentDisposition().toString()
                     .matches(".*FoodFlow_Impact_Report_\\d{4}-\\d{2}-\\d{2}\\.csv.*"));
@@ -220,11 +243,11 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getReceiverMetrics(eq(2L), eq("MONTHLY")))
                     .thenReturn(receiverMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(receiverUser, "MONTHLY");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(receiverUser, "MONTHLY");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().length > 0);
+            assertNotNull(bodyOf(response));
+            assertTrue(bodyOf(response).length > 0);
             assertTrue(response.getHeaders().getContentDisposition().toString()
                     .matches(".*FoodFlow_Impact_Report_\\d{4}-\\d{2}-\\d{2}\\.csv.*"));
         }
@@ -243,11 +266,11 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getAdminMetrics(eq("WEEKLY")))
                     .thenReturn(adminMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(adminUser, "WEEKLY");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(adminUser, "WEEKLY");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            String csvContent = new String(response.getBody());
+            assertNotNull(bodyOf(response));
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("Active Donors"));
             assertTrue(csvContent.contains("Active Receivers"));
             assertTrue(csvContent.contains("Repeat Donors"));
@@ -260,10 +283,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("FoodFlow - Impact Report"));
             assertTrue(csvContent.contains("Donor Impact Report"));
             assertTrue(csvContent.contains("Total Food Saved"));
@@ -285,10 +308,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("150-250"));
             assertTrue(csvContent.contains("Estimated Meals Provided (Range)"));
         }
@@ -299,10 +322,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("DAYS_30")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "DAYS_30");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "DAYS_30");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("Donor Impact Report"));
             assertTrue(csvContent.contains("Report Generated"));
             assertTrue(csvContent.contains("Report Type"));
@@ -335,10 +358,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getAdminMetrics(eq("DAYS_30")))
                     .thenReturn(adminMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(adminUser, "DAYS_30");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(adminUser, "DAYS_30");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("Platform-wide Impact Report"));
             assertTrue(csvContent.contains("Administrator"));
             assertTrue(csvContent.contains("User Engagement (Platform-wide)"));
@@ -384,9 +407,9 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("123.46"));
             assertTrue(csvContent.contains("78.90"));
         }
@@ -401,10 +424,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(sparseMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.contains("0.00") || csvContent.contains("0"));
         }
 
@@ -414,9 +437,9 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
 
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.startsWith("Metric,Value"));
         }
 
@@ -426,14 +449,15 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME", "pdf");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME", "pdf");
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().length > 0);
+            assertNotNull(bodyOf(response));
+            assertTrue(bodyOf(response).length > 0);
             assertEquals(MediaType.parseMediaType("application/pdf"), response.getHeaders().getContentType());
             assertTrue(response.getHeaders().getContentDisposition().toString()
                     .matches(".*FoodFlow_Impact_Report_\\d{4}-\\d{2}-\\d{2}\\.pdf.*"));
-            assertTrue(new String(response.getBody(), 0, Math.min(4, response.getBody().length)).startsWith("%PDF"));
+            byte[] pdf = bodyOf(response);
+            assertTrue(new String(pdf, 0, Math.min(4, pdf.length)).startsWith("%PDF"));
         }
 
         @Test
@@ -447,10 +471,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getReceiverMetrics(eq(2L), eq("MONTHLY")))
                     .thenReturn(receiverMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(receiverUser, "MONTHLY", "pdf");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(receiverUser, "MONTHLY", "pdf");
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().length > 0);
+            assertNotNull(bodyOf(response));
+            assertTrue(bodyOf(response).length > 0);
             assertEquals(MediaType.parseMediaType("application/pdf"), response.getHeaders().getContentType());
         }
 
@@ -460,10 +484,10 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME");
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
-            String csvContent = new String(response.getBody());
+            String csvContent = new String(bodyOf(response));
             assertTrue(csvContent.startsWith("Metric,Value"));
         }
 
@@ -473,7 +497,7 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
                     .thenReturn(testMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(donorUser, "ALL_TIME", "xlsx");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(donorUser, "ALL_TIME", "xlsx");
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
@@ -493,11 +517,84 @@ class ImpactDashboardControllerTest {
             when(impactDashboardService.getAdminMetrics(eq("WEEKLY")))
                     .thenReturn(adminMetrics);
 
-            ResponseEntity<byte[]> response = controller.exportMetrics(adminUser, "WEEKLY", "pdf");
+            ResponseEntity<StreamingResponseBody> response = controller.exportMetrics(adminUser, "WEEKLY", "pdf");
             assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().length > 0);
+            assertNotNull(bodyOf(response));
+            assertTrue(bodyOf(response).length > 0);
             assertEquals(MediaType.parseMediaType("application/pdf"), response.getHeaders().getContentType());
         }
     }
+
+    @Nested
+    @DisplayName("Streamed export Tests")
+    class StreamedExportTests {
+        @Test
+        @DisplayName("Should page through donation rows when details are requested")
+        void shouldStreamDonationDetailsInKeysetPages() {
+            testMetrics.setStartDate(LocalDateTime.now().minusDays(30));
+            testMetrics.setEndDate(LocalDateTime.now());
+            when(impactDashboardService.getDonorMetrics(eq(1L), eq("DAYS_30")))
+                    .thenReturn(testMetrics);
+            DonationExportRow row = mock(DonationExportRow.class);
+            when(row.getId()).thenReturn(42L);
+            when(row.getTitle()).thenReturn("Fresh bread, rye");
+            when(row.getStatus()).thenReturn(PostStatus.COMPLETED);
+            when(surplusPostRepository.findExportRowsByDonorAndCreatedDateRange(
+                    eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(row));
+
+            ResponseEntity<StreamingResponseBody> response =
+                    controller.exportMetrics(donorUser, "DAYS_30", "csv", true);
+
+            String csvContent = new String(bodyOf(response));
+            assertTrue(csvContent.contains("Donation Details"));
+            assertTrue(csvContent.contains("42,\"Fresh bread, rye\",COMPLETED"));
+            // A short page means there is nothing after it
+            verify(surplusPostRepository, times(1)).findExportRowsByDonorAndCreatedDateRange(
+                    anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should not query donation rows unless details are requested")
+        void shouldNotQueryDetailsByDefault() {
+            when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
+                    .thenReturn(testMetrics);
+
+            String csvContent = new String(bodyOf(controller.exportMetrics(donorUser, "ALL_TIME")));
+
+            assertFalse(csvContent.contains("Donation Details"));
+            verifyNoInteractions(surplusPostRepository);
+        }
+
+        @Test
+        @DisplayName("Should return 503 when all export slots are in use")
+        void shouldRejectExportWhenAtCapacity() {
+            ImpactDashboardController singleSlot = new ImpactDashboardController(impactDashboardService,
+                    new ImpactExportService(surplusPostRepository),
+                    new StreamingExportService(new SimpleMeterRegistry(), 1));
+            when(impactDashboardService.getDonorMetrics(eq(1L), eq("ALL_TIME")))
+                    .thenReturn(testMetrics);
+
+            ResponseEntity<StreamingResponseBody> first = singleSlot.exportMetrics(donorUser, "ALL_TIME");
+            ResponseEntity<StreamingResponseBody> second = singleSlot.exportMetrics(donorUser, "ALL_TIME");
+
+            assertEquals(HttpStatus.OK, first.getStatusCode());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getStatusCode());
+            assertNotNull(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+            // Finishing the first export frees its slot
+            bodyOf(first);
+            assertEquals(HttpStatus.OK, singleSlot.exportMetrics(donorUser, "ALL_TIME").getStatusCode());
+        }
+    }
+
+    private static byte[] bodyOf(ResponseEntity<StreamingResponseBody> response) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            response.getBody().writeTo(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
 }
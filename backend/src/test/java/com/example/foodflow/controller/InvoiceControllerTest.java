@@ -18,19 +18,26 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -96,13 +103,33 @@ class InvoiceControllerTest {
     void downloadInvoice_Success() throws Exception {
         InvoiceResponse response = buildInvoiceResponse();
         when(invoiceService.getInvoiceByIdForUser(eq(1L), any(User.class))).thenReturn(response);
-        when(invoiceService.downloadInvoice(eq(1L), any(User.class))).thenReturn("%PDF-test".getBytes());
-        mockMvc.perform(get("/api/payments/invoices/1/download").with(authentication(authentication)))
+        when(invoiceService.invoicePdfETag(response)).thenReturn("\"abc123\"");
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("%PDF-test".getBytes());
+            return null;
+        }).when(invoiceService).writeInvoicePdf(eq(response), any(OutputStream.class));
+        MvcResult result = mockMvc.perform(get("/api/payments/invoices/1/download").with(authentication(authentication)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(content().contentType("application/pdf"))
             .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("INV-100.pdf")))
+            .andExpect(header().string("ETag", "\"abc123\""))
             .andExpect(content().bytes("%PDF-test".getBytes()));
     }
+    @Test
+    void downloadInvoice_MatchingETag_ReturnsNotModifiedWithoutRendering() throws Exception {
+        InvoiceResponse response = buildInvoiceResponse();
+        when(invoiceService.getInvoiceByIdForUser(eq(1L), any(User.class))).thenReturn(response);
+        when(invoiceService.invoicePdfETag(response)).thenReturn("\"abc123\"");
+        mockMvc.perform(get("/api/payments/invoices/1/download")
+                .header("If-None-Match", "\"abc123\"")
+                .with(authentication(authentication)))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"abc123\""));
+        verify(invoiceService, never()).writeInvoicePdf(any(), any(OutputStream.class));
+    }
     private InvoiceResponse buildInvoiceResponse() {
         return InvoiceResponse.builder()
             .id(1L)
@@ -1,6 +1,8 @@
 package com.example.foodflow.controller;
+import com.example.foodflow.model.dto.SurplusCardResponse;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.service.SavedDonationService;
+import com.example.foodflow.service.SurplusFieldSelection;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import java.util.Arrays;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class SavedDonationControllerTest {
@@ -50,14 +53,29 @@ class SavedDonationControllerTest {
         List<SurplusResponse> savedDonations = Arrays.asList(donation1, donation2);
         when(savedDonationService.getSavedDonations()).thenReturn(savedDonations);
         // When
-        ResponseEntity<List<SurplusResponse>> response = savedDonationController.getSavedDonations();
+        ResponseEntity<List<?>> response = savedDonationController.getSavedDonations(null);
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
+        assertThat(((SurplusResponse) response.getBody().get(0)).getId()).isEqualTo(1L);
         verify(savedDonationService).getSavedDonations();
     }
     @Test
+    void getSavedDonations_WithCardFields_ReturnsCards() {
+        // Given
+        SurplusCardResponse card = new SurplusCardResponse();
+        card.setId(1L);
+        List<SurplusCardResponse> cards = List.of(card);
+        doReturn(cards).when(savedDonationService)
+                .getSavedDonations(argThat((SurplusFieldSelection selection) -> selection.fitsCard()));
+        // When
+        ResponseEntity<List<?>> response = savedDonationController.getSavedDonations("card");
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(cards);
+        verify(savedDonationService, never()).getSavedDonations();
+    }
+    @Test
     void isSaved_ReturnsTrueWhenSaved() {
         // Given
         Long donationId = 1L;
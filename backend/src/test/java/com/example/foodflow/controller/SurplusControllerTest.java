@@ -2,6 +2,8 @@ package com.example.foodflow.controller;
 import com.example.foodflow.exception.BusinessException;
 import com.example.foodflow.model.dto.CompleteSurplusRequest;
 import com.example.foodflow.model.dto.CreateSurplusRequest;
+import com.example.foodflow.model.dto.SurplusCardResponse;
+import com.example.foodflow.model.dto.SurplusImportResponse;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
@@ -12,6 +14,8 @@ import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.model.types.Quantity;
 import com.example.foodflow.model.types.TemperatureCategory;
 import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.service.SurplusFieldSelection;
+import com.example.foodflow.service.SurplusImportService;
 import com.example.foodflow.service.SurplusService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -22,6 +26,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -38,11 +43,14 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,6 +63,8 @@ class SurplusControllerTest {
     @MockBean
     private SurplusService surplusService;
     @MockBean
+    private SurplusImportService surplusImportService;
+    @MockBean
     private UserRepository userRepository;
     private ObjectMapper objectMapper;
     private CreateSurplusRequest request;
@@ -131,6 +141,41 @@ class SurplusControllerTest {
     }
     @Test
     @WithMockUser(username = "donor@test.com", authorities = { "DONOR" })
+    void testImportSurplusPosts_CsvBody() throws Exception {
+        SurplusImportResponse report = SurplusImportResponse.builder()
+                .received(1).created(1).failed(0)
+                .rows(List.of(SurplusImportResponse.RowResult.builder().row(1).status("CREATED").postId(7L).build()))
+                .build();
+        when(surplusImportService.importPosts(any(), eq(SurplusImportService.Format.CSV), eq("America/Toronto"), any()))
+                .thenReturn(report);
+        mockMvc.perform(post("/api/surplus/import")
+                .param("timezone", "America/Toronto")
+                .contentType("text/csv")
+                .content("title,description\r\nBread,Fresh\r\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rows[0].postId").value(7));
+    }
+    @Test
+    @WithMockUser(username = "donor@test.com", authorities = { "DONOR" })
+    void testImportSurplusPosts_UploadedJsonFile() throws Exception {
+        when(surplusImportService.importPosts(any(), eq(SurplusImportService.Format.JSON), isNull(), any()))
+                .thenReturn(SurplusImportResponse.builder().received(0).rows(List.of()).build());
+        mockMvc.perform(multipart("/api/surplus/import")
+                .file(new MockMultipartFile("file", "nightly.json", "application/json", "[]".getBytes())))
+                .andExpect(status().isOk());
+    }
+    @Test
+    @WithMockUser(username = "receiver@test.com", authorities = { "RECEIVER" })
+    void testImportSurplusPosts_ReceiverForbidden() throws Exception {
+        mockMvc.perform(post("/api/surplus/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+        verify(surplusImportService, never()).importPosts(any(), any(), any(), any());
+    }
+    @Test
+    @WithMockUser(username = "donor@test.com", authorities = { "DONOR" })
     void testCreateSurplusPost_InvalidRequest_MissingFoodName() throws Exception { // ✅ RENAMED test
         request.setTitle(null); // ✅ NEW field
         mockMvc.perform(post("/api/surplus")
@@ -302,7 +347,7 @@ class SurplusControllerTest {
     void testGetMyPosts_Success() throws Exception {
         // Given
         java.util.List<SurplusResponse> myPosts = java.util.Arrays.asList(response);
-        when(surplusService.getUserSurplusPosts(any()))
+        when(surplusService.getUserSurplusPosts(any(), eq(false)))
                 .thenReturn(myPosts);
         // When & Then
         mockMvc.perform(
@@ -316,7 +361,7 @@ class SurplusControllerTest {
     @WithMockUser(username = "donor@test.com", authorities = { "DONOR" })
     void testGetMyPosts_EmptyList() throws Exception {
         // Given
-        when(surplusService.getUserSurplusPosts(any()))
+        when(surplusService.getUserSurplusPosts(any(), eq(false)))
                 .thenReturn(java.util.Collections.emptyList());
         // When & Then
         mockMvc.perform(
@@ -434,6 +479,33 @@ class SurplusControllerTest {
     }
     @Test
     @WithMockUser(username = "receiver@test.com", authorities = { "RECEIVER" })
+    void testSearchSurplusPostsViaParams_WithCardFields_ReturnsCards() throws Exception {
+        // Given
+        SurplusCardResponse card = SurplusCardResponse.builder()
+                .id(1L)
+                .title("Vegetable Lasagna")
+                .status(PostStatus.AVAILABLE)
+                .build();
+        doReturn(List.of(card)).when(surplusService).searchSurplusPostsForReceiver(
+                any(com.example.foodflow.model.dto.SurplusFilterRequest.class), any(), any(SurplusFieldSelection.class));
+        // When & Then
+        mockMvc.perform(get("/api/surplus/search").param("fields", "card"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Vegetable Lasagna"))
+                .andExpect(jsonPath("$[0].otpCode").doesNotExist());
+        verify(surplusService, never())
+                .searchSurplusPostsForReceiver(any(com.example.foodflow.model.dto.SurplusFilterRequest.class), any());
+    }
+    @Test
+    @WithMockUser(username = "receiver@test.com", authorities = { "RECEIVER" })
+    void testSearchSurplusPostsViaParams_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/surplus/search").param("fields", "title,secret"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("error.surplus.fields.unknown"));
+    }
+    @Test
+    @WithMockUser(username = "receiver@test.com", authorities = { "RECEIVER" })
     void testSearchSurplusPostsViaParams_WithFoodCategories() throws Exception {
         // Given
         java.util.List<SurplusResponse> filteredPosts = java.util.Arrays.asList(response);
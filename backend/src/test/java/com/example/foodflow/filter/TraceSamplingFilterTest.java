@@ -0,0 +1,63 @@
+package com.example.foodflow.filter;
+import com.example.foodflow.config.AdaptiveTraceSampler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class TraceSamplingFilterTest {
+    @Mock
+    private AdaptiveTraceSampler sampler;
+    @Mock
+    private FilterChain filterChain;
+    private TraceSamplingFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    @BeforeEach
+    void setUp() {
+        filter = new TraceSamplingFilter(sampler);
+        request = new MockHttpServletRequest("GET", "/api/surplus/1");
+        response = new MockHttpServletResponse();
+        when(sampler.begin("GET", "/api/surplus/1")).thenReturn("GET /api/surplus/{id}");
+    }
+    @Test
+    void shouldDecideBeforeTheChainAndReportSuccess() throws ServletException, IOException {
+        // When
+        filter.doFilter(request, response, filterChain);
+        // Then
+        var order = inOrder(sampler, filterChain);
+        order.verify(sampler).begin("GET", "/api/surplus/1");
+        order.verify(filterChain).doFilter(request, response);
+        order.verify(sampler).end(eq("GET /api/surplus/{id}"), eq(false), anyLong());
+    }
+    @Test
+    void shouldReportServerErrorStatus() throws ServletException, IOException {
+        // Given
+        doAnswer(invocation -> {
+            response.setStatus(503);
+            return null;
+        }).when(filterChain).doFilter(request, response);
+        // When
+        filter.doFilter(request, response, filterChain);
+        // Then
+        verify(sampler).end(eq("GET /api/surplus/{id}"), eq(true), anyLong());
+    }
+    @Test
+    void shouldReportExceptionsAsErrors() throws ServletException, IOException {
+        // Given
+        doThrow(new ServletException("boom")).when(filterChain).doFilter(request, response);
+        // When & Then
+        assertThrows(ServletException.class, () -> filter.doFilter(request, response, filterChain));
+        verify(sampler).end(eq("GET /api/surplus/{id}"), eq(true), anyLong());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.foodflow.integration;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.entity.UserDonationStats;
+import com.example.foodflow.model.entity.UserRole;
+import com.example.foodflow.repository.UserDonationStatsRepository;
+import com.example.foodflow.repository.UserRepository;
+import com.example.foodflow.service.DonationNotificationService;
+import com.example.foodflow.service.DonationStatsService;
+import com.example.foodflow.service.GamificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+/**
+ * Fires concurrent point awards and donations at one user, each in its own committed
+ * transaction, and checks that no increment is lost.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCounterConcurrencyTest {
+        private static final int THREADS = 8;
+        private static final int EVENTS = 120;
+        @Autowired
+        private GamificationService gamificationService;
+        @Autowired
+        private DonationStatsService donationStatsService;
+        @Autowired
+        private UserRepository userRepository;
+        @Autowired
+        private UserDonationStatsRepository userDonationStatsRepository;
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+        @MockBean
+        private DonationNotificationService donationNotificationService;
+        private TransactionTemplate transaction;
+        private Long userId;
+        @BeforeEach
+        void setUp() {
+                transaction = new TransactionTemplate(transactionManager);
+                User user = new User();
+                user.setEmail("counter+" + UUID.randomUUID() + "@test.com");
+                user.setPassword("password123");
+                user.setRole(UserRole.DONOR);
+                // Points start out NULL, as on rows that predate the column default
+                user.setTotalPoints(null);
+                userId = userRepository.save(user).getId();
+        }
+        @AfterEach
+        void tearDown() {
+                userDonationStatsRepository.findByUserId(userId).ifPresent(userDonationStatsRepository::delete);
+                userRepository.deleteById(userId);
+        }
+        @Test
+        void concurrentPointAwards_AreAllCounted() throws Exception {
+                runConcurrently(() -> transaction.executeWithoutResult(status -> {
+                        // Two awards in one transaction are written as a single increment
+                        gamificationService.awardPoints(userId, 2, "Concurrent award");
+                        gamificationService.awardPoints(userId, 3, "Concurrent bonus");
+                }));
+                assertThat(userRepository.findById(userId).orElseThrow().getTotalPoints()).isEqualTo(EVENTS * 5);
+        }
+        @Test
+        void concurrentDonations_AreAllCounted() throws Exception {
+                // The first donation creates the stats row
+                donationStatsService.updateUserStats(userId, new BigDecimal("1.00"));
+                runConcurrently(() -> donationStatsService.updateUserStats(userId, new BigDecimal("1.25")));
+                UserDonationStats stats = userDonationStatsRepository.findByUserId(userId).orElseThrow();
+                assertThat(stats.getDonationCount()).isEqualTo(EVENTS + 1);
+                assertThat(stats.getTotalDonated()).isEqualByComparingTo(new BigDecimal("151.00"));
+                assertThat(userRepository.findById(userId).orElseThrow().getDonationCount()).isEqualTo(EVENTS + 1);
+        }
+        private void runConcurrently(Runnable event) throws Exception {
+                ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+                try {
+                        List<Callable<Void>> tasks = new ArrayList<>();
+                        for (int i = 0; i < EVENTS; i++) {
+                                tasks.add(() -> {
+                                        event.run();
+                                        return null;
+                                });
+                        }
+                        for (Future<Void> result : pool.invokeAll(tasks)) {
+                                result.get();
+                        }
+                } finally {
+                        pool.shutdown();
+                        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+                }
+        }
+}
@@ -263,4 +263,36 @@ class DonationTimelineRepositoryTest {
         assertEquals("EVENT_POST_1", results.get(0).getEventType());
         assertEquals(testPost.getId(), results.get(0).getSurplusPost().getId());
     }
+    @Test
+    void findSinceTimelineStart_ReturnsVisibleEventsFromThePostsLifetime() {
+        // Arrange
+        DonationTimeline created = new DonationTimeline();
+        created.setSurplusPost(testPost);
+        created.setEventType("DONATION_CREATED");
+        created.setTimestamp(testPost.getCreatedAt());
+        created.setActor("donor");
+        created.setVisibleToUsers(true);
+        entityManager.persist(created);
+        DonationTimeline adminOnly = new DonationTimeline();
+        adminOnly.setSurplusPost(testPost);
+        adminOnly.setEventType("ADMIN_STATUS_OVERRIDE");
+        adminOnly.setTimestamp(testPost.getCreatedAt().plusHours(1));
+        adminOnly.setActor("admin");
+        adminOnly.setVisibleToUsers(false);
+        entityManager.persist(adminOnly);
+        entityManager.flush();
+        LocalDateTime since = DonationTimelineRepository.timelineStart(testPost);
+        // Act
+        List<DonationTimeline> all = donationTimelineRepository
+                .findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(testPost.getId(), since);
+        List<DonationTimeline> visible = donationTimelineRepository
+                .findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(
+                        testPost.getId(), true, since);
+        // Assert
+        assertTrue(since.isBefore(testPost.getCreatedAt()));
+        assertEquals(2, all.size());
+        assertEquals("ADMIN_STATUS_OVERRIDE", all.get(0).getEventType());
+        assertEquals(1, visible.size());
+        assertEquals("DONATION_CREATED", visible.get(0).getEventType());
+    }
 }
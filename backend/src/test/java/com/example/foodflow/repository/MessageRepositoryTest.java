@@ -8,7 +8,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
+import java.time.LocalDateTime;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
@@ -143,4 +145,40 @@ class MessageRepositoryTest {
         long unreadCount = messageRepository.countUnreadInConversation(conversation.getId(), receiver.getId());
         assertThat(unreadCount).isEqualTo(2); // receiver has 2 unread from sender
     }
+    @Test
+    void testKeysetPages_WalkTheThreadWithoutSkippingTies() {
+        LocalDateTime sameInstant = LocalDateTime.of(2026, 3, 1, 12, 0);
+        Message first = persistAt("First", sameInstant.minusMinutes(1));
+        Message tieA = persistAt("Tie A", sameInstant);
+        Message tieB = persistAt("Tie B", sameInstant);
+        Message last = persistAt("Last", sameInstant.plusMinutes(1));
+        List<Message> latest = messageRepository.findLatestPage(conversation.getId(), PageRequest.of(0, 2));
+        assertThat(latest).extracting(Message::getId).containsExactly(last.getId(), tieB.getId());
+        List<Message> older = messageRepository.findPageBefore(conversation.getId(),
+                tieB.getCreatedAt(), tieB.getId(), PageRequest.of(0, 10));
+        assertThat(older).extracting(Message::getId).containsExactly(tieA.getId(), first.getId());
+        List<Message> since = messageRepository.findPageAfter(conversation.getId(),
+                tieA.getCreatedAt(), tieA.getId(), PageRequest.of(0, 10));
+        assertThat(since).extracting(Message::getId).containsExactly(tieB.getId(), last.getId());
+    }
+    @Test
+    void testFindLastMessageInConversation_BreaksTiesById() {
+        LocalDateTime sameInstant = LocalDateTime.of(2026, 3, 1, 12, 0);
+        persistAt("Tie A", sameInstant);
+        Message tieB = persistAt("Tie B", sameInstant);
+        assertThat(messageRepository.findLastMessageInConversation(conversation.getId()))
+                .get().extracting(Message::getId).isEqualTo(tieB.getId());
+    }
+    private Message persistAt(String body, LocalDateTime createdAt) {
+        Message message = new Message(conversation, sender, body);
+        entityManager.persistAndFlush(message);
+        // created_at is set on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE messages SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, createdAt)
+                .setParameter(2, message.getId())
+                .executeUpdate();
+        entityManager.clear();
+        return entityManager.find(Message.class, message.getId());
+    }
 }
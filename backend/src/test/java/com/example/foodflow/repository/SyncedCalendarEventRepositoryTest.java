@@ -0,0 +1,55 @@
+package com.example.foodflow.repository;
+import com.example.foodflow.model.entity.CalendarIntegration;
+import com.example.foodflow.model.entity.SyncedCalendarEvent;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.entity.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+@DataJpaTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+class SyncedCalendarEventRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SyncedCalendarEventRepository syncedCalendarEventRepository;
+    @Test
+    void findUserIdsWithDueSyncWork_SkipsUsersWithoutConnectedCalendar() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        User connected = persistUser("connected@test.com", true);
+        User disconnected = persistUser("disconnected@test.com", false);
+        User noIntegration = persistUser("none@test.com", null);
+        // The stranded users' events are older, so they would otherwise take the page
+        persistPendingEvent(disconnected, now.minusHours(3));
+        persistPendingEvent(noIntegration, now.minusHours(2));
+        persistPendingEvent(connected, now.minusHours(1));
+        List<Long> userIds = syncedCalendarEventRepository.findUserIdsWithDueSyncWork(now, PageRequest.of(0, 1));
+        assertThat(userIds).containsExactly(connected.getId());
+    }
+    private User persistUser(String email, Boolean calendarConnected) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(UserRole.RECEIVER);
+        user = entityManager.persistAndFlush(user);
+        if (calendarConnected != null) {
+            CalendarIntegration integration = new CalendarIntegration(user, "GOOGLE");
+            integration.setIsConnected(calendarConnected);
+            integration.setCreatedAt(LocalDateTime.now());
+            entityManager.persistAndFlush(integration);
+        }
+        return user;
+    }
+    private void persistPendingEvent(User user, LocalDateTime createdAt) {
+        SyncedCalendarEvent event = new SyncedCalendarEvent(user, "PICKUP", "Pickup", createdAt.plusDays(1));
+        event.setSyncStatus("PENDING");
+        event.setCreatedAt(createdAt);
+        entityManager.persistAndFlush(event);
+    }
+}
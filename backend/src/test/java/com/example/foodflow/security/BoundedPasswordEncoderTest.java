@@ -0,0 +1,106 @@
+package com.example.foodflow.security;
+import com.example.foodflow.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+class BoundedPasswordEncoderTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+    @Test
+    void encodeAndMatches_RunBcryptOnPool() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5000, 2, meterRegistry);
+        String hash = encoder.encode("Secret123!");
+        assertThat(encoder.matches("Secret123!", hash)).isTrue();
+        assertThat(encoder.matches("Wrong123!", hash)).isFalse();
+        assertThat(meterRegistry.get("foodflow.password_hashing.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("foodflow.password_hashing.duration").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("foodflow.password_hashing.queue_wait").timer().count()).isEqualTo(3);
+    }
+    @Test
+    void upgradeEncoding_TrueForHashBelowConfiguredStrength() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("Secret123!");
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, 5000, 2, meterRegistry);
+        assertThat(encoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("Secret123!"))).isFalse();
+    }
+    @Test
+    void encode_QueueFull_RejectsImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, 5000, 3, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        awaitQueued(1);
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOfSatisfying(ServiceBusyException.class, e -> {
+                    assertThat(e.getMessageKey()).isEqualTo("error.auth.busy");
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(3);
+                });
+        assertThat(meterRegistry.get("foodflow.password_hashing.rejected").tag("reason", "queue_full").counter().count())
+                .isEqualTo(1.0);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:second");
+    }
+    @Test
+    void matches_HashTakesLongerThanTimeout_Rejects() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, 50, 2, meterRegistry);
+        assertThatThrownBy(() -> encoder.matches("password", "hash:password"))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(meterRegistry.get("foodflow.password_hashing.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1.0);
+    }
+    @Test
+    void matches_DelegateFailure_IsRethrown() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 5000, 2, meterRegistry);
+        assertThatThrownBy(() -> encoder.matches(null, "$2a$04$invalid"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                block();
+                return "hash:" + rawPassword;
+            }
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                block();
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+            private void block() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "password-hash").gauge().value() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
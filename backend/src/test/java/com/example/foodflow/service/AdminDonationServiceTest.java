@@ -107,11 +107,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, null, 0, 20
+            null, null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -131,11 +131,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            "CLAIMED", null, null, null, null, null, null, 0, 20
+            "CLAIMED", null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -152,11 +152,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "1", 0, 20
+            null, null, null, null, null, null, "1", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -173,11 +173,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "Test", 0, 20
+            null, null, null, null, null, null, "Test", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -196,11 +196,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, fromDate, toDate, null, 0, 20
+            null, null, null, null, fromDate, toDate, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -218,11 +218,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, true, null, null, null, 0, 20
+            null, null, null, true, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -237,7 +237,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -274,7 +274,7 @@ class AdminDonationServiceTest {
             .thenReturn(Optional.empty());
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.NOT_COMPLETED))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -300,7 +300,7 @@ class AdminDonationServiceTest {
             .thenReturn(Optional.empty());
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.COMPLETED))
             .thenReturn(Optional.of(completedClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -327,7 +327,7 @@ class AdminDonationServiceTest {
             .thenReturn(Optional.empty());
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.NOT_COMPLETED))
             .thenReturn(Optional.of(notCompletedClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -346,7 +346,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -367,7 +367,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.overrideStatus(
@@ -424,7 +424,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         adminDonationService.overrideStatus(1L, "COMPLETED", null, adminUserId);
@@ -441,7 +441,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -464,11 +464,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            "CLAIMED", 1L, null, true, fromDate, toDate, "Test", 0, 20
+            "CLAIMED", 1L, null, true, fromDate, toDate, "Test", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -489,7 +489,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         adminDonationService.overrideStatus(1L, "EXPIRED", "Food expired", adminUserId);
@@ -506,7 +506,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -525,11 +525,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act - Should not throw exception, just log warning
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            "INVALID_STATUS", null, null, null, null, null, null, 0, 20
+            "INVALID_STATUS", null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -544,11 +544,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            "claimed", null, null, null, null, null, null, 0, 20
+            "claimed", null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -564,11 +564,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, 1L, null, null, null, null, null, 0, 20
+            null, 1L, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -585,11 +585,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, 2L, null, null, null, null, 0, 20
+            null, null, 2L, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -606,11 +606,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "", 0, 20
+            null, null, null, null, null, null, "", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -626,11 +626,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, null, 1, 10
+            null, null, null, null, null, null, null, false, 1, 10
         );
         // Assert
         assertNotNull(result);
@@ -647,7 +647,7 @@ class AdminDonationServiceTest {
             .thenReturn(emptyPage);
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, null, 0, 20
+            null, null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -661,7 +661,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Collections.emptyList());
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -669,7 +669,7 @@ class AdminDonationServiceTest {
         assertNotNull(result);
         assertNotNull(result.getTimeline());
         assertTrue(result.getTimeline().isEmpty());
-        verify(timelineRepository).findBySurplusPostIdOrderByTimestampDesc(1L);
+        verify(timelineRepository).findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class));
     }
     @Test
     void getDonationById_WithMultipleTimelineEvents_ReturnsAllEvents() {
@@ -684,7 +684,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(timeline2, testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -703,7 +703,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.overrideStatus(
@@ -735,7 +735,7 @@ class AdminDonationServiceTest {
             when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
             when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
                 .thenReturn(Optional.empty());
-            when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+            when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(testTimeline));
             // Act
             adminDonationService.overrideStatus(1L, status.name(), "Test override", adminUserId);
@@ -756,11 +756,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, false, null, null, null, 0, 20
+            null, null, null, false, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -788,7 +788,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(detailedTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -816,11 +816,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "donor@test", 0, 20
+            null, null, null, null, null, null, "donor@test", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -837,11 +837,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "Donor Organization", 0, 20
+            null, null, null, null, null, null, "Donor Organization", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -859,7 +859,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         adminDonationService.overrideStatus(1L, "COMPLETED", "Test", adminUserId);
@@ -881,11 +881,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, fromDate, null, null, 0, 20
+            null, null, null, null, fromDate, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -902,11 +902,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, toDate, null, 0, 20
+            null, null, null, null, null, toDate, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -922,7 +922,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -942,7 +942,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         when(notificationPreferenceService.shouldSendNotification(testDonor, "donationStatusUpdated", "email"))
             .thenReturn(true);
@@ -965,7 +965,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         when(notificationPreferenceService.shouldSendNotification(testDonor, "donationStatusUpdated", "email"))
             .thenReturn(false);
@@ -988,7 +988,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         when(notificationPreferenceService.shouldSendNotification(testDonor, "donationStatusUpdated", "email"))
             .thenReturn(false);
@@ -1020,7 +1020,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         when(notificationPreferenceService.shouldSendNotification(testDonor, "donationStatusUpdated", "email"))
             .thenReturn(true);
@@ -1039,7 +1039,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         when(notificationPreferenceService.shouldSendNotification(testDonor, "donationStatusUpdated", "websocket"))
             .thenReturn(true);
@@ -1056,7 +1056,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -1078,7 +1078,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -1098,7 +1098,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -1116,11 +1116,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, null, null, "1", 0, 20
+            null, null, null, null, null, null, "1", false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -1135,11 +1135,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            "INVALID_STATUS", null, null, null, null, null, null, 0, 20
+            "INVALID_STATUS", null, null, null, null, null, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -1157,11 +1157,11 @@ class AdminDonationServiceTest {
             .thenReturn(postPage);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         Page<AdminDonationResponse> result = adminDonationService.getAllDonations(
-            null, null, null, null, fromDate, toDate, null, 0, 20
+            null, null, null, null, fromDate, toDate, null, false, 0, 20
         );
         // Assert
         assertNotNull(result);
@@ -1176,7 +1176,7 @@ class AdminDonationServiceTest {
         when(timelineRepository.save(any(DonationTimeline.class))).thenReturn(testTimeline);
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.empty());
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(testTimeline));
         // Act
         adminDonationService.overrideStatus(1L, "COMPLETED", null, 999L);
@@ -1206,7 +1206,7 @@ class AdminDonationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
             .thenReturn(Optional.of(testClaim));
-        when(timelineRepository.findBySurplusPostIdOrderByTimestampDesc(1L))
+        when(timelineRepository.findBySurplusPostIdAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), any(LocalDateTime.class)))
             .thenReturn(Arrays.asList(detailedTimeline));
         // Act
         AdminDonationResponse result = adminDonationService.getDonationById(1L);
@@ -0,0 +1,81 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.AdminDonationSearchHit;
+import com.example.foodflow.model.dto.AdminSearchResponse;
+import com.example.foodflow.model.dto.AdminUserSearchHit;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class AdminSearchServiceTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SurplusPostRepository surplusPostRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AdminSearchService adminSearchService;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adminSearchService = new AdminSearchService(userRepository, surplusPostRepository, meterRegistry);
+    }
+    @Test
+    void search_NormalizesTermAndKeepsRepositoryRankOrder() {
+        AdminUserSearchHit best = userHit(7L, "green@grocer.ca", "Green Grocer", 0.9);
+        AdminUserSearchHit weaker = userHit(3L, "ops@greenery.org", null, 0.4);
+        when(userRepository.searchRanked("green", "%green%", 10)).thenReturn(List.of(best, weaker));
+        AdminDonationSearchHit donation = donationHit(11L, "Green beans", "Two crates of green beans", 0.7);
+        when(surplusPostRepository.searchRanked("green", "%green%", 10)).thenReturn(List.of(donation));
+        AdminSearchResponse response = adminSearchService.search("  GREEN ", 10);
+        assertThat(response.getQuery()).isEqualTo("green");
+        assertThat(response.getUsers()).extracting(AdminSearchResponse.UserResult::getId).containsExactly(7L, 3L);
+        AdminSearchResponse.UserResult top = response.getUsers().get(0);
+        assertThat(top.getScore()).isEqualTo(0.9);
+        assertThat(top.getEmailHighlight()).isEqualTo("<mark>green</mark>@grocer.ca");
+        assertThat(top.getOrganizationNameHighlight()).isEqualTo("<mark>Green</mark> Grocer");
+        assertThat(response.getUsers().get(1).getOrganizationNameHighlight()).isNull();
+        AdminSearchResponse.DonationResult result = response.getDonations().get(0);
+        assertThat(result.getTitleHighlight()).isEqualTo("<mark>Green</mark> beans");
+        assertThat(result.getDescriptionSnippet()).isEqualTo("Two crates of <mark>green</mark> beans");
+        assertThat(meterRegistry.get("foodflow.admin.search.duration").timer().count()).isEqualTo(1);
+    }
+    @Test
+    void search_ClampsTheLimit() {
+        adminSearchService.search("bread", 500);
+        verify(userRepository).searchRanked("bread", "%bread%", AdminSearchService.MAX_LIMIT);
+        verify(surplusPostRepository).searchRanked("bread", "%bread%", AdminSearchService.MAX_LIMIT);
+    }
+    @Test
+    void search_RejectsTermsTooShortToUseTheTrigramIndex() {
+        assertThatThrownBy(() -> adminSearchService.search(" a ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userRepository, surplusPostRepository);
+    }
+    private static AdminUserSearchHit userHit(Long id, String email, String organizationName, double score) {
+        AdminUserSearchHit hit = mock(AdminUserSearchHit.class);
+        lenient().when(hit.getId()).thenReturn(id);
+        lenient().when(hit.getEmail()).thenReturn(email);
+        lenient().when(hit.getOrganizationName()).thenReturn(organizationName);
+        lenient().when(hit.getRole()).thenReturn("DONOR");
+        lenient().when(hit.getAccountStatus()).thenReturn("ACTIVE");
+        lenient().when(hit.getScore()).thenReturn(score);
+        return hit;
+    }
+    private static AdminDonationSearchHit donationHit(Long id, String title, String description, double score) {
+        AdminDonationSearchHit hit = mock(AdminDonationSearchHit.class);
+        lenient().when(hit.getId()).thenReturn(id);
+        lenient().when(hit.getTitle()).thenReturn(title);
+        lenient().when(hit.getDescription()).thenReturn(description);
+        lenient().when(hit.getStatus()).thenReturn("AVAILABLE");
+        lenient().when(hit.getScore()).thenReturn(score);
+        return hit;
+    }
+}
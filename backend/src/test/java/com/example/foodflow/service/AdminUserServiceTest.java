@@ -125,13 +125,13 @@ class AdminUserServiceTest {
     void getAllUsers_WithSearchTerm_ReturnsMatchingUsers() {
         Pageable pageable = PageRequest.of(0, 20, org.springframework.data.domain.Sort.by("createdAt").descending());
         Page<User> userPage = new PageImpl<>(Arrays.asList(testDonor));
-        when(userRepository.findByEmailContainingIgnoreCase("donor", pageable)).thenReturn(userPage);
+        when(userRepository.searchByEmailOrOrganizationName("%donor%", pageable)).thenReturn(userPage);
         when(surplusPostRepository.countByDonorId(1L)).thenReturn(5L);
         Page<AdminUserResponse> result = adminUserService.getAllUsers(null, null, "donor", 0, 20);
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertTrue(result.getContent().get(0).getEmail().contains("donor"));
-        verify(userRepository).findByEmailContainingIgnoreCase("donor", pageable);
+        verify(userRepository).searchByEmailOrOrganizationName("%donor%", pageable);
     }
     @Test
     void getUserById_WithValidId_ReturnsUser() {
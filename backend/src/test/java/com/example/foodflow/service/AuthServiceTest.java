@@ -48,6 +48,8 @@ class AuthServiceTest {
     private com.example.foodflow.repository.PasswordHistoryRepository passwordHistoryRepository;
     @Mock
     private PasswordValidator passwordValidator;
+    @Mock
+    private PasswordUpgradeService passwordUpgradeService;
     @InjectMocks
     private AuthService authService;
     private RegisterDonorRequest donorRequest;
@@ -243,6 +245,58 @@ class AuthServiceTest {
         verify(metricsService, never()).incrementLoginSuccess();
     }
     @Test
+    void login_ValidCredentials_UpgradesPasswordHash() {
+        // Given
+        LoginRequest loginRequest = new LoginRequest("user@test.com", "password123");
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@test.com");
+        user.setPassword("encoded-password");
+        user.setRole(UserRole.DONOR);
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encoded-password")).thenReturn(true);
+        when(jwtTokenProvider.generateToken("user@test.com", "DONOR")).thenReturn("jwt-token");
+        // When
+        authService.login(loginRequest);
+        // Then
+        verify(passwordUpgradeService).upgradeIfNeeded(user, "password123");
+    }
+    @Test
+    void login_PasswordUpgradeFails_StillLogsIn() {
+        // Given
+        LoginRequest loginRequest = new LoginRequest("user@test.com", "password123");
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@test.com");
+        user.setPassword("encoded-password");
+        user.setRole(UserRole.DONOR);
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encoded-password")).thenReturn(true);
+        when(passwordUpgradeService.upgradeIfNeeded(user, "password123"))
+                .thenThrow(new RuntimeException("database unavailable"));
+        when(jwtTokenProvider.generateToken("user@test.com", "DONOR")).thenReturn("jwt-token");
+        // When
+        AuthResponse response = authService.login(loginRequest);
+        // Then
+        assertEquals("jwt-token", response.getToken());
+        verify(metricsService).incrementLoginSuccess();
+    }
+    @Test
+    void login_InvalidPassword_DoesNotUpgradePasswordHash() {
+        // Given
+        LoginRequest loginRequest = new LoginRequest("user@test.com", "wrongpassword");
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@test.com");
+        user.setPassword("encoded-password");
+        user.setRole(UserRole.DONOR);
+        when(userRepository.findByEmail("user@test.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrongpassword", "encoded-password")).thenReturn(false);
+        // When & Then
+        assertThrows(RuntimeException.class, () -> authService.login(loginRequest));
+        verify(passwordUpgradeService, never()).upgradeIfNeeded(any(User.class), anyString());
+    }
+    @Test
     void login_DonorRole_GeneratesCorrectToken() {
         // Given
         LoginRequest loginRequest = new LoginRequest("donor@test.com", "password123");
@@ -12,6 +12,8 @@ import com.example.foodflow.model.types.ClaimStatus;
 import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationClaimed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -55,6 +57,8 @@ class ClaimServiceTest {
     private GamificationService gamificationService;
     @Mock
     private SmsService smsService;
+    @Mock
+    private DomainEventOutbox domainEventOutbox;
     @InjectMocks
     private ClaimService claimService;
     private User donor;
@@ -118,6 +122,18 @@ class ClaimServiceTest {
         verify(surplusPostRepository).save(argThat(post -> post.getStatus() == PostStatus.CLAIMED));
     }
     @Test
+    void claimSurplusPost_RecordsDonationClaimedWithoutSendingAnythingInline() {
+        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
+        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+        Claim savedClaim = new Claim(surplusPost, receiver);
+        savedClaim.setId(9L);
+        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
+        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
+        claimService.claimSurplusPost(claimRequest, receiver);
+        verify(domainEventOutbox).record(new DonationClaimed(9L, 1L, receiver.getId()));
+        verifyNoInteractions(messagingTemplate, emailService, smsService, gamificationService);
+    }
+    @Test
     void claimSurplusPost_UnapprovedReceiver_ThrowsException() {
         receiver.setAccountStatus(AccountStatus.PENDING_ADMIN_APPROVAL);
         assertThatThrownBy(() -> claimService.claimSurplusPost(claimRequest, receiver))
@@ -529,66 +545,50 @@ class ClaimServiceTest {
     }
     // Notification Tests
     @Test
-    void claimSurplusPost_WithEmailNotificationsEnabled_SendsEmailToDonor() {
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+    void sendClaimNotifications_WithEmailNotificationsEnabled_SendsEmailToDonor() {
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email")))
                 .thenReturn(true);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("websocket")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(notificationPreferenceService).shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email"));
         verify(notificationPreferenceService).shouldSendNotification(eq(donor), eq("donationClaimed"), eq("websocket"));
     }
     @Test
-    void claimSurplusPost_WithEmailNotificationsDisabled_DoesNotSendEmail() {
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+    void sendClaimNotifications_WithEmailNotificationsDisabled_DoesNotSendEmail() {
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email")))
                 .thenReturn(false);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("websocket")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(notificationPreferenceService).shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email"));
         verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/claims"), any());
         verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/claims"), any());
     }
     @Test
-    void claimSurplusPost_WithWebSocketNotificationsDisabled_DoesNotSendWebSocket() {
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+    void sendClaimNotifications_WithWebSocketNotificationsDisabled_DoesNotSendWebSocket() {
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("websocket")))
                 .thenReturn(false);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(notificationPreferenceService).shouldSendNotification(eq(donor), eq("donationClaimed"), eq("websocket"));
         // Should still send to receiver (notification always sent to claim creator)
         verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/claims"), any());
     }
     @Test
-    void claimSurplusPost_WithAllNotificationsDisabled_DoesNotSendToDonor() {
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+    void sendClaimNotifications_WithAllNotificationsDisabled_DoesNotSendToDonor() {
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), anyString()))
                 .thenReturn(false);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(notificationPreferenceService, times(3)).shouldSendNotification(eq(donor), eq("donationClaimed"),
                 anyString());
         // Should still send to receiver
@@ -658,46 +658,34 @@ class ClaimServiceTest {
         verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/claims/cancelled"), any());
     }
     @Test
-    void claimSurplusPost_VerifiesCorrectNotificationChannelsChecked() {
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
+    void sendClaimNotifications_VerifiesCorrectNotificationChannelsChecked() {
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(any(User.class), anyString(), anyString()))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         // Verify both websocket and email channels are checked for donor
         verify(notificationPreferenceService).shouldSendNotification(donor, "donationClaimed", "websocket");
         verify(notificationPreferenceService).shouldSendNotification(donor, "donationClaimed", "email");
     }
     @Test
-    void claimSurplusPost_SendsSmsWhenEnabledAndPhoneValid() {
+    void sendClaimNotifications_SendsSmsWhenEnabledAndPhoneValid() {
         donor.setPhone("+12345678901");
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("sms")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(smsService).sendDonationClaimedNotification(anyString(), anyString(), any());
     }
     @Test
-    void claimSurplusPost_DoesNotSendSmsWhenPhoneInvalid() {
+    void sendClaimNotifications_DoesNotSendSmsWhenPhoneInvalid() {
         donor.setPhone("invalid-phone");
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("sms")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(smsService, never()).sendDonationClaimedNotification(anyString(), anyString(), any());
     }
     @Test
@@ -729,18 +717,14 @@ class ClaimServiceTest {
         verify(smsService, never()).sendClaimCanceledNotification(anyString(), anyString(), any());
     }
     @Test
-    void claimSurplusPost_SendsEmailWithDonorNameWhenNoOrganization() {
+    void sendClaimNotifications_SendsEmailWithDonorNameWhenNoOrganization() {
         // Ensure donor has no organization
         donor.setOrganization(null);
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("email")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(emailService).sendDonationClaimedNotification(eq("donor@test.com"), eq("Donor"), any());
     }
     @Test
@@ -759,17 +743,13 @@ class ClaimServiceTest {
         verify(emailService).sendClaimCanceledNotification(eq("donor@test.com"), eq("Donor"), any());
     }
     @Test
-    void claimSurplusPost_DoesNotSendSmsWhenPhoneEmpty() {
+    void sendClaimNotifications_DoesNotSendSmsWhenPhoneEmpty() {
         donor.setPhone("   "); // Empty/whitespace phone
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
-        when(claimRepository.existsBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE)).thenReturn(false);
         Claim savedClaim = new Claim(surplusPost, receiver);
         savedClaim.setId(1L);
-        when(claimRepository.save(any(Claim.class))).thenReturn(savedClaim);
-        when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(surplusPost);
         when(notificationPreferenceService.shouldSendNotification(eq(donor), eq("donationClaimed"), eq("sms")))
                 .thenReturn(true);
-        claimService.claimSurplusPost(claimRequest, receiver);
+        claimService.sendClaimNotifications(savedClaim);
         verify(smsService, never()).sendDonationClaimedNotification(anyString(), anyString(), any());
     }
     @Test
@@ -1,12 +1,15 @@
 package com.example.foodflow.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import com.example.foodflow.model.dto.SupportChatRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.core.io.DefaultResourceLoader;
 class ContextualSupportServiceTest {
     @Test
@@ -63,4 +66,147 @@ class ContextualSupportServiceTest {
         List<Map<String, Object>> actions = (List<Map<String, Object>>) result.get("actions");
         assertThat(actions).isNotEmpty();
     }
+    @Test
+    void generateResponse_sameGenericQuestion_isAnsweredFromCache() {
+        OpenAIService openAIService = org.mockito.Mockito.mock(OpenAIService.class);
+        ContextualSupportService service =
+            new ContextualSupportService(new DefaultResourceLoader(), new ObjectMapper(), openAIService);
+        when(openAIService.generateSupportResponse(org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.any(),
+                org.mockito.Mockito.anyString()))
+            .thenReturn("Open Browse Food and tap Claim.");
+        service.generateResponse("How do I claim food?", "RECEIVER", "en", Map.of());
+        Map<String, Object> second =
+            service.generateResponse("  how do I CLAIM food ", "RECEIVER", "en", Map.of());
+        assertThat(second.get("reply")).isEqualTo("Open Browse Food and tap Claim.");
+        verify(openAIService, times(1)).generateSupportResponse(
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.any(),
+            org.mockito.Mockito.anyString());
+    }
+    @Test
+    void generateResponse_sameQuestionFromAnotherUser_isAnsweredFromTheSharedCache() {
+        OpenAIService openAIService = org.mockito.Mockito.mock(OpenAIService.class);
+        ContextualSupportService service =
+            new ContextualSupportService(new DefaultResourceLoader(), new ObjectMapper(), openAIService);
+        when(openAIService.generateSupportResponse(org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.any(),
+                org.mockito.Mockito.anyString()))
+            .thenReturn("Your account email is shown under Settings > Profile.");
+        Map<String, Object> firstUser = Map.of("hasActiveClaims", true,
+            "userPreferences", Map.of("userId", 1L, "email", "first@test.com"));
+        Map<String, Object> secondUser = Map.of("hasActiveClaims", false,
+            "userPreferences", Map.of("userId", 2L, "email", "second@test.com"));
+        service.generateResponse("What is my account email?", "DONOR", "en", firstUser);
+        Map<String, Object> second = service.generateResponse("What is my account email?", "DONOR", "en", secondUser);
+        assertThat(second.get("reply")).isEqualTo("Your account email is shown under Settings > Profile.");
+        // The shared answer was generated without the first user's details
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(openAIService, times(1)).generateSupportResponse(
+            prompt.capture(),
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.any(),
+            org.mockito.Mockito.anyString());
+        assertThat(prompt.getValue()).doesNotContain("first@test.com").doesNotContain("hasActiveClaims");
+    }
+    @Test
+    void generateResponse_questionAboutSpecificClaim_keepsTheUsersContext() {
+        OpenAIService openAIService = org.mockito.Mockito.mock(OpenAIService.class);
+        ContextualSupportService service =
+            new ContextualSupportService(new DefaultResourceLoader(), new ObjectMapper(), openAIService);
+        when(openAIService.generateSupportResponse(org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.any(),
+                org.mockito.Mockito.anyString()))
+            .thenReturn("Your pickup window is shown on the claim.");
+        SupportChatRequest.PageContext pageContext = new SupportChatRequest.PageContext();
+        pageContext.setClaimId("42");
+        service.generateResponse("When is my pickup?", "RECEIVER", "en", Map.of("pageContext", pageContext,
+            "userPreferences", Map.of("email", "receiver@test.com")));
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(openAIService).generateSupportResponse(
+            prompt.capture(),
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.any(),
+            org.mockito.Mockito.anyString());
+        assertThat(prompt.getValue()).contains("receiver@test.com");
+    }
+    @Test
+    void generateResponse_questionAboutSpecificClaim_isNotCached() {
+        OpenAIService openAIService = org.mockito.Mockito.mock(OpenAIService.class);
+        ContextualSupportService service =
+            new ContextualSupportService(new DefaultResourceLoader(), new ObjectMapper(), openAIService);
+        when(openAIService.generateSupportResponse(org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.any(),
+                org.mockito.Mockito.anyString()))
+            .thenReturn("Your pickup window is shown on the claim.");
+        SupportChatRequest.PageContext pageContext = new SupportChatRequest.PageContext();
+        pageContext.setClaimId("42");
+        Map<String, Object> userContext = Map.of("pageContext", pageContext);
+        service.generateResponse("When is my pickup?", "RECEIVER", "en", userContext);
+        service.generateResponse("When is my pickup?", "RECEIVER", "en", userContext);
+        verify(openAIService, times(2)).generateSupportResponse(
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.any(),
+            org.mockito.Mockito.anyString());
+    }
+    @Test
+    void generateResponse_escalationReply_isNotCached() {
+        OpenAIService openAIService = org.mockito.Mockito.mock(OpenAIService.class);
+        ContextualSupportService service =
+            new ContextualSupportService(new DefaultResourceLoader(), new ObjectMapper(), openAIService);
+        when(openAIService.generateSupportResponse(org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.anyString(),
+                org.mockito.Mockito.any(),
+                org.mockito.Mockito.anyString()))
+            .thenReturn("I'm unable to answer that right now.");
+        service.generateResponse("Why was my account flagged?", "DONOR", "en", Map.of());
+        service.generateResponse("Why was my account flagged?", "DONOR", "en", Map.of());
+        verify(openAIService, times(2)).generateSupportResponse(
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.anyString(),
+            org.mockito.Mockito.any(),
+            org.mockito.Mockito.anyString());
+    }
+    @Test
+    void buildPrompt_withinBudget_keepsEverySection() {
+        ContextualSupportService service = new ContextualSupportService(new DefaultResourceLoader(),
+            new ObjectMapper(), org.mockito.Mockito.mock(OpenAIService.class));
+        String prompt = service.buildPrompt("How do I post?", "DONOR", "en",
+            Map.of("hasActiveClaims", false));
+        assertThat(prompt)
+            .contains("### Donor Workflow (Current User)")
+            .contains("### Receiver Workflow (For Reference)")
+            .contains("## Troubleshooting Guide")
+            .contains("User Capabilities based on role DONOR")
+            .endsWith("provide a helpful, specific response:\n");
+        assertThat(ContextualSupportService.estimateTokens(prompt)).isLessThanOrEqualTo(service.promptTokenBudget());
+    }
+    @Test
+    void buildPrompt_tightBudget_dropsOptionalSectionsFirst() {
+        ContextualSupportService service = new ContextualSupportService(new DefaultResourceLoader(),
+            new ObjectMapper(), org.mockito.Mockito.mock(OpenAIService.class), 500, 2500, 100, 60);
+        String prompt = service.buildPrompt("How do I post?", "DONOR", "en", Map.of());
+        assertThat(prompt)
+            .contains("## App Overview")
+            .contains("### Donor Workflow (Current User)")
+            .doesNotContain("## Troubleshooting Guide")
+            .contains("USER QUESTION: \"How do I post?\"");
+        assertThat(ContextualSupportService.estimateTokens(prompt)).isLessThanOrEqualTo(2000);
+    }
+    @Test
+    void normalizeQuestion_foldsCaseAndPunctuation() {
+        assertThat(ContextualSupportService.normalizeQuestion("  How do I claim FOOD?! "))
+            .isEqualTo(ContextualSupportService.normalizeQuestion("how do i claim food"));
+    }
+    @Test
+    void estimateTokens_countsNonLatinCharactersIndividually() {
+        assertThat(ContextualSupportService.estimateTokens("abcdefgh")).isEqualTo(2);
+        assertThat(ContextualSupportService.estimateTokens("我需要帮助")).isEqualTo(5);
+    }
 }
@@ -161,7 +161,7 @@ class ConversationServiceTest {
         request.setRecipientEmail("user2@test.com");
         when(userRepository.findByEmail("user2@test.com")).thenReturn(Optional.of(user2));
         when(conversationRepository.findByUsers(1L, 2L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(3L);
         // When
         ConversationResponse response = conversationService.startConversation(user1, request);
@@ -266,7 +266,7 @@ class ConversationServiceTest {
     void testGetConversationResponse_Success() {
         // Given
         when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(5L);
         // When
         ConversationResponse response = conversationService.getConversationResponse(1L, user1);
@@ -281,7 +281,7 @@ class ConversationServiceTest {
     void testGetConversationResponse_NoMessages() {
         // Given
         when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Collections.emptyList());
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.empty());
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(0L);
         // When
         ConversationResponse response = conversationService.getConversationResponse(1L, user1);
@@ -304,7 +304,7 @@ class ConversationServiceTest {
         conversation.setDonor(user1);
         conversation.setReceiver(user2);
         when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(0L);
         ConversationResponse response = conversationService.getConversationResponse(1L, user1);
         assertThat(response.getDonationTitle()).isEqualTo("Fresh produce bundle");
@@ -330,7 +330,7 @@ class ConversationServiceTest {
     void testGetConversationByPost_Success() {
         // Given
         when(conversationRepository.findByPostIdAndUserId(1L, 1L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(1L);
         // When
         ConversationResponse response = conversationService.getConversationByPost(1L, user1);
@@ -358,7 +358,7 @@ class ConversationServiceTest {
         message2.setId(2L);
         message2.setMessageBody("Latest message");
         when(conversationRepository.findByPostIdAndUserId(1L, 1L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message, message2));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message2));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(2L);
         // When
         ConversationResponse response = conversationService.getConversationByPost(1L, user1);
@@ -376,7 +376,7 @@ class ConversationServiceTest {
         when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         when(conversationRepository.findByPostIdAndReceiverId(1L, 2L)).thenReturn(Optional.empty());
         when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
-        when(messageRepository.findByConversationId(anyLong())).thenReturn(Collections.emptyList());
+        when(messageRepository.findLastMessageInConversation(anyLong())).thenReturn(Optional.empty());
         when(messageRepository.countUnreadInConversation(anyLong(), anyLong())).thenReturn(0L);
         // When
         ConversationResponse response = conversationService.createOrGetPostConversation(1L, 2L, user1);
@@ -393,7 +393,7 @@ class ConversationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
         when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         when(conversationRepository.findByPostIdAndReceiverId(1L, 2L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(2L);
         // When
         ConversationResponse response = conversationService.createOrGetPostConversation(1L, 2L, user1);
@@ -445,7 +445,7 @@ class ConversationServiceTest {
         when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(surplusPost));
         when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         when(conversationRepository.findByPostIdAndReceiverId(1L, 2L)).thenReturn(Optional.of(conversation));
-        when(messageRepository.findByConversationId(1L)).thenReturn(Arrays.asList(message, message2));
+        when(messageRepository.findLastMessageInConversation(1L)).thenReturn(Optional.of(message2));
         when(messageRepository.countUnreadInConversation(1L, 1L)).thenReturn(1L);
         // When
         ConversationResponse response = conversationService.createOrGetPostConversation(1L, 2L, user1);
@@ -0,0 +1,196 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusFilterRequest;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.example.foodflow.model.entity.Organization;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.entity.UserRole;
+import com.example.foodflow.model.types.DietaryMatchMode;
+import com.example.foodflow.model.types.DietaryTag;
+import com.example.foodflow.model.types.FoodCategory;
+import com.example.foodflow.model.types.Location;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+@ExtendWith(MockitoExtension.class)
+class DonationFeedServiceTest {
+    private static final Location MONTREAL = new Location(45.5019, -73.5674, "Montreal");
+    private static final Location LAVAL = new Location(45.6066, -73.7124, "Laval");
+    private static final Location TORONTO = new Location(43.6532, -79.3832, "Toronto");
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private DonationFeedService feedService;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feedService = new DonationFeedService(messagingTemplate, userRepository, meterRegistry);
+        for (long id = 1; id <= 3; id++) {
+            User receiver = new User();
+            receiver.setId(id);
+            receiver.setRole(UserRole.RECEIVER);
+            receiver.setTimezone(id == 3 ? "America/Toronto" : "America/Montreal");
+            lenient().when(userRepository.findById(id)).thenReturn(Optional.of(receiver));
+        }
+    }
+    @Test
+    void publish_pushesOnlyToSubscribersWhoseCategoryAndRadiusMatch() {
+        feedService.subscribe(1L, "s1", filter(List.of("BREAD"), MONTREAL, 25.0));
+        feedService.subscribe(2L, "s2", filter(List.of("BERRIES"), MONTREAL, 25.0));
+        feedService.subscribe(3L, "s3", filter(List.of("BREAD"), TORONTO, 25.0));
+        int pushed = feedService.publish(post(LAVAL, FoodCategory.BREAD), timezone -> new SurplusResponse());
+        assertThat(pushed).isEqualTo(1);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/feed"), any(Map.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("2"), anyString(), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("3"), anyString(), any(Object.class));
+        // The inverted index only surfaced the Montreal bread subscription as a candidate
+        assertThat(meterRegistry.get("foodflow.feed.candidates").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("foodflow.feed.pushes").counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void publish_subscriptionWithoutCategoriesOrLocationMatchesEverything() {
+        feedService.subscribe(1L, "s1", new SurplusFilterRequest());
+        assertThat(feedService.publish(post(TORONTO, FoodCategory.BERRIES), timezone -> new SurplusResponse()))
+                .isEqualTo(1);
+    }
+    @Test
+    void publish_appliesDietaryAndExpiryChecksAfterTheIndexLookup() {
+        SurplusFilterRequest vegan = filter(List.of("BREAD"), null, null);
+        vegan.setDietaryTags(List.of(DietaryTag.VEGAN));
+        vegan.setDietaryMatch(DietaryMatchMode.ALL);
+        feedService.subscribe(1L, "s1", vegan);
+        SurplusPost post = post(MONTREAL, FoodCategory.BREAD);
+        post.setDietaryTags(new String[] {"VEGETARIAN"});
+        assertThat(feedService.publish(post, timezone -> new SurplusResponse())).isZero();
+        post.setDietaryTags(new String[] {"VEGAN", "GLUTEN_FREE"});
+        assertThat(feedService.publish(post, timezone -> new SurplusResponse())).isEqualTo(1);
+    }
+    @Test
+    void publish_ignoresPostsThatAreNoLongerAvailable() {
+        feedService.subscribe(1L, "s1", filter(List.of("BREAD"), MONTREAL, 25.0));
+        SurplusPost post = post(MONTREAL, FoodCategory.BREAD);
+        post.setStatus(PostStatus.CLAIMED);
+        assertThat(feedService.publish(post, timezone -> new SurplusResponse())).isZero();
+    }
+    @Test
+    void publish_sendsOneMessagePerReceiverAndRendersOncePerTimezone() {
+        String first = feedService.subscribe(1L, "s1", filter(List.of("BREAD"), null, null));
+        String second = feedService.subscribe(1L, "s1", filter(null, MONTREAL, 10.0));
+        feedService.subscribe(2L, "s2", filter(List.of("BREAD"), null, null));
+        AtomicInteger renders = new AtomicInteger();
+        int pushed = feedService.publish(post(MONTREAL, FoodCategory.BREAD), timezone -> {
+            renders.incrementAndGet();
+            return new SurplusResponse();
+        });
+        assertThat(pushed).isEqualTo(2);
+        assertThat(renders).hasValue(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/feed"), payload.capture());
+        assertThat(payload.getValue().get("type")).isEqualTo("FEED_MATCH");
+        @SuppressWarnings("unchecked")
+        List<String> subscriptionIds = (List<String>) payload.getValue().get("subscriptionIds");
+        assertThat(subscriptionIds).containsExactlyInAnyOrder(first, second);
+    }
+    @Test
+    void publish_appliesTheReceiversCountryRestriction() {
+        Organization organization = new Organization();
+        organization.setAddress("456 Main St, Toronto, ON, M5H 2N2, Canada");
+        User receiver = userRepository.findById(1L).orElseThrow();
+        receiver.setOrganization(organization);
+        feedService.subscribe(1L, "s1", new SurplusFilterRequest());
+        assertThat(feedService.publish(post(new Location(45.5, -73.6, "Montreal", "canada"), FoodCategory.BREAD),
+                timezone -> new SurplusResponse())).isEqualTo(1);
+        assertThat(feedService.publish(post(new Location(44.5, -73.2, "Burlington", "United States"),
+                FoodCategory.BREAD), timezone -> new SurplusResponse())).isZero();
+        // Posts without a country are allowed, as in the search feed
+        assertThat(feedService.publish(post(MONTREAL, FoodCategory.BREAD), timezone -> new SurplusResponse()))
+                .isEqualTo(1);
+    }
+    @Test
+    void publishAfterCommit_waitsForCommitAndSkipsRollback() {
+        feedService.subscribe(1L, "s1", new SurplusFilterRequest());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feedService.publishAfterCommit(post(MONTREAL, FoodCategory.BREAD), timezone -> new SurplusResponse());
+            verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/feed"), any(Map.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    @Test
+    void unsubscribeAndSessionClose_removeSubscriptions() {
+        String id = feedService.subscribe(1L, "s1", filter(List.of("BREAD"), null, null));
+        feedService.subscribe(2L, "s2", filter(List.of("BREAD"), null, null));
+        feedService.subscribe(2L, "s2", filter(List.of("BERRIES"), null, null));
+        assertThat(feedService.unsubscribe(2L, id)).isFalse();
+        assertThat(feedService.unsubscribe(1L, id)).isTrue();
+        assertThat(feedService.removeSession("s2")).isEqualTo(2);
+        assertThat(feedService.getSubscriptionCount()).isZero();
+        assertThat(feedService.publish(post(MONTREAL, FoodCategory.BREAD), timezone -> new SurplusResponse()))
+                .isZero();
+    }
+    @Test
+    void subscribe_rejectsNonReceiversAndTooManySubscriptions() {
+        User donor = new User();
+        donor.setId(9L);
+        donor.setRole(UserRole.DONOR);
+        lenient().when(userRepository.findById(9L)).thenReturn(Optional.of(donor));
+        assertThatThrownBy(() -> feedService.subscribe(9L, "s9", new SurplusFilterRequest()))
+                .isInstanceOf(IllegalArgumentException.class);
+        for (int i = 0; i < 5; i++) {
+            feedService.subscribe(1L, "s1", new SurplusFilterRequest());
+        }
+        assertThatThrownBy(() -> feedService.subscribe(1L, "s1", new SurplusFilterRequest()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    @Test
+    void cellsFor_treatsVeryWideRadiusAsAnywhere() {
+        assertThat(DonationFeedIndex.cellsFor(filter(null, MONTREAL, 25.0))).isNotEmpty();
+        assertThat(DonationFeedIndex.cellsFor(filter(null, MONTREAL, 5000.0))).isNull();
+    }
+    private static SurplusFilterRequest filter(List<String> categories, Location location, Double maxDistanceKm) {
+        SurplusFilterRequest filter = new SurplusFilterRequest();
+        filter.setFoodCategories(categories);
+        filter.setUserLocation(location);
+        filter.setMaxDistanceKm(maxDistanceKm);
+        return filter;
+    }
+    private static SurplusPost post(Location location, FoodCategory category) {
+        SurplusPost post = new SurplusPost();
+        post.setId(42L);
+        post.setStatus(PostStatus.AVAILABLE);
+        post.setFoodCategories(EnumSet.of(category));
+        post.setPickupLocation(location);
+        return post;
+    }
+}
@@ -12,8 +12,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class DonationImageResolverServiceTest {
@@ -131,4 +138,39 @@ class DonationImageResolverServiceTest {
         String resolved = service.resolveDonationImageUrl(donor, FoodType.PRODUCE, 999L);
         assertThat(resolved).isEqualTo("/api/files/donation-images/donation-999.jpg");
     }
+    @Test
+    void resolveDonationImageUrls_pageOfDonations_readsEachSourceOnce() {
+        User donor = new User();
+        donor.setId(50L);
+        DonationImage singleImage = new DonationImage();
+        singleImage.setStatus(DonationImageStatus.APPROVED);
+        singleImage.setUrl("/api/files/donation-images/donor-50/single.jpg");
+        DonorPhotoPreferences preferences = new DonorPhotoPreferences();
+        preferences.setDonor(donor);
+        preferences.setDisplayType(PhotoDisplayType.SINGLE);
+        preferences.setSingleImage(singleImage);
+        InternalImageLibrary untyped = new InternalImageLibrary();
+        untyped.setActive(true);
+        untyped.setUrl("https://cdn.foodflow/internal/default.jpg");
+        when(donationImageRepository.findDonationIdAndUrlByDonationIdInAndStatus(
+                Set.of(1L, 2L, 3L, 4L), DonationImageStatus.APPROVED))
+                .thenReturn(List.of(new Object[]{1L, "/api/files/donation-images/donation-1-new.jpg"},
+                        new Object[]{1L, "/api/files/donation-images/donation-1-old.jpg"}));
+        when(donorPhotoPreferencesRepository.findByDonorIdIn(Set.of(50L, 60L))).thenReturn(List.of(preferences));
+        when(internalImageLibraryRepository.findFirstByFoodTypeIsNullAndActiveTrueOrderByCreatedAtDesc())
+                .thenReturn(Optional.of(untyped));
+        Map<Long, String> resolved = service.resolveDonationImageUrls(List.of(
+                new DonationImageResolverService.DonationImageLookup(1L, 50L, null),
+                new DonationImageResolverService.DonationImageLookup(2L, 50L, null),
+                new DonationImageResolverService.DonationImageLookup(3L, 60L, null),
+                new DonationImageResolverService.DonationImageLookup(4L, 60L, null)));
+        assertThat(resolved).containsExactlyInAnyOrderEntriesOf(Map.of(
+                1L, "/api/files/donation-images/donation-1-new.jpg",
+                2L, "/api/files/donation-images/donor-50/single.jpg",
+                3L, "https://cdn.foodflow/internal/default.jpg",
+                4L, "https://cdn.foodflow/internal/default.jpg"));
+        verify(internalImageLibraryRepository, times(1)).findFirstByFoodTypeIsNullAndActiveTrueOrderByCreatedAtDesc();
+        verify(donorPhotoPreferencesRepository, never()).findByDonorId(any());
+        verify(donationImageRepository, never()).findFirstByDonationIdAndStatusOrderByCreatedAtDesc(any(), any());
+    }
 }
@@ -10,7 +10,6 @@ import com.example.foodflow.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -51,10 +50,8 @@ class DonationStatsServiceTest {
     @Test
     void testUpdateUserStats_FirstDonation_CreateStats() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.empty());
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         UserDonationStats result = donationStatsService.updateUserStats(1L, new BigDecimal("25"));
         assertThat(result.getTotalDonated()).isEqualByComparingTo(new BigDecimal("25"));
         assertThat(result.getDonationCount()).isEqualTo(1);
@@ -65,14 +62,15 @@ class DonationStatsServiceTest {
     }
     @Test
     void testUpdateUserStats_ExistingStats_Accumulates() {
-        existingStats.setTotalDonated(new BigDecimal("40"));
-        existingStats.setDonationCount(3);
+        // The atomic update has already added the donation to the 40 / 3 on record
+        existingStats.setTotalDonated(new BigDecimal("55"));
+        existingStats.setDonationCount(4);
         existingStats.setDonorBadge(DonorBadge.BRONZE);
+        when(userDonationStatsRepository.addDonation(eq(1L), eq(new BigDecimal("15")), any())).thenReturn(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
         when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.of(existingStats));
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         UserDonationStats result = donationStatsService.updateUserStats(1L, new BigDecimal("15"));
         assertThat(result.getTotalDonated()).isEqualByComparingTo(new BigDecimal("55"));
         assertThat(result.getDonationCount()).isEqualTo(4);
@@ -80,39 +78,41 @@ class DonationStatsServiceTest {
     }
     @Test
     void testUpdateUserStats_BadgeUpgrade_SendsBadgeNotification() {
-        existingStats.setTotalDonated(new BigDecimal("45"));
-        existingStats.setDonationCount(2);
+        existingStats.setTotalDonated(new BigDecimal("55"));
+        existingStats.setDonationCount(3);
         existingStats.setDonorBadge(DonorBadge.BRONZE);
+        when(userDonationStatsRepository.addDonation(eq(1L), eq(new BigDecimal("10")), any())).thenReturn(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
         when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.of(existingStats));
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         donationStatsService.updateUserStats(1L, new BigDecimal("10"));
         verify(donationNotificationService).notifyBadgeUpgraded(
                 eq(donor), eq(new BigDecimal("10")), any(), eq(DonorBadge.BRONZE));
     }
     @Test
     void testUpdateUserStats_NoBadgeUpgrade_NoBadgeNotification() {
-        existingStats.setTotalDonated(new BigDecimal("15"));
-        existingStats.setDonationCount(1);
+        existingStats.setTotalDonated(new BigDecimal("20"));
+        existingStats.setDonationCount(2);
         existingStats.setDonorBadge(DonorBadge.BRONZE);
+        when(userDonationStatsRepository.addDonation(eq(1L), eq(new BigDecimal("5")), any())).thenReturn(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
         when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.of(existingStats));
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         donationStatsService.updateUserStats(1L, new BigDecimal("5"));
         verify(donationNotificationService, never()).notifyBadgeUpgraded(any(), any(), any(), any());
     }
     @Test
     void testUpdateUserStats_AnonymousByDefault_BroadcastsAnonymously() {
         existingStats.setAnonymousByDefault(true);
+        existingStats.setTotalDonated(new BigDecimal("10"));
+        existingStats.setDonationCount(1);
+        when(userDonationStatsRepository.addDonation(eq(1L), eq(new BigDecimal("10")), any())).thenReturn(1);
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
         when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.of(existingStats));
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         donationStatsService.updateUserStats(1L, new BigDecimal("10"));
         verify(donationNotificationService).broadcastPlatformDonation(eq(donor), eq(new BigDecimal("10")), eq(true));
     }
@@ -126,14 +126,11 @@ class DonationStatsServiceTest {
     @Test
     void testUpdateUserStats_UpdatesDenormalizedCount() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userDonationStatsRepository.findByUserId(1L)).thenReturn(Optional.empty());
         when(userDonationStatsRepository.save(any(UserDonationStats.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         donationStatsService.updateUserStats(1L, new BigDecimal("10"));
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getDonationCount()).isEqualTo(1);
+        verify(userRepository).updateDonationCount(1L, 1);
+        verify(userRepository, never()).save(any(User.class));
     }
     // ==================== Tests for getUserBadgeInfo ====================
     @Test
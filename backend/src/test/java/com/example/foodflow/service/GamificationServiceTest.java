@@ -11,7 +11,6 @@ import com.example.foodflow.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -38,6 +37,8 @@ class GamificationServiceTest {
     private MessageRepository messageRepository;
     @Mock
     private ConversationRepository conversationRepository;
+    @Mock
+    private UserPointsWriter userPointsWriter;
     @InjectMocks
     private GamificationService gamificationService;
     private User donor;
@@ -95,67 +96,39 @@ class GamificationServiceTest {
     // ==================== Tests for awardPoints ====================
     @Test
     void testAwardPoints_Success() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         gamificationService.awardPoints(1L, 50, "Test reward");
-        // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        User savedUser = userCaptor.getValue();
-        assertThat(savedUser.getTotalPoints()).isEqualTo(150); // 100 + 50
+        // Then - one atomic increment, without loading or saving the user
+        verify(userPointsWriter).add(1L, 50);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void testAwardPoints_UserNotFound_ThrowsException() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        doThrow(new RuntimeException("User not found")).when(userPointsWriter).add(999L, 50);
         // When & Then
         assertThatThrownBy(() -> gamificationService.awardPoints(999L, 50, "Test"))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("User not found");
         verify(userRepository, never()).save(any(User.class));
     }
-
-    @Test
-    void testAwardPoints_NullCurrentPoints_StartsFromZero() {
-        // Given
-        donor.setTotalPoints(null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
-        // When
-        gamificationService.awardPoints(1L, 25, "First points");
-        // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getTotalPoints()).isEqualTo(25);
-    }
-
     @Test
     void testAwardPoints_NegativePoints_DecreasesTotal() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         gamificationService.awardPoints(1L, -30, "Penalty");
         // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getTotalPoints()).isEqualTo(70); // 100 - 30
+        verify(userPointsWriter).add(1L, -30);
     }
 
     @Test
     void testAwardPoints_ZeroPoints_NoChange() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         gamificationService.awardPoints(1L, 0, "No change");
-        // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getTotalPoints()).isEqualTo(100);
+        // Then - the writer skips zero deltas
+        verify(userPointsWriter).add(1L, 0);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     // ==================== Tests for checkAndUnlockAchievements
@@ -172,13 +145,12 @@ class GamificationServiceTest {
         UserAchievement newAchievement = new UserAchievement(donor, donationAchievement);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenReturn(newAchievement);
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(1L);
         // Then
         assertThat(result).hasSize(1);
         verify(userAchievementRepository, times(2)).save(any(UserAchievement.class));
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userPointsWriter, times(1)).add(1L, 10);
     }
 
     @Test
@@ -234,7 +206,6 @@ class GamificationServiceTest {
         when(surplusPostRepository.countByDonorId(1L)).thenReturn(10L);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(1L);
         // Then
@@ -263,14 +234,11 @@ class GamificationServiceTest {
         when(surplusPostRepository.countByDonorId(1L)).thenReturn(1L);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenReturn(new UserAchievement(donor, donationAchievement));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         gamificationService.checkAndUnlockAchievements(1L);
         // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository, times(1)).save(userCaptor.capture());
-        User savedUser = userCaptor.getValue();
-        assertThat(savedUser.getTotalPoints()).isEqualTo(110); // 100 + 10 (achievement points)
+        verify(userPointsWriter).add(1L, 10); // achievement points
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -483,7 +451,6 @@ class GamificationServiceTest {
         when(claimRepository.countByReceiverId(2L)).thenReturn(5L);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(receiver);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(2L);
         // Then
@@ -515,7 +482,6 @@ class GamificationServiceTest {
                 eq(List.of(ClaimStatus.COMPLETED)))).thenReturn(Arrays.asList(completedClaim));
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.save(any(User.class))).thenReturn(receiver);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(2L);
         // Then
@@ -535,7 +501,6 @@ class GamificationServiceTest {
         when(messageRepository.countBySenderId(1L)).thenReturn(2L);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenReturn(new UserAchievement(donor, socialAchievement));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(1L);
         // Then
@@ -544,15 +509,10 @@ class GamificationServiceTest {
 
     @Test
     void testAwardPoints_LargeAmount() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(donor));
-        when(userRepository.save(any(User.class))).thenReturn(donor);
         // When
         gamificationService.awardPoints(1L, 10000, "Large reward");
         // Then
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getTotalPoints()).isEqualTo(10100);
+        verify(userPointsWriter).add(1L, 10000);
     }
 
     @Test
@@ -566,7 +526,6 @@ class GamificationServiceTest {
         when(claimRepository.countByReceiverId(2L)).thenReturn(1L);
         when(userAchievementRepository.save(any(UserAchievement.class)))
                 .thenReturn(new UserAchievement(receiver, claimAchievement));
-        when(userRepository.save(any(User.class))).thenReturn(receiver);
         // When
         List<UserAchievement> result = gamificationService.checkAndUnlockAchievements(2L);
         // Then
@@ -0,0 +1,125 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.InvoiceResponse;
+import com.example.foodflow.model.types.InvoiceStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import static org.assertj.core.api.Assertions.assertThat;
+class InvoicePdfCacheTest {
+    @TempDir
+    Path cacheDir;
+    private SimpleMeterRegistry meterRegistry;
+    private InvoicePdfCache cache;
+    private final AtomicInteger renders = new AtomicInteger();
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InvoicePdfCache(meterRegistry, cacheDir.toString(), true, 35);
+    }
+    @Test
+    void contentHash_ChangesWhenRefundsChangeTheInvoice() {
+        InvoiceResponse paid = invoice(new BigDecimal("0.00"), InvoiceStatus.PAID);
+        InvoiceResponse refunded = invoice(new BigDecimal("10.00"), InvoiceStatus.PAID);
+        assertThat(cache.contentHash(paid)).isEqualTo(cache.contentHash(invoice(new BigDecimal("0.00"), InvoiceStatus.PAID)));
+        assertThat(cache.contentHash(paid)).isNotEqualTo(cache.contentHash(refunded));
+        assertThat(cache.contentHash(paid)).hasSize(64);
+    }
+    @Test
+    void write_RendersOnceThenServesFromDisk() {
+        String hash = cache.contentHash(invoice(BigDecimal.ZERO, InvoiceStatus.PAID));
+        assertThat(download(hash)).isEqualTo("%PDF-1");
+        assertThat(download(hash)).isEqualTo("%PDF-1");
+        assertThat(renders).hasValue(1);
+        assertThat(Files.exists(cacheDir.resolve("7").resolve(hash + ".pdf"))).isTrue();
+        assertThat(lookups("hit")).isEqualTo(1.0);
+        assertThat(lookups("miss")).isEqualTo(1.0);
+    }
+    @Test
+    void evictStale_KeepsOnlyTheCurrentRender() {
+        String oldHash = cache.contentHash(invoice(BigDecimal.ZERO, InvoiceStatus.PAID));
+        String newHash = cache.contentHash(invoice(new BigDecimal("25.00"), InvoiceStatus.VOID));
+        download(oldHash);
+        download(newHash);
+        cache.evictStale(7L, newHash);
+        assertThat(Files.exists(cacheDir.resolve("7").resolve(oldHash + ".pdf"))).isFalse();
+        assertThat(Files.exists(cacheDir.resolve("7").resolve(newHash + ".pdf"))).isTrue();
+    }
+    @Test
+    void prerender_SkipsEntriesThatAreAlreadyCached() {
+        String hash = cache.contentHash(invoice(BigDecimal.ZERO, InvoiceStatus.PAID));
+        assertThat(cache.prerender(7L, hash, renderer())).isTrue();
+        assertThat(cache.prerender(7L, hash, renderer())).isFalse();
+        assertThat(download(hash)).isEqualTo("%PDF-1");
+        assertThat(renders).hasValue(1);
+    }
+    @Test
+    void sweepExpired_RemovesEntriesNotDownloadedRecently() throws IOException {
+        String hash = cache.contentHash(invoice(BigDecimal.ZERO, InvoiceStatus.PAID));
+        cache.prerender(7L, hash, renderer());
+        Path entry = cacheDir.resolve("7").resolve(hash + ".pdf");
+        Files.setLastModifiedTime(entry, FileTime.from(Instant.now().minus(36, ChronoUnit.DAYS)));
+        cache.sweepExpired();
+        assertThat(Files.exists(entry)).isFalse();
+    }
+    @Test
+    void unusableCacheDirectory_FallsBackToRenderingIntoTheResponse() throws IOException {
+        Path notADirectory = Files.writeString(cacheDir.resolve("blocker"), "x");
+        InvoicePdfCache broken = new InvoicePdfCache(meterRegistry, notADirectory.toString(), true, 35);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        broken.write(7L, "abc", renderer(), out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("%PDF-1");
+    }
+    @Test
+    void disabledCache_AlwaysRenders() {
+        InvoicePdfCache disabled = new InvoicePdfCache(meterRegistry, cacheDir.toString(), false, 35);
+        disabled.write(7L, "abc", renderer(), new ByteArrayOutputStream());
+        disabled.write(7L, "abc", renderer(), new ByteArrayOutputStream());
+        assertThat(renders).hasValue(2);
+        assertThat(cacheDir.resolve("7")).doesNotExist();
+    }
+    private String download(String hash) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.write(7L, hash, renderer(), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    private Consumer<OutputStream> renderer() {
+        return out -> {
+            try {
+                out.write(("%PDF-" + renders.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+    private double lookups(String result) {
+        return meterRegistry.get("foodflow.invoice.pdf_cache").tag("result", result).counter().count();
+    }
+    private static InvoiceResponse invoice(BigDecimal refunded, InvoiceStatus status) {
+        return InvoiceResponse.builder()
+                .id(7L)
+                .paymentId(3L)
+                .invoiceNumber("INV-7")
+                .status(status)
+                .issuedDate(LocalDate.of(2026, 1, 1))
+                .dueDate(LocalDate.of(2026, 1, 31))
+                .subtotalAmount(new BigDecimal("25.00"))
+                .refundedAmount(refunded)
+                .netAmount(new BigDecimal("25.00").subtract(refunded))
+                .build();
+    }
+}
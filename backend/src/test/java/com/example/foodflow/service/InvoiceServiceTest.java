@@ -9,12 +9,14 @@ import com.example.foodflow.model.types.RefundStatus;
 import com.example.foodflow.repository.InvoiceRepository;
 import com.example.foodflow.repository.PaymentRepository;
 import com.example.foodflow.repository.RefundRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,6 +37,9 @@ class InvoiceServiceTest {
     private PaymentRepository paymentRepository;
     @Mock
     private RefundRepository refundRepository;
+    @Spy
+    private InvoicePdfCache invoicePdfCache =
+            new InvoicePdfCache(new SimpleMeterRegistry(), System.getProperty("java.io.tmpdir"), false, 35);
     @InjectMocks
     private InvoiceService invoiceService;
     private Payment testPayment;
@@ -0,0 +1,158 @@
+package com.example.foodflow.service;
+import com.example.foodflow.config.LogRetentionConfig;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class LogPartitionMaintenanceServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+    @TempDir
+    Path archiveDir;
+    private LogRetentionConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private LogPartitionMaintenanceService service;
+    @BeforeEach
+    void setUp() {
+        config = new LogRetentionConfig();
+        config.setArchiveDir(archiveDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2026-10-19T10:00:00Z"), ZoneOffset.UTC);
+        service = new LogPartitionMaintenanceService(jdbcTemplate, transactionManager, config,
+                schedulerLeaseService, meterRegistry, clock);
+    }
+    @Test
+    void partitionsOlderThan_OnlyReturnsMonthlyPartitionsBeforeTheCutoff() {
+        List<String> partitions = List.of("audit_log_2025_09", "audit_log_2025_10", "audit_log_default",
+                "audit_log_archive", "audit_log_2026_01");
+        assertThat(LogPartitionMaintenanceService.partitionsOlderThan("audit_log", partitions, YearMonth.of(2025, 10)))
+                .containsExactly("audit_log_2025_09");
+    }
+    @Test
+    void maintain_CreatesPartitionsAheadForEveryTable() {
+        service.maintain();
+        for (String table : LogPartitionMaintenanceService.PARTITIONED_TABLES) {
+            verify(jdbcTemplate).queryForObject("SELECT create_monthly_partitions(?, ?, ?)", Integer.class,
+                    table, LocalDate.of(2026, 10, 1), LocalDate.of(2027, 1, 1));
+        }
+        // Nothing has a retention configured, so nothing is listed, detached or deleted
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+    @Test
+    void maintain_DetachModeDetachesExpiredPartitionsWithoutDroppingThem() {
+        config.setMode(LogRetentionConfig.Mode.DETACH);
+        config.getMonths().put("audit_log", 12);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("audit_log")))
+                .thenReturn(List.of("audit_log_2025_08", "audit_log_2025_10", "audit_log_2026_10", "audit_log_default"));
+        service.maintain();
+        verify(jdbcTemplate).execute("ALTER TABLE audit_log DETACH PARTITION audit_log_2025_08");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE audit_log DETACH PARTITION audit_log_2025_10");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+        assertThat(meterRegistry.get("foodflow.log_retention.partitions")
+                .tag("table", "audit_log").tag("action", "detached").counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void maintain_ExportModeKeepsThePartitionWhenTheExportFails() throws IOException {
+        config.setMode(LogRetentionConfig.Mode.EXPORT);
+        config.setArchiveDir(Files.writeString(archiveDir.resolve("blocker"), "x").toString());
+        config.getMonths().put("calendar_sync_logs", 3);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("calendar_sync_logs")))
+                .thenReturn(List.of("calendar_sync_logs_2026_01"));
+        service.maintain();
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+    @Test
+    void maintain_ExportModeKeepsThePartitionWithoutAnAbsoluteArchiveDir() {
+        config.setMode(LogRetentionConfig.Mode.EXPORT);
+        config.setArchiveDir("log-archive");
+        config.getMonths().put("calendar_sync_logs", 3);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("calendar_sync_logs")))
+                .thenReturn(List.of("calendar_sync_logs_2026_01"));
+        service.maintain();
+        verifyNoInteractions(transactionManager);
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+    @Test
+    void defaults_DetachWithoutAnArchiveDir() {
+        LogRetentionConfig defaults = new LogRetentionConfig();
+        assertThat(defaults.getMode()).isEqualTo(LogRetentionConfig.Mode.DETACH);
+        assertThat(defaults.getArchiveDir()).isNull();
+    }
+    @Test
+    void maintain_DeletesExpiredWebhookEventsInBatches() {
+        config.setDeleteBatchSize(2);
+        config.getMonths().put("stripe_webhook_events", 3);
+        when(jdbcTemplate.update(startsWith("DELETE FROM stripe_webhook_events"), any(LocalDateTime.class)))
+                .thenReturn(2, 1);
+        service.maintain();
+        verify(jdbcTemplate, times(2)).update(
+                startsWith("DELETE FROM stripe_webhook_events"), eq(LocalDateTime.of(2026, 7, 19, 10, 0)));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM expiry_notification_log"), any(Object[].class));
+        assertThat(meterRegistry.get("foodflow.log_retention.rows_deleted")
+                .tag("table", "stripe_webhook_events").counter().count()).isEqualTo(3.0);
+    }
+    @Test
+    void maintain_NeverDeletesExpiryNotificationDedupeRows() {
+        config.getMonths().put("expiry_notification_log", 3);
+        service.maintain();
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM expiry_notification_log"), any(Object[].class));
+    }
+    @Test
+    void writeGzipCsv_WritesHeaderAndQuotedRows() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(3);
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnName(2)).thenReturn("details");
+        when(metaData.getColumnName(3)).thenReturn("actor_user_id");
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject(1)).thenReturn(7L);
+        when(resultSet.getObject(2)).thenReturn("said \"hi\", then left");
+        when(resultSet.getObject(3)).thenReturn(null);
+        Path file = archiveDir.resolve("audit_log_2025_01.csv.gz");
+        long rows = LogPartitionMaintenanceService.writeGzipCsv(resultSet, file);
+        assertThat(rows).isEqualTo(1);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("id,details,actor_user_id\r\n7,\"said \"\"hi\"\", then left\",\r\n");
+        }
+    }
+    @Test
+    void csvLine_LeavesPlainValuesUnquoted() {
+        assertThat(LogPartitionMaintenanceService.csvLine(Arrays.asList("a", 1, null, "b")))
+                .isEqualTo("a,1,,b\r\n");
+    }
+}
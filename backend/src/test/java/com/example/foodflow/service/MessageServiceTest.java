@@ -1,4 +1,6 @@
 package com.example.foodflow.service;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.dto.MessagePageResponse;
 import com.example.foodflow.model.dto.MessageRequest;
 import com.example.foodflow.model.dto.MessageResponse;
 import com.example.foodflow.model.entity.Conversation;
@@ -7,13 +9,18 @@ import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
 import com.example.foodflow.repository.ConversationRepository;
 import com.example.foodflow.repository.MessageRepository;
+import com.example.foodflow.util.MessageCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -121,6 +128,78 @@ class MessageServiceTest {
         verify(businessMetricsService).incrementMessagesReceived();
     }
     @Test
+    void testGetMessageHistory_LatestPageIsOldestFirstWithOlderCursor() {
+        // Given
+        Message msg1 = savedMessage(1L, "Message 1", LocalDateTime.of(2026, 3, 1, 12, 0));
+        Message msg2 = savedMessage(2L, "Message 2", LocalDateTime.of(2026, 3, 1, 12, 1));
+        Message msg3 = savedMessage(3L, "Message 3", LocalDateTime.of(2026, 3, 1, 12, 2));
+        when(conversationService.getConversation(1L, sender)).thenReturn(conversation);
+        when(messageRepository.findLatestPage(eq(1L), any(Pageable.class))).thenReturn(Arrays.asList(msg3, msg2, msg1));
+        // When
+        MessagePageResponse page = messageService.getMessageHistory(1L, sender, null, 2);
+        // Then - one extra row is fetched to detect the next page
+        verify(messageRepository).findLatestPage(1L, PageRequest.of(0, 3));
+        assertEquals(Arrays.asList("Message 2", "Message 3"),
+                page.getMessages().stream().map(MessageResponse::getMessageBody).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(MessageCursor.encode(msg2), page.getOldestCursor());
+        assertEquals(MessageCursor.encode(msg3), page.getNewestCursor());
+    }
+    @Test
+    void testGetMessageHistory_BeforeCursorUsesKeyset() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+        String before = new MessageCursor(createdAt, 7L).encode();
+        when(conversationService.getConversation(1L, sender)).thenReturn(conversation);
+        when(messageRepository.findPageBefore(eq(1L), eq(createdAt), eq(7L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        // When
+        MessagePageResponse page = messageService.getMessageHistory(1L, sender, before, 500);
+        // Then - page size is capped
+        verify(messageRepository).findPageBefore(1L, createdAt, 7L, PageRequest.of(0, 101));
+        assertTrue(page.getMessages().isEmpty());
+        assertFalse(page.isHasMore());
+    }
+    @Test
+    void testGetMessagesSince_ReturnsOnlyTheDelta() {
+        // Given
+        LocalDateTime seenAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+        String cursor = new MessageCursor(seenAt, 1L).encode();
+        Message msg2 = savedMessage(2L, "Missed 1", seenAt);
+        Message msg3 = savedMessage(3L, "Missed 2", seenAt.plusSeconds(1));
+        when(conversationService.getConversation(1L, sender)).thenReturn(conversation);
+        when(messageRepository.findPageAfter(eq(1L), eq(seenAt), eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(msg2, msg3));
+        // When
+        MessagePageResponse page = messageService.getMessagesSince(1L, sender, cursor, 20);
+        // Then
+        assertEquals(Arrays.asList(2L, 3L), page.getMessages().stream().map(MessageResponse::getId).toList());
+        assertFalse(page.isHasMore());
+        assertEquals(MessageCursor.encode(msg3), page.getNewestCursor());
+        verify(businessMetricsService).incrementMessagesReceived();
+    }
+    @Test
+    void testGetMessagesSince_NothingNewKeepsTheCursor() {
+        // Given
+        String cursor = new MessageCursor(LocalDateTime.of(2026, 3, 1, 12, 0), 5L).encode();
+        when(conversationService.getConversation(1L, sender)).thenReturn(conversation);
+        when(messageRepository.findPageAfter(eq(1L), any(LocalDateTime.class), eq(5L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        // When
+        MessagePageResponse page = messageService.getMessagesSince(1L, sender, cursor, 20);
+        // Then
+        assertTrue(page.getMessages().isEmpty());
+        assertEquals(cursor, page.getNewestCursor());
+    }
+    @Test
+    void testGetMessagesSince_InvalidCursor() {
+        // When & Then
+        assertThatThrownBy(() -> messageService.getMessagesSince(1L, sender, "not-a-cursor", 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.message.invalid_cursor");
+        verifyNoInteractions(messageRepository);
+    }
+    @Test
     void testMarkAsRead_Success() {
         // Given
         Message message = new Message(conversation, sender, "Test message");
@@ -171,32 +250,25 @@ class MessageServiceTest {
     @Test
     void testMarkConversationAsRead_Success() {
         // Given
-        Message msg1 = new Message(conversation, sender, "Message 1");
-        msg1.setReadStatus(false);
-        Message msg2 = new Message(conversation, sender, "Message 2");
-        msg2.setReadStatus(false);
-        List<Message> unreadMessages = Arrays.asList(msg1, msg2);
         when(conversationService.getConversation(1L, recipient)).thenReturn(conversation);
-        when(messageRepository.findUnreadByConversationAndUser(1L, 2L)).thenReturn(unreadMessages);
-        when(messageRepository.saveAll(anyList())).thenReturn(unreadMessages);
+        when(messageRepository.markConversationReadForUser(1L, 2L)).thenReturn(2);
         // When
         messageService.markConversationAsRead(1L, recipient);
-        // Then
+        // Then - a single bulk update, no per-message load/save
         verify(conversationService).getConversation(1L, recipient);
-        verify(messageRepository).findUnreadByConversationAndUser(1L, 2L);
-        verify(messageRepository).saveAll(anyList());
-        assertTrue(msg1.getReadStatus());
-        assertTrue(msg2.getReadStatus());
+        verify(messageRepository).markConversationReadForUser(1L, 2L);
+        verify(messageRepository, never()).findUnreadByConversationAndUser(anyLong(), anyLong());
+        verify(messageRepository, never()).saveAll(anyList());
     }
     @Test
     void testMarkConversationAsRead_NoUnreadMessages() {
         // Given
         when(conversationService.getConversation(1L, recipient)).thenReturn(conversation);
-        when(messageRepository.findUnreadByConversationAndUser(1L, 2L)).thenReturn(Collections.emptyList());
+        when(messageRepository.markConversationReadForUser(1L, 2L)).thenReturn(0);
         // When
         messageService.markConversationAsRead(1L, recipient);
         // Then
-        verify(messageRepository).saveAll(Collections.emptyList());
+        verify(messageRepository).markConversationReadForUser(1L, 2L);
     }
     @Test
     void testGetUnreadCount_Success() {
@@ -393,4 +465,10 @@ class MessageServiceTest {
         verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/messages"), any());
         verify(notificationPreferenceService, times(2)).shouldSendNotification(eq(recipient), eq("newMessageFromDonor"), anyString());
     }
+    private Message savedMessage(Long id, String body, LocalDateTime createdAt) {
+        Message message = new Message(conversation, sender, body);
+        message.setId(id);
+        ReflectionTestUtils.setField(message, "createdAt", createdAt);
+        return message;
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.foodflow.service;
 import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.entity.UserRole;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +13,10 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 @ExtendWith(MockitoExtension.class)
 @DisplayName("NotificationPreferenceService Tests")
 class NotificationPreferenceServiceTest {
@@ -293,4 +298,61 @@ class NotificationPreferenceServiceTest {
                 receiverUser, "newDonationAvailable", "websocket"));
         }
     }
+    @Nested
+    @DisplayName("Compiled preference cache Tests")
+    class CompiledPreferenceCacheTests {
+        @Test
+        @DisplayName("Should parse notification type JSON once across repeated checks")
+        void shouldParseJsonOnce_AcrossRepeatedChecks() throws Exception {
+            receiverUser.setNotificationTypePreferences("{\"newDonationAvailable\":false}");
+            for (int i = 0; i < 5; i++) {
+                assertFalse(notificationPreferenceService.shouldSendNotification(
+                    receiverUser, "newDonationAvailable", "websocket"));
+                assertTrue(notificationPreferenceService.shouldSendNotification(
+                    receiverUser, "pickupReminder", "email"));
+            }
+            verify(objectMapper, times(1)).readValue(anyString(), any(TypeReference.class));
+        }
+        @Test
+        @DisplayName("Should recompile when the user's preferences change")
+        void shouldRecompile_WhenPreferencesChange() {
+            receiverUser.setNotificationTypePreferences("{\"newDonationAvailable\":false}");
+            assertFalse(notificationPreferenceService.shouldSendNotification(
+                receiverUser, "newDonationAvailable", "websocket"));
+            receiverUser.setNotificationTypePreferences("{\"newDonationAvailable\":true}");
+            assertTrue(notificationPreferenceService.shouldSendNotification(
+                receiverUser, "newDonationAvailable", "websocket"));
+            receiverUser.setEmailNotificationsEnabled(false);
+            assertFalse(notificationPreferenceService.shouldSendNotification(
+                receiverUser, "newDonationAvailable", "email"));
+        }
+        @Test
+        @DisplayName("Should re-parse after invalidation")
+        void shouldReparse_AfterInvalidate() throws Exception {
+            receiverUser.setNotificationTypePreferences("{\"newDonationAvailable\":false}");
+            notificationPreferenceService.shouldSendNotification(receiverUser, "newDonationAvailable", "websocket");
+            notificationPreferenceService.invalidate(receiverUser.getId());
+            notificationPreferenceService.shouldSendNotification(receiverUser, "newDonationAvailable", "websocket");
+            verify(objectMapper, times(2)).readValue(anyString(), any(TypeReference.class));
+        }
+        @Test
+        @DisplayName("Should return only eligible user IDs for bulk checks")
+        void eligibleUserIds_ReturnsOnlyEligibleUsers() {
+            User optedOut = new User();
+            optedOut.setId(4L);
+            optedOut.setRole(UserRole.RECEIVER);
+            optedOut.setEmailNotificationsEnabled(true);
+            optedOut.setNotificationTypePreferences("{\"newDonationAvailable\":false}");
+            User noEmail = new User();
+            noEmail.setId(5L);
+            noEmail.setRole(UserRole.RECEIVER);
+            noEmail.setEmailNotificationsEnabled(false);
+            Set<Long> websocket = notificationPreferenceService.eligibleUserIds(
+                List.of(receiverUser, optedOut, noEmail), "newDonationAvailable", "websocket");
+            Set<Long> email = notificationPreferenceService.eligibleUserIds(
+                List.of(receiverUser, optedOut, noEmail), "newDonationAvailable", "email");
+            assertEquals(Set.of(2L, 5L), websocket);
+            assertEquals(Set.of(2L), email);
+        }
+    }
 }
@@ -32,6 +32,10 @@ class NotificationServiceTest {
     private NotificationPreferenceService notificationPreferenceService;
     @Mock
     private BusinessMetricsService businessMetricsService;
+    @Mock
+    private EmailNotificationService emailService;
+    @Mock
+    private SmsService smsService;
     @InjectMocks
     private NotificationService notificationService;
     private User receiver1;
@@ -74,8 +78,8 @@ class NotificationServiceTest {
         preferences2.setMaxCapacity(30);
         preferences2.setNotificationPreferencesEnabled(true);
         // Mock notification preference service to allow all notifications by default
-        lenient().when(notificationPreferenceService.shouldSendNotification(any(User.class), eq("newDonationAvailable"), eq("websocket")))
-            .thenReturn(true);
+        lenient().when(notificationPreferenceService.eligibleUserIds(anyCollection(), eq("newDonationAvailable"), eq("websocket")))
+            .thenAnswer(invocation -> allUserIds(invocation.getArgument(0)));
     }
     @Test
     void testSendNewPostNotification_MatchingPreferences_SendsNotification() {
@@ -100,6 +104,41 @@ class NotificationServiceTest {
         assertTrue(notification.get("matchReason").toString().contains("BAKERY_PASTRY"));
     }
     @Test
+    @SuppressWarnings("unchecked")
+    void testSendNewPostsNotification_OneMessagePerReceiverWithTheirMatchingPosts() {
+        // Arrange - an import of two bakery posts and one frozen post
+        SurplusPost bagels = new SurplusPost();
+        bagels.setId(101L);
+        bagels.setTitle("Bagels");
+        bagels.setFoodCategories(Set.of(FoodCategory.BAKERY_PASTRY));
+        bagels.setQuantity(new Quantity(5.0, Quantity.Unit.ITEM));
+        SurplusPost peas = new SurplusPost();
+        peas.setId(102L);
+        peas.setTitle("Peas");
+        peas.setFoodCategories(Set.of(FoodCategory.FROZEN));
+        peas.setQuantity(new Quantity(3.0, Quantity.Unit.ITEM));
+        when(userRepository.findByRole(UserRole.RECEIVER)).thenReturn(Arrays.asList(receiver1, receiver2));
+        when(receiverPreferencesRepository.findByUserId(1L)).thenReturn(Optional.of(preferences1));
+        when(receiverPreferencesRepository.findByUserId(2L)).thenReturn(Optional.of(preferences2));
+        when(claimRepository.findByReceiverIdAndStatus(anyLong(), eq(ClaimStatus.ACTIVE))).thenReturn(Collections.emptyList());
+        // Act
+        notificationService.sendNewPostsNotification(List.of(surplusPost, bagels, peas));
+        // Assert - each receiver hears once, about the posts that match their preferences
+        ArgumentCaptor<Map<String, Object>> first = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, Object>> second = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/notifications"), first.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/notifications"), second.capture());
+        assertEquals("NEW_POSTS", first.getValue().get("type"));
+        assertEquals(List.of(100L, 101L), first.getValue().get("postIds"));
+        assertEquals("2 new donations", first.getValue().get("title"));
+        assertEquals(15, first.getValue().get("quantity"));
+        assertEquals(List.of(102L), second.getValue().get("postIds"));
+        assertEquals("Peas", second.getValue().get("title"));
+        verify(receiverPreferencesRepository, times(1)).findByUserId(1L);
+        verify(claimRepository, times(1)).findByReceiverIdAndStatus(1L, ClaimStatus.ACTIVE);
+        verify(businessMetricsService, times(1)).incrementNotificationsSent();
+    }
+    @Test
     void testSendNewPostNotification_NonMatchingFoodType_FiltersOut() {
         // Arrange - receiver2 prefers FROZEN, but post is BAKERY_PASTRY
         when(userRepository.findByRole(UserRole.RECEIVER)).thenReturn(Arrays.asList(receiver2));
@@ -366,4 +405,38 @@ class NotificationServiceTest {
         // Should contain at least one of the matching categories
         assertTrue(matchReason.contains("BAKERY_PASTRY") || matchReason.contains("DAIRY_COLD"));
     }
+    @Test
+    void testSendNewPostNotification_NotificationTypeDisabled_SkipsPreferenceLookups() {
+        // Arrange
+        when(userRepository.findByRole(UserRole.RECEIVER)).thenReturn(Arrays.asList(receiver1));
+        when(notificationPreferenceService.eligibleUserIds(anyCollection(), eq("newDonationAvailable"), eq("websocket")))
+            .thenReturn(Collections.emptySet());
+        // Act
+        notificationService.sendNewPostNotification(surplusPost);
+        // Assert
+        verify(receiverPreferencesRepository, never()).findByUserId(anyLong());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+        verify(businessMetricsService).incrementNotificationsFiltered();
+    }
+    @Test
+    void testSendNewPostNotification_EmailEnabled_SendsEmail() {
+        // Arrange
+        when(userRepository.findByRole(UserRole.RECEIVER)).thenReturn(Arrays.asList(receiver1));
+        when(receiverPreferencesRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(notificationPreferenceService.eligibleUserIds(anyCollection(), eq("newDonationAvailable"), eq("email")))
+            .thenReturn(Set.of(1L));
+        // Act
+        notificationService.sendNewPostNotification(surplusPost);
+        // Assert
+        verify(emailService).sendNewDonationNotification(eq(receiver1.getEmail()), any(), anyMap());
+        verify(notificationPreferenceService, never()).shouldSendNotification(any(), any(), any());
+    }
+    @SuppressWarnings("unchecked")
+    private static Set<Long> allUserIds(Object users) {
+        Set<Long> ids = new HashSet<>();
+        for (User user : (Collection<User>) users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
 }
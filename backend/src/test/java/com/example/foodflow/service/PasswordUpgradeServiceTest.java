@@ -0,0 +1,61 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.ServiceBusyException;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class PasswordUpgradeServiceTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @InjectMocks
+    private PasswordUpgradeService passwordUpgradeService;
+    private User user;
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setEmail("user@test.com");
+        user.setPassword("old-hash");
+    }
+    @Test
+    void upgradeIfNeeded_HashBelowStrength_StoresNewHash() {
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("Secret123!")).thenReturn("new-hash");
+        when(userRepository.updatePasswordIfUnchanged(7L, "old-hash", "new-hash")).thenReturn(1);
+        assertTrue(passwordUpgradeService.upgradeIfNeeded(user, "Secret123!"));
+        verify(userRepository).updatePasswordIfUnchanged(7L, "old-hash", "new-hash");
+    }
+    @Test
+    void upgradeIfNeeded_HashCurrent_DoesNothing() {
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(false);
+        assertFalse(passwordUpgradeService.upgradeIfNeeded(user, "Secret123!"));
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), anyString(), anyString());
+    }
+    @Test
+    void upgradeIfNeeded_HashingPoolBusy_SkipsUpgrade() {
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("Secret123!")).thenThrow(new ServiceBusyException("error.auth.busy", 2));
+        assertFalse(passwordUpgradeService.upgradeIfNeeded(user, "Secret123!"));
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), anyString(), anyString());
+    }
+    @Test
+    void upgradeIfNeeded_PasswordChangedConcurrently_ReturnsFalse() {
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("Secret123!")).thenReturn("new-hash");
+        when(userRepository.updatePasswordIfUnchanged(7L, "old-hash", "new-hash")).thenReturn(0);
+        assertFalse(passwordUpgradeService.upgradeIfNeeded(user, "Secret123!"));
+    }
+}
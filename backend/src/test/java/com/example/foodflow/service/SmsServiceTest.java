@@ -1,4 +1,5 @@
 package com.example.foodflow.service;
+import com.example.foodflow.service.sms.SmsDispatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +10,8 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.util.HashMap;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 /**
  * Note: These tests validate phone number format and message construction.
  * Integration tests with actual Twilio API should be done in a separate test suite.
@@ -16,7 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class SmsServiceTest {
     @Mock
-    private BusinessMetricsService businessMetricsService;
+    private SmsDispatcher smsDispatcher;
     @InjectMocks
     private SmsService smsService;
     @BeforeEach
@@ -173,4 +176,16 @@ class SmsServiceTest {
                 "Phone should match E.164 format: " + validPhone);
         }
     }
+    @Test
+    void testSendSms_WithValidInput_HandsOffToDispatcher() {
+        when(smsDispatcher.dispatch("+12345678901", "Test message")).thenReturn(true);
+        boolean result = smsService.sendSms("+12345678901", "Test message");
+        assertTrue(result, "Valid SMS should be accepted for delivery");
+        verify(smsDispatcher).dispatch("+12345678901", "Test message");
+    }
+    @Test
+    void testSendSms_WithInvalidInput_NeverReachesDispatcher() {
+        smsService.sendSms("123-456-7890", "Test message");
+        verify(smsDispatcher, never()).dispatch(anyString(), anyString());
+    }
 }
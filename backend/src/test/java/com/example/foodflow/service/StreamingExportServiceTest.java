@@ -0,0 +1,90 @@
+package com.example.foodflow.service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+class StreamingExportServiceTest {
+    private MeterRegistry meterRegistry;
+    private StreamingExportService service;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new StreamingExportService(meterRegistry, 2);
+    }
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+    @Test
+    void admit_WritesBodyAndReleasesPermit() throws IOException {
+        Optional<StreamingResponseBody> body = service.admit("test", out -> out.write("hello".getBytes()));
+        assertThat(body).isPresent();
+        assertThat(service.getAvailablePermits()).isEqualTo(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.get().writeTo(out);
+        assertThat(out.toString()).isEqualTo("hello");
+        assertThat(service.getAvailablePermits()).isEqualTo(2);
+        assertThat(meterRegistry.get("foodflow.export.duration").tag("type", "test").timer().count()).isEqualTo(1);
+    }
+    @Test
+    void admit_AtCapacity_ReturnsEmptyAndCountsRejection() {
+        service.admit("test", out -> { });
+        service.admit("test", out -> { });
+        assertThat(service.admit("test", out -> { })).isEmpty();
+        assertThat(meterRegistry.get("foodflow.export.rejected").counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void admit_FailingBody_StillReleasesPermitOnce() throws IOException {
+        StreamingResponseBody body = service.admit("test", out -> {
+            throw new IOException("client went away");
+        }).orElseThrow();
+        assertThatThrownBy(() -> body.writeTo(new ByteArrayOutputStream())).isInstanceOf(IOException.class);
+        assertThat(service.getAvailablePermits()).isEqualTo(2);
+        // Re-running a finished body must not hand out an extra permit
+        assertThatThrownBy(() -> body.writeTo(new ByteArrayOutputStream())).isInstanceOf(IOException.class);
+        assertThat(service.getAvailablePermits()).isEqualTo(2);
+    }
+    @Test
+    void admit_BodyNeverRuns_ReleasesPermitWhenAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        StreamingResponseBody body = service.admit("test", out -> { }).orElseThrow();
+        assertThat(service.getAvailablePermits()).isEqualTo(1);
+        // The export pool turns the body away, so it never runs
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor() {
+            @Override
+            public Future<?> submit(Runnable task) {
+                throw new RejectedExecutionException("export pool full");
+            }
+            @Override
+            public <T> Future<T> submit(Callable<T> task) {
+                throw new RejectedExecutionException("export pool full");
+            }
+        });
+        asyncManager.startCallableProcessing(() -> body);
+        request.getAsyncContext().complete();
+        assertThat(service.getAvailablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.types.PaymentStatus;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookEventProcessorTest {
+    @Mock
+    private PaymentService paymentService;
+    @InjectMocks
+    private StripeWebhookEventProcessor processor;
+    @ParameterizedTest
+    @CsvSource({
+            "payment_intent.succeeded, SUCCEEDED",
+            "payment_intent.payment_failed, FAILED",
+            "payment_intent.canceled, CANCELED",
+            "payment_intent.requires_action, REQUIRES_ACTION"
+    })
+    void process_PaymentIntentEvents_UpdatePaymentStatus(String eventType, PaymentStatus expected) {
+        PaymentIntent paymentIntent = mock(PaymentIntent.class);
+        when(paymentIntent.getId()).thenReturn("pi_123");
+        processor.process(eventWithObject(eventType, paymentIntent));
+        verify(paymentService).updatePaymentStatus("pi_123", expected);
+    }
+    @Test
+    void process_ChargeRefunded_DoesNotTouchPayments() {
+        com.stripe.model.Charge charge = mock(com.stripe.model.Charge.class);
+        when(charge.getId()).thenReturn("ch_123");
+        processor.process(eventWithObject("charge.refunded", charge));
+        verifyNoInteractions(paymentService);
+    }
+    @Test
+    void process_CustomerAndPaymentMethodEvents_AreAcknowledged() {
+        com.stripe.model.Customer customer = mock(com.stripe.model.Customer.class);
+        com.stripe.model.PaymentMethod paymentMethod = mock(com.stripe.model.PaymentMethod.class);
+        processor.process(eventWithObject("customer.created", customer));
+        processor.process(eventWithObject("payment_method.attached", paymentMethod));
+        processor.process(eventWithObject("payment_method.detached", paymentMethod));
+        verifyNoInteractions(paymentService);
+    }
+    @Test
+    void process_UnhandledEventType_IsIgnored() {
+        Event event = mock(Event.class);
+        when(event.getType()).thenReturn("account.updated");
+        processor.process(event);
+        verifyNoInteractions(paymentService);
+    }
+    @Test
+    void process_DeserializationError_Throws() {
+        Event event = mock(Event.class);
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        when(event.getType()).thenReturn("payment_intent.succeeded");
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        when(deserializer.getObject()).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> processor.process(event))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("deserialize");
+        verify(paymentService, never()).updatePaymentStatus(anyString(), any());
+    }
+    @Test
+    void process_PaymentServiceFailure_Propagates() {
+        PaymentIntent paymentIntent = mock(PaymentIntent.class);
+        when(paymentIntent.getId()).thenReturn("pi_error");
+        doThrow(new RuntimeException("Payment not found for intent: pi_error"))
+                .when(paymentService).updatePaymentStatus("pi_error", PaymentStatus.SUCCEEDED);
+        assertThatThrownBy(() -> processor.process(eventWithObject("payment_intent.succeeded", paymentIntent)))
+                .hasMessageContaining("pi_error");
+    }
+    private static Event eventWithObject(String eventType, StripeObject object) {
+        Event event = mock(Event.class);
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        when(event.getType()).thenReturn(eventType);
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        when(deserializer.getObject()).thenReturn(Optional.of(object));
+        return event;
+    }
+}
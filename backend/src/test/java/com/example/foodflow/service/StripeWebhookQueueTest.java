@@ -0,0 +1,281 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.entity.StripeWebhookEvent;
+import com.example.foodflow.model.types.PaymentStatus;
+import com.example.foodflow.repository.StripeWebhookEventRepository;
+import com.stripe.Stripe;
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookQueueTest {
+    @Mock
+    private StripeWebhookEventRepository repository;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final Map<Long, StripeWebhookEvent> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Queue<Runnable> submitted = new ArrayDeque<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T12:00:00Z"));
+    private SimpleMeterRegistry meterRegistry;
+    private StripeWebhookQueue queue;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backRepositoryWithMap();
+        TaskExecutor deferred = submitted::add;
+        queue = new StripeWebhookQueue(repository, new StripeWebhookEventProcessor(paymentService),
+                deferred, transactionManager, meterRegistry, clock);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(queue, "retryBaseDelayMs", 1000L);
+        ReflectionTestUtils.setField(queue, "retryMaxDelayMs", 60000L);
+    }
+    @Test
+    void orderingKey_PrefersPaymentIntentThenObjectIdThenEventId() {
+        assertThat(queue.orderingKey("{\"data\":{\"object\":{\"id\":\"ch_1\",\"payment_intent\":\"pi_1\"}}}", "evt_1"))
+                .isEqualTo("pi_1");
+        assertThat(queue.orderingKey("{\"data\":{\"object\":{\"id\":\"pi_2\"}}}", "evt_2")).isEqualTo("pi_2");
+        assertThat(queue.orderingKey("{\"data\":{}}", "evt_3")).isEqualTo("evt_3");
+        assertThat(queue.orderingKey("not json", "evt_4")).isEqualTo("evt_4");
+    }
+    @Test
+    void accept_DuplicateDeliveryIsStoredAndScheduledOnce() {
+        String payload = paymentIntentEvent("evt_dup", "payment_intent.succeeded", "pi_dup", 100);
+        assertThat(queue.accept(parse(payload), payload)).isTrue();
+        assertThat(queue.accept(parse(payload), payload)).isFalse();
+        assertThat(table).hasSize(1);
+        assertThat(submitted).hasSize(1);
+        assertThat(events("duplicate")).isEqualTo(1.0);
+        verifyNoInteractions(paymentService);
+    }
+    @Test
+    void failedEventIsRetriedWithBackoffAndBlocksLaterEventsForTheSameIntent() {
+        doThrow(new RuntimeException("database unavailable"))
+                .doNothing()
+                .when(paymentService).updatePaymentStatus("pi_retry", PaymentStatus.REQUIRES_ACTION);
+        accept(paymentIntentEvent("evt_a", "payment_intent.requires_action", "pi_retry", 100));
+        accept(paymentIntentEvent("evt_b", "payment_intent.succeeded", "pi_retry", 200));
+        runSubmitted();
+        StripeWebhookEvent first = byStripeId("evt_a");
+        assertThat(first.getProcessed()).isFalse();
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getNextAttemptAt()).isEqualTo(LocalDateTime.now(clock).plusSeconds(1));
+        assertThat(byStripeId("evt_b").getProcessed()).isFalse();
+        verify(paymentService, never()).updatePaymentStatus("pi_retry", PaymentStatus.SUCCEEDED);
+        // The retry is not due yet, so a drain must not let evt_b overtake it
+        queue.drainDueWork();
+        runSubmitted();
+        verify(paymentService, times(1)).updatePaymentStatus("pi_retry", PaymentStatus.REQUIRES_ACTION);
+        verify(paymentService, never()).updatePaymentStatus("pi_retry", PaymentStatus.SUCCEEDED);
+        clock.advance(Duration.ofSeconds(1));
+        queue.drainDueWork();
+        runSubmitted();
+        InOrder inOrder = inOrder(paymentService);
+        inOrder.verify(paymentService, times(2)).updatePaymentStatus("pi_retry", PaymentStatus.REQUIRES_ACTION);
+        inOrder.verify(paymentService).updatePaymentStatus("pi_retry", PaymentStatus.SUCCEEDED);
+        assertThat(byStripeId("evt_a").getProcessed()).isTrue();
+        assertThat(byStripeId("evt_b").getProcessed()).isTrue();
+        assertThat(events("retried")).isEqualTo(1.0);
+    }
+    @Test
+    void eventIsDeadLetteredAfterMaxAttemptsAndUnblocksItsKey() {
+        doThrow(new RuntimeException("Payment not found for intent: pi_dead"))
+                .when(paymentService).updatePaymentStatus("pi_dead", PaymentStatus.FAILED);
+        accept(paymentIntentEvent("evt_fail", "payment_intent.payment_failed", "pi_dead", 100));
+        accept(paymentIntentEvent("evt_next", "payment_intent.canceled", "pi_dead", 200));
+        runSubmitted();
+        for (int i = 0; i < 2; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            queue.drainDueWork();
+            runSubmitted();
+        }
+        StripeWebhookEvent failed = byStripeId("evt_fail");
+        assertThat(failed.getDeadLettered()).isTrue();
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getErrorMessage()).contains("pi_dead");
+        assertThat(byStripeId("evt_next").getProcessed()).isTrue();
+        verify(paymentService).updatePaymentStatus("pi_dead", PaymentStatus.CANCELED);
+        assertThat(events("dead_lettered")).isEqualTo(1.0);
+    }
+    @Test
+    void unreadablePayloadIsDeadLetteredWithoutRetrying() {
+        queue.accept(parse(paymentIntentEvent("evt_bad", "payment_intent.succeeded", "pi_bad", 100)), "not json at all");
+        runSubmitted();
+        assertThat(byStripeId("evt_bad").getDeadLettered()).isTrue();
+        assertThat(byStripeId("evt_bad").getAttempts()).isEqualTo(1);
+        verifyNoInteractions(paymentService);
+    }
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(queue.backoffMillis(1)).isEqualTo(1000L);
+        assertThat(queue.backoffMillis(2)).isEqualTo(2000L);
+        assertThat(queue.backoffMillis(4)).isEqualTo(8000L);
+        assertThat(queue.backoffMillis(30)).isEqualTo(60000L);
+    }
+    /**
+     * Replays a recorded batch of Stripe deliveries (out of order, with a redelivery) through the
+     * real event processor. To replay a larger capture locally, append lines to the resource file.
+     */
+    @Test
+    void replayRecordedWebhooks_ProcessesEachEventOnceInCreationOrderPerIntent() throws Exception {
+        List<String> payloads = recordedPayloads();
+        long started = System.nanoTime();
+        int accepted = 0;
+        for (String payload : payloads) {
+            if (queue.accept(parse(payload), payload)) {
+                accepted++;
+            }
+        }
+        long acceptNanos = System.nanoTime() - started;
+        runSubmitted();
+        assertThat(accepted).isEqualTo(payloads.size() - 1);
+        assertThat(table.values()).allMatch(StripeWebhookEvent::getProcessed);
+        assertThat(events("processed")).isEqualTo((double) accepted);
+        assertThat(meterRegistry.get("foodflow.stripe.webhook.process.duration").timer().count())
+                .isEqualTo((long) accepted);
+        // evt_1PaS02 was delivered after evt_1PaS01 but created before it
+        InOrder intentA = inOrder(paymentService);
+        intentA.verify(paymentService).updatePaymentStatus("pi_3PaSA1", PaymentStatus.REQUIRES_ACTION);
+        intentA.verify(paymentService).updatePaymentStatus("pi_3PaSA1", PaymentStatus.SUCCEEDED);
+        InOrder intentB = inOrder(paymentService);
+        intentB.verify(paymentService).updatePaymentStatus("pi_3PaSB2", PaymentStatus.FAILED);
+        intentB.verify(paymentService).updatePaymentStatus("pi_3PaSB2", PaymentStatus.CANCELED);
+        verify(paymentService, times(4)).updatePaymentStatus(anyString(), any());
+        assertThat(Duration.ofNanos(acceptNanos)).isLessThan(Duration.ofSeconds(5));
+    }
+    private List<String> recordedPayloads() throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/stripe/recorded-webhooks.jsonl"), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> line.replace("${api_version}", Stripe.API_VERSION))
+                    .toList();
+        }
+    }
+    private void accept(String payload) {
+        queue.accept(parse(payload), payload);
+    }
+    private void runSubmitted() {
+        Runnable task;
+        while ((task = submitted.poll()) != null) {
+            task.run();
+        }
+    }
+    private static Event parse(String payload) {
+        return ApiResource.GSON.fromJson(payload, Event.class);
+    }
+    private static String paymentIntentEvent(String eventId, String type, String paymentIntentId, long created) {
+        return "{\"id\":\"" + eventId + "\",\"object\":\"event\",\"api_version\":\"" + Stripe.API_VERSION + "\","
+                + "\"created\":" + created + ",\"type\":\"" + type + "\","
+                + "\"data\":{\"object\":{\"id\":\"" + paymentIntentId + "\",\"object\":\"payment_intent\"}}}";
+    }
+    private StripeWebhookEvent byStripeId(String stripeEventId) {
+        return table.values().stream()
+                .filter(e -> e.getStripeEventId().equals(stripeEventId))
+                .findFirst().orElseThrow();
+    }
+    private double events(String outcome) {
+        return meterRegistry.get("foodflow.stripe.webhook.events").tag("outcome", outcome).counter().count();
+    }
+    private boolean isPending(StripeWebhookEvent event) {
+        return !event.getProcessed() && !event.getDeadLettered();
+    }
+    private void backRepositoryWithMap() {
+        lenient().when(repository.insertIfAbsent(anyString(), anyString(), anyString(), anyString(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenAnswer(inv -> {
+            String eventId = inv.getArgument(0);
+            if (table.values().stream().anyMatch(e -> e.getStripeEventId().equals(eventId))) {
+                return 0;
+            }
+            StripeWebhookEvent event = new StripeWebhookEvent();
+            event.setId(ids.incrementAndGet());
+            event.setStripeEventId(eventId);
+            event.setEventType(inv.getArgument(1));
+            event.setPayload(inv.getArgument(2));
+            event.setOrderingKey(inv.getArgument(3));
+            event.setStripeCreatedAt(inv.getArgument(4));
+            event.setCreatedAt(inv.getArgument(5));
+            table.put(event.getId(), event);
+            return 1;
+        });
+        lenient().when(repository.findPendingByOrderingKey(anyString(), any(Pageable.class))).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return table.values().stream()
+                    .filter(e -> e.getOrderingKey().equals(key) && isPending(e))
+                    .sorted(Comparator.comparing(StripeWebhookEvent::getStripeCreatedAt)
+                            .thenComparing(StripeWebhookEvent::getId))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        lenient().when(repository.findDueOrderingKeys(any(LocalDateTime.class), any(Pageable.class))).thenAnswer(inv -> {
+            LocalDateTime now = inv.getArgument(0);
+            return table.values().stream()
+                    .filter(e -> isPending(e) && (e.getNextAttemptAt() == null || !e.getNextAttemptAt().isAfter(now)))
+                    .sorted(Comparator.comparing(StripeWebhookEvent::getId))
+                    .map(StripeWebhookEvent::getOrderingKey)
+                    .distinct()
+                    .toList();
+        });
+        lenient().when(repository.lockPendingById(any())).thenAnswer(inv ->
+                Optional.ofNullable(table.get(inv.<Long>getArgument(0))).filter(this::isPending));
+        lenient().when(repository.findById(any())).thenAnswer(inv ->
+                Optional.ofNullable(table.get(inv.<Long>getArgument(0))));
+        lenient().when(repository.save(any(StripeWebhookEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(repository.countPending()).thenAnswer(inv ->
+                table.values().stream().filter(this::isPending).count());
+    }
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -54,8 +54,8 @@ class SupportContextBuilderTest {
         claim.setStatus(ClaimStatus.ACTIVE);
         claim.setConfirmedPickupStartTime(LocalTime.of(10, 0));
         claim.setConfirmedPickupEndTime(LocalTime.of(11, 0));
-        when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(donation));
-        when(claimRepository.findById(2L)).thenReturn(Optional.of(claim));
+        when(surplusPostRepository.findWithDonorById(1L)).thenReturn(Optional.of(donation));
+        when(claimRepository.findWithPartiesById(2L)).thenReturn(Optional.of(claim));
         SupportChatRequest.PageContext pageContext = new SupportChatRequest.PageContext();
         pageContext.setRoute("/receiver/browse");
         pageContext.setDonationId("1");
@@ -55,7 +55,6 @@ class SurplusExpiryLogicTest {
                 Mockito.mock(TimelineService.class),
                 Mockito.mock(DonationTimelineRepository.class),
                 Mockito.mock(FileStorageService.class),
-                Mockito.mock(GamificationService.class),
                 Mockito.mock(ClaimService.class),
                 Mockito.mock(org.springframework.messaging.simp.SimpMessagingTemplate.class),
                 Mockito.mock(EmailNotificationService.class),
@@ -64,9 +63,10 @@ class SurplusExpiryLogicTest {
                 Mockito.mock(ImpactCalculationService.class),
                 Mockito.mock(com.example.foodflow.service.calendar.CalendarEventService.class),
                 Mockito.mock(com.example.foodflow.service.calendar.CalendarIntegrationService.class),
-                Mockito.mock(com.example.foodflow.service.calendar.CalendarSyncService.class),
+                Mockito.mock(com.example.foodflow.service.calendar.CalendarSyncJobQueue.class),
                 Mockito.mock(com.example.foodflow.repository.CalendarSyncPreferenceRepository.class),
-                Mockito.mock(com.example.foodflow.repository.SyncedCalendarEventRepository.class));
+                Mockito.mock(com.example.foodflow.repository.SyncedCalendarEventRepository.class),
+                Mockito.mock(com.example.foodflow.service.events.DomainEventOutbox.class));
         setPrivateField(surplusService, "expiringSoonHours", 24);
     }
     @Test
@@ -0,0 +1,59 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.dto.SurplusCardResponse;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.example.foodflow.model.types.PostStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+class SurplusFieldSelectionTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    @Test
+    void parse_WithoutFieldsMeansFullResponses() {
+        assertThat(SurplusFieldSelection.parse(null).isFull()).isTrue();
+        assertThat(SurplusFieldSelection.parse("  ").isFull()).isTrue();
+    }
+    @Test
+    void apply_WholeCardReturnsTheCardsUnchanged() {
+        SurplusFieldSelection selection = SurplusFieldSelection.parse("card");
+        List<SurplusCardResponse> cards = List.of(SurplusCardResponse.builder().id(1L).title("Bread").build());
+        assertThat(selection.fitsCard()).isTrue();
+        assertThat(selection.apply(cards, objectMapper)).isSameAs(cards);
+    }
+    @Test
+    void apply_CardSubsetKeepsOnlyTheSelectedPropertiesAndId() {
+        SurplusFieldSelection selection = SurplusFieldSelection.parse("title, status");
+        List<?> trimmed = selection.apply(List.of(SurplusCardResponse.builder()
+                .id(1L)
+                .title("Bread")
+                .description("Rye")
+                .status(PostStatus.AVAILABLE)
+                .build()), objectMapper);
+        assertThat(selection.fitsCard()).isTrue();
+        ObjectNode node = (ObjectNode) trimmed.get(0);
+        assertThat(node.size()).isEqualTo(3);
+        assertThat(node.has("description")).isFalse();
+        assertThat(node.get("status").asText()).isEqualTo("AVAILABLE");
+    }
+    @Test
+    void fitsCard_FalseWhenAPropertyIsOnlyOnTheFullResponse() {
+        SurplusFieldSelection selection = SurplusFieldSelection.parse("card,impactCo2eKg");
+        SurplusResponse response = new SurplusResponse();
+        response.setId(1L);
+        response.setImpactCo2eKg(2.5);
+        assertThat(selection.fitsCard()).isFalse();
+        ObjectNode node = (ObjectNode) selection.apply(List.of(response), objectMapper).get(0);
+        assertThat(node.get("impactCo2eKg").asDouble()).isEqualTo(2.5);
+        assertThat(node.has("otpCode")).isFalse();
+    }
+    @Test
+    void parse_RejectsUnknownProperties() {
+        assertThatThrownBy(() -> SurplusFieldSelection.parse("title,secret"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.surplus.fields.unknown");
+    }
+}
@@ -43,7 +43,6 @@ class SurplusImpactComputationIntegrationTest {
                 Mockito.mock(TimelineService.class),
                 Mockito.mock(com.example.foodflow.repository.DonationTimelineRepository.class),
                 Mockito.mock(FileStorageService.class),
-                Mockito.mock(GamificationService.class),
                 claimService,
                 Mockito.mock(org.springframework.messaging.simp.SimpMessagingTemplate.class),
                 Mockito.mock(EmailNotificationService.class),
@@ -52,9 +51,10 @@ class SurplusImpactComputationIntegrationTest {
                 Mockito.mock(ImpactCalculationService.class),
                 Mockito.mock(com.example.foodflow.service.calendar.CalendarEventService.class),
                 Mockito.mock(com.example.foodflow.service.calendar.CalendarIntegrationService.class),
-                Mockito.mock(com.example.foodflow.service.calendar.CalendarSyncService.class),
+                Mockito.mock(com.example.foodflow.service.calendar.CalendarSyncJobQueue.class),
                 Mockito.mock(com.example.foodflow.repository.CalendarSyncPreferenceRepository.class),
-                Mockito.mock(com.example.foodflow.repository.SyncedCalendarEventRepository.class));
+                Mockito.mock(com.example.foodflow.repository.SyncedCalendarEventRepository.class),
+                Mockito.mock(com.example.foodflow.service.events.DomainEventOutbox.class));
     }
     @Test
     void confirmPickupShouldComputeAndPersistImpactSnapshot() {
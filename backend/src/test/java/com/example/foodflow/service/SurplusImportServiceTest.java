@@ -0,0 +1,168 @@
+package com.example.foodflow.service;
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.dto.CreateSurplusRequest;
+import com.example.foodflow.model.dto.SurplusImportResponse;
+import com.example.foodflow.model.entity.AccountStatus;
+import com.example.foodflow.model.entity.SurplusPost;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.model.entity.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticMessageSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class SurplusImportServiceTest {
+    private static final String PICKUP_DATE = LocalDate.now().plusDays(1).toString();
+    private static final String EXPIRY_DATE = LocalDate.now().plusDays(3).toString();
+    @Mock
+    private SurplusService surplusService;
+    private SurplusImportService importService;
+    private User donor;
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        importService = new SurplusImportService(surplusService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), new StaticMessageSource(), 3);
+        donor = new User();
+        donor.setId(1L);
+        donor.setRole(UserRole.DONOR);
+        donor.setAccountStatus(AccountStatus.ACTIVE);
+    }
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+    private static String jsonRow(String title, String temperatureCategory) {
+        return """
+                {"title": "%s", "description": "Fresh", "foodCategories": ["BAKERY_PASTRY"],
+                 "quantity": {"value": 5, "unit": "KILOGRAM"}, "expiryDate": "%s",
+                 "pickupDate": "%s", "pickupFrom": "09:00", "pickupTo": "11:00",
+                 "pickupLocation": {"latitude": 45.5, "longitude": -73.6, "address": "123 Main Street, Montreal"},
+                 "temperatureCategory": "%s", "packagingType": "SEALED"}
+                """.formatted(title, EXPIRY_DATE, PICKUP_DATE, temperatureCategory);
+    }
+    private void saveWithIds() {
+        when(surplusService.createSurplusPosts(anyList(), eq(donor))).thenAnswer(invocation -> {
+            List<SurplusPost> posts = invocation.getArgument(0);
+            for (int i = 0; i < posts.size(); i++) {
+                posts.get(i).setId(100L + i);
+            }
+            return posts;
+        });
+    }
+    @Test
+    @SuppressWarnings("unchecked")
+    void importPosts_Json_SavesValidRowsTogetherAndReportsEachRow() {
+        ArgumentCaptor<CreateSurplusRequest> requests = ArgumentCaptor.forClass(CreateSurplusRequest.class);
+        when(surplusService.buildSurplusPost(requests.capture(), eq(donor))).thenAnswer(invocation -> new SurplusPost());
+        saveWithIds();
+        String json = "[" + jsonRow("Bread", "ROOM_TEMPERATURE") + "," + jsonRow("Soup", "LUKEWARM") + ","
+                + jsonRow("Bagels", "ROOM_TEMPERATURE") + "]";
+        SurplusImportResponse response = importService.importPosts(body(json), SurplusImportService.Format.JSON,
+                "America/Toronto", donor);
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getRows()).extracting(SurplusImportResponse.RowResult::getStatus)
+                .containsExactly("CREATED", "FAILED", "CREATED");
+        assertThat(response.getRows()).extracting(SurplusImportResponse.RowResult::getPostId)
+                .containsExactly(100L, null, 101L);
+        assertThat(response.getRows().get(1).getErrors())
+                .extracting(SurplusImportResponse.RowError::getField)
+                .containsExactly("temperatureCategory");
+        assertThat(requests.getAllValues()).extracting(CreateSurplusRequest::getDonorTimezone)
+                .containsOnly("America/Toronto");
+        ArgumentCaptor<List<SurplusPost>> saved = ArgumentCaptor.forClass(List.class);
+        verify(surplusService, times(1)).createSurplusPosts(saved.capture(), eq(donor));
+        assertThat(saved.getValue()).hasSize(2);
+    }
+    @Test
+    void importPosts_Csv_MapsColumnsAndReportsValidationErrors() {
+        ArgumentCaptor<CreateSurplusRequest> requests = ArgumentCaptor.forClass(CreateSurplusRequest.class);
+        when(surplusService.buildSurplusPost(requests.capture(), eq(donor))).thenAnswer(invocation -> new SurplusPost());
+        saveWithIds();
+        String csv = "title,description,foodCategories,quantity,unit,expiryDate,pickupDate,pickupFrom,pickupTo,"
+                + "address,latitude,longitude,temperatureCategory,packagingType,dietaryTags\r\n"
+                + "\"Bread, sourdough\",\"Baked \"\"today\"\"\",BAKERY_PASTRY;PREPARED_MEALS,12,ITEM," + EXPIRY_DATE + ","
+                + PICKUP_DATE + ",09:00,11:00,\"123 Main Street, Montreal\",45.5,-73.6,ROOM_TEMPERATURE,SEALED,\r\n"
+                + ",No title,BAKERY_PASTRY,1,ITEM," + EXPIRY_DATE + "," + PICKUP_DATE
+                + ",09:00,11:00,\"123 Main Street, Montreal\",45.5,-73.6,ROOM_TEMPERATURE,SEALED,\r\n"
+                + "\r\n";
+        SurplusImportResponse response = importService.importPosts(body(csv), SurplusImportService.Format.CSV,
+                null, donor);
+        assertThat(response.getReceived()).isEqualTo(2);
+        assertThat(response.getRows().get(0).getStatus()).isEqualTo("CREATED");
+        assertThat(response.getRows().get(1).getStatus()).isEqualTo("FAILED");
+        assertThat(response.getRows().get(1).getErrors())
+                .extracting(SurplusImportResponse.RowError::getField)
+                .containsExactly("title");
+        CreateSurplusRequest request = requests.getValue();
+        assertThat(request.getTitle()).isEqualTo("Bread, sourdough");
+        assertThat(request.getDescription()).isEqualTo("Baked \"today\"");
+        assertThat(request.getFoodCategories()).hasSize(2);
+        assertThat(request.getQuantity().getValue()).isEqualTo(12.0);
+        assertThat(request.getPickupLocation().getAddress()).isEqualTo("123 Main Street, Montreal");
+        assertThat(request.getDietaryTags()).isEmpty();
+    }
+    @Test
+    void importPosts_RejectsMoreRowsThanTheLimit() {
+        lenient().when(surplusService.buildSurplusPost(any(), eq(donor))).thenAnswer(invocation -> new SurplusPost());
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rows.add(jsonRow("Row " + i, "ROOM_TEMPERATURE"));
+        }
+        assertThatThrownBy(() -> importService.importPosts(body("[" + String.join(",", rows) + "]"),
+                SurplusImportService.Format.JSON, null, donor))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.surplus.import.too_many_rows");
+        verify(surplusService, never()).createSurplusPosts(anyList(), any());
+    }
+    @Test
+    void importPosts_RejectsJsonThatIsNotAnArray() {
+        assertThatThrownBy(() -> importService.importPosts(body(jsonRow("Bread", "FROZEN")),
+                SurplusImportService.Format.JSON, null, donor))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.surplus.import.unreadable");
+    }
+    @Test
+    void importPosts_RejectsAnEmptyUpload() {
+        assertThatThrownBy(() -> importService.importPosts(body("title,description\r\n"),
+                SurplusImportService.Format.CSV, null, donor))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.surplus.import.empty");
+    }
+    @Test
+    void importPosts_ChecksTheDonorAccountBeforeReading() {
+        doThrow(new BusinessException("error.account.not_approved"))
+                .when(surplusService).ensureAccountApprovedForDonations(donor);
+        assertThatThrownBy(() -> importService.importPosts(body("[]"), SurplusImportService.Format.JSON, null, donor))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("error.account.not_approved");
+        verify(surplusService, never()).buildSurplusPost(any(), any());
+    }
+    @Test
+    void format_FromContentTypeOrFileName() {
+        assertThat(SurplusImportService.Format.of("text/csv", null)).isEqualTo(SurplusImportService.Format.CSV);
+        assertThat(SurplusImportService.Format.of("application/json; charset=UTF-8", null))
+                .isEqualTo(SurplusImportService.Format.JSON);
+        assertThat(SurplusImportService.Format.of("application/octet-stream", "Nightly.CSV"))
+                .isEqualTo(SurplusImportService.Format.CSV);
+        assertThatThrownBy(() -> SurplusImportService.Format.of("application/pdf", "list.pdf"))
+                .isInstanceOf(BusinessException.class);
+    }
+}
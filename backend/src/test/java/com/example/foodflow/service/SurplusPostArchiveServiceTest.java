@@ -0,0 +1,75 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class SurplusPostArchiveServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 4, 0);
+    @Mock
+    private SurplusPostRepository surplusPostRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+    private SimpleMeterRegistry meterRegistry;
+    private Clock clock;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = Clock.fixed(Instant.parse("2026-10-19T04:00:00Z"), ZoneOffset.UTC);
+    }
+    private SurplusPostArchiveService service(boolean enabled) {
+        return new SurplusPostArchiveService(surplusPostRepository, transactionManager, schedulerLeaseService,
+                meterRegistry, clock, enabled, 90, 2);
+    }
+    @Test
+    void archiveTerminalPosts_RunsBatchesUntilAShortOne() {
+        when(surplusPostRepository.archiveTerminalPosts(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(2, 2, 1);
+        int archived = service(true).archiveTerminalPosts();
+        assertThat(archived).isEqualTo(5);
+        verify(surplusPostRepository, times(3)).archiveTerminalPosts(NOW.minusDays(90), NOW, 2);
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.get("foodflow.surplus.archived").counter().count()).isEqualTo(5.0);
+    }
+    @Test
+    void archiveTerminalPosts_NothingEligible() {
+        when(surplusPostRepository.archiveTerminalPosts(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(0);
+        assertThat(service(true).archiveTerminalPosts()).isZero();
+        verify(surplusPostRepository, times(1)).archiveTerminalPosts(any(), any(), eq(2));
+        assertThat(meterRegistry.get("foodflow.surplus.archived").counter().count()).isZero();
+    }
+    @Test
+    void runScheduled_UsesTheSchedulerLease() {
+        service(true).runScheduled();
+        verify(schedulerLeaseService).runExclusively(eq(SurplusPostArchiveService.JOB_NAME),
+                eq(Duration.ofHours(1)), any(Runnable.class));
+    }
+    @Test
+    void runScheduled_DoesNothingWhenDisabled() {
+        service(false).runScheduled();
+        verifyNoInteractions(schedulerLeaseService, surplusPostRepository);
+    }
+    @Test
+    void reachesArchive_OnlyForRangesStartingBeforeTheHorizon() {
+        SurplusPostArchiveService service = service(true);
+        assertThat(service.reachesArchive(LocalDate.of(2026, 7, 21))).isTrue();
+        assertThat(service.reachesArchive(LocalDate.of(2026, 7, 22))).isFalse();
+        assertThat(service.reachesArchive(LocalDate.of(2026, 10, 1))).isFalse();
+    }
+}
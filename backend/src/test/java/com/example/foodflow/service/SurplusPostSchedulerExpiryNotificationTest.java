@@ -4,11 +4,13 @@ import com.example.foodflow.model.entity.User;
 import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.ExpiryNotificationLogRepository;
+import com.example.foodflow.repository.PickupReminderLogRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import java.lang.reflect.Field;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -29,11 +31,14 @@ class SurplusPostSchedulerExpiryNotificationTest {
                 surplusPostRepository,
                 Mockito.mock(ClaimRepository.class),
                 expiryNotificationLogRepository,
+                Mockito.mock(PickupReminderLogRepository.class),
+                null,
                 Mockito.mock(TimelineService.class),
                 new NotificationPreferenceService(new com.fasterxml.jackson.databind.ObjectMapper()),
                 Mockito.mock(EmailNotificationService.class),
                 Mockito.mock(SmsService.class),
-                Mockito.mock(org.springframework.messaging.simp.SimpMessagingTemplate.class));
+                Mockito.mock(org.springframework.messaging.simp.SimpMessagingTemplate.class),
+                Clock.systemUTC());
         setPrivateField(schedulerService, "expiryNotificationThresholdHours", "48,24");
     }
     @Test
@@ -1,7 +1,10 @@
 package com.example.foodflow.service;
 import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.ExpiryNotificationLogRepository;
+import com.example.foodflow.repository.PickupReminderLogRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.scheduling.SchedulerLeaseService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +40,14 @@ class SurplusPostSchedulerServiceContextTest {
             return mock(ExpiryNotificationLogRepository.class);
         }
         @Bean
+        PickupReminderLogRepository pickupReminderLogRepository() {
+            return mock(PickupReminderLogRepository.class);
+        }
+        @Bean
+        SchedulerLeaseService schedulerLeaseService() {
+            return mock(SchedulerLeaseService.class);
+        }
+        @Bean
         TimelineService timelineService() {
             return mock(TimelineService.class);
         }
@@ -57,6 +68,10 @@ class SurplusPostSchedulerServiceContextTest {
             return mock(SimpMessagingTemplate.class);
         }
         @Bean
+        DomainEventOutbox domainEventOutbox() {
+            return mock(DomainEventOutbox.class);
+        }
+        @Bean
         Clock clock() {
             return Clock.systemUTC();
         }
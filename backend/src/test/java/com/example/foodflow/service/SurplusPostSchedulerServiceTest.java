@@ -11,7 +11,10 @@ import com.example.foodflow.model.types.Location;
 import com.example.foodflow.model.types.PostStatus;
 import com.example.foodflow.model.types.Quantity;
 import com.example.foodflow.repository.ClaimRepository;
+import com.example.foodflow.repository.PickupReminderLogRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationExpired;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -53,6 +56,8 @@ class SurplusPostSchedulerServiceTest {
     private SmsService smsService;
     @Mock
     private org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private PickupReminderLogRepository pickupReminderLogRepository;
     @InjectMocks
     private SurplusPostSchedulerService schedulerService;
     private User donor;
@@ -60,6 +65,7 @@ class SurplusPostSchedulerServiceTest {
     private SurplusPost availablePost;
     private SurplusPost claimedPost;
     private SurplusPost readyPost;
+    private final List<Claim> activeClaims = new java.util.ArrayList<>();
     @BeforeEach
     void setUp() {
         // Create test organization
@@ -245,6 +251,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -270,6 +278,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -425,9 +435,15 @@ class SurplusPostSchedulerServiceTest {
         return claim;
     }
     private void mockClaimForPost(SurplusPost post, LocalDate pickupDate, LocalTime startTime, LocalTime endTime) {
-        Claim claim = createClaimForPost(post, pickupDate, startTime, endTime);
-        when(claimRepository.findBySurplusPostIdAndStatus(post.getId(), ClaimStatus.ACTIVE))
-                .thenReturn(java.util.Optional.of(claim));
+        registerActiveClaim(createClaimForPost(post, pickupDate, startTime, endTime));
+    }
+    // The scheduler loads active claims for a whole sweep in one query; answer with every registered claim
+    private void registerActiveClaim(Claim claim) {
+        if (activeClaims.isEmpty()) {
+            when(claimRepository.findBySurplusPostIdInAndStatus(anyCollection(), eq(ClaimStatus.ACTIVE)))
+                    .thenAnswer(invocation -> activeClaims);
+        }
+        activeClaims.add(claim);
     }
     private void setToleranceValues(int earlyMinutes, int lateMinutes) {
         try {
@@ -515,9 +531,9 @@ class SurplusPostSchedulerServiceTest {
     void testToleranceConfiguration_DefaultValues() {
         // Given - New scheduler service instance with default tolerance values
         SurplusPostSchedulerService freshService = new SurplusPostSchedulerService(
-                surplusPostRepository, claimRepository, timelineService,
+                surplusPostRepository, claimRepository, null, pickupReminderLogRepository, null, timelineService,
                 notificationPreferenceService, emailService, smsService,
-                messagingTemplate);
+                messagingTemplate, Clock.systemUTC());
         // When - Set tolerance values to test the configuration is properly used
         try {
             Field earlyField = SurplusPostSchedulerService.class.getDeclaredField("earlyToleranceMinutes");
@@ -689,6 +705,25 @@ class SurplusPostSchedulerServiceTest {
         verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/donations/expired"), any());
     }
     @Test
+    void testMarkExpiredPosts_WithOutbox_RecordsDonationExpiredInsteadOfNotifyingInline() {
+        // Given
+        DomainEventOutbox outbox = mock(DomainEventOutbox.class);
+        schedulerService = new SurplusPostSchedulerService(surplusPostRepository, claimRepository, null,
+                pickupReminderLogRepository, null, timelineService, notificationPreferenceService, emailService,
+                smsService, messagingTemplate, null, outbox);
+        enableAutoFlagging();
+        SurplusPost expiredPost = createTestPost(4L, PostStatus.AVAILABLE);
+        expiredPost.setExpiryDate(LocalDate.now().minusDays(3));
+        when(surplusPostRepository.findByStatusIn(any()))
+                .thenReturn(Collections.singletonList(expiredPost));
+        // When
+        schedulerService.markExpiredPosts();
+        // Then
+        assertThat(expiredPost.getStatus()).isEqualTo(PostStatus.EXPIRED);
+        verify(outbox).record(new DonationExpired(4L, donor.getId()));
+        verifyNoInteractions(emailService, messagingTemplate, notificationPreferenceService);
+    }
+    @Test
     void testMarkExpiredPosts_ReadyForPickupPost_TransitionsToExpired() {
         // Given
         enableAutoFlagging();
@@ -718,8 +753,7 @@ class SurplusPostSchedulerServiceTest {
         when(surplusPostRepository.findByStatusIn(any()))
                 .thenReturn(Collections.singletonList(expiredClaimedPost));
         when(surplusPostRepository.save(any(SurplusPost.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(claimRepository.findBySurplusPostIdAndStatus(expiredClaimedPost.getId(), ClaimStatus.ACTIVE))
-                .thenReturn(java.util.Optional.of(activeClaim));
+        registerActiveClaim(activeClaim);
         when(claimRepository.save(any(Claim.class))).thenAnswer(invocation -> invocation.getArgument(0));
         // When
         schedulerService.markExpiredPosts();
@@ -738,6 +772,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -769,6 +805,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -800,6 +838,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -827,6 +867,8 @@ class SurplusPostSchedulerServiceTest {
                 surplusPostRepository,
                 claimRepository,
                 null,
+                pickupReminderLogRepository,
+                null,
                 timelineService,
                 notificationPreferenceService,
                 emailService,
@@ -868,4 +910,49 @@ class SurplusPostSchedulerServiceTest {
         verify(surplusPostRepository).save(postCaptor.capture());
         assertThat(postCaptor.getValue().getStatus()).isEqualTo(PostStatus.EXPIRED);
     }
+    // ==================== Tests for sendPickupReminders ====================
+    private SurplusPostSchedulerService reminderService(Clock clock) {
+        return new SurplusPostSchedulerService(
+                surplusPostRepository,
+                claimRepository,
+                null,
+                pickupReminderLogRepository,
+                null,
+                timelineService,
+                notificationPreferenceService,
+                emailService,
+                smsService,
+                messagingTemplate,
+                clock);
+    }
+    @Test
+    void testSendPickupReminders_PickupInOneHour_RecordsReminderForClaim() {
+        // Given - pickup starts 60 minutes after the fixed clock
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-03-10T14:00:00Z"), ZoneOffset.UTC);
+        Claim claim = createClaimForPost(claimedPost, LocalDate.of(2026, 3, 10), LocalTime.of(15, 0), LocalTime.of(16, 0));
+        claim.setId(20L);
+        when(surplusPostRepository.findByStatus(PostStatus.CLAIMED)).thenReturn(Collections.singletonList(claimedPost));
+        registerActiveClaim(claim);
+        when(pickupReminderLogRepository.insertIfAbsent(20L, claimedPost.getId(), LocalDateTime.of(2026, 3, 10, 14, 0)))
+                .thenReturn(1);
+        // When
+        reminderService(fixedClock).sendPickupReminders();
+        // Then
+        verify(pickupReminderLogRepository).insertIfAbsent(20L, claimedPost.getId(), LocalDateTime.of(2026, 3, 10, 14, 0));
+    }
+    @Test
+    void testSendPickupReminders_ReminderAlreadyLogged_DoesNotSendAgain() {
+        // Given - another node (or an earlier run) already sent the reminder for this claim
+        Clock fixedClock = Clock.fixed(Instant.parse("2026-03-10T14:00:00Z"), ZoneOffset.UTC);
+        Claim claim = createClaimForPost(claimedPost, LocalDate.of(2026, 3, 10), LocalTime.of(15, 0), LocalTime.of(16, 0));
+        claim.setId(21L);
+        when(surplusPostRepository.findByStatus(PostStatus.CLAIMED)).thenReturn(Collections.singletonList(claimedPost));
+        registerActiveClaim(claim);
+        when(pickupReminderLogRepository.insertIfAbsent(eq(21L), eq(claimedPost.getId()), any(LocalDateTime.class)))
+                .thenReturn(0);
+        // When
+        reminderService(fixedClock).sendPickupReminders();
+        // Then
+        verifyNoInteractions(notificationPreferenceService, smsService);
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.foodflow.service;
+import com.example.foodflow.model.dto.SurplusResponse;
+import com.example.foodflow.model.entity.SurplusPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+class SurplusResponseCacheTest {
+    private static final LocalDateTime VERSION = LocalDateTime.of(2026, 3, 1, 12, 0);
+    private SimpleMeterRegistry meterRegistry;
+    private SurplusResponseCache cache;
+    private final AtomicInteger renders = new AtomicInteger();
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SurplusResponseCache(meterRegistry, 100, 10);
+    }
+    @Test
+    void get_RendersOncePerPostVersionAndTimezone() {
+        SurplusPost post = post(1L, VERSION);
+        SurplusResponse first = cache.get(post, "America/Toronto", cached -> true, render(1L));
+        SurplusResponse second = cache.get(post, "America/Toronto", cached -> true, render(1L));
+        cache.get(post, "Europe/Paris", cached -> true, render(1L));
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(2);
+        assertThat(meterRegistry.counter("foodflow.surplus.response_cache.hits").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("foodflow.surplus.response_cache.misses").count()).isEqualTo(2.0);
+    }
+    @Test
+    void get_NewVersionOfThePostIsRenderedAgain() {
+        SurplusResponse before = cache.get(post(1L, VERSION), "UTC", cached -> true, render(1L));
+        SurplusResponse after = cache.get(post(1L, VERSION.plusSeconds(5)), "UTC", cached -> true, render(1L));
+        assertThat(after).isNotSameAs(before);
+        assertThat(renders).hasValue(2);
+    }
+    @Test
+    void get_RendersAgainWhenTheCachedViewIsNoLongerCurrent() {
+        SurplusPost post = post(1L, VERSION);
+        cache.get(post, "UTC", cached -> true, render(1L));
+        cache.get(post, "UTC", cached -> false, render(1L));
+        assertThat(renders).hasValue(2);
+    }
+    @Test
+    void get_UnsavedPostsAreNotCached() {
+        SurplusPost post = post(null, null);
+        cache.get(post, "UTC", cached -> true, render(null));
+        cache.get(post, "UTC", cached -> true, render(null));
+        assertThat(renders).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+    @Test
+    void evict_DropsEveryViewOfThePostOnly() {
+        cache.get(post(1L, VERSION), "UTC", cached -> true, render(1L));
+        cache.get(post(1L, VERSION), "Asia/Tokyo", cached -> true, render(1L));
+        cache.get(post(2L, VERSION), "UTC", cached -> true, render(2L));
+        cache.evict(1L);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(post(2L, VERSION), "UTC", cached -> true, render(2L));
+        assertThat(renders).hasValue(3);
+        cache.get(post(1L, VERSION), "Asia/Tokyo", cached -> true, render(1L));
+        assertThat(renders).hasValue(4);
+    }
+    private SurplusPost post(Long id, LocalDateTime updatedAt) {
+        SurplusPost post = mock(SurplusPost.class);
+        when(post.getId()).thenReturn(id);
+        when(post.getUpdatedAt()).thenReturn(updatedAt);
+        return post;
+    }
+    private Supplier<SurplusResponse> render(Long id) {
+        return () -> {
+            renders.incrementAndGet();
+            SurplusResponse response = new SurplusResponse();
+            response.setId(id);
+            return response;
+        };
+    }
+}
@@ -4,6 +4,7 @@ import com.example.foodflow.model.dto.DonationTimelineDTO;
 import com.example.foodflow.model.dto.PickupSlotRequest;
 import com.example.foodflow.model.dto.SurplusResponse;
 import com.example.foodflow.model.entity.DonationTimeline;
+import com.example.foodflow.exception.BusinessException;
 import com.example.foodflow.model.entity.AccountStatus;
 import com.example.foodflow.model.entity.Organization;
 import com.example.foodflow.model.entity.PickupSlot;
@@ -20,6 +21,10 @@ import com.example.foodflow.repository.ClaimRepository;
 import com.example.foodflow.repository.DonationTimelineRepository;
 import com.example.foodflow.repository.ExpiryAuditLogRepository;
 import com.example.foodflow.repository.SurplusPostRepository;
+import com.example.foodflow.service.events.DomainEventOutbox;
+import com.example.foodflow.service.events.DonationPosted;
+import com.example.foodflow.service.events.DonationsImported;
+import com.example.foodflow.service.events.PickupConfirmed;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -67,10 +72,10 @@ class SurplusServiceTest {
         @Mock
         private FileStorageService fileStorageService;
         @Mock
-        private GamificationService gamificationService;
-        @Mock
         private ClaimService claimService;
         @Mock
+        private DomainEventOutbox domainEventOutbox;
+        @Mock
         private org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
         @Mock
         private EmailNotificationService emailService;
@@ -348,6 +353,29 @@ class SurplusServiceTest {
                                 eq(true));
         }
         @Test
+        void testCompleteSurplusPost_WithClaim_RecordsPickupConfirmedInsteadOfNotifyingInline() {
+                // Given
+                SurplusPost post = new SurplusPost();
+                post.setId(1L);
+                post.setDonor(donor);
+                post.setTitle("Test Food");
+                post.setStatus(PostStatus.READY_FOR_PICKUP);
+                post.setOtpCode("123456");
+                post.setQuantity(new Quantity(5.0, Quantity.Unit.KILOGRAM));
+                com.example.foodflow.model.entity.Claim claim = new com.example.foodflow.model.entity.Claim(post, receiver);
+                claim.setId(7L);
+                claim.setStatus(ClaimStatus.ACTIVE);
+                when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
+                when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(post);
+                when(claimRepository.findBySurplusPost(post)).thenReturn(Optional.of(claim));
+                // When
+                surplusService.completeSurplusPost(1L, "123456", donor);
+                // Then - the claim is completed in the transaction, notifications follow the commit
+                verify(claimService).completeClaim(7L);
+                verify(domainEventOutbox).record(new PickupConfirmed(7L, 1L));
+                verifyNoInteractions(messagingTemplate, emailService, notificationPreferenceService);
+        }
+        @Test
         void testCompleteSurplusPost_PostNotFound_ThrowsException() {
                 // Given
                 when(surplusPostRepository.findById(999L)).thenReturn(Optional.empty());
@@ -813,7 +841,7 @@ class SurplusServiceTest {
         // ==================== Tests for NotificationService Integration
         // ====================
         @Test
-        void testCreateSurplusPost_CallsNotificationService() {
+        void testCreateSurplusPost_RecordsDonationPostedInsteadOfNotifyingInline() {
                 // Given
                 SurplusPost savedPost = new SurplusPost();
                 savedPost.setId(1L);
@@ -821,68 +849,59 @@ class SurplusServiceTest {
                 savedPost.setTitle(request.getTitle());
                 savedPost.setFoodCategories(request.getFoodCategories());
                 savedPost.setQuantity(request.getQuantity());
-                savedPost.setPickupLocation(request.getPickupLocation());
-                savedPost.setExpiryDate(request.getExpiryDate());
-                savedPost.setPickupDate(request.getPickupDate());
-                savedPost.setPickupFrom(request.getPickupFrom());
-                savedPost.setPickupTo(request.getPickupTo());
-                savedPost.setDescription(request.getDescription());
                 doNothing().when(pickupSlotValidationService).validateSlots(any());
                 when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(savedPost);
-                doNothing().when(notificationService).sendNewPostNotification(any(SurplusPost.class));
                 // When
                 surplusService.createSurplusPost(request, donor);
-                // Then
-                verify(notificationService, times(1)).sendNewPostNotification(savedPost);
+                // Then - the event is recorded after the save; nothing is sent inside the transaction
+                var inOrder = inOrder(surplusPostRepository, domainEventOutbox);
+                inOrder.verify(surplusPostRepository).save(any(SurplusPost.class));
+                inOrder.verify(domainEventOutbox).record(new DonationPosted(1L, donor.getId()));
+                verifyNoInteractions(notificationService);
         }
         @Test
-        void testCreateSurplusPost_NotificationServiceException_DoesNotFailPostCreation() {
+        void testCreateSurplusPosts_SavesBatchAndRecordsOneImportEvent() {
                 // Given
-                SurplusPost savedPost = new SurplusPost();
-                savedPost.setId(1L);
-                savedPost.setDonor(donor);
-                savedPost.setTitle(request.getTitle());
-                savedPost.setFoodCategories(request.getFoodCategories());
-                savedPost.setQuantity(request.getQuantity());
-                savedPost.setPickupLocation(request.getPickupLocation());
-                savedPost.setExpiryDate(request.getExpiryDate());
-                savedPost.setPickupDate(request.getPickupDate());
-                savedPost.setPickupFrom(request.getPickupFrom());
-                savedPost.setPickupTo(request.getPickupTo());
-                savedPost.setDescription(request.getDescription());
-                doNothing().when(pickupSlotValidationService).validateSlots(any());
-                when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(savedPost);
-                doThrow(new RuntimeException("Notification failed")).when(notificationService)
-                                .sendNewPostNotification(any(SurplusPost.class));
+                SurplusPost first = new SurplusPost();
+                first.setTitle("Bread");
+                SurplusPost second = new SurplusPost();
+                second.setTitle("Soup");
+                when(surplusPostRepository.saveAll(List.of(first, second))).thenAnswer(invocation -> {
+                        first.setId(10L);
+                        second.setId(11L);
+                        return List.of(first, second);
+                });
                 // When
-                SurplusResponse response = surplusService.createSurplusPost(request, donor);
-                // Then - Post creation succeeds even if notifications fail
-                assertThat(response).isNotNull();
-                assertThat(response.getId()).isEqualTo(1L);
-                verify(notificationService, times(1)).sendNewPostNotification(savedPost);
-                verify(surplusPostRepository, times(1)).save(any(SurplusPost.class));
+                List<SurplusPost> saved = surplusService.createSurplusPosts(List.of(first, second), donor);
+                // Then - one saveAll, one batch of timeline events, one event for the whole import
+                assertThat(saved).extracting(SurplusPost::getId).containsExactly(10L, 11L);
+                verify(surplusPostRepository, never()).save(any(SurplusPost.class));
+                verify(timelineService, times(2)).buildTimelineEvent(any(SurplusPost.class), eq("DONATION_POSTED"),
+                                eq("donor"), eq(donor.getId()), isNull(), eq(PostStatus.AVAILABLE), anyString(), eq(true));
+                verify(timelineService).createTimelineEvents(anyList());
+                verify(domainEventOutbox).record(new DonationsImported(10L, donor.getId(), List.of(10L, 11L)));
+                verify(businessMetricsService, times(2)).incrementSurplusPostCreated();
+                verifyNoInteractions(notificationService);
         }
         @Test
-        void testCreateSurplusPost_NotificationServiceCalledAfterSave() {
-                // Given
-                SurplusPost savedPost = new SurplusPost();
-                savedPost.setId(1L);
-                savedPost.setDonor(donor);
-                savedPost.setTitle(request.getTitle());
-                savedPost.setFoodCategories(request.getFoodCategories());
-                savedPost.setQuantity(request.getQuantity());
-                doNothing().when(pickupSlotValidationService).validateSlots(any());
-                when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(savedPost);
-                doNothing().when(notificationService).sendNewPostNotification(any(SurplusPost.class));
-                // When
-                surplusService.createSurplusPost(request, donor);
-                // Then - Verify order: save happens before notification
-                var inOrder = inOrder(surplusPostRepository, notificationService);
-                inOrder.verify(surplusPostRepository).save(any(SurplusPost.class));
-                inOrder.verify(notificationService).sendNewPostNotification(savedPost);
+        void testCreateSurplusPosts_RejectsUnapprovedDonor() {
+                donor.setAccountStatus(AccountStatus.PENDING_ADMIN_APPROVAL);
+                assertThatThrownBy(() -> surplusService.createSurplusPosts(List.of(new SurplusPost()), donor))
+                                .isInstanceOf(BusinessException.class);
+                verifyNoInteractions(surplusPostRepository, domainEventOutbox);
+        }
+        @Test
+        void testNotifyDonationsImported_SendsOneBatchNotification() {
+                SurplusPost first = new SurplusPost();
+                first.setId(10L);
+                SurplusPost second = new SurplusPost();
+                second.setId(11L);
+                surplusService.notifyDonationsImported(List.of(first, second));
+                verify(notificationService).sendNewPostsNotification(List.of(first, second));
+                verify(notificationService, never()).sendNewPostNotification(any());
         }
         @Test
-        void testCreateSurplusPost_NotificationServiceReceivesCorrectPost() {
+        void testNotifyDonationPosted_CallsNotificationService() {
                 // Given
                 SurplusPost savedPost = new SurplusPost();
                 savedPost.setId(1L);
@@ -890,18 +909,27 @@ class SurplusServiceTest {
                 savedPost.setTitle("Test Notification Post");
                 savedPost.setFoodCategories(Set.of(FoodCategory.BAKERY_PASTRY));
                 savedPost.setQuantity(new Quantity(15.0, Quantity.Unit.ITEM));
-                doNothing().when(pickupSlotValidationService).validateSlots(any());
-                when(surplusPostRepository.save(any(SurplusPost.class))).thenReturn(savedPost);
                 ArgumentCaptor<SurplusPost> postCaptor = ArgumentCaptor.forClass(SurplusPost.class);
                 doNothing().when(notificationService).sendNewPostNotification(postCaptor.capture());
                 // When
-                surplusService.createSurplusPost(request, donor);
+                surplusService.notifyDonationPosted(savedPost);
                 // Then
                 SurplusPost capturedPost = postCaptor.getValue();
                 assertThat(capturedPost.getId()).isEqualTo(1L);
                 assertThat(capturedPost.getTitle()).isEqualTo("Test Notification Post");
                 assertThat(capturedPost.getFoodCategories()).contains(FoodCategory.BAKERY_PASTRY);
-                assertThat(capturedPost.getQuantity().getValue()).isEqualTo(15.0);
+        }
+        @Test
+        void testNotifyDonationPosted_NotificationServiceException_IsNotPropagated() {
+                // Given
+                SurplusPost savedPost = new SurplusPost();
+                savedPost.setId(1L);
+                savedPost.setDonor(donor);
+                doThrow(new RuntimeException("Notification failed")).when(notificationService)
+                                .sendNewPostNotification(any(SurplusPost.class));
+                // When / Then - a failed fan-out is not retried, so it must not fail the delivery
+                surplusService.notifyDonationPosted(savedPost);
+                verify(notificationService, times(1)).sendNewPostNotification(savedPost);
         }
         @Test
         void testConfirmPickup_OtpClearedAfterCompletion() {
@@ -1270,7 +1298,8 @@ class SurplusServiceTest {
                 timeline2.setNewStatus("CLAIMED");
                 timeline2.setVisibleToUsers(true);
                 when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Arrays.asList(timeline2, timeline1));
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1281,7 +1310,8 @@ class SurplusServiceTest {
                 assertThat(result.get(0).getEventType()).isEqualTo("DONATION_CLAIMED");
                 assertThat(result.get(1).getEventType()).isEqualTo("DONATION_POSTED");
                 verify(surplusPostRepository).findById(1L);
-                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true);
+                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class));
         }
         @Test
         void testGetTimelineForPost_AsReceiverWithActiveClaim_ReturnsTimeline() {
@@ -1307,7 +1337,8 @@ class SurplusServiceTest {
                 when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
                 when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.ACTIVE))
                                 .thenReturn(Optional.of(claim));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Collections.singletonList(timeline));
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1345,7 +1376,8 @@ class SurplusServiceTest {
                                 .thenReturn(Optional.empty());
                 when(claimRepository.findBySurplusPostIdAndStatus(1L, ClaimStatus.COMPLETED))
                                 .thenReturn(Optional.of(claim));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Collections.singletonList(timeline));
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1378,8 +1410,8 @@ class SurplusServiceTest {
                 assertThatThrownBy(() -> surplusService.getTimelineForPost(1L, unauthorizedUser))
                                 .isInstanceOf(RuntimeException.class)
                                 .hasMessageContaining("not authorized to view this timeline");
-                verify(timelineRepository, never()).findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(anyLong(),
-                                anyBoolean());
+                verify(timelineRepository, never()).findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(
+                                anyLong(), anyBoolean(), any());
         }
         @Test
         void testGetTimelineForPost_PostNotFound_ThrowsException() {
@@ -1389,8 +1421,8 @@ class SurplusServiceTest {
                 assertThatThrownBy(() -> surplusService.getTimelineForPost(999L, donor))
                                 .isInstanceOf(RuntimeException.class)
                                 .hasMessageContaining("Donation with ID 999 not found");
-                verify(timelineRepository, never()).findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(anyLong(),
-                                anyBoolean());
+                verify(timelineRepository, never()).findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(
+                                anyLong(), anyBoolean(), any());
         }
         @Test
         void testGetTimelineForPost_EmptyTimeline_ReturnsEmptyList() {
@@ -1401,7 +1433,8 @@ class SurplusServiceTest {
                 post.setTitle("Test Food");
                 post.setStatus(PostStatus.AVAILABLE);
                 when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Collections.emptyList());
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1409,7 +1442,8 @@ class SurplusServiceTest {
                 // Then
                 assertThat(result).isNotNull();
                 assertThat(result).isEmpty();
-                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true);
+                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class));
         }
         @Test
         void testGetTimelineForPost_OnlyVisibleEvents_ReturnsFiltered() {
@@ -1428,7 +1462,8 @@ class SurplusServiceTest {
                 visibleEvent.setVisibleToUsers(true);
                 // Admin-only event should not be returned by repository query
                 when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Collections.singletonList(visibleEvent));
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1438,7 +1473,8 @@ class SurplusServiceTest {
                 assertThat(result).hasSize(1);
                 assertThat(result.get(0).getVisibleToUsers()).isTrue();
                 // Verify repository was queried with visibleToUsers=true
-                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true);
+                verify(timelineRepository).findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class));
         }
         @Test
         void testGetTimelineForPost_MapsAllDTOFields() {
@@ -1464,7 +1500,8 @@ class SurplusServiceTest {
                 timeline.setPackagingCondition("GOOD");
                 timeline.setPickupEvidenceUrl("https://example.com/evidence.jpg");
                 when(surplusPostRepository.findById(1L)).thenReturn(Optional.of(post));
-                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersOrderByTimestampDesc(1L, true))
+                when(timelineRepository.findBySurplusPostIdAndVisibleToUsersAndTimestampGreaterThanEqualOrderByTimestampDesc(eq(1L), eq(true),
+                                any(LocalDateTime.class)))
                                 .thenReturn(Collections.singletonList(timeline));
                 // When
                 List<com.example.foodflow.model.dto.DonationTimelineDTO> result = surplusService.getTimelineForPost(1L,
@@ -1535,6 +1572,18 @@ class SurplusServiceTest {
                 assertThat(responses).isEmpty();
                 verify(surplusPostRepository).findByDonorId(donor.getId());
         }
+        @Test
+        void testGetUserSurplusPosts_LiveOnlySkipsArchivedPosts() {
+                // Given
+                when(surplusPostRepository.findByDonorIdAndArchivedAtIsNull(donor.getId()))
+                                .thenReturn(Collections.emptyList());
+                // When
+                List<SurplusResponse> responses = surplusService.getUserSurplusPosts(donor, false);
+                // Then
+                assertThat(responses).isEmpty();
+                verify(surplusPostRepository).findByDonorIdAndArchivedAtIsNull(donor.getId());
+                verify(surplusPostRepository, never()).findByDonorId(any());
+        }
         // ==================== Tests for getSurplusPostByIdForDonor
         // ====================
         @Test
@@ -1811,6 +1860,193 @@ class SurplusServiceTest {
                 assertThat(responses.get(0).getTitle()).isEqualTo("Filtered Food");
                 verify(surplusPostRepository).findAll(any(org.springframework.data.jpa.domain.Specification.class));
         }
+        @Test
+        void testSearchSurplusPostsForReceiver_WithQuery_RanksByRelevanceWithinStructuredFilters() {
+                // Given
+                receiver.setLanguagePreference("fr");
+                com.example.foodflow.model.dto.SurplusFilterRequest filterRequest = new com.example.foodflow.model.dto.SurplusFilterRequest();
+                filterRequest.setQuery("  Sandwichs Halal ");
+                filterRequest.setLimit(2);
+                SurplusPost weak = keywordPost(1L, "Plateau mixte");
+                SurplusPost strong = keywordPost(2L, "Sandwichs halal");
+                SurplusPost middle = keywordPost(3L, "Sandwichs au poulet");
+                when(surplusPostRepository.searchByKeyword(eq("sandwichs halal"), eq("%sandwichs halal%"),
+                                eq("french"), eq(false), eq(List.of("AVAILABLE")), anyInt(), eq(0)))
+                                .thenReturn(List.of(keywordHit(2L, 0.9), keywordHit(3L, 0.5), keywordHit(1L, 0.1)));
+                when(surplusPostRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class)))
+                                .thenReturn(List.of(weak, strong, middle));
+                // When
+                List<SurplusResponse> responses = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
+                // Then
+                assertThat(responses).extracting(SurplusResponse::getId).containsExactly(2L, 3L);
+        }
+        @Test
+        void testSearchSurplusPostsForReceiver_WithQuery_PagesPastCandidatesFilteredOutByCountry() {
+                // Given - a receiver in Canada, and a full first page of better-ranked US matches
+                Organization receiverOrg = new Organization();
+                receiverOrg.setAddress("456 Main St, Toronto, ON, M5H 2N2, Canada");
+                receiver.setOrganization(receiverOrg);
+                com.example.foodflow.model.dto.SurplusFilterRequest filterRequest = new com.example.foodflow.model.dto.SurplusFilterRequest();
+                filterRequest.setQuery("bread");
+                filterRequest.setLimit(5);
+                List<com.example.foodflow.model.dto.SurplusKeywordHit> firstPage = new ArrayList<>();
+                List<SurplusPost> usPosts = new ArrayList<>();
+                for (long id = 1; id <= 250; id++) {
+                        if (id <= 200) {
+                                firstPage.add(keywordHit(id, 1.0));
+                        }
+                        SurplusPost post = keywordPost(id, "Bread " + id);
+                        post.setPickupLocation(new Location(40.7128, -74.0060, "New York, NY", "United States"));
+                        usPosts.add(post);
+                }
+                SurplusPost localPost = keywordPost(300L, "Bread loaves");
+                localPost.setPickupLocation(new Location(43.6532, -79.3832, "Toronto, ON", "Canada"));
+                List<com.example.foodflow.model.dto.SurplusKeywordHit> secondPage = new ArrayList<>();
+                for (long id = 201; id <= 250; id++) {
+                        secondPage.add(keywordHit(id, 0.5));
+                }
+                secondPage.add(keywordHit(300L, 0.1));
+                when(surplusPostRepository.searchByKeyword(anyString(), anyString(), anyString(), anyBoolean(), anyList(),
+                                eq(200), eq(0))).thenReturn(firstPage);
+                when(surplusPostRepository.searchByKeyword(anyString(), anyString(), anyString(), anyBoolean(), anyList(),
+                                eq(200), eq(200))).thenReturn(secondPage);
+                List<SurplusPost> secondPagePosts = new ArrayList<>(usPosts.subList(200, 250));
+                secondPagePosts.add(localPost);
+                when(surplusPostRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class)))
+                                .thenReturn(usPosts.subList(0, 200), secondPagePosts);
+                // When
+                List<SurplusResponse> responses = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
+                // Then - the local match past the first 200 candidates is still found
+                assertThat(responses).extracting(SurplusResponse::getId).containsExactly(300L);
+                verify(surplusPostRepository, times(2)).findAll(any(org.springframework.data.jpa.domain.Specification.class));
+        }
+        @Test
+        void testSearchSurplusPostsForReceiver_WithQueryAndNoMatches_SkipsStructuredQuery() {
+                // Given
+                com.example.foodflow.model.dto.SurplusFilterRequest filterRequest = new com.example.foodflow.model.dto.SurplusFilterRequest();
+                filterRequest.setQuery("米饭");
+                when(surplusPostRepository.searchByKeyword(anyString(), anyString(), anyString(), eq(true), anyList(), anyInt(), anyInt()))
+                                .thenReturn(List.of());
+                // When
+                List<SurplusResponse> responses = surplusService.searchSurplusPostsForReceiver(filterRequest, receiver);
+                // Then
+                assertThat(responses).isEmpty();
+                verify(surplusPostRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class));
+        }
+        @Test
+        void testSearchSurplusCardsForReceiver_ReadsProjectionAndLooksUpCollectionsOnce() {
+                // Given - receiver in Canada, one Canadian post, one US post and one expired post
+                Organization receiverOrg = new Organization();
+                receiverOrg.setAddress("456 Main St, Toronto, ON, M5H 2N2, Canada");
+                receiver.setOrganization(receiverOrg);
+                receiver.setTimezone("America/New_York");
+                com.example.foodflow.model.dto.SurplusFilterRequest filterRequest = new com.example.foodflow.model.dto.SurplusFilterRequest();
+                filterRequest.setStatus(PostStatus.AVAILABLE.name());
+                when(surplusPostRepository.findCardRows(any()))
+                                .thenReturn(List.of(cardRow(1L, "Canada", LocalDate.now().plusDays(2)),
+                                                cardRow(2L, "United States", LocalDate.now().plusDays(2)),
+                                                cardRow(3L, "Canada", LocalDate.now().minusDays(1))));
+                when(surplusPostRepository.findCategoryRowsByPostIds(List.of(1L)))
+                                .thenReturn(List.of(categoryRow(1L, FoodCategory.PREPARED_MEALS)));
+                when(surplusPostRepository.findPickupSlotRowsByPostIds(List.of(1L)))
+                                .thenReturn(List.of(slotRow(1L, 10L)));
+                // When
+                List<com.example.foodflow.model.dto.SurplusCardResponse> cards = surplusService
+                                .searchSurplusCardsForReceiver(filterRequest, receiver);
+                // Then
+                assertThat(cards).extracting(com.example.foodflow.model.dto.SurplusCardResponse::getId)
+                                .containsExactly(1L);
+                com.example.foodflow.model.dto.SurplusCardResponse card = cards.get(0);
+                assertThat(card.getFoodCategories()).containsExactly(FoodCategory.PREPARED_MEALS);
+                assertThat(card.getDonorName()).isEqualTo("Test Restaurant");
+                assertThat(card.getExpired()).isFalse();
+                LocalDateTime expectedStart = com.example.foodflow.util.TimezoneResolver.convertDateTime(
+                                LocalDate.now(), LocalTime.of(14, 0), "UTC", "America/New_York");
+                assertThat(card.getPickupFrom()).isEqualTo(expectedStart.toLocalTime());
+                assertThat(card.getPickupSlots()).singleElement()
+                                .satisfies(slot -> assertThat(slot.getStartTime()).isEqualTo(expectedStart.toLocalTime()));
+                verify(surplusPostRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class));
+                verifyNoInteractions(claimRepository);
+        }
+        private static com.example.foodflow.model.dto.SurplusCardRow cardRow(Long id, String country, LocalDate expiryDate) {
+                return new com.example.foodflow.model.dto.SurplusCardRow(id, "Card " + id, "Fresh",
+                                new Quantity(5.0, Quantity.Unit.KILOGRAM),
+                                new Location(45.5017, -73.5673, "Montreal, QC", country),
+                                expiryDate, null, null, false, LocalDate.now(), LocalTime.of(14, 0), LocalTime.of(16, 0),
+                                PostStatus.AVAILABLE, LocalDateTime.now().minusHours(id), null, null, null, new String[0],
+                                1L, "America/Toronto", null, "Test Restaurant", null);
+        }
+        private static com.example.foodflow.model.dto.SurplusCategoryRow categoryRow(Long postId, FoodCategory category) {
+                return new com.example.foodflow.model.dto.SurplusCategoryRow() {
+                        @Override
+                        public Long getPostId() {
+                                return postId;
+                        }
+                        @Override
+                        public FoodCategory getCategory() {
+                                return category;
+                        }
+                };
+        }
+        private static com.example.foodflow.model.dto.PickupSlotRow slotRow(Long postId, Long slotId) {
+                return new com.example.foodflow.model.dto.PickupSlotRow() {
+                        @Override
+                        public Long getPostId() {
+                                return postId;
+                        }
+                        @Override
+                        public Long getId() {
+                                return slotId;
+                        }
+                        @Override
+                        public LocalDate getPickupDate() {
+                                return LocalDate.now();
+                        }
+                        @Override
+                        public LocalTime getStartTime() {
+                                return LocalTime.of(14, 0);
+                        }
+                        @Override
+                        public LocalTime getEndTime() {
+                                return LocalTime.of(16, 0);
+                        }
+                        @Override
+                        public String getNotes() {
+                                return null;
+                        }
+                        @Override
+                        public Integer getSlotOrder() {
+                                return 1;
+                        }
+                };
+        }
+        private SurplusPost keywordPost(Long id, String title) {
+                SurplusPost post = new SurplusPost();
+                post.setId(id);
+                post.setDonor(donor);
+                post.setTitle(title);
+                post.setStatus(PostStatus.AVAILABLE);
+                post.setFoodCategories(Set.of(FoodCategory.SANDWICHES));
+                post.setQuantity(new Quantity(5.0, Quantity.Unit.KILOGRAM));
+                post.setPickupLocation(new Location(45.5017, -73.5673, "Montreal, QC"));
+                post.setExpiryDate(LocalDate.now().plusDays(2));
+                post.setPickupDate(LocalDate.now());
+                post.setPickupFrom(LocalTime.of(9, 0));
+                post.setPickupTo(LocalTime.of(17, 0));
+                return post;
+        }
+        private static com.example.foodflow.model.dto.SurplusKeywordHit keywordHit(Long id, double rank) {
+                return new com.example.foodflow.model.dto.SurplusKeywordHit() {
+                        @Override
+                        public Long getId() {
+                                return id;
+                        }
+                        @Override
+                        public Double getRank() {
+                                return rank;
+                        }
+                };
+        }
         // ==================== Tests for uploadPickupEvidence ====================
         @Test
         void testUploadPickupEvidence_Success() throws Exception {
@@ -13,6 +13,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -348,4 +349,30 @@ class TimelineServiceTest {
         DonationTimeline captured = captor.getValue();
         assertThat(captured.getDetails()).isEqualTo("");
     }
+    @Test
+    void createTimelineEvents_SavesAllBuiltEventsInOneCall() {
+        // Arrange
+        DonationTimeline first = timelineService.buildTimelineEvent(
+                testPost, "DONATION_EXPIRED", "system", null, PostStatus.AVAILABLE, PostStatus.EXPIRED, "Expired", true);
+        DonationTimeline second = timelineService.buildTimelineEvent(
+                testPost, "PICKUP_MISSED", "system", null, PostStatus.CLAIMED, PostStatus.NOT_COMPLETED, "Missed", true);
+        List<DonationTimeline> events = List.of(first, second);
+        when(timelineRepository.saveAll(events)).thenReturn(events);
+        // Act
+        List<DonationTimeline> result = timelineService.createTimelineEvents(events);
+        // Assert
+        assertThat(result).containsExactly(first, second);
+        assertThat(first.getOldStatus()).isEqualTo("AVAILABLE");
+        assertThat(second.getNewStatus()).isEqualTo("NOT_COMPLETED");
+        verify(timelineRepository, never()).save(any(DonationTimeline.class));
+        verify(businessMetricsService, times(2)).incrementTimelineEventsCreated();
+    }
+    @Test
+    void createTimelineEvents_EmptyList_DoesNotTouchRepository() {
+        // Act
+        List<DonationTimeline> result = timelineService.createTimelineEvents(List.of());
+        // Assert
+        assertThat(result).isEmpty();
+        verifyNoInteractions(timelineRepository, businessMetricsService);
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.foodflow.service;
+import com.example.foodflow.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+class UserPointsWriterTest {
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private UserPointsWriter userPointsWriter;
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    @Test
+    void add_OutsideATransactionWritesImmediately() {
+        when(userRepository.addPoints(1L, 10)).thenReturn(1);
+        userPointsWriter.add(1L, 10);
+        verify(userRepository).addPoints(1L, 10);
+    }
+    @Test
+    void add_InsideATransactionCoalescesPerUserUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(userRepository.addPoints(anyLong(), anyInt())).thenReturn(1);
+        userPointsWriter.add(2L, 5);
+        userPointsWriter.add(1L, 10);
+        userPointsWriter.add(2L, 15);
+        verify(userRepository, never()).addPoints(anyLong(), anyInt());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.beforeCommit(false));
+        InOrder order = inOrder(userRepository);
+        order.verify(userRepository).addPoints(1L, 10);
+        order.verify(userRepository).addPoints(2L, 20);
+        order.verifyNoMoreInteractions();
+    }
+    @Test
+    void add_RolledBackTransactionWritesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        userPointsWriter.add(1L, 10);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verifyNoInteractions(userRepository);
+    }
+    @Test
+    void add_ZeroPointsIsIgnored() {
+        userPointsWriter.add(1L, 0);
+        verifyNoInteractions(userRepository);
+    }
+    @Test
+    void add_MissingUserThrowsNotFound() {
+        when(userRepository.addPoints(999L, 10)).thenReturn(0);
+        assertThatThrownBy(() -> userPointsWriter.add(999L, 10))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("User not found");
+    }
+    @Test
+    void add_MissingUserInsideATransactionFailsTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(userRepository.addPoints(999L, 10)).thenReturn(0);
+        userPointsWriter.add(999L, 10);
+        assertThatThrownBy(() -> TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.beforeCommit(false)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("User not found");
+    }
+}
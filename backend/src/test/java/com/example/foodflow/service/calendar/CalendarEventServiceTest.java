@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CalendarEventServiceTest {
@@ -509,4 +510,55 @@ class CalendarEventServiceTest {
         // Then
         assertThat(result).isTrue();
     }
+    // ==================== Tests for retry scheduling ====================
+    @Test
+    void markEventAsFailed_SchedulesRetryWithBackoff() {
+        when(syncedCalendarEventRepository.save(any(SyncedCalendarEvent.class))).thenReturn(testEvent);
+        when(calendarSyncLogRepository.save(any(CalendarSyncLog.class))).thenReturn(new CalendarSyncLog());
+        LocalDateTime before = LocalDateTime.now();
+        calendarEventService.markEventAsFailed(testEvent, "Rate limited");
+        assertThat(testEvent.getSyncAttempts()).isEqualTo(1);
+        assertThat(testEvent.getNextSyncAttemptAt()).isAfter(before);
+    }
+    @Test
+    void markEventAsFailed_StopsRetryingAfterMaxAttempts() {
+        testEvent.setSyncAttempts(2);
+        when(syncedCalendarEventRepository.save(any(SyncedCalendarEvent.class))).thenReturn(testEvent);
+        when(calendarSyncLogRepository.save(any(CalendarSyncLog.class))).thenReturn(new CalendarSyncLog());
+        calendarEventService.markEventAsFailed(testEvent, "Still failing");
+        assertThat(testEvent.getSyncAttempts()).isEqualTo(3);
+        assertThat(testEvent.getSyncStatus()).isEqualTo("FAILED");
+        assertThat(testEvent.getNextSyncAttemptAt()).isNull();
+    }
+    @Test
+    void markEventAsSynced_ResetsRetryState() {
+        testEvent.setSyncAttempts(2);
+        testEvent.setNextSyncAttemptAt(LocalDateTime.now().plusMinutes(1));
+        when(syncedCalendarEventRepository.save(any(SyncedCalendarEvent.class))).thenReturn(testEvent);
+        when(calendarSyncLogRepository.save(any(CalendarSyncLog.class))).thenReturn(new CalendarSyncLog());
+        calendarEventService.markEventAsSynced(testEvent, "ext-1");
+        assertThat(testEvent.getSyncAttempts()).isZero();
+        assertThat(testEvent.getNextSyncAttemptAt()).isNull();
+    }
+    @Test
+    void computeRetryDelayMs_GrowsExponentiallyWithinJitterBounds() {
+        for (int i = 0; i < 50; i++) {
+            assertThat(calendarEventService.computeRetryDelayMs(1)).isBetween(500L, 1000L);
+            assertThat(calendarEventService.computeRetryDelayMs(3)).isBetween(500L, 4000L);
+        }
+    }
+    @Test
+    void getUserDueSyncEvents_CombinesPendingAndDueRetriesUpToLimit() {
+        SyncedCalendarEvent pending = new SyncedCalendarEvent();
+        pending.setId(10L);
+        SyncedCalendarEvent retry1 = new SyncedCalendarEvent();
+        retry1.setId(11L);
+        SyncedCalendarEvent retry2 = new SyncedCalendarEvent();
+        retry2.setId(12L);
+        when(syncedCalendarEventRepository.findByUserIdAndSyncStatus(1L, "PENDING")).thenReturn(List.of(pending));
+        when(syncedCalendarEventRepository.findByUserIdAndSyncStatusAndNextSyncAttemptAtLessThanEqual(
+                eq(1L), eq("FAILED"), any(LocalDateTime.class))).thenReturn(List.of(retry1, retry2));
+        List<SyncedCalendarEvent> result = calendarEventService.getUserDueSyncEvents(1L, 2);
+        assertThat(result).containsExactly(pending, retry1);
+    }
 }
@@ -0,0 +1,131 @@
+package com.example.foodflow.service.calendar;
+import com.example.foodflow.model.entity.User;
+import com.example.foodflow.repository.SyncedCalendarEventRepository;
+import com.example.foodflow.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class CalendarSyncJobQueueTest {
+    @Mock private CalendarSyncService calendarSyncService;
+    @Mock private UserRepository userRepository;
+    @Mock private SyncedCalendarEventRepository syncedCalendarEventRepository;
+    private MeterRegistry meterRegistry;
+    private List<Runnable> submitted;
+    private User user;
+    private CalendarSyncJobQueue queue;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        submitted = new ArrayList<>();
+        user = new User();
+        user.setId(1L);
+        // Capture tasks instead of running them so tests control interleaving
+        TaskExecutor capturingExecutor = submitted::add;
+        queue = new CalendarSyncJobQueue(calendarSyncService, userRepository,
+                syncedCalendarEventRepository, capturingExecutor, meterRegistry);
+    }
+    @Test
+    void requestSync_BurstForSameUser_SubmitsOneRun() {
+        queue.requestSync(user);
+        queue.requestSync(user);
+        queue.requestSync(user);
+        assertThat(submitted).hasSize(1);
+        assertThat(meterRegistry.get("foodflow.calendar.sync.coalesced").counter().count()).isEqualTo(2.0);
+    }
+    @Test
+    void requestSync_DifferentUsers_SubmitsSeparateRuns() {
+        queue.requestSync(1L);
+        queue.requestSync(2L);
+        assertThat(submitted).hasSize(2);
+    }
+    @Test
+    void run_ExecutesSyncAndReleasesUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(calendarSyncService.syncUserDueEvents(user)).thenReturn(1);
+        when(calendarSyncService.getBatchSize()).thenReturn(10);
+        queue.requestSync(user);
+        submitted.remove(0).run();
+        verify(calendarSyncService, times(1)).syncUserDueEvents(user);
+        assertThat(meterRegistry.get("foodflow.calendar.sync.users.scheduled").gauge().value()).isZero();
+        // A later request schedules a fresh run
+        queue.requestSync(user);
+        assertThat(submitted).hasSize(1);
+    }
+    @Test
+    void run_RequestArrivingMidRun_TriggersOneFollowUpPass() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(calendarSyncService.getBatchSize()).thenReturn(10);
+        when(calendarSyncService.syncUserDueEvents(user))
+                .thenAnswer(invocation -> {
+                    queue.requestSync(user);
+                    return 1;
+                })
+                .thenReturn(0);
+        queue.requestSync(user);
+        submitted.remove(0).run();
+        verify(calendarSyncService, times(2)).syncUserDueEvents(user);
+        assertThat(submitted).isEmpty();
+    }
+    @Test
+    void run_FullBatch_ContinuesUntilDrained() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(calendarSyncService.getBatchSize()).thenReturn(2);
+        when(calendarSyncService.syncUserDueEvents(user)).thenReturn(2, 2, 1);
+        queue.requestSync(user);
+        submitted.remove(0).run();
+        verify(calendarSyncService, times(3)).syncUserDueEvents(user);
+    }
+    @Test
+    void run_SyncThrows_UserIsReleased() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(calendarSyncService.syncUserDueEvents(user)).thenThrow(new RuntimeException("boom"));
+        queue.requestSync(user);
+        submitted.remove(0).run();
+        queue.requestSync(user);
+        assertThat(submitted).hasSize(1);
+    }
+    @Test
+    void requestSync_PoolRejects_CountsAndLeavesUserUnscheduled() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TaskExecutor rejecting = task -> { throw new RejectedExecutionException("full"); };
+        CalendarSyncJobQueue saturated = new CalendarSyncJobQueue(calendarSyncService, userRepository,
+                syncedCalendarEventRepository, rejecting, registry);
+        saturated.requestSync(user);
+        assertThat(registry.get("foodflow.calendar.sync.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("foodflow.calendar.sync.users.scheduled").gauge().value()).isZero();
+    }
+    @Test
+    void drainDueWork_EnqueuesUsersAndRefreshesGauges() {
+        when(calendarSyncService.getBatchSize()).thenReturn(10);
+        when(syncedCalendarEventRepository.countDueSyncWork(any(LocalDateTime.class))).thenReturn(7L);
+        when(syncedCalendarEventRepository.findOldestPendingSince()).thenReturn(LocalDateTime.now().minusMinutes(5));
+        when(syncedCalendarEventRepository.findUserIdsWithDueSyncWork(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        queue.drainDueWork();
+        assertThat(submitted).hasSize(3);
+        assertThat(meterRegistry.get("foodflow.calendar.sync.backlog").gauge().value()).isEqualTo(7.0);
+        assertThat(meterRegistry.get("foodflow.calendar.sync.lag.seconds").gauge().value()).isGreaterThanOrEqualTo(299.0);
+    }
+    @Test
+    void drainDueWork_RepositoryFailure_DoesNotThrow() {
+        when(syncedCalendarEventRepository.countDueSyncWork(any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("db down"));
+        queue.drainDueWork();
+        assertThat(submitted).isEmpty();
+    }
+}
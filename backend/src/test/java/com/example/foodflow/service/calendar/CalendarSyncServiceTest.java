@@ -734,4 +734,21 @@ class CalendarSyncServiceTest {
         assertThat(result).isEqualTo(1);
         // Note: We can't easily verify async call, but we've tested the success path
     }
+    // ==================== Tests for syncUserDueEvents ====================
+    @Test
+    void syncUserDueEvents_SyncsDueBatchAndReportsCount() throws Exception {
+        when(calendarIntegrationService.getUserIntegration(testUser)).thenReturn(Optional.of(testIntegration));
+        when(calendarEventService.getUserDueSyncEvents(1L, 10)).thenReturn(Arrays.asList(testEvent));
+        when(calendarIntegrationService.getDecryptedRefreshToken(testIntegration)).thenReturn("refresh-token-123");
+        when(googleCalendarProvider.createEvent("refresh-token-123", testEvent)).thenReturn("google-event-123");
+        int attempted = calendarSyncService.syncUserDueEvents(testUser);
+        assertThat(attempted).isEqualTo(1);
+        verify(calendarEventService).markEventAsSynced(testEvent, "google-event-123");
+    }
+    @Test
+    void syncUserDueEvents_WhenNotConnected_ReturnsZero() {
+        when(calendarIntegrationService.getUserIntegration(testUser)).thenReturn(Optional.empty());
+        assertThat(calendarSyncService.syncUserDueEvents(testUser)).isZero();
+        verify(calendarEventService, never()).getUserDueSyncEvents(anyLong(), anyInt());
+    }
 }
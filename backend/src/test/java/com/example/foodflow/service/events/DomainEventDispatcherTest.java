@@ -0,0 +1,275 @@
+package com.example.foodflow.service.events;
+import com.example.foodflow.model.entity.OutboxEvent;
+import com.example.foodflow.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.assertj.core.groups.Tuple;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class DomainEventDispatcherTest {
+    @Mock
+    private OutboxEventRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final Map<Long, OutboxEvent> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Queue<Runnable> submitted = new ArrayDeque<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T12:00:00Z"));
+    private final RecordingHandler notifications = new RecordingHandler("notifications",
+            Set.of(DonationPosted.TYPE, DonationClaimed.TYPE));
+    private final RecordingHandler gamification = new RecordingHandler("gamification", Set.of(DonationClaimed.TYPE));
+    private SimpleMeterRegistry meterRegistry;
+    private DomainEventDispatcher dispatcher;
+    private DomainEventOutbox outbox;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backRepositoryWithMap();
+        Map<String, Object> beans = new LinkedHashMap<>();
+        beans.put("notifications", notifications);
+        beans.put("gamification", gamification);
+        ObjectProvider<DomainEventHandler> handlers = new StaticListableBeanFactory(beans)
+                .getBeanProvider(DomainEventHandler.class);
+        TaskExecutor deferred = submitted::add;
+        dispatcher = new DomainEventDispatcher(repository, handlers, deferred, transactionManager, meterRegistry, clock);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseDelayMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "retryMaxDelayMs", 60000L);
+        outbox = new DomainEventOutbox(repository, handlers, dispatcher, clock);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    @Test
+    void record_WritesOneRowPerSubscribedHandlerAndDispatchesOnlyAfterCommit() {
+        outbox.record(new DonationClaimed(7L, 3L, 2L));
+        outbox.record(new DonationPosted(4L, 1L));
+        assertThat(table.values()).extracting(OutboxEvent::getHandler, OutboxEvent::getOrderingKey).containsExactly(
+                Tuple.tuple("notifications", "notifications:post:3"),
+                Tuple.tuple("gamification", "gamification:post:3"),
+                Tuple.tuple("notifications", "notifications:post:4"));
+        assertThat(submitted).isEmpty();
+        commit();
+        runSubmitted();
+        assertThat(notifications.received).containsExactly(new DonationClaimed(7L, 3L, 2L), new DonationPosted(4L, 1L));
+        assertThat(gamification.received).containsExactly(new DonationClaimed(7L, 3L, 2L));
+        assertThat(table.values()).allMatch(OutboxEvent::getProcessed);
+        assertThat(meterRegistry.get("foodflow.domain_events.lag").tag("handler", "notifications").timer().count())
+                .isEqualTo(2L);
+    }
+    @Test
+    void rolledBackTransaction_NeverDispatches() {
+        outbox.record(new DonationPosted(4L, 1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(submitted).isEmpty();
+    }
+    @Test
+    void failingHandlerIsRetriedWithBackoffWithoutHoldingUpOtherHandlers() {
+        notifications.failuresLeft = 1;
+        outbox.record(new DonationClaimed(7L, 3L, 2L));
+        outbox.record(new DonationClaimed(8L, 3L, 5L));
+        commit();
+        runSubmitted();
+        // Gamification got both; notifications stopped at the failed event so order is kept
+        assertThat(gamification.received).hasSize(2);
+        assertThat(notifications.received).isEmpty();
+        OutboxEvent failed = row("notifications", 7L);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isEqualTo(LocalDateTime.now(clock).plusSeconds(1));
+        dispatcher.drainDueWork();
+        runSubmitted();
+        assertThat(notifications.received).isEmpty();
+        clock.advance(Duration.ofSeconds(1));
+        dispatcher.drainDueWork();
+        runSubmitted();
+        assertThat(notifications.received).extracting(event -> ((DonationClaimed) event).claimId())
+                .containsExactly(7L, 8L);
+        assertThat(events("notifications", "retried")).isEqualTo(1.0);
+        assertThat(events("gamification", "processed")).isEqualTo(2.0);
+    }
+    @Test
+    void eventIsDeadLetteredAfterMaxAttemptsAndUnblocksItsKey() {
+        notifications.failuresLeft = Integer.MAX_VALUE;
+        outbox.record(new DonationPosted(4L, 1L));
+        commit();
+        runSubmitted();
+        for (int i = 0; i < 2; i++) {
+            clock.advance(Duration.ofMinutes(1));
+            dispatcher.drainDueWork();
+            runSubmitted();
+        }
+        OutboxEvent dead = row("notifications", 4L);
+        assertThat(dead.getDeadLettered()).isTrue();
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getErrorMessage()).contains("boom");
+        notifications.failuresLeft = 0;
+        outbox.record(new DonationPosted(4L, 1L));
+        commit();
+        runSubmitted();
+        assertThat(notifications.received).hasSize(1);
+        assertThat(events("notifications", "dead_lettered")).isEqualTo(1.0);
+    }
+    @Test
+    void rowForUnknownHandlerIsDeadLetteredWithoutRetrying() {
+        OutboxEvent orphan = new OutboxEvent();
+        orphan.setEventType(DonationPosted.TYPE);
+        orphan.setHandler("retired-handler");
+        orphan.setOrderingKey("retired-handler:post:4");
+        orphan.setPayload("{\"surplusPostId\":4,\"donorId\":1}");
+        orphan.setCreatedAt(LocalDateTime.now(clock));
+        repository.saveAll(List.of(orphan));
+        dispatcher.drainDueWork();
+        runSubmitted();
+        assertThat(orphan.getDeadLettered()).isTrue();
+        assertThat(orphan.getAttempts()).isEqualTo(1);
+    }
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(dispatcher.backoffMillis(1)).isEqualTo(1000L);
+        assertThat(dispatcher.backoffMillis(3)).isEqualTo(4000L);
+        assertThat(dispatcher.backoffMillis(30)).isEqualTo(60000L);
+    }
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    private void runSubmitted() {
+        Runnable task;
+        while ((task = submitted.poll()) != null) {
+            task.run();
+        }
+    }
+    private OutboxEvent row(String handler, Long id) {
+        return table.values().stream()
+                .filter(e -> e.getHandler().equals(handler) && e.getPayload().contains(":" + id + ","))
+                .findFirst().orElseThrow();
+    }
+    private double events(String handler, String outcome) {
+        return meterRegistry.get("foodflow.domain_events.events")
+                .tag("handler", handler).tag("outcome", outcome).counter().count();
+    }
+    private boolean isPending(OutboxEvent event) {
+        return !event.getProcessed() && !event.getDeadLettered();
+    }
+    private void backRepositoryWithMap() {
+        lenient().when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<OutboxEvent> rows = inv.getArgument(0);
+            rows.forEach(row -> {
+                row.setId(ids.incrementAndGet());
+                table.put(row.getId(), row);
+            });
+            return rows;
+        });
+        lenient().when(repository.findPendingByOrderingKey(anyString(), any(Pageable.class))).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return table.values().stream()
+                    .filter(e -> e.getOrderingKey().equals(key) && isPending(e))
+                    .sorted(Comparator.comparing(OutboxEvent::getId))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        lenient().when(repository.findDueOrderingKeys(any(LocalDateTime.class), any(Pageable.class))).thenAnswer(inv -> {
+            LocalDateTime now = inv.getArgument(0);
+            return table.values().stream()
+                    .filter(e -> isPending(e) && (e.getNextAttemptAt() == null || !e.getNextAttemptAt().isAfter(now)))
+                    .sorted(Comparator.comparing(OutboxEvent::getId))
+                    .map(OutboxEvent::getOrderingKey)
+                    .distinct()
+                    .toList();
+        });
+        lenient().when(repository.lockPendingById(any())).thenAnswer(inv ->
+                Optional.ofNullable(table.get(inv.<Long>getArgument(0))).filter(this::isPending));
+        lenient().when(repository.findById(any())).thenAnswer(inv ->
+                Optional.ofNullable(table.get(inv.<Long>getArgument(0))));
+        lenient().when(repository.save(any(OutboxEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(repository.countPending()).thenAnswer(inv ->
+                table.values().stream().filter(this::isPending).count());
+    }
+    private static final class RecordingHandler implements DomainEventHandler {
+        private final String name;
+        private final Set<String> eventTypes;
+        private final List<DomainEvent> received = new ArrayList<>();
+        private int failuresLeft;
+        RecordingHandler(String name, Set<String> eventTypes) {
+            this.name = name;
+            this.eventTypes = eventTypes;
+        }
+        @Override
+        public String name() {
+            return name;
+        }
+        @Override
+        public Set<String> eventTypes() {
+            return eventTypes;
+        }
+        @Override
+        public void handle(DomainEvent event) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("boom");
+            }
+            received.add(event);
+        }
+    }
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
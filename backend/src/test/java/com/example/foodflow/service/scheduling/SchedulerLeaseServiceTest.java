@@ -0,0 +1,161 @@
+package com.example.foodflow.service.scheduling;
+import com.example.foodflow.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+@ExtendWith(MockitoExtension.class)
+class SchedulerLeaseServiceTest {
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+    private static final LocalDateTime NOW_UTC = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+    @Mock
+    private SchedulerLeaseRepository leaseRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private SchedulerLeaseService leaseService;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leaseService = newService(true);
+    }
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    private SchedulerLeaseService newService(boolean enabled) {
+        return new SchedulerLeaseService(leaseRepository, transactionManager, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC), "node-a", enabled, 120000);
+    }
+    @Test
+    void runExclusively_runsTaskAndKeepsLeaseForMostOfTheInterval() {
+        when(leaseRepository.acquireIfExpired(eq("job"), eq(NOW_UTC), eq(NOW_UTC.plusMinutes(2)), eq("node-a")))
+                .thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        boolean ran = leaseService.runExclusively("job", Duration.ofSeconds(60), runs::incrementAndGet);
+        assertThat(ran).isTrue();
+        assertThat(runs).hasValue(1);
+        // Released no earlier than 80% of the interval after acquisition
+        verify(leaseRepository).releaseUntil("job", NOW_UTC.plusSeconds(48), "node-a");
+        assertThat(meterRegistry.get("foodflow.scheduler.runs").tag("job", "job").tag("outcome", "ran")
+                .counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void runExclusively_skipsWhenAnotherNodeHoldsTheLease() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(0);
+        when(leaseRepository.existsById("job")).thenReturn(true);
+        AtomicInteger runs = new AtomicInteger();
+        boolean ran = leaseService.runExclusively("job", Duration.ofSeconds(60), runs::incrementAndGet);
+        assertThat(ran).isFalse();
+        assertThat(runs).hasValue(0);
+        verify(leaseRepository, never()).insertLease(anyString(), any(), any(), anyString());
+        verify(leaseRepository, never()).releaseUntil(anyString(), any(), anyString());
+        assertThat(meterRegistry.get("foodflow.scheduler.runs").tag("outcome", "skipped")
+                .counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void runExclusively_createsLeaseOnFirstRun() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(0);
+        when(leaseRepository.existsById("job")).thenReturn(false);
+        when(leaseRepository.insertLease("job", NOW_UTC, NOW_UTC.plusMinutes(2), "node-a")).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        assertThat(leaseService.runExclusively("job", Duration.ofSeconds(60), runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(1);
+    }
+    @Test
+    void runExclusively_skipsWhenAnotherNodeCreatedTheLeaseConcurrently() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(0);
+        when(leaseRepository.existsById("job")).thenReturn(false);
+        when(leaseRepository.insertLease(anyString(), any(), any(), anyString()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        AtomicInteger runs = new AtomicInteger();
+        assertThat(leaseService.runExclusively("job", Duration.ofSeconds(60), runs::incrementAndGet)).isFalse();
+        assertThat(runs).hasValue(0);
+    }
+    @Test
+    void runExclusively_releasesLeaseWhenTaskFails() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(1);
+        try {
+            leaseService.runExclusively("job", Duration.ofSeconds(60), () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // propagated to the scheduler
+        }
+        verify(leaseRepository).releaseUntil(eq("job"), any(), eq("node-a"));
+    }
+    @Test
+    void runExclusively_insideTransaction_keepsLeaseUntilTheTransactionCompletes() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(1);
+        when(leaseRepository.renewIfHeld("job", NOW_UTC, NOW_UTC.plusMinutes(2), "node-a")).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(leaseService.runExclusively("job", Duration.ofSeconds(60), () -> { })).isTrue();
+        verify(leaseRepository, never()).releaseUntil(anyString(), any(), anyString());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        verify(leaseRepository).releaseUntil("job", NOW_UTC.plusSeconds(48), "node-a");
+    }
+    @Test
+    void runExclusively_insideTransaction_refusesToCommitOnceTheLeaseIsLost() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString())).thenReturn(1);
+        when(leaseRepository.renewIfHeld(anyString(), any(), any(), anyString())).thenReturn(0);
+        TransactionSynchronizationManager.initSynchronization();
+        leaseService.runExclusively("job", Duration.ofSeconds(60), () -> { });
+        TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+        assertThatThrownBy(() -> synchronization.beforeCommit(false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("job");
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        verify(leaseRepository).releaseUntil(eq("job"), any(), eq("node-a"));
+        assertThat(meterRegistry.get("foodflow.scheduler.runs").tag("outcome", "lease_lost")
+                .counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void runSharded_runsOnlyTheShardsThisNodeAcquires() {
+        when(leaseRepository.acquireIfExpired(anyString(), any(), any(), anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).equals("job#1/3") ? 0 : 1);
+        when(leaseRepository.existsById("job#1/3")).thenReturn(true);
+        List<Integer> shards = new ArrayList<>();
+        int ran = leaseService.runSharded("job", 3, Duration.ofSeconds(60), shards::add);
+        assertThat(ran).isEqualTo(2);
+        assertThat(shards).containsExactlyInAnyOrder(0, 2);
+    }
+    @Test
+    void disabled_runsTaskWithoutTouchingLeases() {
+        SchedulerLeaseService disabled = newService(false);
+        List<Integer> shards = new ArrayList<>();
+        int ran = disabled.runSharded("job", 2, Duration.ofSeconds(60), shards::add);
+        disabled.releaseAll();
+        assertThat(ran).isEqualTo(2);
+        assertThat(shards).containsExactlyInAnyOrder(0, 1);
+        verifyNoInteractions(leaseRepository, transactionManager);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.foodflow.service.sms;
+import com.example.foodflow.service.BusinessMetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+@ExtendWith(MockitoExtension.class)
+class SmsDispatcherTest {
+    private static final String PHONE = "+15145550100";
+    @Mock
+    private TaskScheduler scheduler;
+    @Mock
+    private BusinessMetricsService businessMetricsService;
+    private MeterRegistry meterRegistry;
+    private FakeSmsTransport transport;
+    private MutableClock clock;
+    private List<ScheduledTask> scheduled;
+    private SmsDispatcher dispatcher;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new FakeSmsTransport();
+        clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+        scheduled = new ArrayList<>();
+        lenient().when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(new ScheduledTask(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        });
+        dispatcher = newDispatcher(3, 10);
+    }
+    private SmsDispatcher newDispatcher(int maxAttempts, int maxPending) {
+        return newDispatcher(maxAttempts, maxPending, 600_000);
+    }
+    private SmsDispatcher newDispatcher(int maxAttempts, int maxPending, long maxDeferMs) {
+        return new SmsDispatcher(transport, scheduler, businessMetricsService, meterRegistry, clock,
+                maxAttempts, 1000, maxPending, 300, 2, 30_000, maxDeferMs);
+    }
+    /** Runs the earliest scheduled task, advancing the clock to its due time. */
+    private void runNext() {
+        ScheduledTask next = scheduled.stream().min((a, b) -> a.at.compareTo(b.at)).orElseThrow();
+        scheduled.remove(next);
+        if (next.at.isAfter(clock.instant())) {
+            clock.set(next.at);
+        }
+        next.task.run();
+    }
+    @Test
+    void dispatch_ReturnsImmediatelyWithoutCallingProvider() {
+        assertThat(dispatcher.dispatch(PHONE, "hello")).isTrue();
+        assertThat(transport.getAttempts()).isZero();
+        assertThat(scheduled).hasSize(1);
+        assertThat(dispatcher.getPendingCount()).isEqualTo(1);
+    }
+    @Test
+    void dispatch_DeliversOnScheduler() {
+        dispatcher.dispatch(PHONE, "hello");
+        runNext();
+        assertThat(transport.getSent()).containsExactly(new FakeSmsTransport.SentSms(PHONE, "hello"));
+        assertThat(dispatcher.getPendingCount()).isZero();
+        verify(businessMetricsService).incrementSmsSent();
+    }
+    @Test
+    void dispatch_FailureSchedulesBackoffRetryInsteadOfSleeping() {
+        transport.failNext(1);
+        dispatcher.dispatch(PHONE, "hello");
+        runNext();
+        assertThat(scheduled).hasSize(1);
+        assertThat(Duration.between(clock.instant(), scheduled.get(0).at)).isEqualTo(Duration.ofMillis(1000));
+        runNext();
+        assertThat(transport.getSent()).hasSize(1);
+        verify(businessMetricsService).incrementSmsSent();
+    }
+    @Test
+    void dispatch_GivesUpAfterMaxAttempts() {
+        transport.failNext(10);
+        dispatcher = newDispatcher(2, 10);
+        dispatcher.dispatch(PHONE, "hello");
+        runNext();
+        runNext();
+        assertThat(scheduled).isEmpty();
+        assertThat(transport.getAttempts()).isEqualTo(2);
+        assertThat(dispatcher.getPendingCount()).isZero();
+        verify(businessMetricsService).incrementSmsFailed();
+    }
+    @Test
+    void dispatch_DuplicateWithinWindowIsDropped() {
+        dispatcher.dispatch(PHONE, "hello");
+        dispatcher.dispatch(PHONE, "hello");
+        dispatcher.dispatch("+15145550101", "hello");
+        assertThat(scheduled).hasSize(2);
+        assertThat(meterRegistry.get("sms.dispatch.deduplicated").counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void dispatch_RejectsWhenQueueFull() {
+        dispatcher = newDispatcher(3, 1);
+        assertThat(dispatcher.dispatch(PHONE, "one")).isTrue();
+        assertThat(dispatcher.dispatch(PHONE, "two")).isFalse();
+        assertThat(meterRegistry.get("sms.dispatch.rejected").counter().count()).isEqualTo(1.0);
+    }
+    @Test
+    void circuitBreaker_OpensAfterConsecutiveFailuresAndShortCircuits() {
+        transport.failNext(2);
+        dispatcher.dispatch("+15145550101", "a");
+        dispatcher.dispatch("+15145550102", "b");
+        runNext();
+        runNext();
+        assertThat(dispatcher.getCircuitState()).isEqualTo(SmsCircuitBreaker.State.OPEN);
+        int attemptsBefore = transport.getAttempts();
+        dispatcher.dispatch("+15145550103", "c");
+        // The new message is not sent to the provider while the breaker is open ...
+        ScheduledTask immediate = scheduled.stream().filter(t -> !t.at.isAfter(clock.instant())).findFirst().orElseThrow();
+        scheduled.remove(immediate);
+        immediate.task.run();
+        assertThat(transport.getAttempts()).isEqualTo(attemptsBefore);
+        // ... and is deferred until the breaker would let a probe through
+        assertThat(scheduled).anyMatch(t -> !t.at.isBefore(clock.instant().plusSeconds(30)));
+    }
+    @Test
+    void circuitBreaker_ClosesAfterSuccessfulProbe() {
+        transport.failNext(2);
+        dispatcher.dispatch("+15145550101", "a");
+        dispatcher.dispatch("+15145550102", "b");
+        runNext();
+        runNext();
+        clock.set(clock.instant().plusSeconds(31));
+        while (!scheduled.isEmpty()) {
+            runNext();
+        }
+        assertThat(dispatcher.getCircuitState()).isEqualTo(SmsCircuitBreaker.State.CLOSED);
+        assertThat(transport.getSent()).hasSize(2);
+    }
+    @Test
+    void circuitBreaker_DeferralsDoNotUseUpTheAttemptBudget() {
+        dispatcher = newDispatcher(1, 10);
+        transport.failNext(2);
+        dispatcher.dispatch("+15145550101", "a");
+        dispatcher.dispatch("+15145550102", "b");
+        runNext();
+        runNext();
+        assertThat(dispatcher.getCircuitState()).isEqualTo(SmsCircuitBreaker.State.OPEN);
+        dispatcher.dispatch("+15145550103", "c");
+        // Short-circuited on its first run, then sent as the probe once the breaker half-opens
+        while (!scheduled.isEmpty()) {
+            runNext();
+        }
+        assertThat(transport.getSent()).containsExactly(new FakeSmsTransport.SentSms("+15145550103", "c"));
+        assertThat(meterRegistry.counter("sms.dispatch.circuit.short_circuited").count()).isEqualTo(1.0);
+        assertThat(dispatcher.getPendingCount()).isZero();
+    }
+    @Test
+    void circuitBreaker_AbandonsMessagesThatCannotBeSentBeforeTheirDeadline() {
+        dispatcher = newDispatcher(3, 10, 10_000);
+        transport.failNext(2);
+        dispatcher.dispatch("+15145550101", "a");
+        dispatcher.dispatch("+15145550102", "b");
+        runNext();
+        runNext();
+        dispatcher.dispatch("+15145550103", "c");
+        ScheduledTask immediate = scheduled.stream().filter(t -> !t.at.isAfter(clock.instant())).findFirst().orElseThrow();
+        scheduled.remove(immediate);
+        int scheduledBefore = scheduled.size();
+        immediate.task.run();
+        // The breaker stays open for 30s, past c's 10s deadline, so c is dropped instead of deferred
+        assertThat(scheduled).hasSize(scheduledBefore);
+        assertThat(dispatcher.getPendingCount()).isEqualTo(2);
+        verify(businessMetricsService).incrementSmsFailed();
+    }
+    private record ScheduledTask(Runnable task, Instant at) {}
+    private static final class MutableClock extends Clock {
+        private Instant now;
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+        void set(Instant instant) {
+            this.now = instant;
+        }
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
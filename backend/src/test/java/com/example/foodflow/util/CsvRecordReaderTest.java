@@ -0,0 +1,37 @@
+package com.example.foodflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_ReadsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\uFEFFtitle,notes\r\n\"Bread, rye\",\"said \"\"hi\"\"\nthen left\"\r\nlast,\n"));
+        assertThat(reader.next()).containsExactly("title", "notes");
+        assertThat(reader.next()).containsExactly("Bread, rye", "said \"hi\"\nthen left");
+        assertThat(reader.getLineNumber()).isEqualTo(4);
+        assertThat(reader.next()).containsExactly("last", "");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_HandlesALastLineWithoutLineBreak() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\rc,d"));
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_RejectsAnUnterminatedQuote() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,field\n"));
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+    }
+}
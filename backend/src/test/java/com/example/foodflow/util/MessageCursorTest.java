@@ -0,0 +1,43 @@
+package com.example.foodflow.util;
+
+import com.example.foodflow.exception.BusinessException;
+import com.example.foodflow.model.entity.Message;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageCursorTest {
+
+    @Test
+    void encode_RoundTripsWithFullPrecision() {
+        MessageCursor cursor = new MessageCursor(LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123456000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(MessageCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void encode_UnsavedMessageHasNoCursor() {
+        assertThat(MessageCursor.encode(new Message())).isNull();
+    }
+
+    @Test
+    void decode_RejectsMalformedValues() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2026-03-01T12:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|42".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-03-01T12:00|abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String value : new String[] {null, " ", "%%%", noSeparator, badDate, badId}) {
+            assertThatThrownBy(() -> MessageCursor.decode(value))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("error.message.invalid_cursor");
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.foodflow.util;
 
+import com.example.foodflow.model.dto.DonationExportRow;
 import com.example.foodflow.model.dto.ImpactMetricsDTO;
+import com.example.foodflow.model.types.PostStatus;
+import com.example.foodflow.model.types.Quantity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Unit tests for PdfExportUtils
@@ -167,4 +174,38 @@ class PdfExportUtilsTest {
         assertTrue(pdf1.length > 0);
         assertTrue(pdf2.length > 0);
     }
+
+    @Test
+    @DisplayName("Should stream a large donation detail table without closing the target stream")
+    void shouldStreamDetailRowsIntoOpenStream() throws IOException {
+        List<DonationExportRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 250; id++) {
+            rows.add(row(id));
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        PdfExportUtils.writePdf(testMetrics, rows, outputStream);
+
+        byte[] pdfData = outputStream.toByteArray();
+        assertTrue(new String(pdfData, 0, 4).startsWith("%PDF"));
+        assertTrue(pdfData.length > PdfExportUtils.generatePdf(testMetrics).length);
+        assertFalse(closed.get());
+    }
+
+    private static DonationExportRow row(long id) {
+        return new DonationExportRow() {
+            public Long getId() { return id; }
+            public String getTitle() { return "Donation " + id; }
+            public PostStatus getStatus() { return PostStatus.COMPLETED; }
+            public Double getQuantityValue() { return 2.5; }
+            public Quantity.Unit getQuantityUnit() { return Quantity.Unit.KILOGRAM; }
+            public LocalDateTime getCreatedAt() { return LocalDateTime.of(2025, 1, 1, 12, 0); }
+        };
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.foodflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextUtilsTest {
+
+    @Test
+    void containsPattern_LowerCasesAndEscapesLikeWildcards() {
+        assertThat(SearchTextUtils.containsPattern("  Green  Grocer ")).isEqualTo("%green grocer%");
+        assertThat(SearchTextUtils.containsPattern("100%_off\\")).isEqualTo("%100\\%\\_off\\\\%");
+    }
+
+    @Test
+    void highlight_MarksEveryMatchAndEscapesHtml() {
+        assertThat(SearchTextUtils.highlight("Green <Grocer> & green", "green"))
+                .isEqualTo("<mark>Green</mark> &lt;Grocer&gt; &amp; <mark>green</mark>");
+    }
+
+    @Test
+    void highlight_PrefersThePhraseOverItsWords() {
+        assertThat(SearchTextUtils.highlight("Fresh bread at the bread bank", "bread bank"))
+                .isEqualTo("Fresh <mark>bread</mark> at the <mark>bread bank</mark>");
+    }
+
+    @Test
+    void highlight_WithoutUsableTokensOnlyEscapes() {
+        assertThat(SearchTextUtils.highlight("a<b", "a")).isEqualTo("a&lt;b");
+        assertThat(SearchTextUtils.highlight(null, "green")).isNull();
+    }
+
+    @Test
+    void snippet_CentresOnTheFirstMatch() {
+        String text = "x".repeat(300) + " surplus apples " + "y".repeat(300);
+        String snippet = SearchTextUtils.snippet(text, "apples", 80);
+        assertThat(snippet).startsWith("…").endsWith("…").contains("<mark>apples</mark>");
+        assertThat(SearchTextUtils.snippet("short text", "text", 80)).isEqualTo("short <mark>text</mark>");
+    }
+
+    @Test
+    void textSearchConfig_MapsShippedLanguagesToStemmers() {
+        assertThat(SearchTextUtils.textSearchConfig("fr")).isEqualTo("french");
+        assertThat(SearchTextUtils.textSearchConfig("pt-BR")).isEqualTo("portuguese");
+        assertThat(SearchTextUtils.textSearchConfig("ar")).isEqualTo("arabic");
+        assertThat(SearchTextUtils.textSearchConfig("zh")).isEqualTo("simple");
+        assertThat(SearchTextUtils.textSearchConfig(null)).isEqualTo("english");
+    }
+
+    @Test
+    void needsSubstringMatch_OnlyForScriptsWithoutWordSpacing() {
+        assertThat(SearchTextUtils.needsSubstringMatch("米饭")).isTrue();
+        assertThat(SearchTextUtils.needsSubstringMatch("riz au lait")).isFalse();
+        assertThat(SearchTextUtils.needsSubstringMatch("أرز")).isFalse();
+    }
+
+    @Test
+    void containsAllWords_RequiresEveryWord() {
+        assertThat(SearchTextUtils.containsAllWords("Halal chicken sandwiches", "halal Sandwich")).isTrue();
+        assertThat(SearchTextUtils.containsAllWords("Halal chicken sandwiches", "halal rice")).isFalse();
+        assertThat(SearchTextUtils.containsAllWords(null, " ")).isTrue();
+    }
+}
@@ -2,11 +2,14 @@ package com.example.foodflow.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class TimezoneResolverTest {
 
@@ -93,4 +96,14 @@ class TimezoneResolverTest {
         assertThat(TimezoneResolver.convertDateTime(LocalDate.now(), null, "UTC", "UTC"))
                 .isNull();
     }
+
+    @Test
+    void zoneOf_ReusesTheParsedZoneAndRejectsInvalidIds() {
+        ZoneId zone = TimezoneResolver.zoneOf("America/Toronto");
+
+        assertThat(zone).isEqualTo(ZoneId.of("America/Toronto"));
+        assertThat(TimezoneResolver.zoneOf("America/Toronto")).isSameAs(zone);
+        assertThatThrownBy(() -> TimezoneResolver.zoneOf("Invalid/Timezone"))
+                .isInstanceOf(DateTimeException.class);
+    }
 }
@@ -0,0 +1,112 @@
+package com.example.foodflow.websocket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+@ExtendWith(MockitoExtension.class)
+class PresenceAwareMessagingTemplateTest {
+    @Mock
+    private MessageChannel brokerChannel;
+    @Mock
+    private SimpUserRegistry userRegistry;
+    @Mock
+    private TaskScheduler scheduler;
+    private SimpleMeterRegistry meterRegistry;
+    private PresenceAwareMessagingTemplate template;
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(brokerChannel.send(any(Message.class))).thenReturn(true);
+        lenient().when(userRegistry.getUser(anyString())).thenReturn(null);
+        lenient().when(userRegistry.getUser("1")).thenReturn(mock(SimpUser.class));
+        template = new PresenceAwareMessagingTemplate(brokerChannel, userRegistry, scheduler, meterRegistry, 50, 3);
+    }
+    @Test
+    void offlineUsersAreSkippedBeforeAnythingIsQueued() {
+        template.convertAndSendToUser("2", "/queue/claims", Map.of("claimId", 1));
+        verifyNoInteractions(brokerChannel, scheduler);
+        assertThat(events("offline")).isEqualTo(1.0);
+    }
+    @Test
+    void singleEventIsSentUnchangedWhenTheWindowCloses() {
+        template.convertAndSendToUser("1", "/queue/claims", Map.of("claimId", 1));
+        verify(brokerChannel, never()).send(any(Message.class));
+        runScheduledFlush();
+        Message<?> sent = sentMessages(1).get(0);
+        assertThat(sent.getPayload()).isEqualTo(Map.of("claimId", 1));
+        assertThat(SimpMessageHeaderAccessor.getDestination(sent.getHeaders())).isEqualTo("/user/1/queue/claims");
+        assertThat(SimpMessageHeaderAccessor.wrap(sent).getFirstNativeHeader(
+                PresenceAwareMessagingTemplate.COALESCED_HEADER)).isNull();
+    }
+    @Test
+    void burstForTheSameDestinationIsCoalescedIntoOneFrame() {
+        template.convertAndSendToUser("1", "/queue/claims", "a");
+        template.convertAndSendToUser("1", "/queue/claims", "b");
+        template.convertAndSendToUser("1", "/queue/achievements", "c");
+        runScheduledFlushes(2);
+        List<Message<?>> sent = sentMessages(2);
+        Message<?> claims = sent.stream()
+                .filter(m -> "/user/1/queue/claims".equals(SimpMessageHeaderAccessor.getDestination(m.getHeaders())))
+                .findFirst().orElseThrow();
+        assertThat(claims.getPayload()).isEqualTo(List.of("a", "b"));
+        assertThat(SimpMessageHeaderAccessor.wrap(claims).getFirstNativeHeader(
+                PresenceAwareMessagingTemplate.COALESCED_HEADER)).isEqualTo("true");
+        assertThat(meterRegistry.get("foodflow.websocket.frames").counter().count()).isEqualTo(2.0);
+        assertThat(events("delivered")).isEqualTo(3.0);
+    }
+    @Test
+    void oldestEventsAreDroppedWhenTheUserBacklogIsFull() {
+        for (int i = 0; i < 5; i++) {
+            template.convertAndSendToUser("1", "/queue/claims", i);
+        }
+        runScheduledFlush();
+        assertThat(sentMessages(1).get(0).getPayload()).isEqualTo(List.of(2, 3, 4));
+        assertThat(events("dropped")).isEqualTo(2.0);
+    }
+    @Test
+    void zeroWindowSendsImmediately() {
+        PresenceAwareMessagingTemplate immediate =
+                new PresenceAwareMessagingTemplate(brokerChannel, userRegistry, scheduler, meterRegistry, 0, 3);
+        immediate.convertAndSendToUser("1", "/queue/claims", "a");
+        assertThat(sentMessages(1).get(0).getPayload()).isEqualTo("a");
+        verifyNoInteractions(scheduler);
+    }
+    private void runScheduledFlush() {
+        runScheduledFlushes(1);
+    }
+    private void runScheduledFlushes(int count) {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(count)).schedule(flush.capture(), any(Instant.class));
+        flush.getAllValues().forEach(Runnable::run);
+    }
+    private List<Message<?>> sentMessages(int count) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<Message<?>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Message.class);
+        verify(brokerChannel, times(count)).send(captor.capture());
+        return captor.getAllValues();
+    }
+    private double events(String outcome) {
+        return meterRegistry.get("foodflow.websocket.events").tag("outcome", outcome).counter().count();
+    }
+}
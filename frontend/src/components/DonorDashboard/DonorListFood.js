@@ -260,6 +260,8 @@ export default function DonorListFood() {
   const [sortBy, setSortBy] = useState('date'); // "date" or "status"
   const [isSortDropdownOpen, setIsSortDropdownOpen] = useState(false);
   const [openActionMenuId, setOpenActionMenuId] = useState(null);
+  // Finished donations older than the archive horizon are only loaded on request
+  const [includeArchived, setIncludeArchived] = useState(false);
 
   // Report and Feedback modal states
   const [showReportModal, setShowReportModal] = useState(false);
@@ -319,10 +321,11 @@ export default function DonorListFood() {
     return () => document.removeEventListener('mousedown', handleClickOutside);
   }, [openActionMenuId]);
 
-  const fetchMyPosts = async () => {
+  const fetchMyPosts = async (withArchived = includeArchived) => {
     try {
       setLoading(true);
-      const response = await surplusAPI.getMyPosts();
+      const response = await surplusAPI.getMyPosts(withArchived);
+      setIncludeArchived(withArchived);
       // Sort by newest first (default)
       const sortedData = sortPosts(response.data, sortBy);
       setItems(sortedData);
@@ -1608,6 +1611,17 @@ export default function DonorListFood() {
         </>
       )}
 
+      {!includeArchived && !showTutorialPickupDemo && (
+        <div className="show-older-donations">
+          <button
+            className="donation-action-button secondary"
+            onClick={() => fetchMyPosts(true)}
+          >
+            {t('donorListFood.showOlderDonations')}
+          </button>
+        </div>
+      )}
+
       <ConfirmPickupModal
         isOpen={isPickupModalOpen}
         onClose={handleClosePickupModal}
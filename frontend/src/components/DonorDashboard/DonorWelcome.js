@@ -36,8 +36,8 @@ export default function DonorWelcome() {
 
   const fetchDonorData = async () => {
     try {
-      // Fetch all donations from the backend
-      const response = await surplusAPI.getMyPosts();
+      // Fetch all donations from the backend, archived ones included, for all-time totals
+      const response = await surplusAPI.getMyPosts(true);
 
       if (response && response.data) {
         const donations = response.data;
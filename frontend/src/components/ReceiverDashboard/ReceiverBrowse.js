@@ -22,6 +22,7 @@ import { useLoadScript } from '@react-google-maps/api';
 import { useLocation, useNavigate } from 'react-router-dom';
 import {
   default as api,
+  CARD_FIELDS,
   surplusAPI,
   recommendationAPI,
   conversationAPI,
@@ -136,7 +137,7 @@ export default function ReceiverBrowse() {
   const fetchDonations = useCallback(async () => {
     setLoading(true);
     try {
-      const { data } = await surplusAPI.list();
+      const { data } = await surplusAPI.list(CARD_FIELDS);
       const availableItems = Array.isArray(data) ? data : [];
 
       // Add mock data for testing recommended tags
@@ -154,7 +155,7 @@ export default function ReceiverBrowse() {
 
   const fetchSavedDonations = useCallback(async () => {
     try {
-      const response = await savedDonationAPI.getSavedDonations();
+      const response = await savedDonationAPI.getSavedDonations(CARD_FIELDS);
       const savedDonations = Array.isArray(response.data) ? response.data : [];
       const availableSavedDonations = savedDonations.filter(
         donation => normalizeStatus(donation?.status) === 'AVAILABLE'
@@ -178,10 +179,10 @@ export default function ReceiverBrowse() {
 
         let data;
         if (hasActiveFilters) {
-          const response = await surplusAPI.search(filterCriteria);
+          const response = await surplusAPI.search(filterCriteria, CARD_FIELDS);
           data = response.data;
         } else {
-          const response = await surplusAPI.list();
+          const response = await surplusAPI.list(CARD_FIELDS);
           data = response.data;
         }
 
@@ -22,7 +22,11 @@ import EmailVerificationRequired from '../EmailVerificationRequired';
 import AdminApprovalBanner from '../AdminApprovalBanner';
 import { useOnboarding } from '../../contexts/OnboardingContext';
 import { connectToUserQueue, disconnect } from '../../services/socket';
-import api, { profileAPI, savedDonationAPI } from '../../services/api';
+import api, {
+  CARD_FIELDS,
+  profileAPI,
+  savedDonationAPI,
+} from '../../services/api';
 import { normalizeStatus } from '../../utils/statusUtils';
 import {
   Settings as IconSettings,
@@ -219,7 +223,7 @@ function ReceiverLayoutContent() {
   useEffect(() => {
     const fetchSavedCount = async () => {
       try {
-        const response = await savedDonationAPI.getSavedDonations();
+        const response = await savedDonationAPI.getSavedDonations(CARD_FIELDS);
         const savedItems = Array.isArray(response?.data) ? response.data : [];
         const availableSavedItems = savedItems.filter(
           item => normalizeStatus(item?.status) === 'AVAILABLE'
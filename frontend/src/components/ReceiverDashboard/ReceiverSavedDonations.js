@@ -1,7 +1,7 @@
 import React, { useCallback, useEffect, useState, useContext } from 'react';
 import { useTranslation } from 'react-i18next';
 import { Calendar, Clock, Package, ArrowUpDown } from 'lucide-react';
-import { savedDonationAPI, surplusAPI } from '../../services/api';
+import { CARD_FIELDS, savedDonationAPI, surplusAPI } from '../../services/api';
 import { useTimezone } from '../../contexts/TimezoneContext';
 import {
   formatPickupWindowFromParts,
@@ -41,7 +41,7 @@ export default function ReceiverSavedDonations() {
   const fetchSavedDonations = useCallback(async () => {
     setLoading(true);
     try {
-      const response = await savedDonationAPI.getSavedDonations();
+      const response = await savedDonationAPI.getSavedDonations(CARD_FIELDS);
       const savedItems = Array.isArray(response.data) ? response.data : [];
       const availableSavedItems = savedItems.filter(
         item => normalizeStatus(item?.status) === 'AVAILABLE'
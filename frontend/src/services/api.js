@@ -131,9 +131,18 @@ export const authAPI = {
   resendVerificationEmail: () => api.post('/auth/resend-verification-email'),
 };
 
+// Compact donation cards for list views; single posts keep the full detail
+export const CARD_FIELDS = 'card';
+
 export const surplusAPI = {
-  list: () => api.get('/surplus'), // Just /surplus, not /api/surplus
-  getMyPosts: () => api.get('/surplus/my-posts'),
+  // Just /surplus, not /api/surplus. Pass CARD_FIELDS to get compact cards.
+  list: fields =>
+    fields ? api.get('/surplus', { params: { fields } }) : api.get('/surplus'),
+  // Archived (older finished) posts are only returned when asked for
+  getMyPosts: (includeArchived = false) =>
+    includeArchived
+      ? api.get('/surplus/my-posts', { params: { includeArchived: true } })
+      : api.get('/surplus/my-posts'),
   getPost: id => api.get(`/surplus/${id}`),
   create: data =>
     api.post('/surplus', {
@@ -176,9 +185,10 @@ export const surplusAPI = {
    * @param {string} filters.userLocation.address - Address (optional)
    * @param {number} filters.maxDistanceKm - Maximum distance in kilometers
    * @param {string} filters.status - Post status (default: 'AVAILABLE')
+   * @param {string} [fields] - Field selection, e.g. CARD_FIELDS for compact cards
    * @returns {Promise} API response with filtered surplus posts
    */
-  search: filters => {
+  search: (filters, fields) => {
     const filterRequest = {};
 
     // Only add fields if they have actual values
@@ -210,10 +220,17 @@ export const surplusAPI = {
       filterRequest.maxDistanceKm = parseFloat(filters.distance);
     }
 
+    // Keyword search: the backend ranks matches and returns a small page
+    if (filters.query && filters.query.trim()) {
+      filterRequest.query = filters.query.trim();
+    }
+
     // Always include status
     filterRequest.status = 'AVAILABLE';
 
-    return api.post('/surplus/search', filterRequest);
+    return fields
+      ? api.post('/surplus/search', filterRequest, { params: { fields } })
+      : api.post('/surplus/search', filterRequest);
   },
 
   /**
@@ -243,6 +260,10 @@ export const surplusAPI = {
       params.append('expiryBefore', filters.expiryBefore);
     }
 
+    if (filters.query && filters.query.trim()) {
+      params.append('q', filters.query.trim());
+    }
+
     params.append('status', 'AVAILABLE');
 
     return api.get(`/surplus/search?${params.toString()}`);
@@ -285,9 +306,13 @@ export const claimsAPI = {
 export const savedDonationAPI = {
   /**
    * Get all saved donations for the current user
+   * @param {string} [fields] - Field selection, e.g. CARD_FIELDS for compact cards
    * @returns {Promise} List of saved donations
    */
-  getSavedDonations: () => api.get('/receiver/saved'),
+  getSavedDonations: fields =>
+    fields
+      ? api.get('/receiver/saved', { params: { fields } })
+      : api.get('/receiver/saved'),
 
   /**
    * Save a donation
@@ -324,6 +349,14 @@ export const conversationAPI = {
   getConversations: () => api.get('/conversations'),
   getConversation: convId => api.get(`/conversations/${convId}`),
   getMessages: convId => api.get(`/conversations/${convId}/messages`),
+  getMessageHistory: (convId, before, limit = 20) =>
+    api.get(`/conversations/${convId}/messages/history`, {
+      params: { before, limit },
+    }),
+  getMessagesSince: (convId, cursor, limit = 20) =>
+    api.get(`/conversations/${convId}/messages/since`, {
+      params: { cursor, limit },
+    }),
   markAsRead: convId => api.put(`/conversations/${convId}/read`),
 };
 
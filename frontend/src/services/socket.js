@@ -3,6 +3,29 @@ import SockJS from 'sockjs-client';
 
 let stompClient = null;
 
+/**
+ * Subscribes to a destination, unpacking frames the backend coalesced from a burst of events
+ * (JSON array with a `coalesced: true` header) so the callback still sees one event per message.
+ */
+function subscribeExpanded(destination, callback) {
+  return stompClient.subscribe(destination, msg => {
+    if (msg.body && msg.headers && msg.headers.coalesced === 'true') {
+      try {
+        const events = JSON.parse(msg.body);
+        if (Array.isArray(events)) {
+          events.forEach(event =>
+            callback({ ...msg, body: JSON.stringify(event) })
+          );
+          return;
+        }
+      } catch (e) {
+        console.error('Failed to unpack coalesced frame', e);
+      }
+    }
+    callback(msg);
+  });
+}
+
 /**
  * Connects to the backend STOMP endpoint and subscribes to the user's private queues.
  * @param {Function} onMessage - Called with parsed message payload from /user/queue/messages
@@ -67,7 +90,7 @@ export function connectToUserQueue(
 
         // Subscribe to user-specific message queue
         try {
-          stompClient.subscribe('/user/queue/messages', msg => {
+          subscribeExpanded('/user/queue/messages', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -85,7 +108,7 @@ export function connectToUserQueue(
 
         // Subscribe to claim notifications
         try {
-          stompClient.subscribe('/user/queue/claims', msg => {
+          subscribeExpanded('/user/queue/claims', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -103,7 +126,7 @@ export function connectToUserQueue(
 
         // Subscribe to claim cancellations
         try {
-          stompClient.subscribe('/user/queue/claims/cancelled', msg => {
+          subscribeExpanded('/user/queue/claims/cancelled', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -121,7 +144,7 @@ export function connectToUserQueue(
 
         // Subscribe to new post notifications (for receivers)
         try {
-          stompClient.subscribe('/user/queue/notifications', msg => {
+          subscribeExpanded('/user/queue/notifications', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -139,7 +162,7 @@ export function connectToUserQueue(
 
         // Subscribe to achievement unlock notifications
         try {
-          stompClient.subscribe('/user/queue/achievements', msg => {
+          subscribeExpanded('/user/queue/achievements', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -157,7 +180,7 @@ export function connectToUserQueue(
 
         // Subscribe to review notifications
         try {
-          stompClient.subscribe('/user/queue/reviews', msg => {
+          subscribeExpanded('/user/queue/reviews', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -175,7 +198,7 @@ export function connectToUserQueue(
 
         // Subscribe to donation completion notifications
         try {
-          stompClient.subscribe('/user/queue/donations/completed', msg => {
+          subscribeExpanded('/user/queue/donations/completed', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -202,7 +225,7 @@ export function connectToUserQueue(
 
         // Subscribe to donation ready for pickup notifications
         try {
-          stompClient.subscribe(
+          subscribeExpanded(
             '/user/queue/donations/ready-for-pickup',
             msg => {
               if (msg.body) {
@@ -232,7 +255,7 @@ export function connectToUserQueue(
 
         // Subscribe to donation expired notifications
         try {
-          stompClient.subscribe('/user/queue/donations/expired', msg => {
+          subscribeExpanded('/user/queue/donations/expired', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -256,7 +279,7 @@ export function connectToUserQueue(
 
         // Subscribe to donation status updated notifications (for donors)
         try {
-          stompClient.subscribe('/user/queue/donations/status-updated', msg => {
+          subscribeExpanded('/user/queue/donations/status-updated', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -283,7 +306,7 @@ export function connectToUserQueue(
 
         // Subscribe to donation status changed notifications (for receivers)
         try {
-          stompClient.subscribe('/user/queue/donations/status-changed', msg => {
+          subscribeExpanded('/user/queue/donations/status-changed', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -310,7 +333,7 @@ export function connectToUserQueue(
 
         // Subscribe to verification approved notifications
         try {
-          stompClient.subscribe('/user/queue/verification/approved', msg => {
+          subscribeExpanded('/user/queue/verification/approved', msg => {
             if (msg.body) {
               try {
                 const payload = JSON.parse(msg.body);
@@ -315,6 +315,29 @@ describe('DonorListFood', () => {
     expect(screen.getByText(/loading your donations/i)).toBeInTheDocument();
   });
 
+  test('loads archived donations when asked for older ones', async () => {
+    const user = userEvent.setup();
+    surplusAPI.getMyPosts.mockResolvedValue({ data: [] });
+
+    setup();
+
+    const button = await screen.findByRole('button', {
+      name: /show older donations/i,
+    });
+    expect(surplusAPI.getMyPosts).toHaveBeenCalledWith(false);
+
+    await user.click(button);
+
+    await waitFor(() => {
+      expect(surplusAPI.getMyPosts).toHaveBeenLastCalledWith(true);
+    });
+    await waitFor(() => {
+      expect(
+        screen.queryByRole('button', { name: /show older donations/i })
+      ).not.toBeInTheDocument();
+    });
+  });
+
   test('renders empty state when no donations exist', async () => {
     surplusAPI.getMyPosts.mockResolvedValue({ data: [] });
 
@@ -20,6 +20,7 @@ jest.mock('axios', () => ({
 
 // Load API modules after mocks are set up
 const {
+  CARD_FIELDS,
   authAPI,
   surplusAPI,
   imageAPI,
@@ -356,6 +357,16 @@ describe('API service', () => {
     expect(resp).toEqual({ data: [] });
   });
 
+  test('surplusAPI.list with card fields', async () => {
+    mockGet.mockResolvedValue({ data: [] });
+
+    await surplusAPI.list(CARD_FIELDS);
+
+    expect(mockGet).toHaveBeenCalledWith('/surplus', {
+      params: { fields: 'card' },
+    });
+  });
+
   test('surplusAPI.getMyPosts', async () => {
     mockGet.mockResolvedValue({ data: [] });
 
@@ -365,6 +376,16 @@ describe('API service', () => {
     expect(resp).toEqual({ data: [] });
   });
 
+  test('surplusAPI.getMyPosts including archived posts', async () => {
+    mockGet.mockResolvedValue({ data: [] });
+
+    await surplusAPI.getMyPosts(true);
+
+    expect(mockGet).toHaveBeenCalledWith('/surplus/my-posts', {
+      params: { includeArchived: true },
+    });
+  });
+
   test('surplusAPI.getPost', async () => {
     mockGet.mockResolvedValue({ data: { id: 1 } });
 
@@ -519,6 +540,18 @@ describe('API service', () => {
     expect(resp).toEqual({ data: [] });
   });
 
+  test('surplusAPI.search with card fields', async () => {
+    mockPost.mockResolvedValue({ data: [] });
+
+    await surplusAPI.search({}, CARD_FIELDS);
+
+    expect(mockPost).toHaveBeenCalledWith(
+      '/surplus/search',
+      { status: 'AVAILABLE' },
+      { params: { fields: 'card' } }
+    );
+  });
+
   test('surplusAPI.uploadEvidence', async () => {
     mockPost.mockResolvedValue({
       data: { url: 'http://example.com/evidence.jpg' },
@@ -646,6 +679,16 @@ describe('API service', () => {
     expect(resp).toEqual({ data: [{ id: 1 }] });
   });
 
+  test('savedDonationAPI.getSavedDonations with card fields', async () => {
+    mockGet.mockResolvedValue({ data: [] });
+
+    await savedDonationAPI.getSavedDonations(CARD_FIELDS);
+
+    expect(mockGet).toHaveBeenCalledWith('/receiver/saved', {
+      params: { fields: 'card' },
+    });
+  });
+
   test('savedDonationAPI.save', async () => {
     mockPost.mockResolvedValue({ data: { success: true } });
 
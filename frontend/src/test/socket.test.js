@@ -166,6 +166,24 @@ describe('socket service', () => {
     expect(onNewPost).not.toHaveBeenCalled();
   });
 
+  test('unpacks coalesced frames into one callback per event', () => {
+    const onClaim = jest.fn();
+
+    socketService.connectToUserQueue(jest.fn(), onClaim, null, null, null, null);
+    const client = triggerConnect();
+    client
+      .__getSubscriptions()
+      .find(s => s.destination === '/user/queue/claims')
+      .cb({
+        headers: { coalesced: 'true' },
+        body: JSON.stringify([{ claimId: 1 }, { claimId: 2 }]),
+      });
+
+    expect(onClaim).toHaveBeenCalledTimes(2);
+    expect(onClaim).toHaveBeenNthCalledWith(1, { claimId: 1 });
+    expect(onClaim).toHaveBeenNthCalledWith(2, { claimId: 2 });
+  });
+
   test('appends token to WS URL and sets Authorization header when present', () => {
     localStorage.setItem('jwtToken', 'abc.def.ghi');
     process.env.REACT_APP_WS_URL = 'https://api.example.com/ws';